@@ -0,0 +1,144 @@
+package convex.auth;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import convex.core.data.AString;
+import convex.core.data.Hash;
+
+/**
+ * Bounded cache of verified tokens, keyed by token hash.
+ *
+ * <p>Verifying a bearer token means parsing it and checking an Ed25519
+ * signature, and a UCAN also needs its whole proof chain checked. Clients
+ * present the same token on every request, so the result of a successful
+ * verification (e.g. the authenticated identity, or the validated UCAN) is
+ * kept until the token expires. Failed verifications are never cached.</p>
+ *
+ * <p>Entries are evicted least recently used first once the cache is full.
+ * Cached results can be dropped early with {@link #invalidate(AString)} or
+ * {@link #invalidateIf(Predicate)}, e.g. when a key is rotated. Revocation
+ * policy remains with the caller, which should apply it to cached and newly
+ * verified results alike.</p>
+ *
+ * @param <V> Type of verified result
+ */
+public class TokenCache<V> {
+
+	/** Default maximum number of cached tokens */
+	public static final int DEFAULT_SIZE = 10000;
+
+	/** Lifetime in seconds of cached tokens that have no expiry of their own */
+	public static final long DEFAULT_LIFETIME = 300;
+
+	private record Entry<V>(V value, long expiry) {}
+
+	private final int maxSize;
+
+	// Least recently used first
+	private final LinkedHashMap<Hash, Entry<V>> entries;
+
+	public TokenCache() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Creates a token cache.
+	 * @param maxSize Maximum number of cached tokens
+	 */
+	public TokenCache(int maxSize) {
+		if (maxSize <= 0) throw new IllegalArgumentException("Cache size must be positive");
+		this.maxSize = maxSize;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Hash, Entry<V>> eldest) {
+				return size() > TokenCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Gets the verified result for a token, if cached and still valid.
+	 *
+	 * @param token Encoded token
+	 * @param nowSeconds Current time in unix seconds
+	 * @return Cached result, or null if the token must be verified
+	 */
+	public V get(AString token, long nowSeconds) {
+		if (token == null) return null;
+		Hash key = token.getHash();
+		synchronized (entries) {
+			Entry<V> e = entries.get(key);
+			if (e == null) return null;
+			if (e.expiry < nowSeconds) {
+				entries.remove(key);
+				return null;
+			}
+			return e.value;
+		}
+	}
+
+	/**
+	 * Caches the verified result for a token.
+	 *
+	 * @param token Encoded token
+	 * @param value Verified result
+	 * @param expiry Unix time in seconds after which the token is no longer
+	 *        valid, or null for {@link #DEFAULT_LIFETIME} from now
+	 * @param nowSeconds Current time in unix seconds
+	 */
+	public void put(AString token, V value, Long expiry, long nowSeconds) {
+		if (token == null || value == null) return;
+		long exp = (expiry == null) ? nowSeconds + DEFAULT_LIFETIME : expiry;
+		if (exp < nowSeconds) return;
+		Hash key = token.getHash();
+		synchronized (entries) {
+			entries.put(key, new Entry<>(value, exp));
+		}
+	}
+
+	/**
+	 * Removes a token from the cache, so it is verified again on next use.
+	 * @param token Encoded token
+	 */
+	public void invalidate(AString token) {
+		if (token == null) return;
+		Hash key = token.getHash();
+		synchronized (entries) {
+			entries.remove(key);
+		}
+	}
+
+	/**
+	 * Removes all cached tokens whose verified result matches a predicate,
+	 * e.g. all tokens for an identity.
+	 * @param test Predicate on verified results
+	 */
+	public void invalidateIf(Predicate<V> test) {
+		synchronized (entries) {
+			entries.values().removeIf(e -> test.test(e.value));
+		}
+	}
+
+	/**
+	 * Removes all cached tokens.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Gets the number of cached tokens, including any expired but not yet removed.
+	 * @return Number of cached tokens
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package convex.auth.ucan;
 
+import convex.auth.TokenCache;
 import convex.auth.jwt.JWT;
 import convex.core.data.ACell;
 import convex.core.data.AMap;
@@ -137,6 +138,68 @@ public class UCANValidator {
 		return token;
 	}
 
+	/**
+	 * Validate a JWT-encoded UCAN token as {@link #validateJWT(AString, long)},
+	 * memoising the result for each token in the chain.
+	 *
+	 * <p>A cached token skips signature and chain checks, but its temporal
+	 * bounds are still checked, and its proofs are looked up again so that
+	 * invalidating a proof in the cache also affects every token built on
+	 * it. Only successful validations are cached, each until the token's
+	 * expiry.</p>
+	 *
+	 * @param jwtString JWT-encoded UCAN string
+	 * @param nowSeconds Current time in unix seconds
+	 * @param cache Cache of validated tokens, or null to validate without caching
+	 * @return The validated UCAN on success, null on failure
+	 */
+	public static UCAN validateJWT(AString jwtString, long nowSeconds, TokenCache<UCAN> cache) {
+		if (cache == null) return validateJWT(jwtString, nowSeconds);
+		if (jwtString == null) return null;
+
+		UCAN cached = cache.get(jwtString, nowSeconds);
+		if (cached != null) {
+			if (!checkTemporalBounds(cached, nowSeconds)) return null;
+			// Chain links were checked when cached, but each proof must still be valid
+			AVector<ACell> proofs = cached.getProofs();
+			if (proofs != null) {
+				for (long i = 0; i < proofs.count(); i++) {
+					if (validateJWT(RT.ensureString(proofs.get(i)), nowSeconds, cache) == null) {
+						cache.invalidate(jwtString);
+						return null;
+					}
+				}
+			}
+			return cached;
+		}
+
+		UCAN token = UCAN.fromJWT(jwtString);
+		if (token == null) return null;
+		if (!checkTemporalBounds(token, nowSeconds)) return null;
+
+		AVector<ACell> proofs = token.getProofs();
+		if (proofs != null && proofs.count() > 0) {
+			AString tokenIss = token.getIssuer();
+			long tokenExp = token.getExpiry();
+
+			for (long i = 0; i < proofs.count(); i++) {
+				AString proofJwt = RT.ensureString(proofs.get(i));
+				if (proofJwt == null) return null;
+
+				UCAN proof = validateJWT(proofJwt, nowSeconds, cache);
+				if (proof == null) return null;
+
+				AString proofAud = proof.getAudience();
+				if (proofAud == null || !proofAud.equals(tokenIss)) return null;
+				if (tokenExp > proof.getExpiry()) return null;
+			}
+		}
+
+		// UCAN expiry is exclusive, cache expiry is inclusive
+		cache.put(jwtString, token, token.getExpiry() - 1, nowSeconds);
+		return token;
+	}
+
 	/**
 	 * Re-check only the temporal bounds ({@code exp}, {@code nbf}) of a UCAN
 	 * whose signature and chain have already been verified.
@@ -0,0 +1,263 @@
+package convex.core.cpos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import convex.core.Result;
+import convex.core.cvm.transactions.ATransaction;
+import convex.core.data.ACell;
+import convex.core.data.AVector;
+import convex.core.data.Blob;
+import convex.core.data.Cells;
+import convex.core.data.Format;
+import convex.core.data.Hash;
+import convex.core.data.Ref;
+import convex.core.data.SignedData;
+import convex.core.data.Vectors;
+import convex.core.data.prim.CVMLong;
+import convex.core.exceptions.BadFormatException;
+import convex.core.exceptions.MissingDataException;
+import convex.core.lang.RT;
+import convex.core.store.MemoryStore;
+
+/**
+ * Static utility functions for Merkle inclusion proofs of transaction Results.
+ *
+ * A result commitment is the vector {@code [history-position block-results order]},
+ * where block-results is the vector of BlockResults held by a Peer starting at
+ * block number history-position, and order is the Peer's signed Order. Since
+ * every cell refers to its children by hash, the hash of the commitment fixes
+ * every Result it contains, and the Order's consensus points show which blocks
+ * those Results belong to and whether they are final.
+ *
+ * A proof is the multi-cell encoding of a commitment, or of a signed
+ * commitment, including only those branch cells needed to navigate from the
+ * root to a specific Result, to the transaction at the same position in the
+ * Order, and to the Order's consensus points. It is typically a few kilobytes
+ * regardless of how many blocks are committed, and excludes the resulting
+ * States entirely.
+ */
+public class ResultProof {
+
+	/**
+	 * Maximum number of branch cells in a proof. Bounds work for malformed inputs.
+	 */
+	private static final int MAX_PROOF_CELLS = 256;
+
+	/**
+	 * Creates a result commitment
+	 * @param historyPosition Block number of the first BlockResult
+	 * @param blockResults Vector of BlockResults
+	 * @param order Signed Order of the Peer that computed the BlockResults
+	 * @return Commitment vector
+	 */
+	public static AVector<ACell> createCommitment(long historyPosition, AVector<BlockResult> blockResults, SignedData<Order> order) {
+		return Vectors.of(CVMLong.create(historyPosition), blockResults, order);
+	}
+
+	/**
+	 * Creates an inclusion proof for a transaction Result
+	 * @param root Result commitment, as created by {@link #createCommitment(long, AVector, SignedData)}, or a SignedData containing one
+	 * @param blockIndex Block number of the transaction
+	 * @param txIndex Index of the transaction within its Block
+	 * @return Proof encoding, or null if the Result or transaction is not contained in the commitment
+	 */
+	public static Blob createProof(ACell root, long blockIndex, long txIndex) {
+		if (!isNavigable(root, blockIndex, txIndex)) return null;
+
+		// Navigate a copy of the root that loads each branch on demand, recording the cells used
+		RecordingStore store = new RecordingStore(root);
+		try {
+			ACell copy = store.decode(root.getEncoding());
+			if (!isNavigable(copy, blockIndex, txIndex)) return null;
+		} catch (BadFormatException e) {
+			throw new IllegalStateException("Unable to decode proof", e);
+		} catch (MissingDataException e) {
+			throw new IllegalStateException("Branch not found for proof: " + e.getMissingHash());
+		}
+		if (store.cells.size() > MAX_PROOF_CELLS) throw new IllegalStateException("Proof too large");
+		return Format.encodeCells(store.cells);
+	}
+
+	/**
+	 * Verifies an inclusion proof against a trusted root hash
+	 * @param rootHash Hash of the proof root, i.e. the commitment or signed commitment
+	 * @param proof Proof encoding
+	 * @param blockIndex Block number of the transaction
+	 * @param txIndex Index of the transaction within its Block
+	 * @return Proven Result, or null if the proof is invalid or does not contain the Result
+	 */
+	public static Result verify(Hash rootHash, Blob proof, long blockIndex, long txIndex) {
+		if ((rootHash == null) || (proof == null)) return null;
+		ACell root = decode(proof);
+		if ((root == null) || !root.getHash().equals(rootHash)) return null;
+		return getResult(root, blockIndex, txIndex);
+	}
+
+	/**
+	 * Decodes a proof into a partial cell tree. Branches not included in the
+	 * proof remain unresolved, and throw MissingDataException if navigated.
+	 * @param proof Proof encoding
+	 * @return Proof root, or null if the proof cannot be decoded
+	 */
+	public static ACell decode(Blob proof) {
+		if (proof == null) return null;
+		try {
+			return new MemoryStore().decodeMultiCell(proof);
+		} catch (BadFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets a Result from a decoded proof
+	 * @param root Proof root
+	 * @param blockIndex Block number of the transaction
+	 * @param txIndex Index of the transaction within its Block
+	 * @return Result, or null if not contained in the proof
+	 */
+	public static Result getResult(ACell root, long blockIndex, long txIndex) {
+		try {
+			return navigate(root, blockIndex, txIndex);
+		} catch (MissingDataException | ClassCastException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the signed Order from a decoded proof
+	 * @param root Proof root
+	 * @return Signed Order, or null if not contained in the proof
+	 */
+	public static SignedData<Order> getOrder(ACell root) {
+		try {
+			AVector<ACell> commitment = getCommitment(root);
+			if (commitment == null) return null;
+			return asSignedOrder(commitment.get(2));
+		} catch (MissingDataException | ClassCastException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the ID of the transaction at a position in the Order in a decoded proof
+	 * @param root Proof root
+	 * @param blockIndex Block number of the transaction
+	 * @param txIndex Index of the transaction within its Block
+	 * @return Hash of the signed transaction, or null if not contained in the proof
+	 */
+	public static Hash getTransactionID(ACell root, long blockIndex, long txIndex) {
+		try {
+			return navigateTransaction(getOrder(root), blockIndex, txIndex);
+		} catch (MissingDataException | ClassCastException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Checks if two Results agree on value and error code. IDs and info are
+	 * ignored, since Results returned to clients carry the request ID.
+	 * @param proven Result obtained from a verified proof
+	 * @param claimed Result returned by a peer
+	 * @return true if the Results match
+	 */
+	public static boolean matches(Result proven, Result claimed) {
+		if ((proven == null) || (claimed == null)) return false;
+		return Cells.equals(proven.getValue(), claimed.getValue())
+				&& Cells.equals(proven.getErrorCode(), claimed.getErrorCode());
+	}
+
+	/**
+	 * Checks that a Result, the transaction at the same position and the
+	 * Order's consensus points can all be reached from a root
+	 */
+	private static boolean isNavigable(ACell root, long blockIndex, long txIndex) {
+		if (navigate(root, blockIndex, txIndex) == null) return false;
+		SignedData<Order> order = getOrder(root);
+		if (order == null) return false;
+		order.getValue().getConsensusPoints();
+		return navigateTransaction(order, blockIndex, txIndex) != null;
+	}
+
+	private static AVector<ACell> getCommitment(ACell root) {
+		if (root instanceof SignedData<?> sd) root = sd.getValue();
+		AVector<ACell> commitment = RT.ensureVector(root);
+		if ((commitment == null) || (commitment.count() != 3)) return null;
+		return commitment;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static SignedData<Order> asSignedOrder(ACell c) {
+		if (!(c instanceof SignedData<?> sd)) return null;
+		if (!(sd.getValue() instanceof Order)) return null;
+		return (SignedData<Order>) sd;
+	}
+
+	private static Result navigate(ACell root, long blockIndex, long txIndex) {
+		AVector<ACell> commitment = getCommitment(root);
+		if (commitment == null) return null;
+		CVMLong hpos = RT.ensureLong(commitment.get(0));
+		AVector<ACell> results = RT.ensureVector(commitment.get(1));
+		if ((hpos == null) || (results == null)) return null;
+		long ix = blockIndex - hpos.longValue();
+		if ((ix < 0) || (ix >= results.count())) return null;
+		ACell br = results.get(ix);
+		if (!(br instanceof BlockResult)) return null;
+		return ((BlockResult) br).getResult(txIndex);
+	}
+
+	private static Hash navigateTransaction(SignedData<Order> order, long blockIndex, long txIndex) {
+		if (order == null) return null;
+		AVector<SignedData<Block>> blocks = order.getValue().getBlocks();
+		if ((blockIndex < 0) || (blockIndex >= blocks.count())) return null;
+		Block block = blocks.get(blockIndex).getValue();
+		AVector<SignedData<ATransaction>> txs = block.getTransactions();
+		if ((txIndex < 0) || (txIndex >= txs.count())) return null;
+		// The transaction itself is not needed, only its hash
+		return txs.getElementRef(txIndex).getHash();
+	}
+
+	/**
+	 * Store that supplies branch cells from a source tree when a decoded copy
+	 * navigates to them, recording each cell supplied. Cells are decoded from
+	 * their encodings, so their own branches also resolve through this store.
+	 */
+	private static class RecordingStore extends MemoryStore {
+		final ArrayList<ACell> cells = new ArrayList<>();
+		final HashMap<Hash, Ref<ACell>> supplied = new HashMap<>();
+
+		RecordingStore(ACell root) {
+			cells.add(root);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T extends ACell> Ref<T> refForHash(Hash hash) {
+			Ref<ACell> ref = supplied.get(hash);
+			if (ref != null) return (Ref<T>) ref;
+			if (cells.size() > MAX_PROOF_CELLS) return null;
+			ACell source = findBranch(cells, hash);
+			if (source == null) return super.refForHash(hash);
+			cells.add(source);
+			try {
+				ACell copy = decode(source.getEncoding());
+				ref = copy.getRef();
+			} catch (BadFormatException e) {
+				return null;
+			}
+			supplied.put(hash, ref);
+			return (Ref<T>) ref;
+		}
+	}
+
+	private static ACell findBranch(ArrayList<ACell> cells, Hash hash) {
+		ACell[] found = new ACell[1];
+		for (ACell c : cells) {
+			Cells.visitBranchRefs(c, r -> {
+				if ((found[0] == null) && hash.equals(r.getHash())) found[0] = ((Ref<?>) r).getValue();
+			});
+			if (found[0] != null) return found[0];
+		}
+		return null;
+	}
+}
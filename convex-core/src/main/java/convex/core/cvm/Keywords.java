@@ -80,6 +80,7 @@ public class Keywords {
 	public static final Keyword ID = Keyword.intern("id");
 	public static final Keyword TX = Keyword.intern("tx");
 	public static final Keyword LOC = Keyword.intern("loc");
+	public static final Keyword PROOF = Keyword.intern("proof");
 	public static final Keyword RESULT = Keyword.intern("result");
 	public static final Keyword ERROR = Keyword.intern("error");
 	public static final Keyword ADDRESS = Keyword.intern("address");
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 import convex.core.ErrorCodes;
 import convex.core.Result;
@@ -14,6 +15,7 @@ import convex.core.cpos.Block;
 import convex.core.cpos.BlockResult;
 import convex.core.cpos.CPoSConstants;
 import convex.core.cpos.Order;
+import convex.core.cpos.ResultProof;
 import convex.core.crypto.AKeyPair;
 import convex.core.crypto.Ed25519Signature;
 import convex.core.cvm.transactions.ATransaction;
@@ -23,6 +25,7 @@ import convex.core.data.ACell;
 import convex.core.data.AMap;
 import convex.core.data.AVector;
 import convex.core.data.AccountKey;
+import convex.core.data.Blob;
 import convex.core.data.Hash;
 import convex.core.data.Keyword;
 import convex.core.data.Maps;
@@ -304,7 +307,7 @@ public class Peer {
 	 */
 	public Peer updateTimestamp(long newTimestamp) {
 		if (newTimestamp <= timestamp) return this;
-		return new Peer(keyPair, belief, consensusOrder,statePosition,state,genesis, historyPosition,blockResults, newTimestamp);
+		return withIndex(new Peer(keyPair, belief, consensusOrder,statePosition,state,genesis, historyPosition,blockResults, newTimestamp));
 	}
 
 	/**
@@ -487,7 +490,7 @@ public class Peer {
 		Order order=belief.getOrder(peerKey);
 		if (order==null) order=this.consensusOrder;
 		// System.out.println(Lists.of(order.getConsensusPoints()));
-		return new Peer(keyPair, newBelief, order,statePosition,state, genesis, historyPosition,blockResults, timestamp);
+		return withIndex(new Peer(keyPair, newBelief, order,statePosition,state, genesis, historyPosition,blockResults, timestamp));
 	}	
 	
 	/**
@@ -542,7 +545,7 @@ public class Peer {
 			s=newState;
 			stateIndex++;
 		}
-		return new Peer(keyPair, belief, myOrder,stateIndex,s, genesis, historyPosition,newResults, timestamp);
+		return withIndex(new Peer(keyPair, belief, myOrder,stateIndex,s, genesis, historyPosition,newResults, timestamp));
 	}
 	
 	public Peer recalcState(long pos) {
@@ -872,8 +875,59 @@ public class Peer {
 		return getPeerIndex().getTransactionResult(this,txID);
 	}
 
+	/**
+	 * Gets a commitment to all block results held by this Peer, together with
+	 * this Peer's signed Order. The hash of the commitment fixes every
+	 * transaction Result, see {@link ResultProof}
+	 * @return Result commitment vector
+	 */
+	public AVector<ACell> getResultCommitment() {
+		return ResultProof.createCommitment(historyPosition, blockResults, getBelief().getOrders().get(peerKey));
+	}
+
+	/**
+	 * Gets the result commitment for this Peer, signed with the Peer's key pair.
+	 * The signature is made once per consensus point update and shared with
+	 * updated Peers until the finality point or block results change.
+	 * @return Signed result commitment
+	 */
+	public SignedData<AVector<ACell>> signResultCommitment() {
+		long finality=getFinalityPoint();
+		long resultsEnd=historyPosition+blockResults.count();
+		SignedCommitment cached=signedCommitment.get();
+		if ((cached!=null)&&(cached.finality==finality)&&(cached.resultsEnd==resultsEnd)) return cached.signed;
+		SignedData<AVector<ACell>> signed=keyPair.signData(getResultCommitment());
+		signedCommitment.set(new SignedCommitment(finality,resultsEnd,signed));
+		return signed;
+	}
+
+	/**
+	 * Gets an inclusion proof for a transaction Result against this Peer's signed result commitment
+	 * @param blockIndex Index of Block in Order
+	 * @param txIndex Index of transaction in Block
+	 * @return Proof encoding, or null if the Result is not available
+	 */
+	public Blob getResultProof(long blockIndex, long txIndex) {
+		return ResultProof.createProof(signResultCommitment(), blockIndex, txIndex);
+	}
+
 	// Private field for cached peer index
 	private PeerIndex peerIndex=new PeerIndex();
+
+	private record SignedCommitment(long finality, long resultsEnd, SignedData<AVector<ACell>> signed) {}
+
+	// Last signed result commitment, shared with updated Peers
+	private AtomicReference<SignedCommitment> signedCommitment=new AtomicReference<>();
+
+	/**
+	 * Carries the peer index over to an updated Peer. Blocks before the finality
+	 * point never change, so the index only needs extending rather than rebuilding.
+	 */
+	private Peer withIndex(Peer p) {
+		p.peerIndex=this.peerIndex;
+		p.signedCommitment=this.signedCommitment;
+		return p;
+	}
 	
 	private PeerIndex getPeerIndex() {
 		long cp=getFinalityPoint();
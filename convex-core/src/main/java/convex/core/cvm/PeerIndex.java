@@ -57,6 +57,8 @@ public class PeerIndex {
 		for (long i=0; i<n; i++) {
 			SignedData<ATransaction> tx=txs.get(i);
 			Hash txID=tx.getHash();
+			// A transaction included again later fails on sequence, so the first location is the one executed
+			if (ntxLocs.containsKey(txID)) continue;
 			ntxLocs=ntxLocs.assoc(txID,Vectors.createLongs(blockNum,i));
 		}
 		
@@ -1,8 +1,10 @@
 package convex.core.data;
 
+import java.util.Spliterator;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import convex.core.data.util.TreeSpliterator;
 import convex.core.exceptions.InvalidDataException;
 import convex.core.util.MergeFunction;
 
@@ -17,6 +19,51 @@ public abstract class AHashMap<K extends ACell, V extends ACell> extends AMap<K,
 		return Maps.empty();
 	}
 
+	@Override
+	public Spliterator<MapEntry<K, V>> entrySpliterator() {
+		return new EntrySpliterator<K, V>(this);
+	}
+
+	/**
+	 * Spliterator over hash map entries, splitting on MapTree child boundaries
+	 */
+	private static final class EntrySpliterator<K extends ACell, V extends ACell> extends TreeSpliterator<AHashMap<K, V>, MapEntry<K, V>> {
+		EntrySpliterator(AHashMap<K, V> root) {
+			super(root);
+		}
+
+		@Override
+		protected long nodeSize(AHashMap<K, V> node) {
+			return node.count();
+		}
+
+		@Override
+		protected int localCount(AHashMap<K, V> node) {
+			return (node instanceof MapLeaf) ? (int) node.count() : 0;
+		}
+
+		@Override
+		protected MapEntry<K, V> localElement(AHashMap<K, V> node, int i) {
+			return node.entryAt(i);
+		}
+
+		@Override
+		protected int childCount(AHashMap<K, V> node) {
+			return (node instanceof MapTree) ? node.getRefCount() : 0;
+		}
+
+		@Override
+		protected AHashMap<K, V> child(AHashMap<K, V> node, int i) {
+			Ref<AHashMap<K, V>> ref = node.getRef(i);
+			return ref.getValue();
+		}
+
+		@Override
+		protected EntrySpliterator<K, V> createEmpty() {
+			return new EntrySpliterator<K, V>(null);
+		}
+	}
+
 	@Override
 	public abstract AHashMap<K, V> assoc(ACell key, ACell value);
 	
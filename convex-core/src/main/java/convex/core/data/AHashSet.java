@@ -1,6 +1,11 @@
 package convex.core.data;
 
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
 import convex.core.data.prim.CVMBool;
+import convex.core.data.util.TreeSpliterator;
 import convex.core.exceptions.InvalidDataException;
 import convex.core.exceptions.Panic;
 
@@ -117,6 +122,56 @@ public abstract class AHashSet<T extends ACell> extends ASet<T> {
 	 */
 	protected abstract void validateWithPrefix(Hash prefix, int digit, int position) throws InvalidDataException;
 	
+	@Override
+	public Iterator<T> iterator() {
+		return Spliterators.iterator(spliterator());
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return new ElementSpliterator<T>(this);
+	}
+
+	/**
+	 * Spliterator over hash set elements, splitting on SetTree child boundaries
+	 */
+	private static final class ElementSpliterator<T extends ACell> extends TreeSpliterator<AHashSet<T>, T> {
+		ElementSpliterator(AHashSet<T> root) {
+			super(root);
+		}
+
+		@Override
+		protected long nodeSize(AHashSet<T> node) {
+			return node.count();
+		}
+
+		@Override
+		protected int localCount(AHashSet<T> node) {
+			return (node instanceof SetLeaf) ? (int) node.count() : 0;
+		}
+
+		@Override
+		protected T localElement(AHashSet<T> node, int i) {
+			return node.get(i);
+		}
+
+		@Override
+		protected int childCount(AHashSet<T> node) {
+			return (node instanceof SetTree) ? node.getRefCount() : 0;
+		}
+
+		@Override
+		protected AHashSet<T> child(AHashSet<T> node, int i) {
+			Ref<AHashSet<T>> ref = node.getRef(i);
+			return ref.getValue();
+		}
+
+		@Override
+		protected ElementSpliterator<T> createEmpty() {
+			return new ElementSpliterator<T>(null);
+		}
+	}
+
 	@Override
 	public Object[] toArray() {
 		int s = size();
@@ -2,7 +2,12 @@ package convex.core.data;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import convex.core.data.type.AType;
 import convex.core.data.type.Types;
@@ -120,4 +125,38 @@ public abstract class AIndex<K extends ABlobLike<?>, V extends ACell> extends AM
 	@Override
 	public abstract int estimatedEncodingSize();
 
+	/**
+	 * Gets a lazy iterator over entries with keys in the given range. Seeks
+	 * directly to the first entry in range, without materialising intermediate
+	 * Indexes.
+	 * 
+	 * @param start Lower bound on keys (inclusive), or null for no lower bound
+	 * @param end Upper bound on keys (exclusive), or null for no upper bound
+	 * @param reverse If true, iterate in descending key order
+	 * @return Iterator over entries in range
+	 */
+	public abstract Iterator<MapEntry<K, V>> scan(ABlobLike<?> start, ABlobLike<?> end, boolean reverse);
+
+	/**
+	 * Gets a lazy iterator over entries with keys starting with the given prefix
+	 * 
+	 * @param prefix Key prefix
+	 * @param reverse If true, iterate in descending key order
+	 * @return Iterator over entries with the prefix
+	 */
+	public abstract Iterator<MapEntry<K, V>> scanPrefix(ABlobLike<?> prefix, boolean reverse);
+
+	/**
+	 * Gets an ordered Stream of entries with keys in the given range, as per {@link #scan(ABlobLike, ABlobLike, boolean)}
+	 * 
+	 * @param start Lower bound on keys (inclusive), or null for no lower bound
+	 * @param end Upper bound on keys (exclusive), or null for no upper bound
+	 * @return Stream of entries in ascending key order
+	 */
+	public Stream<MapEntry<K, V>> rangeStream(ABlobLike<?> start, ABlobLike<?> end) {
+		Spliterator<MapEntry<K, V>> sp = Spliterators.spliteratorUnknownSize(scan(start, end, false),
+				Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+		return StreamSupport.stream(sp, false);
+	}
+
 }
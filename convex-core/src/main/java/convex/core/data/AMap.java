@@ -3,12 +3,17 @@ package convex.core.data;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import convex.core.data.type.AType;
 import convex.core.data.type.Types;
@@ -324,6 +329,35 @@ public abstract class AMap<K extends ACell, V extends ACell> extends ADataStruct
 	public AVector<MapEntry<K, V>> entryVector() {
 		return reduceEntries((acc, e) -> acc.conj(e), Vectors.empty());
 	}
+
+	/**
+	 * Gets a Spliterator over all map entries, in map-defined order. Map types
+	 * with a tree structure may override this to split on child boundaries.
+	 * 
+	 * @return Spliterator over map entries
+	 */
+	public Spliterator<MapEntry<K, V>> entrySpliterator() {
+		return entryVector().spliterator();
+	}
+
+	/**
+	 * Gets an Iterator over all map entries, in map-defined order.
+	 * 
+	 * @return Iterator over map entries
+	 */
+	public Iterator<MapEntry<K, V>> entryIterator() {
+		return Spliterators.iterator(entrySpliterator());
+	}
+
+	/**
+	 * Gets a sequential Stream of map entries. Use {@code parallel()} on the
+	 * result for parallel traversal.
+	 * 
+	 * @return Stream of map entries
+	 */
+	public Stream<MapEntry<K, V>> entryStream() {
+		return StreamSupport.stream(entrySpliterator(), false);
+	}
 	
 	/**
 	 * Merge another map into this map. Replaces existing entries if they are
@@ -1,14 +1,20 @@
 package convex.core.data;
 
 import java.util.Collection;
+import java.util.ArrayDeque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import convex.core.data.util.IndexBuilder;
+import convex.core.data.util.TreeSpliterator;
 import convex.core.exceptions.InvalidDataException;
 import convex.core.exceptions.TODOException;
 import convex.core.lang.RT;
@@ -319,6 +325,50 @@ public final class Index<K extends ABlobLike<?>, V extends ACell> extends AIndex
 		}
 	}
 
+	@Override
+	public Spliterator<MapEntry<K, V>> entrySpliterator() {
+		return new EntrySpliterator<K, V>(this);
+	}
+
+	/**
+	 * Spliterator over Index entries in key order, splitting on radix child boundaries
+	 */
+	private static final class EntrySpliterator<K extends ABlobLike<?>, V extends ACell> extends TreeSpliterator<Index<K, V>, MapEntry<K, V>> {
+		EntrySpliterator(Index<K, V> root) {
+			super(root);
+		}
+
+		@Override
+		protected long nodeSize(Index<K, V> node) {
+			return node.count();
+		}
+
+		@Override
+		protected int localCount(Index<K, V> node) {
+			return (node.entry == null) ? 0 : 1;
+		}
+
+		@Override
+		protected MapEntry<K, V> localElement(Index<K, V> node, int i) {
+			return node.entry;
+		}
+
+		@Override
+		protected int childCount(Index<K, V> node) {
+			return node.children.length;
+		}
+
+		@Override
+		protected Index<K, V> child(Index<K, V> node, int i) {
+			return node.children[i].getValue();
+		}
+
+		@Override
+		protected EntrySpliterator<K, V> createEmpty() {
+			return new EntrySpliterator<K, V>(null);
+		}
+	}
+
 	@Override
 	public Index<K, V> assocEntry(MapEntry<K, V> e) {
 		return assocEntry(e,0);
@@ -792,24 +842,26 @@ public final class Index<K extends ABlobLike<?>, V extends ACell> extends AIndex
 
 	@SuppressWarnings("unchecked")
 	public static <R extends AIndex<K, V>, K extends ABlobLike<?>, V extends ACell> R create(HashMap<K, V> map) {
-		Index<K,V> result=(Index<K, V>) EMPTY;
+		IndexBuilder<K,V> builder=new IndexBuilder<>(map.size());
 		for (Map.Entry<K,V> me: map.entrySet()) {
-			result=result.assoc(me.getKey(), me.getValue());
-			if (result==null) return null;
+			ACell k=me.getKey();
+			if (!(k instanceof ABlobLike)) return null;
+			builder.assoc(me.getKey(), me.getValue());
 		}
-		return (R) result;
+		return (R) builder.toIndex();
 	}
 	
 	@SuppressWarnings("unchecked")
 	public static <R extends AIndex<K, V>, K extends ABlobLike<?>, V extends ACell> R create(AHashMap<K, V> map) {
-		Index<K,V> result=(Index<K, V>) EMPTY;
-		long n=map.count();
-		for (long i=0; i<n; i++) {
-			MapEntry<K,V> me=map.entryAt(i);
-			result=result.assoc(me.getKey(), me.getValue());
-			if (result==null) return null;
+		IndexBuilder<K,V> builder=new IndexBuilder<>(map.size());
+		Iterator<MapEntry<K,V>> it=map.entryIterator();
+		while (it.hasNext()) {
+			MapEntry<K,V> me=it.next();
+			ACell k=me.getKey();
+			if (!(k instanceof ABlobLike)) return null;
+			builder.assocEntry(me);
 		}
-		return (R) result;
+		return (R) builder.toIndex();
 	}
 
 	public HashMap<K, V> toHashMap() {
@@ -893,7 +945,263 @@ public final class Index<K extends ABlobLike<?>, V extends ACell> extends AIndex
 
 	@Override
 	public long seek(ABlobLike<?> key) {
-		throw new TODOException();
+		long pos = 0;
+		Index<K, V> node = this;
+		long kl = effectiveLength(key);
+		outer: while (node.count > 0) {
+			long d = node.depth;
+			long lim = Math.min(d, kl);
+			ABlobLike<?> prefix = node.getPrefix();
+			long m = key.hexMatch(prefix, 0, lim);
+			if (m < lim) {
+				// key diverges from this subtree, so it is either before or after all entries
+				return (key.getHexDigit(m) < prefix.getHexDigit(m)) ? pos : pos + node.count;
+			}
+			if (kl <= d) return pos; // key is a prefix of all keys in this subtree
+
+			if (node.entry != null) pos++; // entry is a strict prefix of key
+			int c = key.getHexDigit(d);
+			Ref<Index<K, V>>[] cs = node.children;
+			for (int i = 0; i < cs.length; i++) {
+				int digit = MapTree.digitForIndex(i, node.mask);
+				if (digit < c) {
+					pos += cs[i].getValue().count;
+				} else if (digit == c) {
+					node = cs[i].getValue();
+					continue outer;
+				} else {
+					return pos;
+				}
+			}
+			return pos;
+		}
+		return pos;
+	}
+
+	/**
+	 * Compares two keys in Index order, i.e. by hex digits up to the maximum
+	 * Index depth, with a key ordered before any longer key it is a prefix of.
+	 * @param a First key
+	 * @param b Second key
+	 * @return Negative, zero or positive as a is before, equal to, or after b
+	 */
+	public static int compareKeys(ABlobLike<?> a, ABlobLike<?> b) {
+		long la = effectiveLength(a);
+		long lb = effectiveLength(b);
+		long min = Math.min(la, lb);
+		long m = a.hexMatch(b, 0, min);
+		if (m < min) return a.getHexDigit(m) - b.getHexDigit(m);
+		return Long.compare(la, lb);
+	}
+
+	@Override
+	public Iterator<MapEntry<K, V>> scan(ABlobLike<?> start, ABlobLike<?> end, boolean reverse) {
+		ScanIterator<K, V> it = new ScanIterator<>(reverse, reverse ? start : end, null);
+		if (reverse) {
+			if (end == null) {
+				it.pushFull(this);
+			} else {
+				it.seekBelow(this, end);
+			}
+		} else {
+			if (start == null) {
+				it.pushFull(this);
+			} else {
+				it.seekFrom(this, start);
+			}
+		}
+		return it;
+	}
+
+	@Override
+	public Iterator<MapEntry<K, V>> scanPrefix(ABlobLike<?> prefix, boolean reverse) {
+		ScanIterator<K, V> it = new ScanIterator<>(reverse, null, prefix);
+		long pl = effectiveLength(prefix);
+		Index<K, V> node = this;
+		while (node.count > 0) {
+			long d = node.depth;
+			long lim = Math.min(d, pl);
+			if (prefix.hexMatch(node.getPrefix(), 0, lim) < lim) break; // no keys with prefix
+			if (d >= pl) {
+				// every key in this subtree has the prefix
+				it.pushFull(node);
+				break;
+			}
+			// entry is shorter than the prefix, so only one child can match
+			node = node.getChild(prefix.getHexDigit(d));
+			if (node == null) break;
+		}
+		return it;
+	}
+
+	/**
+	 * Lazy cursor over Index entries in key order (or reverse order), using an
+	 * explicit stack of partially visited nodes. Entries at a node precede all
+	 * entries in its children.
+	 */
+	private static final class ScanIterator<K extends ABlobLike<?>, V extends ACell> implements Iterator<MapEntry<K, V>> {
+		private final ArrayDeque<Frame<K, V>> stack = new ArrayDeque<>();
+		private final boolean reverse;
+
+		/**
+		 * Bound at which iteration stops: exclusive upper bound when going forward,
+		 * inclusive lower bound in reverse. May be null.
+		 */
+		private final ABlobLike<?> limit;
+
+		/**
+		 * Required key prefix, may be null
+		 */
+		private final ABlobLike<?> prefix;
+
+		private MapEntry<K, V> next;
+		private boolean done = false;
+
+		ScanIterator(boolean reverse, ABlobLike<?> limit, ABlobLike<?> prefix) {
+			this.reverse = reverse;
+			this.limit = limit;
+			this.prefix = prefix;
+		}
+
+		private static final class Frame<K extends ABlobLike<?>, V extends ACell> {
+			final Index<K, V> node;
+			boolean entryPending;
+			int child;
+
+			Frame(Index<K, V> node, boolean entryPending, int child) {
+				this.node = node;
+				this.entryPending = entryPending;
+				this.child = child;
+			}
+		}
+
+		void pushFull(Index<K, V> node) {
+			if (node.count == 0) return;
+			stack.push(new Frame<>(node, true, reverse ? node.children.length - 1 : 0));
+		}
+
+		/**
+		 * Positions a forward scan at the first key greater than or equal to start
+		 */
+		void seekFrom(Index<K, V> node, ABlobLike<?> start) {
+			long kl = effectiveLength(start);
+			while (node.count > 0) {
+				long d = node.depth;
+				long lim = Math.min(d, kl);
+				ABlobLike<?> p = node.getPrefix();
+				long m = start.hexMatch(p, 0, lim);
+				if (m < lim) {
+					if (start.getHexDigit(m) < p.getHexDigit(m)) pushFull(node);
+					return;
+				}
+				if (kl <= d) {
+					pushFull(node);
+					return;
+				}
+				// skip entry and children before the start digit, then descend
+				int c = start.getHexDigit(d);
+				int i = 0;
+				int n = node.children.length;
+				while ((i < n) && (MapTree.digitForIndex(i, node.mask) < c)) i++;
+				if ((i < n) && (MapTree.digitForIndex(i, node.mask) == c)) {
+					stack.push(new Frame<>(node, false, i + 1));
+					node = node.children[i].getValue();
+				} else {
+					stack.push(new Frame<>(node, false, i));
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Positions a reverse scan at the last key strictly less than end
+		 */
+		void seekBelow(Index<K, V> node, ABlobLike<?> end) {
+			long kl = effectiveLength(end);
+			while (node.count > 0) {
+				long d = node.depth;
+				long lim = Math.min(d, kl);
+				ABlobLike<?> p = node.getPrefix();
+				long m = end.hexMatch(p, 0, lim);
+				if (m < lim) {
+					if (p.getHexDigit(m) < end.getHexDigit(m)) pushFull(node);
+					return;
+				}
+				if (kl <= d) return; // all keys in subtree are at or after end
+
+				// entry is before end, skip children after the end digit, then descend
+				int c = end.getHexDigit(d);
+				int i = node.children.length - 1;
+				while ((i >= 0) && (MapTree.digitForIndex(i, node.mask) > c)) i--;
+				if ((i >= 0) && (MapTree.digitForIndex(i, node.mask) == c)) {
+					stack.push(new Frame<>(node, true, i - 1));
+					node = node.children[i].getValue();
+				} else {
+					stack.push(new Frame<>(node, true, i));
+					return;
+				}
+			}
+		}
+
+		private MapEntry<K, V> advance() {
+			while (!stack.isEmpty()) {
+				Frame<K, V> f = stack.peek();
+				Index<K, V> node = f.node;
+				if (reverse) {
+					if (f.child >= 0) {
+						pushFull(node.children[f.child--].getValue());
+						continue;
+					}
+					stack.pop();
+					if (f.entryPending && (node.entry != null)) return node.entry;
+				} else {
+					if (f.entryPending) {
+						f.entryPending = false;
+						if (node.entry != null) return node.entry;
+					}
+					if (f.child < node.children.length) {
+						pushFull(node.children[f.child++].getValue());
+						continue;
+					}
+					stack.pop();
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next != null) return true;
+			if (done) return false;
+			MapEntry<K, V> e = advance();
+			if ((e == null) || outOfRange(e.getKey())) {
+				done = true;
+				stack.clear();
+				return false;
+			}
+			next = e;
+			return true;
+		}
+
+		private boolean outOfRange(K key) {
+			if (limit != null) {
+				int c = compareKeys(key, limit);
+				if (reverse ? (c < 0) : (c >= 0)) return true;
+			}
+			if (prefix != null) {
+				long pl = prefix.hexLength();
+				if ((key.hexLength() < pl) || (key.hexMatch(prefix, 0, pl) < pl)) return true;
+			}
+			return false;
+		}
+
+		@Override
+		public MapEntry<K, V> next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			MapEntry<K, V> e = next;
+			next = null;
+			return e;
+		}
 	}
 
 }
@@ -55,6 +55,18 @@ public class MapTree<K extends ACell, V extends ACell> extends AHashMap<K, V> {
 		this.mask = mask;
 	}
 
+	/**
+	 * Creates a MapTree directly from child Refs. Does not check validity.
+	 * @param children Child map Refs, one for each bit set in mask
+	 * @param shift Shift position (hex digit of key hashes for this map)
+	 * @param mask Mask of hex digits present
+	 * @param count Total count of entries
+	 * @return Potentially invalid MapTree
+	 */
+	public static <K extends ACell, V extends ACell> MapTree<K, V> unsafeCreate(Ref<AHashMap<K, V>>[] children, int shift, short mask, long count) {
+		return new MapTree<K, V>(children, shift, mask, count);
+	}
+
 	/**
 	 * Computes the total count from an array of Refs to maps Ignores null Refs in
 	 * child array
@@ -3,6 +3,7 @@ package convex.core.data;
 import java.util.Collection;
 import java.util.HashMap;
 
+import convex.core.data.util.HashMapBuilder;
 import convex.core.lang.RT;
 
 /**
@@ -114,14 +115,14 @@ public class Maps {
 	public static <K extends ACell, V extends ACell> AHashMap<K, V> createWithShift(int shift, java.util.List<MapEntry<K, V>> entries) {
 		int n = entries.size();
 		if (n == 0) return empty();
-		AHashMap<K, V> result = Maps.empty();
+		HashMapBuilder<K, V> builder = new HashMapBuilder<>(n);
 		for (int i=0; i<n; i++) {
 			AVector<?> v=entries.get(i);
 			@SuppressWarnings("unchecked")
 			MapEntry<K,V> e=MapEntry.convertOrNull(v); // Ensure a Map entry
-			result = result.assocEntry(e);
+			builder.assocEntry(e);
 		}
-		return result;
+		return builder.toMap();
 	}
 
 	@SuppressWarnings("unchecked")
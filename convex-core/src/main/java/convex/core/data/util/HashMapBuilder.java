@@ -0,0 +1,128 @@
+package convex.core.data.util;
+
+import java.util.ArrayList;
+
+import convex.core.data.ACell;
+import convex.core.data.AHashMap;
+import convex.core.data.AMap;
+import convex.core.data.Hash;
+import convex.core.data.MapEntry;
+import convex.core.data.MapLeaf;
+import convex.core.data.MapTree;
+import convex.core.data.Maps;
+import convex.core.data.Ref;
+
+/**
+ * Builder for hash maps from many entries in bulk.
+ *
+ * Entries are accumulated in any order, then sorted by key hash and emitted as
+ * a canonical map bottom-up in a single pass. The result is identical to
+ * the map produced by successive assoc operations, but avoids creating an
+ * intermediate path of tree nodes for every entry.
+ *
+ * If keys are repeated, later entries overwrite earlier ones.
+ *
+ * @param <K> Type of map keys
+ * @param <V> Type of map values
+ */
+public class HashMapBuilder<K extends ACell, V extends ACell> {
+
+	protected final ArrayList<MapEntry<K, V>> entries;
+
+	public HashMapBuilder() {
+		entries = new ArrayList<>();
+	}
+
+	public HashMapBuilder(int capacity) {
+		entries = new ArrayList<>(capacity);
+	}
+
+	public HashMapBuilder<K, V> assoc(K key, V value) {
+		entries.add(MapEntry.create(key, value));
+		return this;
+	}
+
+	public HashMapBuilder<K, V> assocEntry(MapEntry<K, V> e) {
+		if (e == null) throw new IllegalArgumentException("Null map entry");
+		entries.add(e);
+		return this;
+	}
+
+	public HashMapBuilder<K, V> assocAll(AMap<K, V> map) {
+		long n = map.count();
+		for (long i = 0; i < n; i++) {
+			entries.add(map.entryAt(i));
+		}
+		return this;
+	}
+
+	/**
+	 * Builds the map from all entries added so far
+	 * @return Canonical hash map
+	 */
+	@SuppressWarnings("unchecked")
+	public AHashMap<K, V> toMap() {
+		int n = entries.size();
+		if (n == 0) return Maps.empty();
+
+		// Stable sort, so the last of any repeated keys is at the end of its run
+		ArrayList<MapEntry<K, V>> sorted = new ArrayList<>(entries);
+		sorted.sort(null);
+		MapEntry<K, V>[] es = new MapEntry[n];
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			MapEntry<K, V> e = sorted.get(i);
+			if ((m > 0) && es[m - 1].getKeyHash().equals(e.getKeyHash())) {
+				es[m - 1] = e;
+			} else {
+				es[m++] = e;
+			}
+		}
+		return build(es, 0, m);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K extends ACell, V extends ACell> AHashMap<K, V> build(MapEntry<K, V>[] es, int start, int end) {
+		int n = end - start;
+		if (n <= MapLeaf.MAX_ENTRIES) {
+			MapEntry<K, V>[] items = new MapEntry[n];
+			System.arraycopy(es, start, items, 0, n);
+			return MapLeaf.unsafeCreate(items);
+		}
+
+		// Entries are sorted, so the common prefix of the first and last applies to all
+		Hash first = es[start].getKeyHash();
+		int shift = first.commonHexPrefixLength(es[end - 1].getKeyHash(), Hash.HEX_LENGTH);
+
+		Ref<AHashMap<K, V>>[] children = new Ref[16];
+		int nc = 0;
+		short mask = 0;
+		int i = start;
+		while (i < end) {
+			int digit = es[i].getKeyHash().getHexDigit(shift);
+			int j = i + 1;
+			while ((j < end) && (es[j].getKeyHash().getHexDigit(shift) == digit)) j++;
+			children[nc++] = build(es, i, j).getRef();
+			mask |= (short) (1 << digit);
+			i = j;
+		}
+		Ref<AHashMap<K, V>>[] cs = new Ref[nc];
+		System.arraycopy(children, 0, cs, 0, nc);
+		return MapTree.unsafeCreate(cs, shift, mask, n);
+	}
+
+	/**
+	 * Gets the number of entries added to this builder, including any repeated keys
+	 * @return Number of entries added
+	 */
+	public long count() {
+		return entries.size();
+	}
+
+	/**
+	 * Clears this builder, preparing for new entries
+	 */
+	public void clear() {
+		entries.clear();
+	}
+}
@@ -0,0 +1,118 @@
+package convex.core.data.util;
+
+import java.util.ArrayList;
+
+import convex.core.data.ACell;
+import convex.core.data.ACountable;
+import convex.core.data.AHashSet;
+import convex.core.data.Hash;
+import convex.core.data.Ref;
+import convex.core.data.SetLeaf;
+import convex.core.data.SetTree;
+import convex.core.data.Sets;
+
+/**
+ * Builder for hash sets from many elements in bulk.
+ *
+ * Elements are accumulated in any order, then sorted by hash and emitted as
+ * a canonical set bottom-up in a single pass. The result is identical to
+ * the set produced by successive include operations.
+ *
+ * @param <T> Type of set elements
+ */
+public class HashSetBuilder<T extends ACell> {
+
+	protected final ArrayList<Ref<T>> elements;
+
+	public HashSetBuilder() {
+		elements = new ArrayList<>();
+	}
+
+	public HashSetBuilder(int capacity) {
+		elements = new ArrayList<>(capacity);
+	}
+
+	public HashSetBuilder<T> conj(T a) {
+		elements.add(Ref.get(a));
+		return this;
+	}
+
+	public HashSetBuilder<T> includeRef(Ref<T> ref) {
+		elements.add(ref);
+		return this;
+	}
+
+	public HashSetBuilder<T> conjAll(ACountable<T> xs) {
+		long n = xs.count();
+		for (long i = 0; i < n; i++) {
+			elements.add(Ref.get(xs.get(i)));
+		}
+		return this;
+	}
+
+	/**
+	 * Builds the set from all elements added so far
+	 * @return Canonical hash set
+	 */
+	@SuppressWarnings("unchecked")
+	public AHashSet<T> toSet() {
+		int n = elements.size();
+		if (n == 0) return Sets.empty();
+
+		ArrayList<Ref<T>> sorted = new ArrayList<>(elements);
+		sorted.sort(null);
+		Ref<T>[] es = new Ref[n];
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			Ref<T> e = sorted.get(i);
+			if ((m > 0) && es[m - 1].getHash().equals(e.getHash())) continue;
+			es[m++] = e;
+		}
+		return build(es, 0, m);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends ACell> AHashSet<T> build(Ref<T>[] es, int start, int end) {
+		int n = end - start;
+		if (n <= SetLeaf.MAX_ELEMENTS) {
+			Ref<T>[] items = new Ref[n];
+			System.arraycopy(es, start, items, 0, n);
+			return SetLeaf.unsafeCreate(items);
+		}
+
+		// Elements are sorted, so the common prefix of the first and last applies to all
+		Hash first = es[start].getHash();
+		int shift = first.commonHexPrefixLength(es[end - 1].getHash(), Hash.HEX_LENGTH);
+
+		Ref<AHashSet<T>>[] children = new Ref[16];
+		int nc = 0;
+		short mask = 0;
+		int i = start;
+		while (i < end) {
+			int digit = es[i].getHash().getHexDigit(shift);
+			int j = i + 1;
+			while ((j < end) && (es[j].getHash().getHexDigit(shift) == digit)) j++;
+			children[nc++] = build(es, i, j).getRef();
+			mask |= (short) (1 << digit);
+			i = j;
+		}
+		Ref<AHashSet<T>>[] cs = new Ref[nc];
+		System.arraycopy(children, 0, cs, 0, nc);
+		return SetTree.unsafeCreate(cs, shift, mask, n);
+	}
+
+	/**
+	 * Gets the number of elements added to this builder, including any duplicates
+	 * @return Number of elements added
+	 */
+	public long count() {
+		return elements.size();
+	}
+
+	/**
+	 * Clears this builder, preparing for new elements
+	 */
+	public void clear() {
+		elements.clear();
+	}
+}
@@ -0,0 +1,149 @@
+package convex.core.data.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+import convex.core.data.ABlobLike;
+import convex.core.data.ACell;
+import convex.core.data.AMap;
+import convex.core.data.Index;
+import convex.core.data.MapEntry;
+import convex.core.data.Ref;
+
+/**
+ * Builder for Indexes from many entries in bulk.
+ *
+ * Entries are accumulated, sorted into key order if necessary, and emitted as
+ * a canonical radix tree bottom-up in a single pass. The result is identical
+ * to the Index produced by successive assoc operations. Adding entries in
+ * ascending key order avoids the sort entirely.
+ *
+ * If keys are repeated, later entries overwrite earlier ones.
+ *
+ * @param <K> Type of Index keys
+ * @param <V> Type of Index values
+ */
+public class IndexBuilder<K extends ABlobLike<?>, V extends ACell> {
+
+	/**
+	 * Compares keys in Index order, i.e. by hex digits up to the maximum Index depth
+	 */
+	private static final Comparator<MapEntry<? extends ABlobLike<?>, ?>> KEY_ORDER = (a, b) -> Index.compareKeys(a.getKey(), b.getKey());
+
+	protected final ArrayList<MapEntry<K, V>> entries;
+
+	/**
+	 * True if entries have been added in strictly ascending key order
+	 */
+	protected boolean sorted = true;
+
+	public IndexBuilder() {
+		entries = new ArrayList<>();
+	}
+
+	public IndexBuilder(int capacity) {
+		entries = new ArrayList<>(capacity);
+	}
+
+	public IndexBuilder<K, V> assoc(K key, V value) {
+		return assocEntry(MapEntry.create(key, value));
+	}
+
+	public IndexBuilder<K, V> assocEntry(MapEntry<K, V> e) {
+		if (e == null) throw new IllegalArgumentException("Null map entry");
+		if (!(e.getKey() instanceof ABlobLike)) throw new IllegalArgumentException("Index key must be blob-like");
+		int n = entries.size();
+		if (sorted && (n > 0) && (Index.compareKeys(entries.get(n - 1).getKey(), e.getKey()) >= 0)) sorted = false;
+		entries.add(e);
+		return this;
+	}
+
+	public IndexBuilder<K, V> assocAll(AMap<K, V> map) {
+		long n = map.count();
+		for (long i = 0; i < n; i++) {
+			assocEntry(map.entryAt(i));
+		}
+		return this;
+	}
+
+	/**
+	 * Builds the Index from all entries added so far
+	 * @return Canonical Index
+	 */
+	@SuppressWarnings("unchecked")
+	public Index<K, V> toIndex() {
+		int n = entries.size();
+		if (n == 0) return Index.none();
+
+		ArrayList<MapEntry<K, V>> es = entries;
+		if (!sorted) {
+			// Stable sort, so the last of any repeated keys is at the end of its run
+			es = new ArrayList<>(entries);
+			es.sort(KEY_ORDER);
+		}
+		MapEntry<K, V>[] arr = new MapEntry[n];
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			MapEntry<K, V> e = es.get(i);
+			if ((m > 0) && (Index.compareKeys(arr[m - 1].getKey(), e.getKey()) == 0)) {
+				arr[m - 1] = e;
+			} else {
+				arr[m++] = e;
+			}
+		}
+		return build(arr, 0, m);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <K extends ABlobLike<?>, V extends ACell> Index<K, V> build(MapEntry<K, V>[] es, int start, int end) {
+		int n = end - start;
+		if (n == 1) return Index.create(es[start]);
+
+		// Entries are sorted, so the common prefix of the first and last applies to all
+		K first = es[start].getKey();
+		K last = es[end - 1].getKey();
+		long depth = first.hexMatch(last, 0, Math.min(effectiveLength(first), effectiveLength(last)));
+
+		MapEntry<K, V> entry = null;
+		int i = start;
+		if (effectiveLength(first) == depth) {
+			// shortest key is exactly the common prefix, so it belongs at this node
+			entry = es[i++];
+		}
+
+		Ref[] children = new Ref[16];
+		int nc = 0;
+		int mask = 0;
+		while (i < end) {
+			int digit = es[i].getKey().getHexDigit(depth);
+			int j = i + 1;
+			while ((j < end) && (es[j].getKey().getHexDigit(depth) == digit)) j++;
+			children[nc++] = build(es, i, j).getRef();
+			mask |= 1 << digit;
+			i = j;
+		}
+		Ref<Index>[] cs = new Ref[nc];
+		System.arraycopy(children, 0, cs, 0, nc);
+		return Index.unsafeCreate(depth, entry, cs, mask, n);
+	}
+
+	private static long effectiveLength(ABlobLike<?> key) {
+		return Math.min(Index.MAX_DEPTH, key.hexLength());
+	}
+
+	/**
+	 * Gets the number of entries added to this builder, including any repeated keys
+	 * @return Number of entries added
+	 */
+	public long count() {
+		return entries.size();
+	}
+
+	/**
+	 * Clears this builder, preparing for new entries
+	 */
+	public void clear() {
+		entries.clear();
+		sorted = true;
+	}
+}
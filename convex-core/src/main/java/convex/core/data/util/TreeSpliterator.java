@@ -0,0 +1,183 @@
+package convex.core.data.util;
+
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Base Spliterator for traversal of tree-structured data such as hash maps,
+ * hash sets and Indexes.
+ *
+ * <p>Each node may hold some elements directly (e.g. leaf entries, or the entry
+ * at an Index node) which precede the elements of its child nodes. Nodes are
+ * descended once, with pending subtrees held in an explicit work queue, so
+ * traversal is O(n) overall rather than O(depth) per element. Splits are made
+ * on child boundaries, so each half of a split covers whole subtrees.</p>
+ *
+ * @param <N> Type of tree nodes
+ * @param <T> Type of elements
+ */
+public abstract class TreeSpliterator<N, T> implements Spliterator<T> {
+
+	/**
+	 * Subtrees not yet visited, in traversal order
+	 */
+	private final ArrayDeque<N> pending = new ArrayDeque<>();
+
+	/**
+	 * Node currently being traversed, and range of its own elements remaining
+	 */
+	private N current;
+	private int pos;
+	private int end;
+
+	/**
+	 * Exact number of elements remaining
+	 */
+	private long remaining;
+
+	/**
+	 * Creates a Spliterator over all elements of a tree
+	 * @param root Root node of tree, or null for an empty Spliterator
+	 */
+	protected TreeSpliterator(N root) {
+		if (root == null) return;
+		long n = nodeSize(root);
+		if (n > 0) {
+			pending.add(root);
+			remaining = n;
+		}
+	}
+
+	/**
+	 * Gets the total number of elements in a node, including all children
+	 * @param node Tree node
+	 * @return Element count
+	 */
+	protected abstract long nodeSize(N node);
+
+	/**
+	 * Gets the number of elements held directly in a node
+	 * @param node Tree node
+	 * @return Number of local elements
+	 */
+	protected abstract int localCount(N node);
+
+	/**
+	 * Gets an element held directly in a node
+	 * @param node Tree node
+	 * @param i Index of local element
+	 * @return Element
+	 */
+	protected abstract T localElement(N node, int i);
+
+	/**
+	 * Gets the number of child nodes of a node
+	 * @param node Tree node
+	 * @return Number of children
+	 */
+	protected abstract int childCount(N node);
+
+	/**
+	 * Gets a child of a node
+	 * @param node Tree node
+	 * @param i Index of child
+	 * @return Child node
+	 */
+	protected abstract N child(N node, int i);
+
+	/**
+	 * Creates a new empty Spliterator of the same kind, used as the prefix of a split
+	 * @return New Spliterator instance
+	 */
+	protected abstract TreeSpliterator<N, T> createEmpty();
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		while (pos >= end) {
+			if (pending.isEmpty()) return false;
+			expand(pending.pollFirst());
+		}
+		remaining--;
+		action.accept(localElement(current, pos++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		while (true) {
+			N node = current;
+			int e = end;
+			for (int i = pos; i < e; i++) {
+				action.accept(localElement(node, i));
+			}
+			remaining -= (e - pos);
+			pos = e;
+			if (pending.isEmpty()) return;
+			expand(pending.pollFirst());
+		}
+	}
+
+	/**
+	 * Makes a node current, queueing its children ahead of other pending subtrees
+	 */
+	private void expand(N node) {
+		current = node;
+		pos = 0;
+		end = localCount(node);
+		for (int i = childCount(node) - 1; i >= 0; i--) {
+			N c = child(node, i);
+			if (nodeSize(c) > 0) pending.addFirst(c);
+		}
+	}
+
+	@Override
+	public TreeSpliterator<N, T> trySplit() {
+		// Descend through single subtrees until there is something to divide
+		while ((pos >= end) && (pending.size() == 1)) {
+			expand(pending.pollFirst());
+		}
+
+		TreeSpliterator<N, T> prefix = createEmpty();
+		int np = pending.size();
+		if (np >= 2) {
+			// Prefix takes remaining local elements plus the first half of pending subtrees
+			prefix.current = current;
+			prefix.pos = pos;
+			prefix.end = end;
+			long moved = end - pos;
+			for (int i = np / 2; i > 0; i--) {
+				N node = pending.pollFirst();
+				moved += nodeSize(node);
+				prefix.pending.addLast(node);
+			}
+			prefix.remaining = moved;
+			remaining -= moved;
+			pos = end;
+			return prefix;
+		}
+
+		if (end - pos >= 2) {
+			// Split local elements of the current node
+			int mid = (pos + end) >>> 1;
+			prefix.current = current;
+			prefix.pos = pos;
+			prefix.end = mid;
+			prefix.remaining = mid - pos;
+			remaining -= mid - pos;
+			pos = mid;
+			return prefix;
+		}
+		return null;
+	}
+
+	@Override
+	public long estimateSize() {
+		return remaining;
+	}
+
+	@Override
+	public int characteristics() {
+		return Spliterator.IMMUTABLE | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.DISTINCT;
+	}
+}
@@ -1,9 +1,10 @@
 /**
  * Utility helpers for building and traversing CVM data structures.
  *
- * <p>Contains {@code BlobBuilder} and {@code VectorBuilder} for efficient
+ * <p>Contains {@code BlobBuilder}, {@code VectorBuilder}, {@code HashMapBuilder},
+ * {@code HashSetBuilder} and {@code IndexBuilder} for efficient
  * incremental construction of large immutable collections, {@code CellExplorer}
  * for inspecting cell graphs, and spliterators for parallel traversal of
- * sequences.</p>
+ * sequences and tree-structured maps, sets and Indexes.</p>
  */
 package convex.core.data.util;
@@ -3,6 +3,10 @@ package convex.etch;
 import java.io.File;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Consumer;
 
 import convex.core.data.ACell;
@@ -11,7 +15,6 @@ import convex.core.data.IRefFunction;
 import convex.core.data.Ref;
 import convex.core.store.ACachedStore;
 import convex.core.util.FileUtils;
-import convex.core.util.Utils;
 
 /**
  * Class implementing on-disk memory-mapped storage of Convex data.
@@ -37,6 +40,11 @@ public class EtchStore extends ACachedStore {
 	 */
 	private Etch target;
 
+	/**
+	 * True to hash novel subtrees in parallel when persisting
+	 */
+	private boolean parallelPersist = true;
+
 
 	public EtchStore(Etch etch) {
 		this(etch, true);
@@ -150,13 +158,76 @@ public class EtchStore extends ACachedStore {
 	@SuppressWarnings("unchecked")
 	public <T extends ACell> Ref<T> storeRef(Ref<T> ref, int requiredStatus, Consumer<Ref<ACell>> noveltyHandler,
 			boolean topLevel) throws IOException {
+		// Hash novel subtrees in parallel before writing, since hashing dominates persistence of large trees.
+		// Small cells, e.g. most messages, are cheaper to persist on the calling thread.
+		if (topLevel && parallelPersist && (requiredStatus > Ref.STORED)) {
+			ACell cell = ref.getValue();
+			if ((cell != null) && (cell.getRefCount() > 0) && isLargeNovelty(cell, requiredStatus)) {
+				ForkJoinPool.commonPool().invoke(new HashTask(cell, requiredStatus, 0));
+			}
+		}
+
+		// Persist with an explicit stack, writing children before parents
+		ArrayDeque<StoreFrame> stack = new ArrayDeque<>();
+		Object r = beginStore(ref, requiredStatus, topLevel);
+		if (r instanceof Ref) return (Ref<T>) r;
+		stack.push((StoreFrame) r);
+		Ref<ACell> result = null;
+		while (!stack.isEmpty()) {
+			StoreFrame f = stack.peek();
+			if (result != null) {
+				f.results[f.next++] = result;
+				result = null;
+			}
+			if (f.next < f.results.length) {
+				Object c = beginStore(f.cell.getRef(f.next), requiredStatus, false);
+				if (c instanceof Ref) {
+					result = (Ref<ACell>) c;
+				} else {
+					stack.push((StoreFrame) c);
+				}
+				continue;
+			}
+			stack.pop();
+			result = finishStore(f, requiredStatus, noveltyHandler);
+		}
+		return (Ref<T>) result;
+	}
+
+	/**
+	 * Cell being persisted, with results for child Refs persisted so far
+	 */
+	private static final class StoreFrame {
+		Ref<ACell> ref;
+		ACell cell;
+		final Hash hash;
+		final boolean embedded;
+		final boolean topLevel;
+		final Ref<ACell>[] results;
+		int next = 0;
+
+		@SuppressWarnings("unchecked")
+		StoreFrame(Ref<ACell> ref, ACell cell, Hash hash, boolean embedded, boolean topLevel, int n) {
+			this.ref = ref;
+			this.cell = cell;
+			this.hash = hash;
+			this.embedded = embedded;
+			this.topLevel = topLevel;
+			this.results = new Ref[n];
+		}
+	}
 
+	/**
+	 * Starts persisting a Ref.
+	 * @return The resulting Ref if no further work is needed, otherwise a StoreFrame
+	 */
+	@SuppressWarnings("unchecked")
+	private Object beginStore(Ref<?> ref, int requiredStatus, boolean topLevel) throws IOException {
 		// Get the value. If we are persisting, should be there!
 		ACell cell = ref.getValue();
 
 		// Quick handling for null
-		if (cell == null)
-			return (Ref<T>) Ref.NULL_VALUE;
+		if (cell == null) return Ref.NULL_VALUE;
 
 		// check store for existing ref first.
 		boolean embedded = cell.isEmbedded();
@@ -164,7 +235,7 @@ public class EtchStore extends ACachedStore {
 		// if not embedded, worth checking store first for existing value
 		if (!embedded) {
 			hash = ref.getHash();
-			Ref<T> existing = refForHash(hash);
+			Ref<ACell> existing = refForHash(hash);
 			if (existing != null) {
 				// Return existing ref if status is sufficient
 				if (existing.getStatus() >= requiredStatus) {
@@ -180,34 +251,40 @@ public class EtchStore extends ACachedStore {
 			return ref;
 		}
 
-		// beyond STORED level, need to recursively persist child refs if they exist
-		if ((requiredStatus > Ref.STORED) && (cell.getRefCount() > 0)) {
-			// TODO: probably slow to rebuild these all the time!
-			IRefFunction func = r -> {
-				try {
-					return storeRef((Ref<ACell>) r, requiredStatus, noveltyHandler, false);
-				} catch (IOException e) {
-					// OK because overall function throws IOException
-					throw Utils.sneakyThrow(e);
-				}
-			};
+		// beyond STORED level, need to persist child refs if they exist
+		int n = (requiredStatus > Ref.STORED) ? cell.getRefCount() : 0;
+		return new StoreFrame((Ref<ACell>) ref, cell, hash, embedded, topLevel, n);
+	}
 
-			// need to do recursive persistence
-			// TODO: maybe switch to a stack? Mitigate risk of stack overflow?
+	/**
+	 * Completes persisting a cell once all its children are persisted
+	 */
+	private Ref<ACell> finishStore(StoreFrame f, int requiredStatus, Consumer<Ref<ACell>> noveltyHandler) throws IOException {
+		Ref<ACell> ref = f.ref;
+		ACell cell = f.cell;
+		boolean embedded = f.embedded;
+
+		if (f.results.length > 0) {
+			// Substitute persisted child Refs. updateRefs visits Refs in index order
+			int[] pos = new int[1];
+			IRefFunction func = r -> f.results[pos[0]++];
 			ACell newObject = cell.updateRefs(func);
+			if (pos[0] != f.results.length) {
+				throw new IllegalStateException("updateRefs visited " + pos[0] + " of " + f.results.length + " Refs in " + cell.getClass());
+			}
 
 			// perhaps need to update Ref
 			if (cell != newObject) {
-				ref = ref.withValue((T) newObject);
+				ref = ref.withValue(newObject);
 				cell = newObject;
 			}
 		}
 
 		// Actually write top level an non-embedded cells only
-		if (topLevel || !embedded) {
+		if (f.topLevel || !embedded) {
 
 			// Do actual write to store
-			final Hash fHash = (hash != null) ? hash : ref.getHash();
+			final Hash fHash = (f.hash != null) ? f.hash : ref.getHash();
 
 			// ensure status is set when we write to store
 			ref = ref.withMinimumStatus(requiredStatus);
@@ -224,7 +301,7 @@ public class EtchStore extends ACachedStore {
 			// call novelty handler if newly persisted non-embedded
 			if (noveltyHandler != null) {
 				if (!embedded)
-					noveltyHandler.accept((Ref<ACell>) ref);
+					noveltyHandler.accept(ref);
 			}
 		} else {
 			// no need to write, just tag updated status
@@ -234,6 +311,127 @@ public class EtchStore extends ACachedStore {
 		return ref;
 	}
 
+	/**
+	 * Sets whether novel subtrees are hashed in parallel when persisting top level cells
+	 * @param parallel True to enable parallel hashing (the default)
+	 */
+	public void setParallelPersist(boolean parallel) {
+		this.parallelPersist = parallel;
+	}
+
+	/**
+	 * Fork-join task computing hashes (and hence encodings) for novel cells in a
+	 * tree. Forks for independent subtrees near the root, and uses an explicit
+	 * stack below PARALLEL_DEPTH. Stops at subtrees already in this store.
+	 * Hashes are cached in cells, so the subsequent sequential write pass does
+	 * no hashing.
+	 */
+	@SuppressWarnings("serial")
+	private final class HashTask extends RecursiveAction {
+		private final ACell cell;
+		private final int requiredStatus;
+		private final int depth;
+
+		HashTask(ACell cell, int requiredStatus, int depth) {
+			this.cell = cell;
+			this.requiredStatus = requiredStatus;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			if (depth >= PARALLEL_DEPTH) {
+				hashTree(cell, requiredStatus);
+				return;
+			}
+			ArrayList<HashTask> tasks = new ArrayList<>();
+			int n = cell.getRefCount();
+			for (int i = 0; i < n; i++) {
+				ACell child = novelChild(cell.getRef(i), requiredStatus);
+				if ((child != null) && (child.getRefCount() > 0)) {
+					tasks.add(new HashTask(child, requiredStatus, depth + 1));
+				}
+			}
+			if (tasks.size() > 1) {
+				invokeAll(tasks);
+			} else if (tasks.size() == 1) {
+				tasks.get(0).compute();
+			}
+			if (!cell.isEmbedded()) cell.getHash();
+		}
+	}
+
+	/**
+	 * Number of tree levels over which hashing forks into parallel tasks
+	 */
+	private static final int PARALLEL_DEPTH = 3;
+
+	/**
+	 * Minimum number of novel cells in a tree for hashing to fork into parallel tasks
+	 */
+	private static final int PARALLEL_THRESHOLD = 256;
+
+	/**
+	 * Checks if a tree has at least PARALLEL_THRESHOLD cells that may need
+	 * persisting. Walks at most that many cells, and checks only Ref status,
+	 * so the cost is small and bounded.
+	 */
+	private static boolean isLargeNovelty(ACell root, int requiredStatus) {
+		ArrayDeque<ACell> stack = new ArrayDeque<>();
+		stack.push(root);
+		int count = 0;
+		while (!stack.isEmpty()) {
+			if (++count >= PARALLEL_THRESHOLD) return true;
+			ACell c = stack.pop();
+			int n = c.getRefCount();
+			for (int i = 0; i < n; i++) {
+				Ref<?> r = c.getRef(i);
+				if (r.getStatus() >= requiredStatus) continue;
+				ACell child = r.getValue();
+				if (child != null) stack.push(child);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Computes hashes of novel cells in a tree, children before parents
+	 */
+	private void hashTree(ACell root, int requiredStatus) {
+		ArrayList<ACell> order = new ArrayList<>();
+		ArrayDeque<ACell> stack = new ArrayDeque<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			ACell c = stack.pop();
+			order.add(c);
+			int n = c.getRefCount();
+			for (int i = 0; i < n; i++) {
+				ACell child = novelChild(c.getRef(i), requiredStatus);
+				if (child != null) stack.push(child);
+			}
+		}
+		// Reverse pre-order visits every child before its parent
+		for (int i = order.size() - 1; i >= 0; i--) {
+			ACell c = order.get(i);
+			if (!c.isEmbedded()) c.getHash();
+		}
+	}
+
+	/**
+	 * Gets the child cell of a Ref if it may need persisting, or null if
+	 * already persisted at the required status, either by this Ref or by
+	 * an existing store entry for an already known hash
+	 */
+	private ACell novelChild(Ref<?> r, int requiredStatus) {
+		if (r.getStatus() >= requiredStatus) return null;
+		Hash hash = r.cachedHash();
+		if (hash != null) {
+			Ref<ACell> existing = refForHash(hash);
+			if ((existing != null) && (existing.getStatus() >= requiredStatus)) return null;
+		}
+		return r.getValue();
+	}
+
 	protected <T extends ACell> void addToCache(Ref<T> ref) {
 		refCache.putCell(ref);
 	}
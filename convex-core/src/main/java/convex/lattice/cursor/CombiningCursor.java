@@ -0,0 +1,193 @@
+package convex.lattice.cursor;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+import convex.core.data.ACell;
+import convex.lattice.ALattice;
+import convex.lattice.LatticeContext;
+
+/**
+ * A cursor that combines concurrent updates into batches applied with a
+ * single update of an underlying cursor.
+ *
+ * <p>Updating a {@link PathCursor} or {@link DescendedCursor} rebuilds the
+ * whole path from the root, and a CAS conflict at the root means doing it
+ * again. With many threads writing to different keys under the same root,
+ * most of that work is thrown away. Through a combining cursor, each update
+ * function is queued, and whichever thread takes the combiner lock applies
+ * every queued function in order to one value and writes the result with a
+ * single {@code updateAndGet} on the target. Every caller still gets the
+ * result of its own function, exactly as if the updates had been applied
+ * one at a time in queue order.</p>
+ *
+ * <p>Update functions are applied by the combining thread, not the caller,
+ * and may be applied more than once if the target is also written directly.
+ * An exception thrown by one function fails only that caller's update.
+ * {@code get}, {@code set}, {@code getAndSet} and {@code compareAndSet} go
+ * straight to the target.</p>
+ *
+ * <p>Lattice operations use the target's lattice and context when it is a
+ * lattice cursor. Paths and forks of this cursor write through the combiner.</p>
+ *
+ * <pre>{@code
+ * LatticeKV kv = LatticeKV.connect(Cursors.combining(kvCursor));
+ * // Writes from many threads now share root updates
+ * }</pre>
+ *
+ * @param <V> Type of cursor values
+ */
+public class CombiningCursor<V extends ACell> extends ALatticeCursor<V> {
+
+	/** Maximum number of updates applied in one batch */
+	public static final int MAX_BATCH = 1024;
+
+	private final ACursor<V> target;
+
+	private final ConcurrentLinkedQueue<Request<V>> queue = new ConcurrentLinkedQueue<>();
+
+	private final ReentrantLock combiner = new ReentrantLock();
+
+	/**
+	 * A queued update. Fields are written by the combining thread and read
+	 * by the caller after it has acquired the combiner lock.
+	 */
+	private static final class Request<V> {
+		final UnaryOperator<V> update;
+		V before;
+		V after;
+		Throwable error;
+		boolean done;
+
+		Request(UnaryOperator<V> update) {
+			this.update = update;
+		}
+	}
+
+	/**
+	 * Creates a combining cursor over a target cursor.
+	 *
+	 * @param target Cursor to apply combined updates to
+	 */
+	public CombiningCursor(ACursor<V> target) {
+		super(latticeOf(target), contextOf(target), null);
+		this.target = target;
+	}
+
+	private static <V extends ACell> ALattice<V> latticeOf(ACursor<V> target) {
+		return (target instanceof ALatticeCursor<V> lc) ? lc.getLattice() : null;
+	}
+
+	private static LatticeContext contextOf(ACursor<?> target) {
+		return (target instanceof ALatticeCursor<?> lc) ? lc.getContext() : null;
+	}
+
+	/**
+	 * Gets the cursor that combined updates are applied to.
+	 * @return Target cursor
+	 */
+	public ACursor<V> getTarget() {
+		return target;
+	}
+
+	@Override
+	public V sync() {
+		if (target instanceof ALatticeCursor<V> lc) return lc.sync();
+		return get();
+	}
+
+	/**
+	 * Queues an update and waits until a combiner has applied it.
+	 */
+	private Request<V> apply(UnaryOperator<V> update) {
+		Request<V> r = new Request<>(update);
+		queue.add(r);
+		combiner.lock();
+		try {
+			// Usually a previous combiner has already applied this update
+			while (!r.done) combine();
+		} finally {
+			combiner.unlock();
+		}
+		Throwable e = r.error;
+		if (e instanceof RuntimeException re) throw re;
+		if (e instanceof Error err) throw err;
+		return r;
+	}
+
+	/**
+	 * Applies a batch of queued updates with one update of the target.
+	 * Must be called holding the combiner lock.
+	 */
+	private void combine() {
+		ArrayList<Request<V>> batch = new ArrayList<>();
+		Request<V> r;
+		while ((batch.size() < MAX_BATCH) && ((r = queue.poll()) != null)) {
+			batch.add(r);
+		}
+		if (batch.isEmpty()) return;
+
+		try {
+			target.updateAndGet(v -> {
+				// May be re-run if the target was written directly, so start afresh
+				for (Request<V> req : batch) {
+					req.before = v;
+					try {
+						v = req.update.apply(v);
+						req.error = null;
+					} catch (RuntimeException e) {
+						req.error = e;
+					}
+					req.after = v;
+				}
+				return v;
+			});
+		} catch (Throwable e) {
+			for (Request<V> req : batch) req.error = e;
+		}
+		for (Request<V> req : batch) req.done = true;
+	}
+
+	@Override
+	public V get() {
+		return target.get();
+	}
+
+	@Override
+	public void set(V newValue) {
+		target.set(newValue);
+	}
+
+	@Override
+	public V getAndSet(V newValue) {
+		return target.getAndSet(newValue);
+	}
+
+	@Override
+	public boolean compareAndSet(V expected, V newValue) {
+		return target.compareAndSet(expected, newValue);
+	}
+
+	@Override
+	public V getAndUpdate(UnaryOperator<V> updateFunction) {
+		return apply(updateFunction).before;
+	}
+
+	@Override
+	public V updateAndGet(UnaryOperator<V> updateFunction) {
+		return apply(updateFunction).after;
+	}
+
+	@Override
+	public V getAndAccumulate(V x, BinaryOperator<V> accumulatorFunction) {
+		return apply(v -> accumulatorFunction.apply(v, x)).before;
+	}
+
+	@Override
+	public V accumulateAndGet(V x, BinaryOperator<V> accumulatorFunction) {
+		return apply(v -> accumulatorFunction.apply(v, x)).after;
+	}
+}
@@ -70,6 +70,18 @@ public class Cursors {
 		return new RootLatticeCursor<>(lattice, lattice.zero());
 	}
 
+	/**
+	 * Creates a cursor that combines concurrent updates into single updates
+	 * of the given cursor. See {@link CombiningCursor}.
+	 *
+	 * @param <V> Type of cursor value
+	 * @param cursor Cursor to apply combined updates to
+	 * @return New combining cursor
+	 */
+	public static <V extends ACell> CombiningCursor<V> combining(ACursor<V> cursor) {
+		return new CombiningCursor<>(cursor);
+	}
+
 	/**
 	 * Creates a cached transformation cursor that combines a TimeCache with a Transformer.
 	 * 
@@ -219,7 +219,8 @@ public class KVDatabase {
 	/**
 	 * Merges replicas from a remote owner map into this node's local store.
 	 * Uses {@link OwnerLattice} to verify signatures and owner-key matching,
-	 * then absorbs verified remote data into the local KV store.
+	 * then absorbs verified remote data into the local KV store. Expiring and
+	 * deleted remote entries are added to the local expiry index for gc.
 	 *
 	 * <p>Only available in standalone mode (created via {@link #create}).
 	 *
@@ -246,6 +247,7 @@ public class KVDatabase {
 			Index<AString, AVector<ACell>> remoteState = (Index<AString, AVector<ACell>>) dbMap.get(dbName);
 			if (remoteState != null) {
 				kv.cursor().merge(remoteState);
+				kv.index(remoteState);
 				merged++;
 			}
 		}
@@ -1,15 +1,24 @@
 package convex.lattice.kv;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
 import convex.core.data.ACell;
 import convex.core.data.ASet;
 import convex.core.data.AString;
 import convex.core.data.AVector;
+import convex.core.data.Blob;
 import convex.core.data.Index;
+import convex.core.data.MapEntry;
 import convex.core.data.Sets;
 import convex.core.data.Strings;
 import convex.core.data.Vectors;
 import convex.core.data.prim.CVMDouble;
 import convex.core.data.prim.CVMLong;
+import convex.core.util.Utils;
 import convex.lattice.cursor.ALatticeCursor;
 import convex.lattice.cursor.Cursors;
 
@@ -21,17 +30,53 @@ import convex.lattice.cursor.Cursors;
  *
  * Built with lattice merge replication: use {@link #fork()} and {@link #sync()}
  * for conflict-free distributed operation.
+ *
+ * Each instance keeps a local, time-ordered index of when entries written
+ * through it expire or were deleted, so that {@link #gc()} only visits entries
+ * that are due. The index is not replicated: if the store has been changed by
+ * other means, e.g. a pre-populated cursor or merges from other replicas, gc
+ * first rebuilds the index with a full scan. Such entries can also be indexed
+ * directly with {@link #index(Index)}.
  */
 public class LatticeKV {
 
 	private static final AString DEFAULT_REPLICA = Strings.create("default");
 
+	/** Length of the key hash suffix in expiry index keys */
+	private static final int HINT_HASH_LENGTH = 24;
+
 	private final ALatticeCursor<Index<AString, AVector<ACell>>> cursor;
 	private final AString replicaID;
 
+	/**
+	 * Expiry index: keys are an 8-byte big-endian due time followed by a prefix
+	 * of the store key's hash, values are store keys. Entries are hints only,
+	 * and may be stale, so gc re-checks each one against the store.
+	 */
+	private final AtomicReference<Index<Blob, AString>> expiries;
+
+	/**
+	 * Store value whose due entries are all in the expiry index, or null if
+	 * none is known yet. Only advanced by writes through this LatticeKV.
+	 */
+	private final AtomicReference<Index<AString, AVector<ACell>>> indexed;
+
+	/** Store that this was forked from, to receive expiry hints on sync */
+	private final LatticeKV parent;
+
 	public LatticeKV(ALatticeCursor<Index<AString, AVector<ACell>>> cursor, AString replicaID) {
+		this(cursor, replicaID, null, Index.none(), null);
+		// An empty store needs no index, anything else is indexed on first gc
+		Index<AString, AVector<ACell>> store = cursor.get();
+		if ((store == null) || store.isEmpty()) indexed.set(store);
+	}
+
+	private LatticeKV(ALatticeCursor<Index<AString, AVector<ACell>>> cursor, AString replicaID, LatticeKV parent, Index<Blob, AString> expiries, Index<AString, AVector<ACell>> indexed) {
 		this.cursor = cursor;
 		this.replicaID = replicaID;
+		this.parent = parent;
+		this.expiries = new AtomicReference<>(expiries);
+		this.indexed = new AtomicReference<>(indexed);
 	}
 
 	/**
@@ -82,7 +127,7 @@ public class LatticeKV {
 	 * Creates a forked copy of this store for independent operation
 	 */
 	public LatticeKV fork() {
-		return new LatticeKV(cursor.fork(), replicaID);
+		return new LatticeKV(cursor.fork(), replicaID, this, expiries.get(), indexed.get());
 	}
 
 	/**
@@ -90,6 +135,34 @@ public class LatticeKV {
 	 */
 	public void sync() {
 		cursor.sync();
+		if (parent != null) parent.addHints(expiries.get());
+	}
+
+	/**
+	 * Runs a batch of operations as a single atomic update of the underlying
+	 * cursor. The operations run against a private snapshot of the store, so
+	 * they see each other's writes but no concurrent changes. If the store
+	 * changed in the meantime, the whole batch is run again on the new
+	 * store, so the operations must have no side effects other than on the
+	 * given LatticeKV. A batch that writes nothing leaves the cursor untouched.
+	 *
+	 * @param <R> Result type
+	 * @param ops Operations to apply to the snapshot
+	 * @return Result of the operations from the run that was applied
+	 */
+	public <R> R atomic(Function<LatticeKV, R> ops) {
+		while (true) {
+			Index<AString, AVector<ACell>> store = cursor.get();
+			LatticeKV snapshot = new LatticeKV(Cursors.createLattice(KVStoreLattice.INSTANCE, store), replicaID);
+			R result = ops.apply(snapshot);
+			Index<AString, AVector<ACell>> updated = snapshot.cursor.get();
+			if (updated == store) return result;
+			if (cursor.compareAndSet(store, updated)) {
+				addHints(snapshot.expiries.get());
+				indexed.compareAndSet(store, updated);
+				return result;
+			}
+		}
 	}
 
 	// ========== Internal Helpers ==========
@@ -117,10 +190,40 @@ public class LatticeKV {
 
 	private void putEntry(String key, AVector<ACell> entry) {
 		AString k = key(key);
-		cursor.updateAndGet(store -> {
+		List<Index<AString, AVector<ACell>>> before = new ArrayList<>(1);
+		Index<AString, AVector<ACell>> after = cursor.updateAndGet(store -> {
+			before.clear();
+			before.add(store);
 			if (store == null) store = KVStoreLattice.INSTANCE.zero();
 			return store.assoc(k, entry);
 		});
+		Blob hint = hintKey(k, entry);
+		if (hint != null) expiries.updateAndGet(idx -> idx.assoc(hint, k));
+		indexed.compareAndSet(before.get(0), after);
+	}
+
+	/**
+	 * Gets the expiry index key for an entry, or null if the entry never
+	 * becomes due for gc. Tombstones are due from the time of deletion.
+	 */
+	private static Blob hintKey(AString key, AVector<ACell> entry) {
+		CVMLong due = KVEntry.isTombstone(entry) ? KVEntry.getUTime(entry) : KVEntry.getExpire(entry);
+		if (due == null) return null;
+		byte[] bs = new byte[8 + HINT_HASH_LENGTH];
+		Utils.writeLong(bs, 0, due.longValue());
+		System.arraycopy(key.getHash().getBytes(), 0, bs, 8, HINT_HASH_LENGTH);
+		return Blob.wrap(bs);
+	}
+
+	private void addHints(Index<Blob, AString> hints) {
+		if (hints.isEmpty()) return;
+		expiries.updateAndGet(idx -> {
+			if (idx.isEmpty()) return hints;
+			for (var e : hints.entrySet()) {
+				idx = idx.assoc(e.getKey(), e.getValue());
+			}
+			return idx;
+		});
 	}
 
 	private void checkType(AVector<ACell> entry, long expectedType, String operation) {
@@ -194,6 +297,40 @@ public class LatticeKV {
 		return result;
 	}
 
+	/**
+	 * A page of keys returned by {@link LatticeKV#scan(AString, long)}.
+	 *
+	 * @param keys Live keys in the page, in key order
+	 * @param next Key to continue the scan from, or null if the scan is complete
+	 */
+	public record ScanPage(AVector<AString> keys, AString next) {}
+
+	/**
+	 * Scans live keys in key order, a page at a time, without materialising
+	 * the whole key set. Each call visits at most {@code count} stored entries,
+	 * so a page may hold fewer keys (even none) when deleted or expired
+	 * entries are skipped. Keys present for the whole of a scan are returned
+	 * exactly once, even if the store changes between pages.
+	 *
+	 * @param from Key to start from (inclusive), or null to start at the first key
+	 * @param count Maximum number of entries to visit, at least 1
+	 * @return Page of keys, with the key to continue from
+	 */
+	public ScanPage scan(AString from, long count) {
+		if (count < 1) throw new IllegalArgumentException("Scan count must be positive");
+		Index<AString, AVector<ACell>> store = cursor.get();
+		if (store == null) return new ScanPage(Vectors.empty(), null);
+		long now = System.currentTimeMillis();
+		Iterator<MapEntry<AString, AVector<ACell>>> it = store.scan(from, null, false);
+		AVector<AString> keys = Vectors.empty();
+		for (long i = 0; i < count && it.hasNext(); i++) {
+			MapEntry<AString, AVector<ACell>> e = it.next();
+			if (KVEntry.isLive(e.getValue(), now)) keys = keys.conj(e.getKey());
+		}
+		AString next = it.hasNext() ? it.next().getKey() : null;
+		return new ScanPage(keys, next);
+	}
+
 	/**
 	 * Sets expiry on an existing key. Returns 1 if set, 0 if key not found.
 	 */
@@ -482,23 +619,83 @@ public class LatticeKV {
 	// ========== Maintenance ==========
 
 	/**
-	 * Removes expired entries and old tombstones. Returns count of entries removed.
+	 * Removes expired entries and tombstones that are due, as found from the
+	 * expiry index, so the cost is proportional to the number of due entries
+	 * rather than the size of the store. Returns count of entries removed.
 	 */
 	public long gc() {
+		// Entries written by other means are not in the index yet
+		Index<AString, AVector<ACell>> current = cursor.get();
+		if ((current != null) && (current != indexed.get())) {
+			index(current);
+			indexed.set(current);
+		}
+
 		long now = System.currentTimeMillis();
+		byte[] end = new byte[8];
+		Utils.writeLong(end, 0, now + 1);
+		List<Blob> hints = new ArrayList<>();
+		List<AString> due = new ArrayList<>();
+		Iterator<MapEntry<Blob, AString>> it = expiries.get().scan(null, Blob.wrap(end), false);
+		while (it.hasNext()) {
+			MapEntry<Blob, AString> e = it.next();
+			hints.add(e.getKey());
+			due.add(e.getValue());
+		}
+		if (hints.isEmpty()) return 0;
+
 		long[] removed = {0};
-		cursor.updateAndGet(store -> {
+		List<Index<AString, AVector<ACell>>> before = new ArrayList<>(1);
+		Index<AString, AVector<ACell>> after = cursor.updateAndGet(store -> {
+			removed[0] = 0;
+			before.clear();
+			before.add(store);
 			if (store == null) return store;
 			Index<AString, AVector<ACell>> result = store;
-			for (var e : store.entrySet()) {
-				AVector<ACell> entry = e.getValue();
+			for (AString k : due) {
+				AVector<ACell> entry = result.get(k);
 				if (KVEntry.isTombstone(entry) || KVEntry.isExpired(entry, now)) {
-					result = result.dissoc(e.getKey());
+					result = result.dissoc(k);
 					removed[0]++;
 				}
 			}
 			return result;
 		});
+
+		// Hints are dropped whether or not they were stale
+		expiries.updateAndGet(idx -> {
+			for (Blob h : hints) idx = idx.dissoc(h);
+			return idx;
+		});
+		indexed.compareAndSet(before.get(0), after);
 		return removed[0];
 	}
+
+	/**
+	 * Adds expiry index entries for entries that were merged into the store
+	 * without going through this LatticeKV, e.g. from remote replicas, so that
+	 * {@link #gc()} will find them.
+	 *
+	 * @param entries Store entries to index
+	 */
+	public void index(Index<AString, AVector<ACell>> entries) {
+		if (entries == null) return;
+		Index<Blob, AString> hints = Index.none();
+		for (var e : entries.entrySet()) {
+			Blob hint = hintKey(e.getKey(), e.getValue());
+			if (hint != null) hints = hints.assoc(hint, e.getKey());
+		}
+		addHints(hints);
+	}
+
+	/**
+	 * Rebuilds the expiry index with a full scan of the store. gc does this
+	 * itself when the cursor has been updated by other writers.
+	 */
+	public void reindex() {
+		Index<AString, AVector<ACell>> store = cursor.get();
+		expiries.set(Index.none());
+		index(store);
+		indexed.set(store);
+	}
 }
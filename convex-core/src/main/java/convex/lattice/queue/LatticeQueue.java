@@ -1,8 +1,12 @@
 package convex.lattice.queue;
 
+import java.util.Iterator;
+
 import convex.core.data.ACell;
 import convex.core.data.AHashMap;
 import convex.core.data.AVector;
+import convex.core.data.Blob;
+import convex.core.data.MapEntry;
 import convex.core.data.Vectors;
 import convex.core.data.prim.CVMLong;
 import convex.lattice.cursor.ALatticeCursor;
@@ -16,6 +20,10 @@ import convex.lattice.cursor.Cursors;
  * independently. Supports truncation for reclaiming space while preserving
  * offset continuity.</p>
  *
+ * <p>Entries are stored in segments of {@link QueueLattice#SEGMENT_SIZE}
+ * entries (see {@link QueueLattice}), so appends, offset lookups and
+ * retention stay cheap as a long-lived queue grows.</p>
+ *
  * <p>Use {@link #fork()} and {@link #sync()} for conflict-free distributed
  * replication with lattice merge semantics.</p>
  *
@@ -105,15 +113,8 @@ public class LatticeQueue {
 		long[] offset = new long[1];
 		cursor.updateAndGet(state -> {
 			if (state == null) state = QueueLattice.INSTANCE.zero();
-
-			AVector<ACell> entries = QueueLattice.getEntries(state);
-			long startOffset = QueueLattice.getStartOffset(state);
-			AHashMap<ACell, ACell> meta = QueueLattice.getMeta(state);
-
-			AVector<ACell> newEntries = entries.append(entry);
-			offset[0] = startOffset + newEntries.count() - 1;
-
-			return Vectors.of(newEntries, meta, now, state.get(QueueLattice.POS_START_OFFSET));
+			offset[0] = QueueLattice.getEndOffset(state);
+			return QueueLattice.append(state, entry, now);
 		});
 
 		return offset[0];
@@ -124,17 +125,8 @@ public class LatticeQueue {
 	/**
 	 * Returns the full entry record at the specified absolute offset, or null if not found.
 	 */
-	@SuppressWarnings("unchecked")
 	public AVector<ACell> peekEntry(long offset) {
-		AVector<ACell> state = cursor.get();
-		if (state == null) return null;
-
-		AVector<ACell> entries = QueueLattice.getEntries(state);
-		long startOffset = QueueLattice.getStartOffset(state);
-
-		long index = offset - startOffset;
-		if (index < 0 || index >= entries.count()) return null;
-		return (AVector<ACell>) entries.get(index);
+		return QueueLattice.getEntry(cursor.get(), offset);
 	}
 
 	/**
@@ -164,25 +156,17 @@ public class LatticeQueue {
 	/**
 	 * Returns the first entry in the queue, or null if empty.
 	 */
-	@SuppressWarnings("unchecked")
 	public AVector<ACell> peekFirstEntry() {
 		AVector<ACell> state = cursor.get();
-		if (state == null) return null;
-		AVector<ACell> entries = QueueLattice.getEntries(state);
-		if (entries.isEmpty()) return null;
-		return (AVector<ACell>) entries.get(0);
+		return QueueLattice.getEntry(state, QueueLattice.getStartOffset(state));
 	}
 
 	/**
 	 * Returns the last entry in the queue, or null if empty.
 	 */
-	@SuppressWarnings("unchecked")
 	public AVector<ACell> peekLastEntry() {
 		AVector<ACell> state = cursor.get();
-		if (state == null) return null;
-		AVector<ACell> entries = QueueLattice.getEntries(state);
-		if (entries.isEmpty()) return null;
-		return (AVector<ACell>) entries.get(entries.count() - 1);
+		return QueueLattice.getEntry(state, QueueLattice.getEndOffset(state) - 1);
 	}
 
 	// ===== Queue Info =====
@@ -201,7 +185,7 @@ public class LatticeQueue {
 	public long endOffset() {
 		AVector<ACell> state = cursor.get();
 		if (state == null) return 0L;
-		return QueueLattice.getStartOffset(state) + QueueLattice.getEntries(state).count();
+		return QueueLattice.getEndOffset(state);
 	}
 
 	/**
@@ -210,7 +194,7 @@ public class LatticeQueue {
 	public long size() {
 		AVector<ACell> state = cursor.get();
 		if (state == null) return 0L;
-		return QueueLattice.getEntries(state).count();
+		return QueueLattice.getEndOffset(state) - QueueLattice.getStartOffset(state);
 	}
 
 	/**
@@ -231,26 +215,39 @@ public class LatticeQueue {
 		if (state == null) return Vectors.empty();
 		if (fromOffset > toOffset) return Vectors.empty();
 
-		AVector<ACell> entries = QueueLattice.getEntries(state);
 		long startOffset = QueueLattice.getStartOffset(state);
-		long endOffset = startOffset + entries.count();
+		long endOffset = QueueLattice.getEndOffset(state);
 
 		// Clamp to valid bounds
 		long from = Math.max(fromOffset, startOffset);
 		long to = Math.min(toOffset, endOffset - 1);
 		if (from > to) return Vectors.empty();
 
-		long fromIdx = from - startOffset;
-		long toIdx = to - startOffset + 1; // exclusive for slice
+		// Extract values from sealed segments, starting with the one containing from
+		AVector<ACell> result = Vectors.empty();
+		long tailOffset = QueueLattice.getTailOffset(state);
+		if (from < tailOffset) {
+			Iterator<MapEntry<Blob, AVector<ACell>>> it = QueueLattice.segmentsFrom(state, from);
+			while (it.hasNext()) {
+				MapEntry<Blob, AVector<ACell>> e = it.next();
+				long base = e.getKey().longValue();
+				if (base > to) break;
+				result = appendValues(result, e.getValue(), Math.max(from, base) - base, Math.min(to + 1 - base, e.getValue().count()));
+			}
+		}
 
-		AVector<ACell> slice = entries.slice(fromIdx, toIdx);
+		// Then from the tail
+		if (to >= tailOffset) {
+			AVector<ACell> tail = QueueLattice.getTail(state);
+			result = appendValues(result, tail, Math.max(from, tailOffset) - tailOffset, to + 1 - tailOffset);
+		}
+		return result;
+	}
 
-		// Extract values from entries
-		AVector<ACell> result = Vectors.empty();
-		long n = slice.count();
-		for (long i = 0; i < n; i++) {
-			AVector<ACell> entry = (AVector<ACell>) slice.get(i);
-			result = result.append(QueueEntry.getValue(entry));
+	@SuppressWarnings("unchecked")
+	private static AVector<ACell> appendValues(AVector<ACell> result, AVector<ACell> entries, long start, long end) {
+		for (long i = start; i < end; i++) {
+			result = result.append(QueueEntry.getValue((AVector<ACell>) entries.get(i)));
 		}
 		return result;
 	}
@@ -303,22 +300,49 @@ public class LatticeQueue {
 				return state;
 			}
 
-			AVector<ACell> entries = QueueLattice.getEntries(state);
-			long trim = newStartOffset - currentStart;
+			removed[0] = Math.min(newStartOffset, QueueLattice.getEndOffset(state)) - currentStart;
+			return QueueLattice.truncate(state, newStartOffset).assoc(QueueLattice.POS_TIMESTAMP, now);
+		});
+		return removed[0];
+	}
 
-			AVector<ACell> newEntries;
-			if (trim >= entries.count()) {
-				removed[0] = entries.count();
-				newEntries = Vectors.empty();
-			} else {
-				removed[0] = trim;
-				newEntries = entries.slice(trim);
+	/**
+	 * Truncates whole segments whose entries are all older than the given
+	 * time, for time-based retention. Retention is segment-granular, like
+	 * Kafka: entries older than the cutoff may remain until the rest of their
+	 * segment is also old enough. The tail segment is only dropped once all
+	 * of its entries are older than the cutoff.
+	 *
+	 * @param timestamp Cutoff time in epoch millis
+	 * @return Number of entries removed
+	 */
+	public long truncateBefore(long timestamp) {
+		AVector<ACell> state = cursor.get();
+		if (state == null) return 0;
+		long newStart = QueueLattice.getEndOffset(state);
+		Iterator<MapEntry<Blob, AVector<ACell>>> it = QueueLattice.segmentsFrom(state, QueueLattice.getStartOffset(state));
+		while (it.hasNext()) {
+			MapEntry<Blob, AVector<ACell>> e = it.next();
+			if (!isBefore(e.getValue(), timestamp)) {
+				newStart = e.getKey().longValue();
+				break;
 			}
+		}
+		if (newStart == QueueLattice.getEndOffset(state)) {
+			AVector<ACell> tail = QueueLattice.getTail(state);
+			if (!tail.isEmpty() && !isBefore(tail, timestamp)) newStart = QueueLattice.getTailOffset(state);
+		}
+		return truncate(newStart);
+	}
 
-			AHashMap<ACell, ACell> meta = QueueLattice.getMeta(state);
-			return Vectors.of(newEntries, meta, now, CVMLong.create(newStartOffset));
-		});
-		return removed[0];
+	/**
+	 * Checks if the last entry in a segment is older than the given time.
+	 */
+	@SuppressWarnings("unchecked")
+	private static boolean isBefore(AVector<ACell> segment, long timestamp) {
+		AVector<ACell> last = (AVector<ACell>) segment.get(segment.count() - 1);
+		CVMLong ts = QueueEntry.getTimestamp(last);
+		return (ts != null) && (ts.longValue() < timestamp);
 	}
 
 	// ===== Internal =====
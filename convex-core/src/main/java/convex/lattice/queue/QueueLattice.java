@@ -1,8 +1,13 @@
 package convex.lattice.queue;
 
+import java.util.Iterator;
+
 import convex.core.data.ACell;
 import convex.core.data.AHashMap;
 import convex.core.data.AVector;
+import convex.core.data.Blob;
+import convex.core.data.Index;
+import convex.core.data.MapEntry;
 import convex.core.data.Maps;
 import convex.core.data.Vectors;
 import convex.core.data.prim.CVMLong;
@@ -12,20 +17,31 @@ import convex.lattice.ALattice;
 /**
  * Lattice implementation for a Kafka-style queue partition.
  *
- * <p>The queue state is an AVector&lt;ACell&gt; with four slots:</p>
+ * <p>The queue state is an AVector&lt;ACell&gt; with four or five slots:</p>
  * <ul>
- *   <li>POS_ENTRIES (0) - Append-only vector of entry records</li>
+ *   <li>POS_ENTRIES (0) - Tail segment: entry records after the sealed segments</li>
  *   <li>POS_META (1) - Queue metadata as keyword map</li>
  *   <li>POS_TIMESTAMP (2) - Last update timestamp</li>
- *   <li>POS_START_OFFSET (3) - Absolute offset of entries[0]</li>
+ *   <li>POS_START_OFFSET (3) - Absolute offset of the first retained entry</li>
+ *   <li>POS_SEGMENTS (4, optional) - Sealed segments, as an Index from
+ *       8-byte big-endian base offset to a vector of entry records</li>
  * </ul>
  *
+ * <p>Appends go to the tail, which is sealed into the segment Index once it
+ * holds {@link #SEGMENT_SIZE} entries, so an append only rewrites a small
+ * vector however long the queue is. Sealed segments never change again, so
+ * they are persisted and shared once. Truncation drops whole segments, and
+ * slices at most one. The first sealed segment starts at the start offset,
+ * and each following segment (and finally the tail) starts where the previous
+ * one ends. Without sealed segments, the state is the original four-slot form
+ * with all entries in the tail.</p>
+ *
  * <p>Merge strategy (single-leader model):</p>
  * <ul>
  *   <li>startOffset: max (truncation only advances)</li>
  *   <li>timestamp: max (latest update wins)</li>
  *   <li>metadata: map union (own wins on conflict)</li>
- *   <li>entries: align to max startOffset, take longer vector</li>
+ *   <li>entries: the log reaching the higher end offset, truncated to the max startOffset</li>
  * </ul>
  */
 public class QueueLattice extends ALattice<AVector<ACell>> {
@@ -36,8 +52,12 @@ public class QueueLattice extends ALattice<AVector<ACell>> {
 	public static final int POS_META = 1;
 	public static final int POS_TIMESTAMP = 2;
 	public static final int POS_START_OFFSET = 3;
+	public static final int POS_SEGMENTS = 4;
 	public static final long STATE_LENGTH = 4;
 
+	/** Number of entries in a sealed segment */
+	public static final long SEGMENT_SIZE = 1024;
+
 	private static final AVector<ACell> ZERO = Vectors.of(Vectors.empty(), Maps.empty(), CVMLong.ZERO, CVMLong.ZERO);
 
 	private QueueLattice() {
@@ -69,22 +89,12 @@ public class QueueLattice extends ALattice<AVector<ACell>> {
 		AHashMap<ACell, ACell> otherMeta = getMeta(otherValue);
 		AHashMap<ACell, ACell> mergedMeta = mergeMeta(ownMeta, otherMeta);
 
-		// Merge entries: align to merged start offset, take longer
-		AVector<ACell> ownEntries = getEntries(ownValue);
-		AVector<ACell> otherEntries = getEntries(otherValue);
-
-		AVector<ACell> ownAligned = alignEntries(ownEntries, ownStart, mergedStart);
-		AVector<ACell> otherAligned = alignEntries(otherEntries, otherStart, mergedStart);
-
-		AVector<ACell> mergedEntries;
-		if (ownAligned.count() >= otherAligned.count()) {
-			mergedEntries = ownAligned;
-		} else {
-			mergedEntries = otherAligned;
-		}
+		// Merge entries: take the log that reaches further, aligned to the merged start
+		AVector<ACell> winner = (getEndOffset(ownValue) >= getEndOffset(otherValue)) ? ownValue : otherValue;
+		winner = truncate(winner, mergedStart);
 
 		// Build merged state
-		return Vectors.of(mergedEntries, mergedMeta, CVMLong.create(mergedTs), CVMLong.create(mergedStart));
+		return create(getTail(winner), mergedMeta, CVMLong.create(mergedTs), mergedStart, getSegments(winner));
 	}
 
 	@Override
@@ -103,6 +113,11 @@ public class QueueLattice extends ALattice<AVector<ACell>> {
 		// Check timestamp is a CVMLong
 		ACell timestamp = value.get(POS_TIMESTAMP);
 		if (!(timestamp instanceof CVMLong)) return false;
+		// Sealed segments, if present, must be an Index
+		if (value.count() > POS_SEGMENTS) {
+			ACell segments = value.get(POS_SEGMENTS);
+			if ((segments != null) && !(segments instanceof Index)) return false;
+		}
 		return true;
 	}
 
@@ -114,16 +129,162 @@ public class QueueLattice extends ALattice<AVector<ACell>> {
 	// ===== Static helpers =====
 
 	/**
-	 * Gets the entries vector from queue state.
+	 * Creates a queue state. Uses the four-slot form when there are no
+	 * sealed segments.
+	 */
+	public static AVector<ACell> create(AVector<ACell> tail, AHashMap<ACell, ACell> meta, CVMLong timestamp, long startOffset, Index<Blob, AVector<ACell>> segments) {
+		if (segments == null || segments.isEmpty()) {
+			return Vectors.of(tail, meta, timestamp, CVMLong.create(startOffset));
+		}
+		return Vectors.of(tail, meta, timestamp, CVMLong.create(startOffset), segments);
+	}
+
+	/**
+	 * Gets all retained entries from queue state as one vector. This copies
+	 * every sealed segment, so prefer {@link #getEntry} or
+	 * {@link LatticeQueue#range} for large queues.
 	 */
-	@SuppressWarnings("unchecked")
 	public static AVector<ACell> getEntries(AVector<ACell> state) {
+		Index<Blob, AVector<ACell>> segments = getSegments(state);
+		AVector<ACell> tail = getTail(state);
+		if (segments.isEmpty()) return tail;
+		// Index entries are in offset order by position (entrySet is unordered)
+		AVector<ACell> result = Vectors.empty();
+		long n = segments.count();
+		for (long i = 0; i < n; i++) {
+			result = result.concat(segments.entryAt(i).getValue());
+		}
+		return result.concat(tail);
+	}
+
+	/**
+	 * Gets the tail segment (entries not yet sealed) from queue state.
+	 */
+	@SuppressWarnings("unchecked")
+	public static AVector<ACell> getTail(AVector<ACell> state) {
 		if (state == null) return Vectors.empty();
 		ACell entries = state.get(POS_ENTRIES);
 		if (entries == null) return Vectors.empty();
 		return (AVector<ACell>) entries;
 	}
 
+	/**
+	 * Gets the sealed segments from queue state, keyed by base offset.
+	 */
+	@SuppressWarnings("unchecked")
+	public static Index<Blob, AVector<ACell>> getSegments(AVector<ACell> state) {
+		if (state == null || state.count() <= POS_SEGMENTS) return Index.none();
+		ACell segments = state.get(POS_SEGMENTS);
+		if (segments == null) return Index.none();
+		return (Index<Blob, AVector<ACell>>) segments;
+	}
+
+	/**
+	 * Gets the segment Index key for a base offset.
+	 */
+	public static Blob segmentKey(long offset) {
+		byte[] bs = new byte[8];
+		Utils.writeLong(bs, 0, offset);
+		return Blob.wrap(bs);
+	}
+
+	/**
+	 * Gets the absolute offset of the first entry in the tail segment.
+	 */
+	public static long getTailOffset(AVector<ACell> state) {
+		Index<Blob, AVector<ACell>> segments = getSegments(state);
+		if (segments.isEmpty()) return getStartOffset(state);
+		MapEntry<Blob, AVector<ACell>> last = segments.entryAt(segments.count() - 1);
+		return last.getKey().longValue() + last.getValue().count();
+	}
+
+	/**
+	 * Gets the next absolute offset to be written (exclusive end).
+	 */
+	public static long getEndOffset(AVector<ACell> state) {
+		return getTailOffset(state) + getTail(state).count();
+	}
+
+	/**
+	 * Gets the entry at an absolute offset, or null if not retained.
+	 * Finds the containing segment with a seek in the segment Index.
+	 */
+	@SuppressWarnings("unchecked")
+	public static AVector<ACell> getEntry(AVector<ACell> state, long offset) {
+		if (state == null || offset < getStartOffset(state)) return null;
+		long tailOffset = getTailOffset(state);
+		if (offset >= tailOffset) {
+			AVector<ACell> tail = getTail(state);
+			long i = offset - tailOffset;
+			return (i < tail.count()) ? (AVector<ACell>) tail.get(i) : null;
+		}
+		MapEntry<Blob, AVector<ACell>> e = segmentsFrom(state, offset).next();
+		return (AVector<ACell>) e.getValue().get(offset - e.getKey().longValue());
+	}
+
+	/**
+	 * Iterates sealed segments in offset order, starting with the one
+	 * containing the given offset (or the first, if the offset is before it).
+	 */
+	public static Iterator<MapEntry<Blob, AVector<ACell>>> segmentsFrom(AVector<ACell> state, long offset) {
+		Index<Blob, AVector<ACell>> segments = getSegments(state);
+		Iterator<MapEntry<Blob, AVector<ACell>>> floor = segments.scan(null, segmentKey(offset + 1), true);
+		Blob start = floor.hasNext() ? floor.next().getKey() : null;
+		return segments.scan(start, null, false);
+	}
+
+	/**
+	 * Appends an entry to queue state, sealing the tail into a segment once
+	 * it is full.
+	 */
+	public static AVector<ACell> append(AVector<ACell> state, AVector<ACell> entry, CVMLong timestamp) {
+		if (state == null) state = ZERO;
+		long startOffset = getStartOffset(state);
+		Index<Blob, AVector<ACell>> segments = getSegments(state);
+		AVector<ACell> tail = getTail(state).append(entry);
+		if (tail.count() >= SEGMENT_SIZE) {
+			segments = segments.assoc(segmentKey(getTailOffset(state)), tail);
+			tail = Vectors.empty();
+		}
+		return create(tail, getMeta(state), timestamp, startOffset, segments);
+	}
+
+	/**
+	 * Advances the start offset of queue state, dropping sealed segments that
+	 * end before it and slicing the segment that contains it. Does not change
+	 * the timestamp. A start offset at or before the current one is a no-op.
+	 */
+	public static AVector<ACell> truncate(AVector<ACell> state, long newStartOffset) {
+		if (state == null) state = ZERO;
+		if (newStartOffset <= getStartOffset(state)) return state;
+
+		Index<Blob, AVector<ACell>> segments = getSegments(state);
+		AVector<ACell> tail = getTail(state);
+		long tailOffset = getTailOffset(state);
+		if (newStartOffset >= tailOffset) {
+			long trim = newStartOffset - tailOffset;
+			tail = (trim >= tail.count()) ? Vectors.empty() : tail.slice(trim);
+			segments = Index.none();
+		} else {
+			// A segment containing the new start exists, since it is before the tail
+			while (true) {
+				MapEntry<Blob, AVector<ACell>> first = segments.entryAt(0);
+				long base = first.getKey().longValue();
+				AVector<ACell> segment = first.getValue();
+				if (base + segment.count() <= newStartOffset) {
+					segments = segments.dissoc(first.getKey());
+					continue;
+				}
+				if (base < newStartOffset) {
+					segments = segments.dissoc(first.getKey())
+						.assoc(segmentKey(newStartOffset), segment.slice(newStartOffset - base));
+				}
+				break;
+			}
+		}
+		return create(tail, getMeta(state), (CVMLong) state.get(POS_TIMESTAMP), newStartOffset, segments);
+	}
+
 	/**
 	 * Gets the metadata map from queue state.
 	 */
@@ -155,17 +316,6 @@ public class QueueLattice extends ALattice<AVector<ACell>> {
 		return ((CVMLong) offset).longValue();
 	}
 
-	/**
-	 * Aligns an entries vector to a new (potentially higher) start offset
-	 * by slicing off leading entries.
-	 */
-	private static AVector<ACell> alignEntries(AVector<ACell> entries, long currentStart, long newStart) {
-		if (newStart <= currentStart) return entries;
-		long trim = newStart - currentStart;
-		if (trim >= entries.count()) return Vectors.empty();
-		return entries.slice(trim);
-	}
-
 	/**
 	 * Merges two metadata maps. Own entries take precedence on key conflict.
 	 */
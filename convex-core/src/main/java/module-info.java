@@ -52,6 +52,7 @@ module convex.core {
 	exports convex.core.data;
 	exports convex.core.lang;
 	exports convex.core.json;
+	exports convex.auth;
 	exports convex.auth.did;
 	exports convex.auth.jwt;
 	exports convex.auth.ucan;
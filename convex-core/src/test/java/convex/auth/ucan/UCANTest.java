@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
+import convex.auth.TokenCache;
 import convex.core.crypto.AKeyPair;
 import convex.core.data.ACell;
 import convex.core.data.AMap;
@@ -447,6 +448,33 @@ public class UCANTest {
 			"JWT chain with mismatched link should fail");
 	}
 
+	@Test
+	public void testJWTChainValidationCached() {
+		TokenCache<UCAN> cache = new TokenCache<>();
+		AString rootJwt = UCAN.createJWT(ROOT_KP, AGENT_A_KP.getAccountKey(), FUTURE_EXPIRY, null, null);
+		AString childJwt = UCAN.createJWT(AGENT_A_KP, AGENT_B_KP.getAccountKey(), FUTURE_EXPIRY, null, Vectors.of(rootJwt));
+
+		UCAN validated = UCANValidator.validateJWT(childJwt, NOW, cache);
+		assertNotNull(validated);
+		// Both the token and its proof are cached
+		assertEquals(2, cache.size());
+		assertEquals(validated, UCANValidator.validateJWT(childJwt, NOW, cache));
+
+		// Cached tokens still expire
+		assertNull(UCANValidator.validateJWT(childJwt, FUTURE_EXPIRY, cache));
+
+		// Invalidating a proof means the chain is checked again
+		assertNotNull(UCANValidator.validateJWT(childJwt, NOW, cache));
+		cache.invalidate(rootJwt);
+		assertNotNull(UCANValidator.validateJWT(childJwt, NOW, cache));
+		assertEquals(2, cache.size());
+
+		// Failures are not cached
+		AString badChild = UCAN.createJWT(AGENT_B_KP, AGENT_A_KP.getAccountKey(), FUTURE_EXPIRY, null, Vectors.of(rootJwt));
+		assertNull(UCANValidator.validateJWT(badChild, NOW, cache));
+		assertNull(cache.get(badChild, NOW));
+	}
+
 	@Test
 	public void testJWTFromMalformed() {
 		assertNull(UCAN.fromJWT(null));
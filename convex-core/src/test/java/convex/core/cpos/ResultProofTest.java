@@ -0,0 +1,138 @@
+package convex.core.cpos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import convex.core.ErrorCodes;
+import convex.core.Result;
+import convex.core.cvm.Address;
+import convex.core.cvm.State;
+import convex.core.cvm.transactions.ATransaction;
+import convex.core.cvm.transactions.Invoke;
+import convex.core.data.ACell;
+import convex.core.data.AVector;
+import convex.core.data.Blob;
+import convex.core.data.Blobs;
+import convex.core.data.Format;
+import convex.core.data.Hash;
+import convex.core.data.SignedData;
+import convex.core.data.Vectors;
+import convex.core.data.prim.CVMLong;
+import convex.core.init.InitTest;
+import convex.test.Samples;
+
+public class ResultProofTest {
+	static final State STATE = InitTest.STATE;
+
+	static final long HISTORY = 1000;
+	static final int NUM_BLOCKS = 300;
+
+	private static final SignedData<ATransaction>[] TXS = makeTransactions();
+
+	@SuppressWarnings("unchecked")
+	private static SignedData<ATransaction>[] makeTransactions() {
+		SignedData<ATransaction>[] txs = new SignedData[5];
+		for (int j = 0; j < txs.length; j++) {
+			txs[j] = Samples.KEY_PAIR.signData(Invoke.create(Address.create(11), j + 1, "(+ 1 " + j + ")"));
+		}
+		return txs;
+	}
+
+	/**
+	 * Makes a signed Order covering the results, final up to the given block number
+	 */
+	private static SignedData<Order> makeOrder(long finality) {
+		SignedData<Block> block = Samples.KEY_PAIR.signData(Block.of(0, TXS));
+		Order order = Order.create().withBlocks(Vectors.repeat(block, (int) (HISTORY + NUM_BLOCKS)));
+		long[] cps = new long[CPoSConstants.CONSENSUS_LEVELS];
+		Arrays.fill(cps, finality);
+		return Samples.KEY_PAIR.signData(order.withConsensusPoints(cps));
+	}
+
+	private static AVector<ACell> makeCommitment(AVector<BlockResult> brs) {
+		return ResultProof.createCommitment(HISTORY, brs, makeOrder(HISTORY + NUM_BLOCKS));
+	}
+
+	private static AVector<BlockResult> makeResults() {
+		AVector<BlockResult> brs = Vectors.empty();
+		for (int i = 0; i < NUM_BLOCKS; i++) {
+			Result[] rs = new Result[5];
+			for (int j = 0; j < rs.length; j++) {
+				rs[j] = ((i + j) % 7 == 0)
+					? Result.error(ErrorCodes.CAST, "fail " + i)
+					: Result.value(Vectors.of(i, j, Blobs.createRandom(200)));
+			}
+			brs = brs.append(BlockResult.create(STATE, rs));
+		}
+		return brs;
+	}
+
+	@Test
+	public void testProofRoundTrip() {
+		AVector<BlockResult> brs = makeResults();
+		AVector<ACell> commitment = makeCommitment(brs);
+		Hash root = commitment.getHash();
+
+		long block = HISTORY + 137;
+		Blob proof = ResultProof.createProof(commitment, block, 3);
+		assertNotNull(proof);
+
+		Result expected = brs.get(137).getResult(3);
+		Result proven = ResultProof.verify(root, proof, block, 3);
+		assertEquals(expected, proven);
+		assertTrue(ResultProof.matches(proven, expected.withID(CVMLong.create(17))));
+		assertFalse(ResultProof.matches(proven, brs.get(138).getResult(3)));
+
+		// The proof also shows the transaction at the same position in the signed Order
+		ACell decoded = ResultProof.decode(proof);
+		assertEquals(TXS[3].getHash(), ResultProof.getTransactionID(decoded, block, 3));
+		SignedData<Order> order = ResultProof.getOrder(decoded);
+		assertTrue(order.checkSignature());
+		assertEquals(HISTORY + NUM_BLOCKS, order.getValue().getConsensusPoint(CPoSConstants.CONSENSUS_LEVEL_FINALITY));
+
+		// Proof is compact relative to the full result set, and excludes State
+		assertTrue(proof.count() * 10 < Format.encodeMultiCell(brs, true).count());
+
+		// Wrong root, or a Result outside the proven path, does not verify
+		assertNull(ResultProof.verify(Samples.BAD_HASH, proof, block, 3));
+		assertNull(ResultProof.verify(root, proof, HISTORY + 10, 3));
+
+		// Tampered proof does not verify
+		byte[] bs = proof.getBytes();
+		bs[bs.length - 5] ^= 1;
+		assertNull(ResultProof.verify(root, Blob.wrap(bs), block, 3));
+	}
+
+	@Test
+	public void testMissingResults() {
+		AVector<BlockResult> brs = makeResults();
+		AVector<ACell> commitment = makeCommitment(brs);
+		assertNull(ResultProof.createProof(commitment, HISTORY - 1, 0));
+		assertNull(ResultProof.createProof(commitment, HISTORY + NUM_BLOCKS, 0));
+		assertNull(ResultProof.createProof(commitment, HISTORY, 5));
+	}
+
+	@Test
+	public void testSignedCommitment() {
+		AVector<BlockResult> brs = makeResults();
+		AVector<ACell> commitment = makeCommitment(brs);
+		SignedData<AVector<ACell>> signed = Samples.KEY_PAIR.signData(commitment);
+		assertTrue(signed.checkSignature());
+
+		Blob proof = ResultProof.createProof(signed, HISTORY, 1);
+		Result proven = ResultProof.verify(signed.getHash(), proof, HISTORY, 1);
+		assertEquals(brs.get(0).getResult(1), proven);
+
+		// The signature survives in the proof, which omits the rest of the commitment
+		SignedData<?> root = (SignedData<?>) ResultProof.decode(proof);
+		assertTrue(root.checkSignature());
+		assertEquals(commitment.getHash(), root.getValueRef().getHash());
+	}
+}
@@ -9,9 +9,11 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Spliterator;
 
 import convex.core.cvm.Address;
 import convex.core.cvm.Keywords;
@@ -147,6 +149,10 @@ public class CollectionsTest {
 			assertEquals(e,ie);
 		}
 		assertFalse(it.hasNext());
+		
+		if (a instanceof ASet) {
+			doSpliteratorTests(a.spliterator(),((ASet<T>)a).toVector());
+		}
 	}
 
 	/**
@@ -198,7 +204,38 @@ public class CollectionsTest {
 		
 		assertThrows(IndexOutOfBoundsException.class, () -> a.entryAt(-1));
 		assertThrows(IndexOutOfBoundsException.class, () -> a.entryAt(n));
+		
+		{ // test that entry iteration matches entryAt order
+			Iterator<MapEntry<K, V>> it=a.entryIterator();
+			for (long i=0; i<n; i++) {
+				assertEquals(a.entryAt(i),it.next());
+			}
+			assertFalse(it.hasNext());
+			doSpliteratorTests(a.entrySpliterator(),a.entryVector());
+		}
 
 		doDataStructureTests(a);
 	}
+	
+	/**
+	 * Checks that a Spliterator covers exactly the expected elements in order, including after splits
+	 * @param sp Spliterator to test
+	 * @param expected Elements expected, in order
+	 */
+	public static <T extends ACell> void doSpliteratorTests(Spliterator<T> sp, AVector<T> expected) {
+		long n=expected.count();
+		assertEquals(n,sp.estimateSize());
+		ArrayList<T> found=new ArrayList<>();
+		Spliterator<T> prefix=sp.trySplit();
+		if (prefix!=null) {
+			assertTrue(prefix.estimateSize()>0);
+			assertEquals(n,prefix.estimateSize()+sp.estimateSize());
+			prefix.forEachRemaining(found::add);
+		}
+		if (sp.tryAdvance(found::add)) {
+			sp.forEachRemaining(found::add);
+		}
+		assertEquals(0,sp.estimateSize());
+		assertEquals(expected,Vectors.create(found));
+	}
 }
@@ -10,6 +10,8 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -29,6 +31,78 @@ import convex.test.Samples;
 
 public class IndexTest {
 
+	@Test
+	public void testRangeScans() {
+		Random r = new Random(4567);
+		Index<ABlob, CVMLong> m = Index.none();
+		for (long i = 0; i < 500; i++) {
+			m = m.assoc(Blobs.createRandom(r, r.nextInt(4)), CVMLong.create(i));
+		}
+		AVector<MapEntry<ABlob, CVMLong>> all = m.entryVector();
+		long n = all.count();
+
+		// Unbounded scans cover everything, in both directions
+		assertEquals(all, toVector(m.scan(null, null, false)));
+		assertEquals(reverse(all), toVector(m.scan(null, null, true)));
+
+		for (int t = 0; t < 200; t++) {
+			ABlob a = Blobs.createRandom(r, r.nextInt(4));
+			ABlob b = Blobs.createRandom(r, r.nextInt(4));
+
+			// seek gives the position of the first key at or after a
+			long pos = m.seek(a);
+			for (long i = 0; i < n; i++) {
+				assertEquals(i >= pos, Index.compareKeys(all.get(i).getKey(), a) >= 0);
+			}
+
+			AVector<MapEntry<ABlob, CVMLong>> expected = Vectors.empty();
+			AVector<MapEntry<ABlob, CVMLong>> withPrefix = Vectors.empty();
+			for (long i = 0; i < n; i++) {
+				MapEntry<ABlob, CVMLong> e = all.get(i);
+				ABlob k = e.getKey();
+				if ((Index.compareKeys(k, a) >= 0) && (Index.compareKeys(k, b) < 0)) expected = expected.conj(e);
+				if ((k.count() >= a.count()) && (k.hexMatch(a) == a.hexLength())) withPrefix = withPrefix.conj(e);
+			}
+			assertEquals(expected, toVector(m.scan(a, b, false)));
+			assertEquals(reverse(expected), toVector(m.scan(a, b, true)));
+			assertEquals(expected.count(), m.rangeStream(a, b).count());
+			assertEquals(withPrefix, toVector(m.scanPrefix(a, false)));
+			assertEquals(reverse(withPrefix), toVector(m.scanPrefix(a, true)));
+		}
+
+		assertEquals(0, Index.none().seek(Blob.EMPTY));
+		assertFalse(Index.none().scan(null, null, false).hasNext());
+		assertFalse(Index.none().scanPrefix(Blob.EMPTY, true).hasNext());
+	}
+
+	private static <T extends ACell> AVector<T> reverse(AVector<T> v) {
+		AVector<T> result = Vectors.empty();
+		for (long i = v.count() - 1; i >= 0; i--) result = result.conj(v.get(i));
+		return result;
+	}
+
+	private static <T extends ACell> AVector<T> toVector(Iterator<T> it) {
+		AVector<T> v = Vectors.empty();
+		while (it.hasNext()) v = v.conj(it.next());
+		return v;
+	}
+
+	@Test
+	public void testParallelEntryStream() {
+		Index<Blob, CVMLong> m = Index.none();
+		for (long i = 0; i < 2000; i++) {
+			m = m.assoc(Blob.createRandom(new java.util.Random(i), 1 + (i % 5)), CVMLong.create(i));
+		}
+		AVector<MapEntry<Blob, CVMLong>> entries = m.entryVector();
+		assertEquals(entries, Vectors.create(m.entryStream().parallel().toList()));
+		CollectionsTest.doSpliteratorTests(m.entrySpliterator(), entries);
+
+		// Entries come in key order
+		for (long i = 1; i < entries.count(); i++) {
+			assertTrue(entries.get(i - 1).getKey().compareTo(entries.get(i).getKey()) < 0);
+		}
+	}
+
 	@Test
 	public void testEmpty() throws InvalidDataException {
 		Index<ABlob, ACell> m = Index.none();
@@ -31,6 +31,20 @@ import convex.test.Samples;
  */
 public class MapsTest {
 
+	@Test
+	public void testParallelEntryStream() {
+		AHashMap<CVMLong, CVMLong> m = Maps.empty();
+		for (long i = 0; i < 2000; i++) {
+			m = m.assoc(CVMLong.create(i), CVMLong.create(i * 2));
+		}
+		assertTrue(m instanceof MapTree);
+		long sum = m.entryStream().parallel().mapToLong(e -> e.getValue().longValue()).sum();
+		assertEquals(1999L * 2000L, sum);
+		assertEquals(m.entryVector(), Vectors.create(m.entryStream().parallel().toList()));
+		CollectionsTest.doSpliteratorTests(m.entrySpliterator(), m.entryVector());
+		CollectionsTest.doSpliteratorTests(Maps.empty().entrySpliterator(), Vectors.empty());
+	}
+
 	@Test
 	public void testMapBuilding() throws InvalidDataException, ValidationException {
 		int SIZE = 1000;
@@ -24,6 +24,18 @@ import convex.test.Samples;
  */
 public class SetsTest {
 
+	@Test
+	public void testParallelStream() {
+		AHashSet<CVMLong> s = Sets.empty();
+		for (long i = 0; i < 2000; i++) {
+			s = s.include(CVMLong.create(i));
+		}
+		assertTrue(s instanceof SetTree);
+		assertEquals(1999L * 1000L, s.stream().parallel().mapToLong(CVMLong::longValue).sum());
+		assertEquals(s.toVector(), Vectors.create(s.stream().parallel().toList()));
+		CollectionsTest.doSpliteratorTests(s.spliterator(), s.toVector());
+	}
+
 	@Test
 	public void testEmptySet() {
 		ASet<ACell> e = Sets.empty();
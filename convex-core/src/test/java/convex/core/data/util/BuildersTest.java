@@ -0,0 +1,126 @@
+package convex.core.data.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import convex.core.cvm.Address;
+import convex.core.data.ABlob;
+import convex.core.data.AHashMap;
+import convex.core.data.AHashSet;
+import convex.core.data.Blob;
+import convex.core.data.Blobs;
+import convex.core.data.Index;
+import convex.core.data.MapEntry;
+import convex.core.data.Maps;
+import convex.core.data.Sets;
+import convex.core.data.prim.CVMLong;
+import convex.core.exceptions.InvalidDataException;
+
+/**
+ * Tests for bulk builders of hash maps, hash sets and Indexes
+ */
+public class BuildersTest {
+
+	@Test
+	public void testHashMapBuilder() throws InvalidDataException {
+		assertSame(Maps.empty(), new HashMapBuilder<CVMLong, CVMLong>().toMap());
+
+		for (int n : new int[] { 1, 15, 16, 17, 300, 5000 }) {
+			HashMapBuilder<CVMLong, CVMLong> b = new HashMapBuilder<>();
+			AHashMap<CVMLong, CVMLong> expected = Maps.empty();
+			for (long i = 0; i < n; i++) {
+				// repeated keys, later values must win
+				CVMLong k = CVMLong.create(i % (n / 2 + 1));
+				b.assoc(k, CVMLong.create(i));
+				expected = expected.assoc(k, CVMLong.create(i));
+			}
+			AHashMap<CVMLong, CVMLong> m = b.toMap();
+			m.validate();
+			assertEquals(expected.getHash(), m.getHash());
+			assertEquals(expected, m);
+		}
+	}
+
+	@Test
+	public void testHashSetBuilder() throws InvalidDataException {
+		assertSame(Sets.empty(), new HashSetBuilder<CVMLong>().toSet());
+
+		for (int n : new int[] { 1, 15, 16, 17, 300, 5000 }) {
+			HashSetBuilder<CVMLong> b = new HashSetBuilder<>();
+			AHashSet<CVMLong> expected = Sets.empty();
+			for (long i = 0; i < n; i++) {
+				CVMLong v = CVMLong.create(i % (n / 2 + 1));
+				b.conj(v);
+				expected = expected.include(v);
+			}
+			AHashSet<CVMLong> s = b.toSet();
+			s.validate();
+			assertEquals(expected.getHash(), s.getHash());
+			assertEquals(expected, s);
+		}
+	}
+
+	@Test
+	public void testIndexBuilder() throws InvalidDataException {
+		assertSame(Index.none(), new IndexBuilder<ABlob, CVMLong>().toIndex());
+
+		Random r = new Random(1234);
+		for (int n : new int[] { 1, 2, 10, 300, 3000 }) {
+			IndexBuilder<ABlob, CVMLong> b = new IndexBuilder<>();
+			Index<ABlob, CVMLong> expected = Index.none();
+			for (long i = 0; i < n; i++) {
+				// variable length keys so that some keys are prefixes of others
+				ABlob k = Blobs.createRandom(r, r.nextInt(4));
+				b.assoc(k, CVMLong.create(i));
+				expected = expected.assoc(k, CVMLong.create(i));
+			}
+			Index<ABlob, CVMLong> m = b.toIndex();
+			m.validate();
+			assertEquals(expected.getHash(), m.getHash());
+			assertEquals(expected, m);
+		}
+	}
+
+	@Test
+	public void testIndexBuilderSorted() throws InvalidDataException {
+		IndexBuilder<Address, CVMLong> b = new IndexBuilder<>();
+		Index<Address, CVMLong> expected = Index.none();
+		for (long i = 0; i < 2000; i++) {
+			b.assoc(Address.create(i), CVMLong.create(i));
+			expected = expected.assoc(Address.create(i), CVMLong.create(i));
+		}
+		Index<Address, CVMLong> m = b.toIndex();
+		m.validate();
+		assertEquals(expected.getHash(), m.getHash());
+		assertEquals(expected.entryVector(), m.entryVector());
+	}
+
+	@Test
+	public void testIndexBuilderLongKeys() {
+		// Keys longer than the maximum Index depth collide on their common prefix
+		Blob base = Blob.createRandom(new Random(5), 40);
+		IndexBuilder<Blob, CVMLong> b = new IndexBuilder<>();
+		Index<Blob, CVMLong> expected = Index.none();
+		for (int i = 0; i < 10; i++) {
+			byte[] bs = base.getBytes();
+			bs[39] = (byte) i;
+			Blob k = Blob.wrap(bs);
+			b.assoc(k, CVMLong.create(i));
+			expected = expected.assoc(k, CVMLong.create(i));
+		}
+		assertEquals(expected, b.toIndex());
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	public void testIndexBuilderBadKey() {
+		IndexBuilder b = new IndexBuilder();
+		assertThrows(IllegalArgumentException.class, () -> b.assocEntry(MapEntry.of(1, 2)));
+		assertThrows(IllegalArgumentException.class, () -> b.assocEntry(null));
+	}
+}
@@ -257,4 +257,45 @@ public class EtchTest {
 		assertEquals(v,v2);
 		assertNotSame(v,v2);
 	}
+	
+	@Test
+	public void testParallelPersist() throws IOException {
+		// Deep tree with many independent non-embedded subtrees
+		Random random = new Random(777);
+		AVector<ACell> v=Vectors.empty();
+		for (int i=0; i<2000; i++) {
+			v=v.conj(Vectors.of(i,Blob.createRandom(random, 200),Vectors.of(Blob.createRandom(random, 100))));
+		}
+		Hash h=v.getHash();
+		
+		EtchStore seq=EtchStore.createTemp();
+		seq.setParallelPersist(false);
+		EtchStore par=EtchStore.createTemp();
+		
+		HashSet<Hash> seqNovelty=new HashSet<>();
+		HashSet<Hash> parNovelty=new HashSet<>();
+		Ref<ACell> r1=seq.storeTopRef(v.getRef(), Ref.PERSISTED, r->seqNovelty.add(r.getHash()));
+		Ref<ACell> r2=par.storeTopRef(v.getRef(), Ref.PERSISTED, r->parNovelty.add(r.getHash()));
+		assertEquals(h,r1.getHash());
+		assertEquals(h,r2.getHash());
+		assertEquals(seqNovelty,parNovelty);
+		assertTrue(parNovelty.size()>4000);
+		
+		Refs.checkConsistentStores(r2, par);
+		assertEquals(v,par.refForHash(h).getValue());
+		
+		// persisting again finds everything already present
+		parNovelty.clear();
+		par.storeTopRef(v.getRef(), Ref.PERSISTED, r->parNovelty.add(r.getHash()));
+		assertTrue(parNovelty.isEmpty());
+		
+		// extending a stored tree persists only the new path
+		Ref<AVector<ACell>> storedRef=par.refForHash(h);
+		AVector<ACell> stored=storedRef.getValue();
+		AVector<ACell> v2=stored.conj(Vectors.of(Blob.createRandom(random, 200)));
+		Ref<ACell> r3=par.storeTopRef(v2.getRef(), Ref.PERSISTED, r->parNovelty.add(r.getHash()));
+		assertEquals(v2.getHash(),r3.getHash());
+		assertTrue(parNovelty.size()<10);
+		Refs.checkConsistentStores(r3, par);
+	}
 }
@@ -6,8 +6,11 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.junit.jupiter.api.Test;
 
 import convex.core.cvm.Keywords;
@@ -84,6 +87,47 @@ public class CursorTest {
 		doIntCursorTest(pc);
 	}
 	
+	@Test public void testCombiningCursor() {
+		Root<AInteger> root=Cursors.of(Maps.of(Symbols.FOO,null));
+		CombiningCursor<AInteger> cc=Cursors.combining(root.path(Symbols.FOO));
+		doIntCursorTest(cc);
+
+		// A failing update affects only its own caller
+		cc.set(CVMLong.ONE);
+		assertThrows(IllegalStateException.class, ()->cc.updateAndGet(v->{throw new IllegalStateException();}));
+		assertCVMEquals(2,cc.updateAndGet(v->v.inc()));
+	}
+
+	private static final Keyword TOTAL=Keyword.create("total");
+
+	@Test public void testCombiningConcurrentUpdates() throws InterruptedException {
+		int threads=8;
+		int n=2000;
+		Root<AMap<Keyword,AInteger>> root=Cursors.create(Maps.empty());
+		CombiningCursor<AMap<Keyword,AInteger>> cc=Cursors.combining(root);
+		ConcurrentHashMap<Long,Boolean> seen=new ConcurrentHashMap<>();
+		Thread[] ts=new Thread[threads];
+		for (int t=0; t<threads; t++) {
+			Keyword k=Keyword.create("k"+t);
+			ts[t]=new Thread(()->{
+				for (int i=0; i<n; i++) {
+					// Each caller sees its own result, so totals are unique
+					AMap<Keyword,AInteger> m=cc.updateAndGet(v->{
+						AInteger c=v.get(k);
+						AInteger total=v.get(TOTAL);
+						return v.assoc(k,(c==null)?CVMLong.ONE:c.inc()).assoc(TOTAL,(total==null)?CVMLong.ONE:total.inc());
+					});
+					seen.put(m.get(TOTAL).longValue(),true);
+				}
+			});
+			ts[t].start();
+		}
+		for (Thread t: ts) t.join();
+		assertEquals(threads*n,seen.size());
+		assertCVMEquals(threads*n,root.get().get(TOTAL));
+		for (int t=0; t<threads; t++) assertCVMEquals(n,root.get().get(Keyword.create("k"+t)));
+	}
+
 	private void doIntCursorTest(ACursor<AInteger> root) {
 		assertEquals("nil",root.toString());
 
@@ -13,9 +13,11 @@ import convex.core.data.ASet;
 import convex.core.data.AString;
 import convex.core.data.AVector;
 import convex.core.data.Index;
+import convex.core.data.Sets;
 import convex.core.data.Strings;
 import convex.core.data.prim.CVMDouble;
 import convex.core.data.prim.CVMLong;
+import convex.lattice.cursor.Cursors;
 
 /**
  * Tests for the LatticeKV key-value store.
@@ -420,6 +422,38 @@ public class LatticeKVTest {
 		assertEquals(8, root.incrby("counter", 0));
 	}
 
+	@Test
+	public void testAtomicBatch() {
+		LatticeKV kv = LatticeKV.create();
+		kv.set("a", Strings.create("1"));
+		Index<AString, AVector<ACell>> before = kv.cursor().get();
+
+		// Read-only batch leaves the store untouched
+		assertEquals(Strings.create("1"), kv.atomic(b -> b.get("a")));
+		assertTrue(before == kv.cursor().get());
+
+		// Writes within a batch are visible to later operations in it
+		long n = kv.atomic(b -> {
+			b.set("x", Strings.create("y"));
+			b.incr("c");
+			assertEquals(Strings.create("y"), b.get("x"));
+			return b.incr("c");
+		});
+		assertEquals(2, n);
+		assertEquals(Strings.create("y"), kv.get("x"));
+		assertEquals(3, kv.incr("c"));
+
+		// A concurrent change causes the batch to be run again
+		int[] runs = {0};
+		long v = kv.atomic(b -> {
+			if (runs[0]++ == 0) kv.incr("c");
+			return b.incr("c");
+		});
+		assertEquals(2, runs[0]);
+		assertEquals(5, v);
+		assertEquals(5, kv.incrby("c", 0));
+	}
+
 	@Test
 	public void testGc() {
 		LatticeKV kv = LatticeKV.create();
@@ -431,4 +465,89 @@ public class LatticeKVTest {
 		assertFalse(kv.exists("a"));
 		assertTrue(kv.exists("b"));
 	}
+
+	@Test
+	public void testGcExpiryIndex() {
+		LatticeKV kv = LatticeKV.create();
+		for (int i = 0; i < 100; i++) kv.set("live" + i, Strings.create("v"));
+		kv.set("expired", Strings.create("x"), -1);
+		kv.set("later", Strings.create("x"), 100_000);
+		kv.set("persisted", Strings.create("x"), -1);
+		kv.set("persisted", Strings.create("y"));
+		assertEquals(1, kv.gc());
+		assertNull(kv.cursor().get().get(Strings.create("expired")));
+		assertTrue(kv.exists("later"));
+		assertTrue(kv.exists("persisted"));
+		assertEquals(102, kv.cursor().get().count());
+
+		// Due hints are consumed, so a second gc has nothing to do
+		assertEquals(0, kv.gc());
+
+		// Writes from forks and atomic batches are indexed on the parent
+		LatticeKV fork = kv.fork();
+		fork.set("forked", Strings.create("x"), -1);
+		fork.sync();
+		kv.atomic(b -> {
+			b.del("live0");
+			return null;
+		});
+		assertEquals(2, kv.gc());
+		assertEquals(101, kv.cursor().get().count());
+
+		// Entries merged directly into the cursor are indexed by the next gc
+		LatticeKV other = LatticeKV.create();
+		other.set("remote", Strings.create("x"), -1);
+		kv.cursor().merge(other.cursor().get());
+		assertEquals(1, kv.gc());
+		assertEquals(101, kv.cursor().get().count());
+		assertEquals(0, kv.gc());
+	}
+
+	@Test
+	public void testGcPopulatedCursor() {
+		LatticeKV writer = LatticeKV.create();
+		for (int i = 0; i < 10; i++) writer.set("live" + i, Strings.create("v"));
+		writer.set("expired", Strings.create("x"), -1);
+		writer.set("deleted", Strings.create("x"));
+		writer.del("deleted");
+
+		// A new LatticeKV over an existing store has no index of its own
+		LatticeKV kv = LatticeKV.connect(Cursors.createLattice(KVStoreLattice.INSTANCE, writer.cursor().get()));
+		assertEquals(2, kv.gc());
+		assertEquals(10, kv.cursor().get().count());
+		assertFalse(kv.exists("expired"));
+		assertEquals(0, kv.gc());
+	}
+
+	@Test
+	public void testScan() {
+		LatticeKV kv = LatticeKV.create();
+		for (int i = 0; i < 50; i++) kv.set("k" + i, Strings.create("v"));
+		kv.del("k10");
+		kv.set("k20", Strings.create("v"), -1);
+
+		LatticeKV.ScanPage page = kv.scan(null, 7);
+		// The deleted k10 is visited but not returned
+		assertEquals(6, page.keys().count());
+		ASet<AString> seen = Sets.create(page.keys());
+		int pages = 1;
+		while (page.next() != null) {
+			// Keys added behind the scan position do not disturb it
+			kv.set("a" + pages, Strings.create("v"));
+			page = kv.scan(page.next(), 7);
+			assertTrue(page.keys().count() <= 7);
+			for (AString k : page.keys()) {
+				assertFalse(seen.contains(k));
+				seen = seen.include(k);
+			}
+			pages++;
+		}
+		assertEquals(8, pages);
+		assertEquals(48, seen.count());
+		assertFalse(seen.contains(Strings.create("k10")));
+		assertFalse(seen.contains(Strings.create("k20")));
+
+		assertNull(LatticeKV.create().scan(null, 10).next());
+		assertThrows(IllegalArgumentException.class, () -> kv.scan(null, 0));
+	}
 }
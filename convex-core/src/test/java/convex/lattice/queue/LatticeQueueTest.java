@@ -250,6 +250,82 @@ public class LatticeQueueTest {
 		assertEquals(1L, q.size());
 	}
 
+	// ===== Segments =====
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testSegments() {
+		LatticeQueue q = LatticeQueue.create();
+		long n = QueueLattice.SEGMENT_SIZE * 3 + 10;
+		for (long i = 0; i < n; i++) {
+			assertEquals(i, q.offer(CVMLong.create(i)));
+		}
+		AVector<ACell> state = q.cursor().get();
+		assertEquals(3L, QueueLattice.getSegments(state).count());
+		assertEquals(10L, QueueLattice.getTail(state).count());
+		assertEquals(n, q.size());
+		AVector<ACell> all = QueueLattice.getEntries(state);
+		assertEquals(n, all.count());
+		for (long i = 0; i < n; i += 100) {
+			assertEquals(CVMLong.create(i), QueueEntry.getValue((AVector<ACell>) all.get(i)));
+		}
+
+		// Reads seek to the right segment, and ranges span segments and the tail
+		assertEquals(CVMLong.create(1500), q.peek(1500));
+		assertEquals(CVMLong.create(n - 1), q.peekLast());
+		AVector<ACell> r = q.range(1020, n + 5);
+		assertEquals(n - 1020, r.count());
+		assertEquals(CVMLong.create(1020), r.get(0));
+		assertEquals(CVMLong.create(2048), r.get(2048 - 1020));
+
+		// Truncation drops whole segments and slices the one containing the new start
+		assertEquals(1500L, q.truncate(1500));
+		state = q.cursor().get();
+		assertEquals(2L, QueueLattice.getSegments(state).count());
+		assertEquals(1500L, q.startOffset());
+		assertNull(q.peek(1499));
+		assertEquals(CVMLong.create(1500), q.peekFirst());
+		assertEquals(n - 1500, q.range(0, n).count());
+		assertEquals(n, q.offer(CVMLong.create(n)));
+
+		// Sealed segments are shared between successive states
+		AVector<ACell> before = q.cursor().get();
+		q.offer(CVMLong.create(n + 1));
+		assertSame(QueueLattice.getSegments(before), QueueLattice.getSegments(q.cursor().get()));
+	}
+
+	@Test
+	public void testTruncateBefore() {
+		LatticeQueue q = LatticeQueue.create();
+		long n = QueueLattice.SEGMENT_SIZE * 2 + 5;
+		for (long i = 0; i < n; i++) q.offer(CVMLong.create(i));
+
+		// Nothing is older than the epoch
+		assertEquals(0L, q.truncateBefore(0));
+		assertEquals(0L, q.startOffset());
+
+		// Everything is older than the future
+		assertEquals(n, q.truncateBefore(System.currentTimeMillis() + 100_000));
+		assertTrue(q.isEmpty());
+		assertEquals(n, q.startOffset());
+		assertEquals(n, q.offer(Strings.create("next")));
+	}
+
+	@Test
+	public void testSegmentedMerge() {
+		LatticeQueue root = LatticeQueue.create();
+		for (long i = 0; i < QueueLattice.SEGMENT_SIZE + 1; i++) root.offer(CVMLong.create(i));
+		LatticeQueue fork = root.fork();
+		for (long i = 0; i < QueueLattice.SEGMENT_SIZE; i++) fork.offer(Strings.create("f" + i));
+		root.truncate(10);
+		fork.sync();
+
+		assertEquals(10L, root.startOffset());
+		assertEquals(QueueLattice.SEGMENT_SIZE * 2 + 1, root.endOffset());
+		assertEquals(CVMLong.create(10), root.peekFirst());
+		assertEquals(Strings.create("f0"), root.peek(QueueLattice.SEGMENT_SIZE + 1));
+	}
+
 	// ===== Fork / Sync =====
 
 	@Test
@@ -1,8 +1,13 @@
 package convex.db.calcite;
 
+import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.calcite.jdbc.CalcitePrepare;
 import org.apache.calcite.jdbc.CalciteSchema;
@@ -18,6 +23,7 @@ import org.apache.calcite.sql.ddl.SqlColumnDeclaration;
 import org.apache.calcite.sql.ddl.SqlCreateTable;
 import org.apache.calcite.sql.ddl.SqlDropObject;
 import org.apache.calcite.sql.parser.SqlAbstractParserImpl;
+import org.apache.calcite.sql.parser.SqlParserPos;
 import org.apache.calcite.sql.parser.SqlParserImplFactory;
 import org.apache.calcite.sql.parser.ddl.SqlDdlParserImpl;
 import org.apache.calcite.jdbc.ContextSqlValidator;
@@ -25,6 +31,8 @@ import org.apache.calcite.sql.validate.SqlValidator;
 import org.apache.calcite.util.Pair;
 import org.apache.calcite.util.Util;
 
+import convex.db.lattice.SQLSchema;
+
 import static java.util.Objects.requireNonNull;
 import static org.apache.calcite.util.Static.RESOURCE;
 
@@ -34,15 +42,38 @@ import static org.apache.calcite.util.Static.RESOURCE;
  *
  * <p>Supports CREATE TABLE and DROP TABLE via SQL. Tables are persisted
  * to the lattice cursor tree and participate in lattice replication.
+ *
+ * <p>Also supports single-column secondary indexes with
+ * {@code CREATE INDEX [IF NOT EXISTS] name ON table (column)} and
+ * {@code DROP INDEX [IF EXISTS] name}. Calcite's DDL parser has no index
+ * statements, so the parser factory recognises them before delegating.
  */
 public class ConvexDdlExecutor extends DdlExecutorImpl {
 
 	public static final ConvexDdlExecutor INSTANCE = new ConvexDdlExecutor();
 
+	private static final String IDENT = "(\"[^\"]+\"|[A-Za-z_][A-Za-z0-9_$]*)";
+
+	private static final Pattern CREATE_INDEX = Pattern.compile(
+		"\\s*CREATE\\s+INDEX\\s+(IF\\s+NOT\\s+EXISTS\\s+)?" + IDENT
+			+ "\\s+ON\\s+" + IDENT + "(?:\\s*\\.\\s*" + IDENT + ")?"
+			+ "\\s*\\(\\s*" + IDENT + "\\s*\\)\\s*;?\\s*",
+		Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern DROP_INDEX = Pattern.compile(
+		"\\s*DROP\\s+INDEX\\s+(IF\\s+EXISTS\\s+)?" + IDENT + "\\s*;?\\s*",
+		Pattern.CASE_INSENSITIVE);
+
 	public static final SqlParserImplFactory PARSER_FACTORY =
 		new SqlParserImplFactory() {
 			@Override public SqlAbstractParserImpl getParser(Reader stream) {
-				return SqlDdlParserImpl.FACTORY.getParser(stream);
+				String sql = readAll(stream);
+				return new SqlDdlParserImpl(new StringReader(sql)) {
+					@Override public SqlNode parseSqlStmtEof() throws Exception {
+						SqlNode index = parseIndexDdl(sql);
+						return (index != null) ? index : super.parseSqlStmtEof();
+					}
+				};
 			}
 
 			@Override public DdlExecutor getDdlExecutor() {
@@ -52,6 +83,49 @@ public class ConvexDdlExecutor extends DdlExecutorImpl {
 
 	protected ConvexDdlExecutor() {}
 
+	private static String readAll(Reader reader) {
+		try {
+			StringBuilder sb = new StringBuilder();
+			char[] buf = new char[1024];
+			int n;
+			while ((n = reader.read(buf)) > 0) sb.append(buf, 0, n);
+			return sb.toString();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Parses CREATE INDEX or DROP INDEX.
+	 *
+	 * @param sql Statement text
+	 * @return Parse tree, or null if the statement is not an index statement
+	 */
+	static SqlNode parseIndexDdl(String sql) {
+		Matcher m = CREATE_INDEX.matcher(sql);
+		if (m.matches()) {
+			SqlIdentifier table = (m.group(4) == null)
+				? identifier(m.group(3))
+				: new SqlIdentifier(List.of(unquote(m.group(3)), unquote(m.group(4))), SqlParserPos.ZERO);
+			return new SqlCreateIndex(SqlParserPos.ZERO, m.group(1) != null,
+				identifier(m.group(2)), table, identifier(m.group(5)));
+		}
+		m = DROP_INDEX.matcher(sql);
+		if (m.matches()) {
+			return new SqlDropIndex(SqlParserPos.ZERO, m.group(1) != null, identifier(m.group(2)));
+		}
+		return null;
+	}
+
+	private static SqlIdentifier identifier(String s) {
+		return new SqlIdentifier(unquote(s), SqlParserPos.ZERO);
+	}
+
+	private static String unquote(String s) {
+		if (s.startsWith("\"")) return s.substring(1, s.length() - 1);
+		return s;
+	}
+
 	/**
 	 * Executes CREATE TABLE by creating a Convex lattice-backed table.
 	 */
@@ -138,6 +212,67 @@ public class ConvexDdlExecutor extends DdlExecutorImpl {
 		}
 	}
 
+	/**
+	 * Executes CREATE INDEX by building a secondary index in the table's lattice state.
+	 */
+	public void execute(SqlCreateIndex create, CalcitePrepare.Context context) {
+		final Pair<CalciteSchema, String> pair = schema(context, create.table);
+		SQLSchema tables = convexTables(pair.left, create.table);
+		String tableName = resolveTable(tables, pair.right);
+		if (tableName == null) {
+			throw SqlUtil.newContextException(create.table.getParserPosition(),
+					RESOURCE.tableNotFound(pair.right));
+		}
+		String indexName = create.name.getSimple();
+		if (tables.indexExists(indexName)) {
+			if (create.ifNotExists) return;
+			throw new IllegalArgumentException("Index already exists: " + indexName);
+		}
+		String columnName = create.column.getSimple();
+		try {
+			tables.createIndex(indexName, tableName, columnName);
+		} catch (IllegalArgumentException e) {
+			throw SqlUtil.newContextException(create.column.getParserPosition(),
+					RESOURCE.columnNotFoundInTable(columnName, tableName));
+		}
+	}
+
+	/**
+	 * Executes DROP INDEX, leaving a tombstone that replicates the drop.
+	 */
+	public void execute(SqlDropIndex drop, CalcitePrepare.Context context) {
+		final Pair<CalciteSchema, String> pair = schema(context, drop.name);
+		SQLSchema tables = convexTables(pair.left, drop.name);
+		if (!tables.dropIndex(pair.right) && !drop.ifExists) {
+			throw SqlUtil.newContextException(drop.name.getParserPosition(),
+					RESOURCE.objectNotFound(pair.right));
+		}
+	}
+
+	private static SQLSchema convexTables(CalciteSchema schema, SqlIdentifier id) {
+		if (schema == null) {
+			throw SqlUtil.newContextException(id.getParserPosition(),
+					RESOURCE.schemaNotFound(id.toString()));
+		}
+		Schema unwrapped = schema.plus().unwrap(ConvexSchema.class);
+		if (unwrapped instanceof ConvexSchema convexSchema) {
+			return convexSchema.getTables();
+		}
+		throw new IllegalStateException(
+				"Indexes require a ConvexSchema, got: " + schema.plus().getClass());
+	}
+
+	/**
+	 * Resolves a table name, ignoring case if there is no exact match.
+	 */
+	private static String resolveTable(SQLSchema tables, String name) {
+		if (tables.tableExists(name)) return name;
+		for (String t : tables.getTableNames()) {
+			if (t.equalsIgnoreCase(name)) return t;
+		}
+		return null;
+	}
+
 	private static Pair<CalciteSchema, String> schema(
 			CalcitePrepare.Context context, SqlIdentifier id) {
 		final String name;
@@ -12,8 +12,8 @@ import convex.core.data.ACell;
  * <p>Implements Calcite's {@code Enumerator} interface with CVM-native types.
  * Concrete implementations provide different access strategies:
  * <ul>
- *   <li>{@link ConvexTableEnumerator} — full table scan from lattice Index
- *   <li>Future: range scan, index lookup, streaming, etc.
+ *   <li>{@link ConvexTableEnumerator} — lazy full table scan from lattice Index
+ *   <li>Future: range scan, index lookup, etc.
  * </ul>
  */
 public abstract class ConvexEnumerator implements Enumerator<ACell[]> {
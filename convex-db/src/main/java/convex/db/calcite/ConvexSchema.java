@@ -26,6 +26,7 @@ public class ConvexSchema extends AbstractSchema {
 	private final SQLDatabase database;
 	private final SQLSchema tables;
 	private final String name;
+	private volatile boolean parallel;
 
 	/**
 	 * Creates a new ConvexSchema backed by the given database.
@@ -48,6 +49,25 @@ public class ConvexSchema extends AbstractSchema {
 		return database;
 	}
 
+	/**
+	 * Checks whether queries on this schema may scan large tables in
+	 * parallel partitions.
+	 *
+	 * @return true if parallel execution is enabled
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Enables or disables parallel execution of queries on this schema.
+	 *
+	 * @param parallel true to scan large tables in parallel partitions
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
 	@Override
 	public boolean isMutable() {
 		return true; // Allow DDL modifications
@@ -1,7 +1,10 @@
 package convex.db.calcite;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.calcite.adapter.java.AbstractQueryableTable;
 import org.apache.calcite.linq4j.Enumerable;
@@ -24,7 +27,9 @@ import org.apache.calcite.schema.Statistics;
 import org.apache.calcite.schema.TranslatableTable;
 import org.apache.calcite.util.ImmutableBitSet;
 
+import convex.core.data.ABlob;
 import convex.core.data.ACell;
+import convex.core.data.AVector;
 import convex.core.data.Vectors;
 import convex.db.calcite.convention.ConvexConvention;
 import convex.db.calcite.rel.ConvexTableScan;
@@ -159,15 +164,18 @@ public class ConvexTable extends AbstractQueryableTable
 
 	// ========== DML Operations (called from generated code) ==========
 
+	// Each statement is applied to the table as a single batched write, so
+	// the row Index and live count are updated once per statement.
+
 	public long executeInsert(Enumerable<Object[]> input) {
 		try {
-			long count = 0;
+			List<AVector<ACell>> rows = new ArrayList<>();
 			for (Object[] row : input) {
-				if (row != null && insertRow(row)) {
-					count++;
-				}
+				AVector<ACell> cells = toRow(row);
+				if (cells != null) rows.add(cells);
 			}
-			return count;
+			if (rows.isEmpty()) return 0;
+			return schema.getTables().insertAll(tableName, rows);
 		} catch (ExceptionInInitializerError e) {
 			throw wrapTypeError(e, "INSERT");
 		}
@@ -184,6 +192,8 @@ public class ConvexTable extends AbstractQueryableTable
 			}
 
 			ConvexColumnType[] types = getColumnTypes();
+			SQLSchema tables = schema.getTables();
+			Map<ABlob, AVector<ACell>> writes = new LinkedHashMap<>();
 
 			long count = 0;
 			for (Object[] row : input) {
@@ -205,19 +215,28 @@ public class ConvexTable extends AbstractQueryableTable
 
 				ACell oldPk = toCell(row[0], 0);
 				ACell newPk = toCell(updatedRow[0], 0);
-
-				if (pkBeingUpdated && !oldPk.equals(newPk)) {
-					if (schema.getTables().selectByKey(tableName, newPk) != null) {
+				ABlob oldKey = SQLSchema.toKey(oldPk);
+				ABlob newKey = SQLSchema.toKey(newPk);
+
+				if (pkBeingUpdated && !oldKey.equals(newKey)) {
+					// Earlier rows of this statement may already have taken or freed the key
+					boolean exists = writes.containsKey(newKey)
+						? writes.get(newKey) != null
+						: tables.selectByKey(tableName, newPk) != null;
+					if (exists) {
 						throw new RuntimeException("Unique constraint violation: primary key '" +
 							newPk + "' already exists in table '" + tableName + "'");
 					}
+					writes.put(oldKey, null);
 				}
 
-				schema.getTables().deleteByKey(tableName, oldPk);
-				if (insertRow(updatedRow)) {
+				AVector<ACell> cells = toRow(updatedRow);
+				if (cells != null) {
+					writes.put(newKey, cells);
 					count++;
 				}
 			}
+			if (!writes.isEmpty()) tables.write(tableName, writes);
 			return count;
 		} catch (ExceptionInInitializerError e) {
 			throw wrapTypeError(e, "UPDATE");
@@ -226,16 +245,14 @@ public class ConvexTable extends AbstractQueryableTable
 
 	public long executeDelete(Enumerable<Object[]> input) {
 		try {
-			long count = 0;
+			Map<ABlob, AVector<ACell>> writes = new LinkedHashMap<>();
 			for (Object[] row : input) {
 				if (row != null && row.length > 0) {
-					ACell pk = toCell(row[0], 0);
-					if (schema.getTables().deleteByKey(tableName, pk)) {
-						count++;
-					}
+					writes.put(SQLSchema.toKey(toCell(row[0], 0)), null);
 				}
 			}
-			return count;
+			if (writes.isEmpty()) return 0;
+			return schema.getTables().write(tableName, writes);
 		} catch (ExceptionInInitializerError e) {
 			throw wrapTypeError(e, "DELETE");
 		}
@@ -252,15 +269,18 @@ public class ConvexTable extends AbstractQueryableTable
 		return new RuntimeException(message, e);
 	}
 
-	private boolean insertRow(Object[] row) {
-		if (row == null || row.length < 1) return false;
+	/**
+	 * Converts a row to cells by column type, or returns null for an empty row.
+	 */
+	private AVector<ACell> toRow(Object[] row) {
+		if (row == null || row.length < 1) return null;
 		ConvexColumnType[] types = getColumnTypes();
 		ACell[] cells = new ACell[row.length];
 		for (int i = 0; i < row.length; i++) {
 			ConvexColumnType type = (types != null && i < types.length) ? types[i] : ConvexColumnType.of(ConvexType.ANY);
 			cells[i] = type.toCell(row[i]);
 		}
-		return schema.getTables().insert(tableName, Vectors.of(cells));
+		return Vectors.of(cells);
 	}
 
 	private ACell toCell(Object v, int columnIndex) {
@@ -1,12 +1,12 @@
 package convex.db.calcite;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
 
 import convex.core.data.ABlob;
 import convex.core.data.ACell;
 import convex.core.data.AVector;
 import convex.core.data.Index;
+import convex.core.data.MapEntry;
 import convex.db.lattice.SQLRow;
 import convex.db.lattice.SQLSchema;
 import convex.db.lattice.SQLTable;
@@ -14,43 +14,53 @@ import convex.db.lattice.SQLTable;
 /**
  * Enumerator that performs a full table scan from a lattice Index.
  *
- * <p>Rows are returned in Index key order (sorted by PK).
- * Pre-collects via forEach for O(n) traversal instead of O(n*depth) entryAt().
+ * <p>Rows are returned in Index key order (sorted by PK). The scan is lazy:
+ * rows are read from the radix tree one at a time as {@link #moveNext()} is
+ * called, with tombstones skipped inline, so memory use is independent of
+ * table size and a consumer that stops early (LIMIT, EXISTS) reads only
+ * the rows it needs.
+ *
+ * <p>The Index is captured when the enumerator is created, so the scan sees
+ * a consistent snapshot even if the table is modified during iteration.
  */
 public class ConvexTableEnumerator extends ConvexEnumerator {
 
-	private final List<ACell[]> rows;
-	private int position = -1;
+	private final Index<ABlob, AVector<ACell>> rows;
+	private Iterator<MapEntry<ABlob, AVector<ACell>>> scan;
 
 	/**
 	 * Creates an enumerator for a full table scan.
 	 */
 	public ConvexTableEnumerator(SQLSchema tables, String tableName) {
+		this(getRows(tables, tableName));
+	}
+
+	/**
+	 * Creates an enumerator over the live rows of a table Index.
+	 *
+	 * @param rows Row Index of a table, or null for an empty scan
+	 */
+	public ConvexTableEnumerator(Index<ABlob, AVector<ACell>> rows) {
+		this.rows = rows;
+		reset();
+	}
+
+	private static Index<ABlob, AVector<ACell>> getRows(SQLSchema tables, String tableName) {
 		SQLTable table = tables.getLiveTable(tableName);
-		if (table == null) {
-			this.rows = List.of();
-			return;
-		}
-		Index<ABlob, AVector<ACell>> rawRows = table.getRows();
-		if (rawRows == null) {
-			this.rows = List.of();
-			return;
-		}
-		// Single-pass tree traversal, skip tombstones, unwrap values
-		List<ACell[]> collected = new ArrayList<>((int) Math.min(rawRows.count(), Integer.MAX_VALUE));
-		rawRows.forEach((k, v) -> {
-			if (SQLRow.isLive(v)) {
-				collected.add(SQLRow.getValues(v).toCellArray());
-			}
-		});
-		this.rows = collected;
+		if (table == null) return null;
+		return table.getRows();
 	}
 
 	@Override
 	public boolean moveNext() {
-		if (++position < rows.size()) {
-			currentRow = rows.get(position);
-			return true;
+		if (scan != null) {
+			while (scan.hasNext()) {
+				AVector<ACell> v = scan.next().getValue();
+				if (SQLRow.isLive(v)) {
+					currentRow = SQLRow.getValues(v).toCellArray();
+					return true;
+				}
+			}
 		}
 		currentRow = null;
 		return false;
@@ -58,7 +68,7 @@ public class ConvexTableEnumerator extends ConvexEnumerator {
 
 	@Override
 	public void reset() {
-		position = -1;
+		scan = (rows == null) ? null : rows.scan(null, null, false);
 		currentRow = null;
 	}
 }
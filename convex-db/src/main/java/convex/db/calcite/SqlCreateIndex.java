@@ -0,0 +1,54 @@
+package convex.db.calcite;
+
+import java.util.List;
+
+import org.apache.calcite.sql.SqlCreate;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlOperator;
+import org.apache.calcite.sql.SqlSpecialOperator;
+import org.apache.calcite.sql.SqlWriter;
+import org.apache.calcite.sql.parser.SqlParserPos;
+
+/**
+ * Parse tree for {@code CREATE INDEX [IF NOT EXISTS] name ON table (column)}.
+ *
+ * <p>Calcite's DDL parser has no CREATE INDEX, so this node is produced by
+ * {@link ConvexDdlExecutor#PARSER_FACTORY} and executed by
+ * {@link ConvexDdlExecutor}.
+ */
+public class SqlCreateIndex extends SqlCreate {
+
+	private static final SqlOperator OPERATOR =
+		new SqlSpecialOperator("CREATE INDEX", SqlKind.CREATE_INDEX);
+
+	public final SqlIdentifier name;
+	public final SqlIdentifier table;
+	public final SqlIdentifier column;
+
+	public SqlCreateIndex(SqlParserPos pos, boolean ifNotExists,
+			SqlIdentifier name, SqlIdentifier table, SqlIdentifier column) {
+		super(OPERATOR, pos, false, ifNotExists);
+		this.name = name;
+		this.table = table;
+		this.column = column;
+	}
+
+	@Override
+	public List<SqlNode> getOperandList() {
+		return List.of(name, table, column);
+	}
+
+	@Override
+	public void unparse(SqlWriter writer, int leftPrec, int rightPrec) {
+		writer.keyword("CREATE INDEX");
+		if (ifNotExists) writer.keyword("IF NOT EXISTS");
+		name.unparse(writer, leftPrec, rightPrec);
+		writer.keyword("ON");
+		table.unparse(writer, leftPrec, rightPrec);
+		SqlWriter.Frame frame = writer.startList("(", ")");
+		column.unparse(writer, 0, 0);
+		writer.endList(frame);
+	}
+}
@@ -0,0 +1,42 @@
+package convex.db.calcite;
+
+import java.util.List;
+
+import org.apache.calcite.sql.SqlDrop;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlOperator;
+import org.apache.calcite.sql.SqlSpecialOperator;
+import org.apache.calcite.sql.SqlWriter;
+import org.apache.calcite.sql.parser.SqlParserPos;
+
+/**
+ * Parse tree for {@code DROP INDEX [IF EXISTS] name}.
+ *
+ * @see SqlCreateIndex
+ */
+public class SqlDropIndex extends SqlDrop {
+
+	private static final SqlOperator OPERATOR =
+		new SqlSpecialOperator("DROP INDEX", SqlKind.DROP_INDEX);
+
+	public final SqlIdentifier name;
+
+	public SqlDropIndex(SqlParserPos pos, boolean ifExists, SqlIdentifier name) {
+		super(OPERATOR, pos, ifExists);
+		this.name = name;
+	}
+
+	@Override
+	public List<SqlNode> getOperandList() {
+		return List.of(name);
+	}
+
+	@Override
+	public void unparse(SqlWriter writer, int leftPrec, int rightPrec) {
+		writer.keyword("DROP INDEX");
+		if (ifExists) writer.keyword("IF EXISTS");
+		name.unparse(writer, leftPrec, rightPrec);
+	}
+}
@@ -1,6 +1,9 @@
 package convex.db.calcite.convention;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import convex.core.data.ACell;
 
@@ -10,6 +13,10 @@ import convex.core.data.ACell;
  * <p>This is the result type for ConvexRel.execute(). It provides
  * an iterator over rows represented as ACell arrays, keeping CVM
  * types throughout execution.
+ *
+ * <p>The {@link #filter}, {@link #map} and {@link #slice} operations are
+ * lazy: rows are pulled from the source only as the consumer advances, so
+ * a pipeline stops reading its input as soon as the consumer stops.
  */
 public interface ConvexEnumerable extends Iterable<ACell[]> {
 
@@ -34,4 +41,95 @@ public interface ConvexEnumerable extends Iterable<ACell[]> {
 	static ConvexEnumerable of(Iterable<ACell[]> iterable) {
 		return iterable::iterator;
 	}
+
+	/**
+	 * Returns a lazy enumerable of the rows matching a predicate.
+	 *
+	 * @param pred Predicate to test each row
+	 * @return Filtered enumerable
+	 */
+	default ConvexEnumerable filter(Predicate<ACell[]> pred) {
+		return () -> new Iterator<ACell[]>() {
+			final Iterator<ACell[]> source = ConvexEnumerable.this.iterator();
+			ACell[] next;
+
+			@Override
+			public boolean hasNext() {
+				while (next == null) {
+					if (!source.hasNext()) return false;
+					ACell[] row = source.next();
+					if (pred.test(row)) next = row;
+				}
+				return true;
+			}
+
+			@Override
+			public ACell[] next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				ACell[] row = next;
+				next = null;
+				return row;
+			}
+		};
+	}
+
+	/**
+	 * Returns a lazy enumerable applying a function to each row.
+	 *
+	 * @param fn Function producing the output row
+	 * @return Mapped enumerable
+	 */
+	default ConvexEnumerable map(Function<ACell[], ACell[]> fn) {
+		return () -> {
+			Iterator<ACell[]> source = iterator();
+			return new Iterator<ACell[]>() {
+				@Override
+				public boolean hasNext() {
+					return source.hasNext();
+				}
+
+				@Override
+				public ACell[] next() {
+					return fn.apply(source.next());
+				}
+			};
+		};
+	}
+
+	/**
+	 * Returns a lazy enumerable skipping the first rows and stopping after a
+	 * maximum number of rows (SQL OFFSET / FETCH). The source is not read
+	 * beyond the last row returned.
+	 *
+	 * @param offset Number of rows to skip
+	 * @param fetch Maximum number of rows to return, or -1 for no limit
+	 * @return Sliced enumerable
+	 */
+	default ConvexEnumerable slice(long offset, long fetch) {
+		if (offset <= 0 && fetch < 0) return this;
+		if (fetch == 0) return empty();
+		return () -> new Iterator<ACell[]>() {
+			final Iterator<ACell[]> source = ConvexEnumerable.this.iterator();
+			long skip = offset;
+			long remaining = fetch;
+
+			@Override
+			public boolean hasNext() {
+				if (remaining == 0) return false;
+				while (skip > 0) {
+					if (!source.hasNext()) return false;
+					source.next();
+					skip--;
+				}
+				return source.hasNext();
+			}
+
+			@Override
+			public ACell[] next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				if (remaining > 0) remaining--;
+				return source.next();
+			}
+		};
+	}
 }
@@ -0,0 +1,170 @@
+package convex.db.calcite.convention;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import convex.core.data.ABlob;
+import convex.core.data.ACell;
+import convex.core.data.AVector;
+import convex.core.data.Index;
+import convex.core.data.MapEntry;
+import convex.db.lattice.SQLRow;
+
+/**
+ * Support for partitioned parallel execution of ConvexRel operators.
+ *
+ * <p>A table's row Index is split on radix child boundaries into partitions
+ * covering contiguous key ranges, so concatenating the partitions in order
+ * gives the rows in key order. Partitions are processed on the common
+ * fork-join pool.
+ *
+ * @see ConvexRel#executePartitions(org.apache.calcite.DataContext)
+ */
+public final class ConvexParallel {
+
+	/** Minimum number of rows in a table for a scan to be partitioned */
+	public static final long MIN_TABLE_ROWS = 10_000;
+
+	/** Minimum number of rows in a partition worth splitting further */
+	static final long MIN_PARTITION_ROWS = 1_000;
+
+	private ConvexParallel() {}
+
+	/**
+	 * Gets the number of partitions to aim for: a few per worker, so that
+	 * uneven partitions still keep all workers busy.
+	 */
+	static int targetPartitions() {
+		return ForkJoinPool.getCommonPoolParallelism() * 4;
+	}
+
+	/**
+	 * Splits the live rows of a table into partitions in key order.
+	 *
+	 * @param rows Row Index of the table
+	 * @return Partitions, each yielding rows as ACell arrays, which may be iterated once
+	 */
+	public static List<ConvexEnumerable> partition(Index<ABlob, AVector<ACell>> rows) {
+		List<Spliterator<MapEntry<ABlob, AVector<ACell>>>> parts = new ArrayList<>();
+		parts.add(rows.entrySpliterator());
+		int target = targetPartitions();
+		boolean split = true;
+		while (split && parts.size() < target) {
+			split = false;
+			for (int i = 0; i < parts.size() && parts.size() < target; i++) {
+				Spliterator<MapEntry<ABlob, AVector<ACell>>> s = parts.get(i);
+				if (s.estimateSize() < 2 * MIN_PARTITION_ROWS) continue;
+				Spliterator<MapEntry<ABlob, AVector<ACell>>> prefix = s.trySplit();
+				if (prefix == null) continue;
+				parts.add(i++, prefix);
+				split = true;
+			}
+		}
+
+		List<ConvexEnumerable> result = new ArrayList<>(parts.size());
+		for (Spliterator<MapEntry<ABlob, AVector<ACell>>> s : parts) {
+			AtomicBoolean used = new AtomicBoolean();
+			result.add(() -> {
+				if (used.getAndSet(true)) throw new IllegalStateException("Partition already iterated");
+				return liveRows(Spliterators.iterator(s));
+			});
+		}
+		return result;
+	}
+
+	private static Iterator<ACell[]> liveRows(Iterator<MapEntry<ABlob, AVector<ACell>>> entries) {
+		return new Iterator<ACell[]>() {
+			ACell[] next;
+
+			@Override
+			public boolean hasNext() {
+				while (next == null) {
+					if (!entries.hasNext()) return false;
+					AVector<ACell> v = entries.next().getValue();
+					if (SQLRow.isLive(v)) next = SQLRow.getValues(v).toCellArray();
+				}
+				return true;
+			}
+
+			@Override
+			public ACell[] next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				ACell[] row = next;
+				next = null;
+				return row;
+			}
+		};
+	}
+
+	/**
+	 * Applies a function to each partition in parallel.
+	 *
+	 * @param parts Partitions
+	 * @param fn Function consuming a partition
+	 * @return Results in partition order
+	 */
+	public static <R> List<R> map(List<ConvexEnumerable> parts, Function<ConvexEnumerable, R> fn) {
+		return parts.parallelStream().map(fn).toList();
+	}
+
+	/**
+	 * Concatenates partitions in order, reading ahead a bounded number of
+	 * partitions in parallel while the consumer reads the current one.
+	 *
+	 * @param parts Partitions
+	 * @return Enumerable of all rows in partition order, which may be iterated once
+	 */
+	public static ConvexEnumerable concat(List<ConvexEnumerable> parts) {
+		int window = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+		return () -> new Iterator<ACell[]>() {
+			final Iterator<ConvexEnumerable> source = parts.iterator();
+			final ArrayDeque<CompletableFuture<List<ACell[]>>> ahead = new ArrayDeque<>();
+			Iterator<ACell[]> current = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!current.hasNext()) {
+					while (ahead.size() < window && source.hasNext()) {
+						ConvexEnumerable part = source.next();
+						ahead.add(CompletableFuture.supplyAsync(() -> collect(part), ForkJoinPool.commonPool()));
+					}
+					if (ahead.isEmpty()) return false;
+					current = join(ahead.poll()).iterator();
+				}
+				return true;
+			}
+
+			@Override
+			public ACell[] next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				return current.next();
+			}
+		};
+	}
+
+	private static List<ACell[]> collect(ConvexEnumerable part) {
+		List<ACell[]> rows = new ArrayList<>();
+		for (ACell[] row : part) rows.add(row);
+		return rows;
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException re) throw re;
+			throw e;
+		}
+	}
+}
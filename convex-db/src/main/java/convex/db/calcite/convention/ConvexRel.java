@@ -1,5 +1,7 @@
 package convex.db.calcite.convention;
 
+import java.util.List;
+
 import org.apache.calcite.DataContext;
 import org.apache.calcite.rel.RelNode;
 
@@ -9,6 +11,11 @@ import org.apache.calcite.rel.RelNode;
  * <p>All physical operators in the CONVEX convention implement this interface.
  * The execute method returns rows as ACell arrays, keeping CVM types throughout
  * the execution pipeline.
+ *
+ * <p>When parallel execution is enabled for a connection, scans of large
+ * tables are split into partitions by {@link #executePartitions}, which
+ * filters and projections process independently and aggregates combine
+ * from partial results.
  */
 public interface ConvexRel extends RelNode {
 
@@ -19,4 +26,19 @@ public interface ConvexRel extends RelNode {
 	 * @return ConvexEnumerable yielding ACell[] rows
 	 */
 	ConvexEnumerable execute(DataContext ctx);
+
+	/**
+	 * Executes this relational expression as independent partitions that can
+	 * be processed in parallel. Concatenating the partitions in order gives
+	 * the same rows as {@link #execute}.
+	 *
+	 * <p>Operators that can run per partition override this, and the default
+	 * returns null so that consumers fall back to {@link #execute}.
+	 *
+	 * @param ctx DataContext for resolving dynamic parameters (may be null)
+	 * @return Partitions, each of which may be iterated once, or null if not partitioned
+	 */
+	default List<ConvexEnumerable> executePartitions(DataContext ctx) {
+		return null;
+	}
 }
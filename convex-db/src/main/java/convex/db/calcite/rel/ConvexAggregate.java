@@ -2,6 +2,7 @@ package convex.db.calcite.rel;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +27,7 @@ import convex.core.data.prim.CVMLong;
 import convex.core.lang.RT;
 import convex.db.calcite.convention.ConvexConvention;
 import convex.db.calcite.convention.ConvexEnumerable;
+import convex.db.calcite.convention.ConvexParallel;
 import convex.db.calcite.convention.ConvexRel;
 
 /**
@@ -38,6 +40,13 @@ import convex.db.calcite.convention.ConvexRel;
  *   <li>MIN/MAX - uses RT.min()/RT.max()</li>
  *   <li>AVG - SUM/COUNT with CVMDouble</li>
  * </ul>
+ *
+ * <p>Aggregation is a streaming hash aggregate: each input row is folded
+ * into running accumulators for its group, so memory grows with the number
+ * of groups rather than the number of rows (COUNT(DISTINCT) additionally
+ * holds the distinct values of its group). The input is read when the
+ * result is first iterated. If the input is partitioned, each partition
+ * is aggregated in parallel and the partial accumulators merged.
  */
 public class ConvexAggregate extends Aggregate implements ConvexRel {
 
@@ -64,55 +73,99 @@ public class ConvexAggregate extends Aggregate implements ConvexRel {
 	@Override
 	public ConvexEnumerable execute(DataContext ctx) {
 		ConvexRel inputRel = (ConvexRel) getInput();
-		ConvexEnumerable input = inputRel.execute(ctx);
-		RelDataType inputRowType = getInput().getRowType();
+		return () -> {
+			// Partitions are aggregated in parallel, then partial results merged
+			List<ConvexEnumerable> parts = inputRel.executePartitions(ctx);
+			Map<GroupKey, Accumulator[]> groups;
+			if (parts == null) {
+				groups = accumulate(inputRel.execute(ctx));
+			} else {
+				groups = new HashMap<>();
+				for (Map<GroupKey, Accumulator[]> partial : ConvexParallel.map(parts, this::accumulate)) {
+					merge(groups, partial);
+				}
+			}
+			return results(groups).iterator();
+		};
+	}
 
+	/**
+	 * Folds rows into per-group accumulators.
+	 */
+	private Map<GroupKey, Accumulator[]> accumulate(ConvexEnumerable input) {
 		List<Integer> groupKeys = groupSet.toList();
 		List<AggregateCall> aggCalls = getAggCallList();
 
-		// Group rows by group key
-		Map<GroupKey, List<ACell[]>> groups = new HashMap<>();
-
+		// Only the running accumulators of each group are held, not its rows
+		Map<GroupKey, Accumulator[]> groups = new HashMap<>();
 		for (ACell[] row : input) {
 			GroupKey key = new GroupKey(row, groupKeys);
-			groups.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+			Accumulator[] accs = groups.get(key);
+			if (accs == null) {
+				accs = createAccumulators(aggCalls);
+				groups.put(key, accs);
+			}
+			for (Accumulator acc : accs) {
+				acc.add(row);
+			}
+		}
+		return groups;
+	}
+
+	/**
+	 * Merges partial per-group accumulators into a combined map.
+	 */
+	private static void merge(Map<GroupKey, Accumulator[]> groups, Map<GroupKey, Accumulator[]> partial) {
+		for (Map.Entry<GroupKey, Accumulator[]> entry : partial.entrySet()) {
+			Accumulator[] accs = groups.putIfAbsent(entry.getKey(), entry.getValue());
+			if (accs == null) continue;
+			Accumulator[] other = entry.getValue();
+			for (int i = 0; i < accs.length; i++) {
+				accs[i].merge(other[i]);
+			}
 		}
+	}
+
+	/**
+	 * Returns one row per group: group key values followed by aggregate values.
+	 */
+	private List<ACell[]> results(Map<GroupKey, Accumulator[]> groups) {
+		List<Integer> groupKeys = groupSet.toList();
+		List<AggregateCall> aggCalls = getAggCallList();
 
 		// If no groups and no rows, still produce one row for aggregates without GROUP BY
 		if (groups.isEmpty() && groupKeys.isEmpty()) {
-			groups.put(new GroupKey(new ACell[0], groupKeys), new ArrayList<>());
+			groups.put(new GroupKey(new ACell[0], groupKeys), createAccumulators(aggCalls));
 		}
 
-		// Compute aggregates for each group
-		List<ACell[]> result = new ArrayList<>();
-		for (Map.Entry<GroupKey, List<ACell[]>> entry : groups.entrySet()) {
-			GroupKey key = entry.getKey();
-			List<ACell[]> groupRows = entry.getValue();
+		List<ACell[]> result = new ArrayList<>(groups.size());
+		for (Map.Entry<GroupKey, Accumulator[]> entry : groups.entrySet()) {
+			ACell[] keyValues = entry.getKey().values;
+			Accumulator[] accs = entry.getValue();
 
 			// Build result row: group keys + aggregate values
-			ACell[] resultRow = new ACell[groupKeys.size() + aggCalls.size()];
-
-			// Copy group key values
-			for (int i = 0; i < groupKeys.size(); i++) {
-				resultRow[i] = key.values[i];
-			}
-
-			// Compute each aggregate
-			for (int i = 0; i < aggCalls.size(); i++) {
-				AggregateCall aggCall = aggCalls.get(i);
-				resultRow[groupKeys.size() + i] = computeAggregate(aggCall, groupRows, inputRowType);
+			ACell[] resultRow = new ACell[keyValues.length + accs.length];
+			System.arraycopy(keyValues, 0, resultRow, 0, keyValues.length);
+			for (int i = 0; i < accs.length; i++) {
+				resultRow[keyValues.length + i] = accs[i].result();
 			}
-
 			result.add(resultRow);
 		}
+		return result;
+	}
 
-		return ConvexEnumerable.of(result);
+	private static Accumulator[] createAccumulators(List<AggregateCall> aggCalls) {
+		Accumulator[] accs = new Accumulator[aggCalls.size()];
+		for (int i = 0; i < accs.length; i++) {
+			accs[i] = createAccumulator(aggCalls.get(i));
+		}
+		return accs;
 	}
 
 	/**
-	 * Computes an aggregate value using CVM operations.
+	 * Creates the running accumulator for an aggregate call, using CVM operations.
 	 */
-	private ACell computeAggregate(AggregateCall aggCall, List<ACell[]> rows, RelDataType inputRowType) {
+	private static Accumulator createAccumulator(AggregateCall aggCall) {
 		SqlKind kind = aggCall.getAggregation().getKind();
 		List<Integer> argList = aggCall.getArgList();
 
@@ -120,116 +173,222 @@ public class ConvexAggregate extends Aggregate implements ConvexRel {
 		int colIndex = argList.isEmpty() ? -1 : argList.get(0);
 
 		return switch (kind) {
-			case COUNT -> computeCount(rows, colIndex, aggCall.isDistinct());
-			case SUM, SUM0 -> computeSum(rows, colIndex);
-			case MIN -> computeMin(rows, colIndex);
-			case MAX -> computeMax(rows, colIndex);
-			case AVG -> computeAvg(rows, colIndex, aggCall.getType());
+			case COUNT -> (colIndex < 0) ? new CountStar()
+				: aggCall.isDistinct() ? new CountDistinct(colIndex) : new Count(colIndex);
+			case SUM, SUM0 -> new Sum(colIndex);
+			case MIN -> new Min(colIndex);
+			case MAX -> new Max(colIndex);
+			case AVG -> new Avg(colIndex, aggCall.getType());
 			default -> throw new UnsupportedOperationException("Aggregate not supported: " + kind);
 		};
 	}
 
+	private static ACell value(ACell[] row, int colIndex) {
+		return colIndex < row.length ? row[colIndex] : null;
+	}
+
+	// ========== Accumulators ==========
+
+	/**
+	 * Running state of one aggregate call within one group.
+	 */
+	private interface Accumulator {
+		void add(ACell[] row);
+
+		/**
+		 * Merges the state of an accumulator of the same kind, from another partition.
+		 */
+		void merge(Accumulator other);
+
+		ACell result();
+	}
+
 	/**
-	 * COUNT using simple counter.
+	 * COUNT(*) using simple counter.
 	 */
-	private ACell computeCount(List<ACell[]> rows, int colIndex, boolean distinct) {
-		if (colIndex < 0) {
-			// COUNT(*)
-			return CVMLong.create(rows.size());
+	private static final class CountStar implements Accumulator {
+		long count;
+
+		@Override
+		public void add(ACell[] row) {
+			count++;
 		}
 
-		// COUNT(column) - count non-null values
-		if (distinct) {
-			// COUNT(DISTINCT column)
-			return CVMLong.create(rows.stream()
-				.map(row -> colIndex < row.length ? row[colIndex] : null)
-				.filter(v -> v != null)
-				.distinct()
-				.count());
+		@Override
+		public void merge(Accumulator other) {
+			count += ((CountStar) other).count;
 		}
 
-		long count = 0;
-		for (ACell[] row : rows) {
-			if (colIndex < row.length && row[colIndex] != null) {
-				count++;
-			}
+		@Override
+		public ACell result() {
+			return CVMLong.create(count);
+		}
+	}
+
+	/**
+	 * COUNT(column) - count non-null values.
+	 */
+	private static final class Count implements Accumulator {
+		final int colIndex;
+		long count;
+
+		Count(int colIndex) {
+			this.colIndex = colIndex;
+		}
+
+		@Override
+		public void add(ACell[] row) {
+			if (value(row, colIndex) != null) count++;
+		}
+
+		@Override
+		public void merge(Accumulator other) {
+			count += ((Count) other).count;
+		}
+
+		@Override
+		public ACell result() {
+			return CVMLong.create(count);
+		}
+	}
+
+	/**
+	 * COUNT(DISTINCT column) - holds the distinct non-null values seen.
+	 */
+	private static final class CountDistinct implements Accumulator {
+		final int colIndex;
+		final HashSet<ACell> seen = new HashSet<>();
+
+		CountDistinct(int colIndex) {
+			this.colIndex = colIndex;
+		}
+
+		@Override
+		public void add(ACell[] row) {
+			ACell val = value(row, colIndex);
+			if (val != null) seen.add(val);
+		}
+
+		@Override
+		public void merge(Accumulator other) {
+			seen.addAll(((CountDistinct) other).seen);
+		}
+
+		@Override
+		public ACell result() {
+			return CVMLong.create(seen.size());
 		}
-		return CVMLong.create(count);
 	}
 
 	/**
 	 * SUM using RT.plus().
 	 */
-	private ACell computeSum(List<ACell[]> rows, int colIndex) {
-		if (rows.isEmpty()) return null;
+	private static final class Sum implements Accumulator {
+		final int colIndex;
+		ANumeric sum;
 
-		ANumeric sum = null;
-		for (ACell[] row : rows) {
-			ACell val = colIndex < row.length ? row[colIndex] : null;
-			if (val == null) continue;
+		Sum(int colIndex) {
+			this.colIndex = colIndex;
+		}
 
-			if (sum == null) {
-				sum = RT.ensureNumber(val);
-			} else {
-				sum = RT.plus(new ACell[]{sum, val});
-			}
+		@Override
+		public void add(ACell[] row) {
+			ACell val = value(row, colIndex);
+			if (val == null) return;
+			sum = (sum == null) ? RT.ensureNumber(val) : RT.plus(new ACell[]{sum, val});
+		}
+
+		@Override
+		public void merge(Accumulator other) {
+			ANumeric o = ((Sum) other).sum;
+			if (o != null) sum = (sum == null) ? o : RT.plus(new ACell[]{sum, o});
+		}
+
+		@Override
+		public ACell result() {
+			return sum;
 		}
-		return sum;
 	}
 
 	/**
 	 * MIN using RT.min().
 	 */
-	private ACell computeMin(List<ACell[]> rows, int colIndex) {
-		if (rows.isEmpty()) return null;
+	private static final class Min implements Accumulator {
+		final int colIndex;
+		ACell min;
 
-		ACell min = null;
-		for (ACell[] row : rows) {
-			ACell val = colIndex < row.length ? row[colIndex] : null;
-			if (val == null) continue;
+		Min(int colIndex) {
+			this.colIndex = colIndex;
+		}
 
-			if (min == null) {
-				min = val;
-			} else {
-				min = RT.min(min, val);
-			}
+		@Override
+		public void add(ACell[] row) {
+			ACell val = value(row, colIndex);
+			if (val == null) return;
+			min = (min == null) ? val : RT.min(min, val);
+		}
+
+		@Override
+		public void merge(Accumulator other) {
+			ACell o = ((Min) other).min;
+			if (o != null) min = (min == null) ? o : RT.min(min, o);
+		}
+
+		@Override
+		public ACell result() {
+			return min;
 		}
-		return min;
 	}
 
 	/**
 	 * MAX using RT.max().
 	 */
-	private ACell computeMax(List<ACell[]> rows, int colIndex) {
-		if (rows.isEmpty()) return null;
+	private static final class Max implements Accumulator {
+		final int colIndex;
+		ACell max;
 
-		ACell max = null;
-		for (ACell[] row : rows) {
-			ACell val = colIndex < row.length ? row[colIndex] : null;
-			if (val == null) continue;
+		Max(int colIndex) {
+			this.colIndex = colIndex;
+		}
 
-			if (max == null) {
-				max = val;
-			} else {
-				max = RT.max(max, val);
-			}
+		@Override
+		public void add(ACell[] row) {
+			ACell val = value(row, colIndex);
+			if (val == null) return;
+			max = (max == null) ? val : RT.max(max, val);
+		}
+
+		@Override
+		public void merge(Accumulator other) {
+			ACell o = ((Max) other).max;
+			if (o != null) max = (max == null) ? o : RT.max(max, o);
+		}
+
+		@Override
+		public ACell result() {
+			return max;
 		}
-		return max;
 	}
 
 	/**
 	 * AVG — returns type matching the declared return type.
 	 * Calcite declares AVG(BIGINT) as BIGINT, AVG(DOUBLE) as DOUBLE.
 	 */
-	private ACell computeAvg(List<ACell[]> rows, int colIndex, RelDataType returnType) {
-		if (rows.isEmpty()) return null;
-
-		double sum = 0;
-		long count = 0;
-		for (ACell[] row : rows) {
-			ACell val = colIndex < row.length ? row[colIndex] : null;
-			if (val == null) continue;
+	private static final class Avg implements Accumulator {
+		final int colIndex;
+		final RelDataType returnType;
+		double sum;
+		long count;
+
+		Avg(int colIndex, RelDataType returnType) {
+			this.colIndex = colIndex;
+			this.returnType = returnType;
+		}
 
+		@Override
+		public void add(ACell[] row) {
+			ACell val = value(row, colIndex);
+			if (val == null) return;
 			ANumeric num = RT.ensureNumber(val);
 			if (num != null) {
 				sum += num.doubleValue();
@@ -237,15 +396,25 @@ public class ConvexAggregate extends Aggregate implements ConvexRel {
 			}
 		}
 
-		if (count == 0) return null;
-		double avg = sum / count;
+		@Override
+		public void merge(Accumulator other) {
+			Avg o = (Avg) other;
+			sum += o.sum;
+			count += o.count;
+		}
 
-		// Match Calcite's declared return type (AVG(BIGINT) → BIGINT)
-		if (returnType.getSqlTypeName() == SqlTypeName.BIGINT
-				|| returnType.getSqlTypeName() == SqlTypeName.INTEGER) {
-			return CVMLong.create((long) avg);
+		@Override
+		public ACell result() {
+			if (count == 0) return null;
+			double avg = sum / count;
+
+			// Match Calcite's declared return type (AVG(BIGINT) → BIGINT)
+			if (returnType.getSqlTypeName() == SqlTypeName.BIGINT
+					|| returnType.getSqlTypeName() == SqlTypeName.INTEGER) {
+				return CVMLong.create((long) avg);
+			}
+			return CVMDouble.create(avg);
 		}
-		return CVMDouble.create(avg);
 	}
 
 	/**
@@ -1,6 +1,5 @@
 package convex.db.calcite.rel;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -8,19 +7,26 @@ import org.apache.calcite.DataContext;
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.plan.RelOptCost;
 import org.apache.calcite.plan.RelOptPlanner;
+import org.apache.calcite.plan.RelOptUtil;
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.Filter;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rex.RexCall;
 import org.apache.calcite.rex.RexDynamicParam;
 import org.apache.calcite.rex.RexInputRef;
 import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.ImmutableBitSet;
 
+import convex.core.data.ABlob;
 import convex.core.data.ACell;
+import convex.core.data.AString;
 import convex.core.data.AVector;
+import convex.core.data.Index;
 import convex.core.data.prim.CVMBool;
 import convex.db.calcite.ConvexSchema;
 import convex.db.calcite.ConvexTable;
@@ -29,6 +35,8 @@ import convex.db.calcite.convention.ConvexConvention;
 import convex.db.calcite.convention.ConvexEnumerable;
 import convex.db.calcite.convention.ConvexRel;
 import convex.db.calcite.eval.ConvexExpressionEvaluator;
+import convex.db.lattice.SQLIndex;
+import convex.db.lattice.SQLTable;
 
 /**
  * Filter in CONVEX convention.
@@ -38,6 +46,16 @@ import convex.db.calcite.eval.ConvexExpressionEvaluator;
  * over a ConvexTableScan, the filter is pushed down to {@code selectByKey()}
  * for O(log n) index lookup instead of a full table scan.
  *
+ * <p>Other conditions on the primary key (ranges, BETWEEN, IN, SEARCH and
+ * LIKE prefixes) are pushed down as a {@link KeyScan} which seeks into the
+ * row Index and reads only the covered rows, with the full condition
+ * applied to those rows. The same conditions on a column with a secondary
+ * index are answered from the index, fetching rows by primary key. Where
+ * several access paths apply, the one with the fewest estimated rows is used.
+ *
+ * <p>If a query needs only the primary key and an indexed column, rows can
+ * be read from the index alone (see {@link #executeIndexOnly}).
+ *
  * <p>Dynamic parameters from PreparedStatements are resolved via the
  * DataContext passed through the ConvexRel execution pipeline.
  */
@@ -60,6 +78,24 @@ public class ConvexFilter extends Filter implements ConvexRel {
 			// PK pushdown: O(log n) index lookup, returns at most 1 row
 			return planner.getCostFactory().makeCost(1, 1, 0);
 		}
+		if (getInput() instanceof ConvexTableScan) {
+			// Key or index scan pushdown: cost proportional to the rows the scan covers
+			double tableRows = mq.getRowCount(getInput());
+			double scanned = KeyScan.estimateRows(condition, primaryKeyType(), tableRows);
+			SQLTable table = liveTable();
+			Index<AString, AVector<ACell>> indexes = (table == null) ? null : table.getIndexes();
+			if (indexes != null) {
+				for (var e : indexes.entrySet()) {
+					if (!SQLIndex.isLive(e.getValue())) continue;
+					int column = SQLIndex.getColumn(e.getValue());
+					double est = KeyScan.estimateIndexRows(condition, column, columnType(column), tableRows);
+					if (est >= 0 && (scanned < 0 || est < scanned)) scanned = est;
+				}
+			}
+			if (scanned >= 0) {
+				return planner.getCostFactory().makeCost(scanned, scanned + 1, 0);
+			}
+		}
 		double rowCount = mq.getRowCount(this);
 		return planner.getCostFactory().makeCost(rowCount, rowCount, 0);
 	}
@@ -72,6 +108,27 @@ public class ConvexFilter extends Filter implements ConvexRel {
 		return hasPrimaryKeyEquality(condition);
 	}
 
+	/**
+	 * Gets the SQL type of the primary key column (column 0)
+	 */
+	private SqlTypeName primaryKeyType() {
+		return columnType(0);
+	}
+
+	private SqlTypeName columnType(int column) {
+		return getInput().getRowType().getFieldList().get(column).getType().getSqlTypeName();
+	}
+
+	/**
+	 * Gets the live table scanned by the input, or null if the input is not a table scan
+	 */
+	private SQLTable liveTable() {
+		if (!(getInput() instanceof ConvexTableScan scan)) return null;
+		ConvexTable convexTable = scan.getTable().unwrap(ConvexTable.class);
+		if (convexTable == null) return null;
+		return convexTable.getSchema().getTables().getLiveTable(convexTable.getTableName());
+	}
+
 	/**
 	 * Checks if a condition contains a primary key equality (column[0] = value/param).
 	 */
@@ -96,19 +153,66 @@ public class ConvexFilter extends Filter implements ConvexRel {
 		ConvexEnumerable pushed = tryPrimaryKeyLookup(ctx);
 		if (pushed != null) return pushed;
 
-		// Fallback: full scan + filter
-		ConvexRel inputRel = (ConvexRel) getInput();
-		ConvexEnumerable input = inputRel.execute(ctx);
+		// Try key or index scan pushdown for ranges, IN lists and prefixes; otherwise
+		// fall back to a streaming full scan. Either way the condition is applied.
+		ConvexEnumerable input = tryKeyScan(ctx);
+		if (input == null) {
+			ConvexRel inputRel = (ConvexRel) getInput();
+			input = inputRel.execute(ctx);
+		}
 
-		List<ACell[]> result = new ArrayList<>();
-		for (ACell[] row : input) {
-			ACell evaluated = ConvexExpressionEvaluator.evaluate(condition, row, getRowType(), ctx);
-			if (evaluated instanceof CVMBool b && b.booleanValue()) {
-				result.add(row);
-			}
+		return applyCondition(input, ctx);
+	}
+
+	/**
+	 * Applies the condition to each partition of the input. Key and index
+	 * scans read few rows, so are not partitioned.
+	 */
+	@Override
+	public List<ConvexEnumerable> executePartitions(DataContext ctx) {
+		if (tryPrimaryKeyLookup(ctx) != null || tryKeyScan(ctx) != null) return null;
+		List<ConvexEnumerable> parts = ((ConvexRel) getInput()).executePartitions(ctx);
+		if (parts == null) return null;
+		return parts.stream().map(part -> applyCondition(part, ctx)).toList();
+	}
+
+	/**
+	 * Executes this filter reading only a secondary index, if the condition
+	 * can be answered from an index and the columns needed by the consumer,
+	 * and by the condition, are the primary key and the indexed column.
+	 *
+	 * @param ctx DataContext for resolving dynamic parameters (may be null)
+	 * @param usedColumns Columns the consumer reads from the filtered rows
+	 * @return Sparse rows with only the primary key and indexed column set, or null if not applicable
+	 */
+	ConvexEnumerable executeIndexOnly(DataContext ctx, ImmutableBitSet usedColumns) {
+		// A primary key lookup reads at most one row, so is always preferred
+		if (canPushdownPrimaryKey()) return null;
+		SQLTable table = liveTable();
+		if (table == null) return null;
+		Index<AString, AVector<ACell>> indexes = table.getIndexes();
+		if (indexes == null) return null;
+
+		ImmutableBitSet used = usedColumns.union(RelOptUtil.InputFinder.bits(condition));
+		for (var e : indexes.entrySet()) {
+			AVector<ACell> def = e.getValue();
+			if (!SQLIndex.isLive(def)) continue;
+			int column = SQLIndex.getColumn(def);
+			if (!ImmutableBitSet.of(0, column).contains(used)) continue;
+			KeyScan keyScan = KeyScan.deriveIndex(condition, column, columnType(column), ctx);
+			if (keyScan == null) continue;
+			int width = getInput().getRowType().getFieldCount();
+			return applyCondition(keyScan.scanIndexOnly(SQLIndex.getEntries(def), width, column), ctx);
 		}
+		return null;
+	}
 
-		return ConvexEnumerable.of(result);
+	private ConvexEnumerable applyCondition(ConvexEnumerable input, DataContext ctx) {
+		RelDataType rowType = getRowType();
+		return input.filter(row -> {
+			ACell evaluated = ConvexExpressionEvaluator.evaluate(condition, row, rowType, ctx);
+			return evaluated instanceof CVMBool b && b.booleanValue();
+		});
 	}
 
 	/**
@@ -135,6 +239,48 @@ public class ConvexFilter extends Filter implements ConvexRel {
 		return ConvexEnumerable.of(Collections.singletonList(row.toCellArray()));
 	}
 
+	/**
+	 * Attempts key scan or secondary index scan pushdown over a table scan
+	 * input, choosing the access path with the fewest estimated rows.
+	 *
+	 * @param ctx DataContext for resolving dynamic parameters (may be null)
+	 * @return Candidate rows covered by the scan, or null if not applicable
+	 */
+	private ConvexEnumerable tryKeyScan(DataContext ctx) {
+		if (!(getInput() instanceof ConvexTableScan)) return null;
+		SQLTable table = liveTable();
+		if (table == null) return null;
+		double tableRows = table.getRowCount();
+
+		KeyScan best = KeyScan.derive(condition, primaryKeyType(), ctx);
+		double bestRows = (best == null) ? -1 : KeyScan.estimateRows(condition, primaryKeyType(), tableRows);
+		if (best != null && bestRows < 0) bestRows = tableRows;
+		Index<ABlob, Index<ABlob, AVector<ACell>>> bestEntries = null;
+
+		Index<AString, AVector<ACell>> indexes = table.getIndexes();
+		if (indexes != null) {
+			for (var e : indexes.entrySet()) {
+				AVector<ACell> def = e.getValue();
+				if (!SQLIndex.isLive(def)) continue;
+				int column = SQLIndex.getColumn(def);
+				KeyScan keyScan = KeyScan.deriveIndex(condition, column, columnType(column), ctx);
+				if (keyScan == null) continue;
+				double est = KeyScan.estimateIndexRows(condition, column, columnType(column), tableRows);
+				if (est < 0) est = tableRows;
+				if (best == null || est < bestRows) {
+					best = keyScan;
+					bestRows = est;
+					bestEntries = SQLIndex.getEntries(def);
+				}
+			}
+		}
+		if (best == null) return null;
+
+		Index<ABlob, AVector<ACell>> rows = table.getRows();
+		if (rows == null) return ConvexEnumerable.empty();
+		return (bestEntries == null) ? best.scan(rows) : best.scanIndex(bestEntries, rows);
+	}
+
 	/**
 	 * Extracts the primary key value from a condition of the form
 	 * {@code column[0] = literal} or {@code column[0] = ?param}.
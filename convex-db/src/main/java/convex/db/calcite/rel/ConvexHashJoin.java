@@ -0,0 +1,324 @@
+package convex.db.calcite.rel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.calcite.DataContext;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptCost;
+import org.apache.calcite.plan.RelOptPlanner;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.CorrelationId;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinInfo;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.type.SqlTypeName;
+
+import convex.core.data.ACell;
+import convex.core.data.prim.CVMBool;
+import convex.db.calcite.convention.ConvexConvention;
+import convex.db.calcite.convention.ConvexEnumerable;
+import convex.db.calcite.convention.ConvexRel;
+import convex.db.calcite.eval.ConvexExpressionEvaluator;
+
+/**
+ * Hash join in CONVEX convention.
+ *
+ * <p>Performs an O(n+m) equi-join by hashing the join key columns of one
+ * input (the build side) and streaming the other input (the probe side)
+ * against the hash table. The build side is the input with the smaller
+ * estimated row count, and only its rows are held in memory. Probe rows
+ * are read lazily, so a consumer that stops early stops the probe scan.
+ *
+ * <p>Joins whose build side exceeds {@link #MAX_BUILD_ROWS} fail rather
+ * than exhaust the heap: there is no spill to disk.
+ *
+ * <p>Supports INNER, LEFT, RIGHT, and FULL OUTER joins. NULL keys never
+ * match. Any residual non-equi conditions are evaluated on matched rows.
+ */
+public class ConvexHashJoin extends Join implements ConvexRel {
+
+	/** Maximum number of rows held in the hash table of a single join */
+	public static final int MAX_BUILD_ROWS = 5_000_000;
+
+	/** Relative cost of hashing a build row compared to probing with a row */
+	static final double BUILD_FACTOR = 1.5;
+
+	public ConvexHashJoin(RelOptCluster cluster, RelTraitSet traitSet,
+			RelNode left, RelNode right, RexNode condition,
+			Set<CorrelationId> variablesSet, JoinRelType joinType) {
+		super(cluster, traitSet, List.of(), left, right, condition, variablesSet, joinType);
+		assert getConvention() == ConvexConvention.INSTANCE;
+	}
+
+	@Override
+	public ConvexHashJoin copy(RelTraitSet traitSet, RexNode condition,
+			RelNode left, RelNode right, JoinRelType joinType, boolean semiJoinDone) {
+		return new ConvexHashJoin(getCluster(), traitSet, left, right, condition,
+			variablesSet, joinType);
+	}
+
+	/**
+	 * Checks whether a join can be executed as a hash join: it must have at
+	 * least one equi-join key, and each key pair must hold values of the same
+	 * CVM type on both sides so that equal values hash equally.
+	 *
+	 * @param join Join to check
+	 * @return true if the join can be hashed
+	 */
+	public static boolean canHash(Join join) {
+		switch (join.getJoinType()) {
+			case INNER, LEFT, RIGHT, FULL: break;
+			default: return false;
+		}
+		JoinInfo info = join.analyzeCondition();
+		if (info.leftKeys.isEmpty()) return false;
+		RelDataType leftType = join.getLeft().getRowType();
+		RelDataType rightType = join.getRight().getRowType();
+		for (int i = 0; i < info.leftKeys.size(); i++) {
+			SqlTypeName l = leftType.getFieldList().get(info.leftKeys.get(i)).getType().getSqlTypeName();
+			SqlTypeName r = rightType.getFieldList().get(info.rightKeys.get(i)).getType().getSqlTypeName();
+			if (!hashClass(l).equals(hashClass(r))) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Groups SQL types whose values are stored as the same CVM type
+	 */
+	private static String hashClass(SqlTypeName type) {
+		return switch (type) {
+			case TINYINT, SMALLINT, INTEGER, BIGINT -> "INTEGER";
+			case CHAR, VARCHAR -> "VARCHAR";
+			case BINARY, VARBINARY -> "VARBINARY";
+			default -> type.name();
+		};
+	}
+
+	/**
+	 * Checks whether the left input is the build side, i.e. has no more
+	 * estimated rows than the right input.
+	 */
+	boolean buildsLeft(RelMetadataQuery mq) {
+		return mq.getRowCount(getLeft()) <= mq.getRowCount(getRight());
+	}
+
+	@Override
+	public RelOptCost computeSelfCost(RelOptPlanner planner, RelMetadataQuery mq) {
+		double leftRows = mq.getRowCount(getLeft());
+		double rightRows = mq.getRowCount(getRight());
+		double buildRows = Math.min(leftRows, rightRows);
+		double probeRows = Math.max(leftRows, rightRows);
+		// Hash join cost: O(n + m), with hashing the build side costing more than probing
+		double cost = probeRows + buildRows * BUILD_FACTOR;
+		return planner.getCostFactory().makeCost(cost, cost, 0);
+	}
+
+	@Override
+	public ConvexEnumerable execute(DataContext ctx) {
+		boolean buildLeft = buildsLeft(getCluster().getMetadataQuery());
+		ConvexRel buildRel = (ConvexRel) (buildLeft ? getLeft() : getRight());
+		ConvexRel probeRel = (ConvexRel) (buildLeft ? getRight() : getLeft());
+		ConvexEnumerable buildInput = buildRel.execute(ctx);
+		ConvexEnumerable probeInput = probeRel.execute(ctx);
+
+		JoinInfo info = analyzeCondition();
+		int[] buildKeys = (buildLeft ? info.leftKeys : info.rightKeys).toIntArray();
+		int[] probeKeys = (buildLeft ? info.rightKeys : info.leftKeys).toIntArray();
+
+		// Outer sides emit unmatched rows padded with nulls
+		boolean buildOuter = buildLeft ? joinType.generatesNullsOnRight() : joinType.generatesNullsOnLeft();
+		boolean probeOuter = buildLeft ? joinType.generatesNullsOnLeft() : joinType.generatesNullsOnRight();
+
+		return () -> new Probe(buildLeft, build(buildInput, buildKeys), probeInput.iterator(),
+			probeKeys, buildOuter, probeOuter, info.nonEquiConditions);
+	}
+
+	// ========== Build ==========
+
+	/**
+	 * Hash table of build rows by join key. Rows with NULL keys are kept
+	 * separately, since they can only be emitted unmatched.
+	 */
+	private static final class Table {
+		final HashMap<Key, List<ACell[]>> buckets = new HashMap<>();
+		final List<ACell[]> rows = new ArrayList<>();
+		final List<ACell[]> nullKeyRows = new ArrayList<>();
+	}
+
+	private static Table build(ConvexEnumerable input, int[] keys) {
+		Table table = new Table();
+		for (ACell[] row : input) {
+			if (table.rows.size() + table.nullKeyRows.size() >= MAX_BUILD_ROWS) {
+				throw new IllegalStateException("Hash join build side exceeds " + MAX_BUILD_ROWS + " rows");
+			}
+			Key key = Key.of(row, keys);
+			if (key == null) {
+				table.nullKeyRows.add(row);
+			} else {
+				table.rows.add(row);
+				table.buckets.computeIfAbsent(key, k -> new ArrayList<>(1)).add(row);
+			}
+		}
+		return table;
+	}
+
+	// ========== Probe ==========
+
+	/**
+	 * Iterator streaming probe rows against the hash table. Unmatched build
+	 * rows of an outer build side are emitted after the probe side is done.
+	 */
+	private final class Probe implements Iterator<ACell[]> {
+		final boolean buildLeft;
+		final Table table;
+		final Iterator<ACell[]> probe;
+		final int[] probeKeys;
+		final boolean buildOuter;
+		final boolean probeOuter;
+		final List<RexNode> residual;
+		final int leftWidth = getLeft().getRowType().getFieldCount();
+		final int rightWidth = getRight().getRowType().getFieldCount();
+		final RelDataType rowType = getRowType();
+
+		/** Build rows matched so far, by identity, if the build side is outer */
+		final Set<ACell[]> matched;
+
+		/** Rows produced for the current probe row */
+		Iterator<ACell[]> pending = Collections.emptyIterator();
+		/** Unmatched build rows, once the probe side is exhausted */
+		Iterator<ACell[]> remaining;
+
+		Probe(boolean buildLeft, Table table, Iterator<ACell[]> probe, int[] probeKeys,
+				boolean buildOuter, boolean probeOuter, List<RexNode> residual) {
+			this.buildLeft = buildLeft;
+			this.table = table;
+			this.probe = probe;
+			this.probeKeys = probeKeys;
+			this.buildOuter = buildOuter;
+			this.probeOuter = probeOuter;
+			this.residual = residual;
+			this.matched = buildOuter ? Collections.newSetFromMap(new IdentityHashMap<>()) : null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!pending.hasNext()) {
+				if (probe.hasNext()) {
+					pending = probeRow(probe.next());
+				} else if (buildOuter) {
+					if (remaining == null) remaining = unmatchedBuildRows();
+					return remaining.hasNext();
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public ACell[] next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			return pending.hasNext() ? pending.next() : remaining.next();
+		}
+
+		private Iterator<ACell[]> probeRow(ACell[] row) {
+			Key key = Key.of(row, probeKeys);
+			List<ACell[]> bucket = (key == null) ? null : table.buckets.get(key);
+			List<ACell[]> out = null;
+			if (bucket != null) {
+				for (ACell[] buildRow : bucket) {
+					ACell[] combined = buildLeft ? combine(buildRow, row) : combine(row, buildRow);
+					if (matchesResidual(combined)) {
+						if (out == null) out = new ArrayList<>(bucket.size());
+						out.add(combined);
+						if (buildOuter) matched.add(buildRow);
+					}
+				}
+			}
+			if (out != null) return out.iterator();
+			if (probeOuter) return Collections.singletonList(buildLeft ? combine(null, row) : combine(row, null)).iterator();
+			return Collections.emptyIterator();
+		}
+
+		private Iterator<ACell[]> unmatchedBuildRows() {
+			List<ACell[]> out = new ArrayList<>();
+			for (ACell[] buildRow : table.rows) {
+				if (!matched.contains(buildRow)) out.add(padBuild(buildRow));
+			}
+			for (ACell[] buildRow : table.nullKeyRows) {
+				out.add(padBuild(buildRow));
+			}
+			return out.iterator();
+		}
+
+		private ACell[] padBuild(ACell[] buildRow) {
+			return buildLeft ? combine(buildRow, null) : combine(null, buildRow);
+		}
+
+		/**
+		 * Combines left and right rows, with null for a missing side.
+		 */
+		private ACell[] combine(ACell[] left, ACell[] right) {
+			ACell[] combined = new ACell[leftWidth + rightWidth];
+			if (left != null) System.arraycopy(left, 0, combined, 0, Math.min(left.length, leftWidth));
+			if (right != null) System.arraycopy(right, 0, combined, leftWidth, Math.min(right.length, rightWidth));
+			return combined;
+		}
+
+		private boolean matchesResidual(ACell[] row) {
+			for (RexNode cond : residual) {
+				ACell val = ConvexExpressionEvaluator.evaluate(cond, row, rowType);
+				if (!(val instanceof CVMBool b && b.booleanValue())) return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Join key values of a row.
+	 */
+	private static final class Key {
+		final ACell[] values;
+		final int hash;
+
+		private Key(ACell[] values) {
+			this.values = values;
+			this.hash = Arrays.hashCode(values);
+		}
+
+		/**
+		 * Extracts the key columns of a row, or returns null if any is NULL.
+		 */
+		static Key of(ACell[] row, int[] keys) {
+			ACell[] values = new ACell[keys.length];
+			for (int i = 0; i < keys.length; i++) {
+				ACell v = keys[i] < row.length ? row[keys[i]] : null;
+				if (v == null) return null;
+				values[i] = v;
+			}
+			return new Key(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key other && Arrays.equals(values, other.values);
+		}
+	}
+}
@@ -20,6 +20,7 @@ import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.ImmutableIntList;
 
 import convex.core.data.ACell;
 import convex.core.data.prim.CVMBool;
@@ -36,8 +37,8 @@ import convex.db.calcite.eval.ConvexExpressionEvaluator;
  * the join key is the primary key (column 0) — the Index radix tree
  * produces rows in sorted PK order.
  *
- * <p>For non-PK join keys, the planner inserts ConvexSort operators
- * below the merge join to sort both sides first (sort-merge join).
+ * <p>For non-PK join keys, both sides are sorted first (sort-merge join),
+ * which is costed accordingly so that {@link ConvexHashJoin} is preferred.
  *
  * <p>Supports INNER, LEFT, RIGHT, and FULL OUTER joins. Any residual
  * non-equi conditions are evaluated as a post-filter on matched rows.
@@ -62,8 +63,13 @@ public class ConvexMergeJoin extends Join implements ConvexRel {
 	public RelOptCost computeSelfCost(RelOptPlanner planner, RelMetadataQuery mq) {
 		double leftRows = mq.getRowCount(getLeft());
 		double rightRows = mq.getRowCount(getRight());
-		// Merge join cost: O(n + m)
+		// Merge join cost: O(n + m) when both sides join on the primary key,
+		// and so arrive in key order, otherwise both sides are sorted first
 		double cost = leftRows + rightRows;
+		JoinInfo info = analyzeCondition();
+		if (!(info.leftKeys.equals(ImmutableIntList.of(0)) && info.rightKeys.equals(ImmutableIntList.of(0)))) {
+			cost += sortCost(leftRows) + sortCost(rightRows);
+		}
 		return planner.getCostFactory().makeCost(cost, cost, 0);
 	}
 
@@ -260,6 +266,10 @@ public class ConvexMergeJoin extends Join implements ConvexRel {
 
 	// ========== Helpers ==========
 
+	private static double sortCost(double rows) {
+		return (rows > 1) ? rows * Math.log(rows) / Math.log(2) : 0;
+	}
+
 	private static List<ACell[]> collect(ConvexEnumerable input) {
 		List<ACell[]> rows = new ArrayList<>();
 		for (ACell[] row : input) rows.add(row);
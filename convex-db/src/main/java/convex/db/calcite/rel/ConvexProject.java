@@ -1,12 +1,12 @@
 package convex.db.calcite.rel;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.calcite.DataContext;
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.plan.RelOptCost;
 import org.apache.calcite.plan.RelOptPlanner;
+import org.apache.calcite.plan.RelOptUtil;
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.Project;
@@ -24,6 +24,9 @@ import convex.db.calcite.eval.ConvexExpressionEvaluator;
  * Project in CONVEX convention.
  *
  * <p>Projects columns from ACell[] rows, evaluating expressions as needed.
+ * Over a filter that can be answered from a secondary index, if only the
+ * primary key and indexed column are used, rows are read from the index
+ * without fetching them from the table.
  */
 public class ConvexProject extends Project implements ConvexRel {
 
@@ -42,25 +45,48 @@ public class ConvexProject extends Project implements ConvexRel {
 	@Override
 	public RelOptCost computeSelfCost(RelOptPlanner planner, RelMetadataQuery mq) {
 		double rowCount = mq.getRowCount(this);
+		if (isMapping()) {
+			// Plain column selection: cheap, and may read rows from a covering index
+			return planner.getCostFactory().makeCost(rowCount * 0.5, rowCount, 0);
+		}
 		return planner.getCostFactory().makeCost(rowCount, rowCount * getProjects().size(), 0);
 	}
 
 	@Override
 	public ConvexEnumerable execute(DataContext ctx) {
-		ConvexRel inputRel = (ConvexRel) getInput();
-		ConvexEnumerable input = inputRel.execute(ctx);
+		List<RexNode> projects = getProjects();
+		ConvexEnumerable input = null;
+		if (getInput() instanceof ConvexFilter filter) {
+			input = filter.executeIndexOnly(ctx, RelOptUtil.InputFinder.bits(projects, null));
+		}
+		if (input == null) {
+			ConvexRel inputRel = (ConvexRel) getInput();
+			input = inputRel.execute(ctx);
+		}
+		return project(input);
+	}
+
+	/**
+	 * Evaluates the projections on each partition of the input.
+	 */
+	@Override
+	public List<ConvexEnumerable> executePartitions(DataContext ctx) {
+		List<ConvexEnumerable> parts = ((ConvexRel) getInput()).executePartitions(ctx);
+		if (parts == null) return null;
+		return parts.stream().map(this::project).toList();
+	}
+
+	private ConvexEnumerable project(ConvexEnumerable input) {
 		List<RexNode> projects = getProjects();
 		RelDataType inputRowType = getInput().getRowType();
 
-		List<ACell[]> result = new ArrayList<>();
-		for (ACell[] row : input) {
-			ACell[] projected = new ACell[projects.size()];
-			for (int i = 0; i < projects.size(); i++) {
+		int n = projects.size();
+		return input.map(row -> {
+			ACell[] projected = new ACell[n];
+			for (int i = 0; i < n; i++) {
 				projected[i] = ConvexExpressionEvaluator.evaluate(projects.get(i), row, inputRowType);
 			}
-			result.add(projected);
-		}
-
-		return ConvexEnumerable.of(result);
+			return projected;
+		});
 	}
 }
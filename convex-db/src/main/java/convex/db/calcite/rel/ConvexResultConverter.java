@@ -1,7 +1,8 @@
 package convex.db.calcite.rel;
 
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Function;
 
 import org.apache.calcite.DataContext;
 import org.apache.calcite.linq4j.Enumerable;
@@ -11,6 +12,7 @@ import convex.core.data.ABlob;
 import convex.core.data.ACell;
 import convex.core.lang.RT;
 import convex.db.calcite.convention.ConvexEnumerable;
+import convex.db.calcite.convention.ConvexParallel;
 import convex.db.calcite.convention.ConvexRel;
 
 /**
@@ -32,17 +34,14 @@ public class ConvexResultConverter {
 	 * Used for multi-column results.
 	 */
 	public static Enumerable<Object[]> execute(ConvexRel rel, int fieldCount, DataContext ctx) {
-		ConvexEnumerable convexResult = rel.execute(ctx);
-
-		List<Object[]> results = new ArrayList<>();
-		for (ACell[] row : convexResult) {
+		ConvexEnumerable convexResult = executeRel(rel, ctx);
+		return Linq4j.asEnumerable(() -> new MappingIterator<>(convexResult.iterator(), row -> {
 			Object[] javaRow = new Object[fieldCount];
 			for (int i = 0; i < Math.min(row.length, fieldCount); i++) {
 				javaRow[i] = cellToJava(row[i]);
 			}
-			results.add(javaRow);
-		}
-		return Linq4j.asEnumerable(results);
+			return javaRow;
+		}));
 	}
 
 	/**
@@ -50,13 +49,45 @@ public class ConvexResultConverter {
 	 * Used for single-column results.
 	 */
 	public static Enumerable<Object> executeScalar(ConvexRel rel, DataContext ctx) {
-		ConvexEnumerable convexResult = rel.execute(ctx);
+		ConvexEnumerable convexResult = executeRel(rel, ctx);
+		return Linq4j.asEnumerable(() -> new MappingIterator<>(convexResult.iterator(),
+			row -> row.length > 0 ? cellToJava(row[0]) : null));
+	}
+
+	/**
+	 * Executes the root of a ConvexRel tree. If the root is partitioned, the
+	 * partitions are read ahead in parallel and returned in order.
+	 */
+	private static ConvexEnumerable executeRel(ConvexRel rel, DataContext ctx) {
+		return () -> {
+			List<ConvexEnumerable> parts = rel.executePartitions(ctx);
+			ConvexEnumerable result = (parts == null) ? rel.execute(ctx) : ConvexParallel.concat(parts);
+			return result.iterator();
+		};
+	}
+
+	/**
+	 * Converts rows lazily as the JDBC result set advances, so a client that
+	 * closes the result set early never pulls the remaining rows.
+	 */
+	private static final class MappingIterator<T> implements Iterator<T> {
+		private final Iterator<ACell[]> source;
+		private final Function<ACell[], T> fn;
+
+		MappingIterator(Iterator<ACell[]> source, Function<ACell[], T> fn) {
+			this.source = source;
+			this.fn = fn;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return source.hasNext();
+		}
 
-		List<Object> results = new ArrayList<>();
-		for (ACell[] row : convexResult) {
-			results.add(row.length > 0 ? cellToJava(row[0]) : null);
+		@Override
+		public T next() {
+			return fn.apply(source.next());
 		}
-		return Linq4j.asEnumerable(results);
 	}
 
 	/**
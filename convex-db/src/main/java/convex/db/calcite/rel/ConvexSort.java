@@ -1,8 +1,10 @@
 package convex.db.calcite.rel;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.plan.RelOptCost;
@@ -16,6 +18,8 @@ import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.calcite.DataContext;
+import org.apache.calcite.rex.RexDynamicParam;
+import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.sql.type.SqlTypeName;
 
@@ -31,6 +35,10 @@ import convex.db.calcite.eval.ConvexExpressionEvaluator;
  *
  * <p>Sorts ACell[] rows using type-specific comparators selected from
  * the column's SQL type at plan time.
+ *
+ * <p>Without a collation, OFFSET and LIMIT are applied to the input stream,
+ * which stops being read once the limit is reached. With a collation and a
+ * LIMIT, a bounded heap keeps only the rows that can appear in the result.
  */
 public class ConvexSort extends Sort implements ConvexRel {
 
@@ -59,48 +67,78 @@ public class ConvexSort extends Sort implements ConvexRel {
 		ConvexRel inputRel = (ConvexRel) getInput();
 		ConvexEnumerable input = inputRel.execute(ctx);
 
-		// Collect all rows
+		long offsetVal = limitValue(offset, ctx, 0);
+		long fetchVal = limitValue(fetch, ctx, -1);
+
+		// No ordering: OFFSET / LIMIT stream directly and stop reading input early
+		if (collation.getFieldCollations().isEmpty()) {
+			return input.slice(offsetVal, fetchVal);
+		}
+
+		Comparator<ACell[]> comparator = createComparator();
+
+		// ORDER BY ... LIMIT n: keep only the best offset+n rows
+		if (fetchVal >= 0 && offsetVal + fetchVal <= MAX_TOP_N) {
+			return ConvexEnumerable.of(topN(input, comparator, (int) (offsetVal + fetchVal)))
+				.slice(offsetVal, fetchVal);
+		}
+
+		// Full sort
 		List<ACell[]> rows = new ArrayList<>();
 		for (ACell[] row : input) {
 			rows.add(row);
 		}
+		rows.sort(comparator);
+		return ConvexEnumerable.of(rows).slice(offsetVal, fetchVal);
+	}
 
-		// Sort if there's a collation
-		if (!collation.getFieldCollations().isEmpty()) {
-			rows.sort(createComparator());
-		}
+	/**
+	 * Maximum OFFSET + LIMIT for which a bounded heap is used rather than a full sort
+	 */
+	private static final long MAX_TOP_N = 1 << 20;
 
-		// Apply OFFSET
-		int offsetVal = 0;
-		if (offset != null) {
-			ACell offsetCell = ConvexExpressionEvaluator.literalToCell(
-				(org.apache.calcite.rex.RexLiteral) offset);
-			if (offsetCell != null) {
-				offsetVal = ((Number) RT.jvm(offsetCell)).intValue();
+	/**
+	 * Selects the first n rows in sort order using a bounded max-heap, so memory
+	 * is O(n) regardless of input size. Ties keep input order, as a stable sort would.
+	 */
+	private static List<ACell[]> topN(ConvexEnumerable input, Comparator<ACell[]> comparator, int n) {
+		if (n == 0) return List.of();
+		Comparator<Ranked> order = Comparator.<Ranked, ACell[]>comparing(Ranked::row, comparator)
+			.thenComparingLong(Ranked::seq);
+		PriorityQueue<Ranked> heap = new PriorityQueue<>(n + 1, order.reversed());
+		long seq = 0;
+		for (ACell[] row : input) {
+			Ranked r = new Ranked(row, seq++);
+			if (heap.size() < n) {
+				heap.add(r);
+			} else if (order.compare(r, heap.peek()) < 0) {
+				heap.poll();
+				heap.add(r);
 			}
 		}
-
-		// Apply FETCH (LIMIT)
-		int fetchVal = rows.size();
-		if (fetch != null) {
-			ACell fetchCell = ConvexExpressionEvaluator.literalToCell(
-				(org.apache.calcite.rex.RexLiteral) fetch);
-			if (fetchCell != null) {
-				fetchVal = ((Number) RT.jvm(fetchCell)).intValue();
-			}
+		Ranked[] sorted = heap.toArray(new Ranked[heap.size()]);
+		Arrays.sort(sorted, order);
+		List<ACell[]> result = new ArrayList<>(sorted.length);
+		for (Ranked r : sorted) {
+			result.add(r.row());
 		}
+		return result;
+	}
 
-		// Apply offset and limit
-		int end = Math.min(offsetVal + fetchVal, rows.size());
-		if (offsetVal > 0 || end < rows.size()) {
-			if (offsetVal >= rows.size()) {
-				rows = List.of();
-			} else {
-				rows = rows.subList(offsetVal, end);
-			}
-		}
+	private record Ranked(ACell[] row, long seq) {}
 
-		return ConvexEnumerable.of(rows);
+	/**
+	 * Gets the value of an OFFSET or FETCH literal or parameter, or a default if absent
+	 */
+	private static long limitValue(RexNode node, DataContext ctx, long defaultValue) {
+		if (node instanceof RexLiteral lit) {
+			ACell cell = ConvexExpressionEvaluator.literalToCell(lit);
+			if (cell != null) return ((Number) RT.jvm(cell)).longValue();
+		} else if (node instanceof RexDynamicParam param && ctx != null) {
+			Object val = ctx.get("?" + param.getIndex());
+			if (val instanceof Number num) return num.longValue();
+		}
+		return defaultValue;
 	}
 
 	/**
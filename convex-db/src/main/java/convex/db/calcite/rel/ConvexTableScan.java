@@ -1,9 +1,9 @@
 package convex.db.calcite.rel;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.calcite.DataContext;
+import org.apache.calcite.linq4j.Linq4j;
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.plan.RelOptCost;
 import org.apache.calcite.plan.RelOptPlanner;
@@ -18,10 +18,11 @@ import convex.core.data.AVector;
 import convex.core.data.Index;
 import convex.db.calcite.ConvexSchema;
 import convex.db.calcite.ConvexTable;
+import convex.db.calcite.ConvexTableEnumerator;
 import convex.db.calcite.convention.ConvexConvention;
 import convex.db.calcite.convention.ConvexEnumerable;
+import convex.db.calcite.convention.ConvexParallel;
 import convex.db.calcite.convention.ConvexRel;
-import convex.db.lattice.SQLRow;
 import convex.db.lattice.SQLSchema;
 import convex.db.lattice.SQLTable;
 
@@ -29,7 +30,12 @@ import convex.db.lattice.SQLTable;
  * Table scan in CONVEX convention.
  *
  * <p>Reads rows from SQLSchema and returns them as ACell[] directly,
- * with no conversion to Java types.
+ * with no conversion to Java types. Rows are streamed from the Index
+ * snapshot taken at execution time, so downstream operators that stop
+ * early never touch the rest of the table.
+ *
+ * <p>With parallel execution enabled, scans of large tables can also be
+ * split into partitions covering contiguous key ranges.
  */
 public class ConvexTableScan extends TableScan implements ConvexRel {
 
@@ -62,14 +68,23 @@ public class ConvexTableScan extends TableScan implements ConvexRel {
 		Index<ABlob, AVector<ACell>> rawRows = sqlTable.getRows();
 		if (rawRows == null) return ConvexEnumerable.empty();
 
-		// Single-pass tree traversal via forEach, skip tombstones, unwrap values
-		List<ACell[]> result = new ArrayList<>((int) Math.min(rawRows.count(), Integer.MAX_VALUE));
-		rawRows.forEach((k, v) -> {
-			if (SQLRow.isLive(v)) {
-				result.add(SQLRow.getValues(v).toCellArray());
-			}
-		});
+		// Lazy scan over an immutable snapshot, tombstones skipped inline
+		return () -> Linq4j.enumeratorIterator(new ConvexTableEnumerator(rawRows));
+	}
+
+	/**
+	 * Splits a scan of a large table into partitions at radix child
+	 * boundaries, if parallel execution is enabled for the schema.
+	 */
+	@Override
+	public List<ConvexEnumerable> executePartitions(DataContext ctx) {
+		ConvexTable convexTable = table.unwrap(ConvexTable.class);
+		if (convexTable == null || !convexTable.getSchema().isParallel()) return null;
 
-		return ConvexEnumerable.of(result);
+		SQLTable sqlTable = convexTable.getSchema().getTables().getLiveTable(convexTable.getTableName());
+		if (sqlTable == null) return null;
+		Index<ABlob, AVector<ACell>> rawRows = sqlTable.getRows();
+		if (rawRows == null || rawRows.count() < ConvexParallel.MIN_TABLE_ROWS) return null;
+		return ConvexParallel.partition(rawRows);
 	}
 }
@@ -0,0 +1,692 @@
+package convex.db.calcite.rel;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.apache.calcite.DataContext;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexDynamicParam;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.NlsString;
+import org.apache.calcite.util.Sarg;
+import org.apache.calcite.util.TimestampString;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+
+import convex.core.data.ABlob;
+import convex.core.data.ACell;
+import convex.core.data.AString;
+import convex.core.data.AVector;
+import convex.core.data.Blob;
+import convex.core.data.Index;
+import convex.core.data.MapEntry;
+import convex.core.data.Strings;
+import convex.core.data.prim.CVMLong;
+import convex.db.calcite.convention.ConvexEnumerable;
+import convex.db.lattice.SQLIndex;
+import convex.db.lattice.SQLRow;
+import convex.db.lattice.SQLSchema;
+
+/**
+ * Key access path derived from a filter condition.
+ *
+ * <p>Rows are stored in an Index sorted by encoded primary key (see
+ * {@link SQLSchema#toKey}), so conditions on column 0 can be answered by
+ * seeking into the radix tree instead of scanning every row. Likewise a
+ * column with a secondary index (see {@link SQLIndex}) can be sought by
+ * encoded column value. A KeyScan is a list of segments (point lookups, key
+ * ranges or a key prefix) whose union covers every row that can satisfy the
+ * condition. The caller still applies the full condition to the rows produced.
+ *
+ * <p>Integer and timestamp values support points and ranges. Primary keys
+ * are 8-byte big-endian, so negative values encode after positive ones and
+ * a range that crosses zero becomes two segments, whereas index value keys
+ * are ordered by value. String values support points and LIKE prefixes only,
+ * since UTF-8 byte order need not match SQL string order.
+ */
+final class KeyScan {
+
+	/** Estimated fraction of rows matched by a range or prefix segment */
+	static final double RANGE_SELECTIVITY = 0.1;
+
+	/** Estimated fraction of rows matching one value of a secondary index */
+	static final double INDEX_POINT_SELECTIVITY = 0.01;
+
+	/** Longest string key prefix that can be sought, within the Index key depth */
+	private static final int MAX_PREFIX_BYTES = Index.MAX_DEPTH / 2 - 1;
+
+	private static final int POINT = 0;
+	private static final int RANGE = 1;
+	private static final int PREFIX = 2;
+
+	/**
+	 * A point key, a key range [start, end) with null end for unbounded, or a key prefix
+	 */
+	private record Segment(int kind, ABlob start, ABlob end) {}
+
+	private final List<Segment> segments;
+
+	private KeyScan(List<Segment> segments) {
+		this.segments = segments;
+	}
+
+	/**
+	 * Gets the number of segments in this scan
+	 */
+	int segmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * Derives a primary key scan from a filter condition.
+	 *
+	 * @param condition Filter condition over the table row
+	 * @param keyType SQL type of the primary key column
+	 * @param ctx DataContext for resolving dynamic parameters (may be null)
+	 * @return KeyScan, or null if the condition does not constrain the primary key
+	 */
+	static KeyScan derive(RexNode condition, SqlTypeName keyType, DataContext ctx) {
+		return derive(condition, 0, keyType, false, ctx);
+	}
+
+	/**
+	 * Derives a secondary index scan from a filter condition.
+	 *
+	 * @param condition Filter condition over the table row
+	 * @param column Position of the indexed column
+	 * @param type SQL type of the indexed column
+	 * @param ctx DataContext for resolving dynamic parameters (may be null)
+	 * @return KeyScan over index value keys, or null if the condition does not constrain the column
+	 */
+	static KeyScan deriveIndex(RexNode condition, int column, SqlTypeName type, DataContext ctx) {
+		return derive(condition, column, type, true, ctx);
+	}
+
+	private static KeyScan derive(RexNode condition, int col, SqlTypeName type, boolean index, DataContext ctx) {
+		if (isLongKey(type)) {
+			RangeSet<Long> ranges = longRanges(condition, col, ctx);
+			if (ranges == null) return null;
+			return fromLongRanges(ranges, index);
+		}
+		if (isStringKey(type)) {
+			Set<String> points = stringPoints(condition, col, ctx);
+			if (points != null) {
+				// Long strings may share an index value key, so keys are deduplicated
+				Set<ABlob> keys = new LinkedHashSet<>();
+				for (String s : points) {
+					AString v = Strings.create(s);
+					keys.add(index ? SQLIndex.encodeValue(v) : SQLSchema.toKey(v));
+				}
+				List<Segment> segs = new ArrayList<>(keys.size());
+				for (ABlob k : keys) {
+					segs.add(new Segment(POINT, k, null));
+				}
+				return new KeyScan(segs);
+			}
+			String prefix = stringPrefix(condition, col);
+			if (prefix != null) {
+				ABlob start = index ? SQLIndex.encodeStringPrefix(prefix) : utf8(prefix);
+				if (start != null) return new KeyScan(List.of(new Segment(PREFIX, start, null)));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Estimates the rows read by a primary key scan for a condition at plan
+	 * time, when dynamic parameter values are not yet known.
+	 *
+	 * @param condition Filter condition over the table row
+	 * @param keyType SQL type of the primary key column
+	 * @param rowCount Estimated rows in the table
+	 * @return Estimated rows, or -1 if no key scan applies
+	 */
+	static double estimateRows(RexNode condition, SqlTypeName keyType, double rowCount) {
+		return estimateRows(condition, 0, keyType, rowCount, 1);
+	}
+
+	/**
+	 * Estimates the rows read by a secondary index scan for a condition at plan time.
+	 *
+	 * @param condition Filter condition over the table row
+	 * @param column Position of the indexed column
+	 * @param type SQL type of the indexed column
+	 * @param rowCount Estimated rows in the table
+	 * @return Estimated rows, or -1 if no index scan applies
+	 */
+	static double estimateIndexRows(RexNode condition, int column, SqlTypeName type, double rowCount) {
+		return estimateRows(condition, column, type, rowCount, Math.max(1, rowCount * INDEX_POINT_SELECTIVITY));
+	}
+
+	private static double estimateRows(RexNode condition, int col, SqlTypeName keyType, double rowCount, double pointRows) {
+		if (!isLongKey(keyType) && !isStringKey(keyType)) return -1;
+		if (!(condition instanceof RexCall call)) return -1;
+		List<RexNode> ops = call.getOperands();
+		boolean longKey = isLongKey(keyType);
+		switch (call.getKind()) {
+			case AND: {
+				double best = -1;
+				for (RexNode op : ops) {
+					double e = estimateRows(op, col, keyType, rowCount, pointRows);
+					if (e >= 0 && (best < 0 || e < best)) best = e;
+				}
+				return best;
+			}
+			case OR: {
+				double sum = 0;
+				for (RexNode op : ops) {
+					double e = estimateRows(op, col, keyType, rowCount, pointRows);
+					if (e < 0) return -1;
+					sum += e;
+				}
+				return Math.min(sum, rowCount);
+			}
+			case EQUALS:
+				return (keyOperand(ops, col) >= 0) ? pointRows : -1;
+			case IN:
+				return (isKeyRef(ops.get(0), col) && allValues(ops, 1)) ? (ops.size() - 1) * pointRows : -1;
+			case LESS_THAN: case LESS_THAN_OR_EQUAL: case GREATER_THAN: case GREATER_THAN_OR_EQUAL:
+				return (longKey && keyOperand(ops, col) >= 0) ? rowCount * RANGE_SELECTIVITY : -1;
+			case BETWEEN:
+				return (longKey && isKeyRef(ops.get(0), col) && allValues(ops, 1)) ? rowCount * RANGE_SELECTIVITY : -1;
+			case SEARCH: {
+				if (!isKeyRef(ops.get(0), col) || !(ops.get(1) instanceof RexLiteral lit)) return -1;
+				Sarg<?> sarg = lit.getValueAs(Sarg.class);
+				if (sarg.isPoints()) return sarg.pointCount * pointRows;
+				return longKey ? rowCount * RANGE_SELECTIVITY * sarg.rangeSet.asRanges().size() : -1;
+			}
+			case LIKE:
+				return (!longKey && stringPrefix(call, col) != null) ? rowCount * RANGE_SELECTIVITY : -1;
+			default:
+				return -1;
+		}
+	}
+
+	/**
+	 * Returns a lazy enumerable of the live rows covered by this primary key
+	 * scan, in segment order.
+	 *
+	 * @param rows Row Index of the table
+	 * @return Rows as ACell arrays
+	 */
+	ConvexEnumerable scan(Index<ABlob, AVector<ACell>> rows) {
+		return () -> mapNonNull(covered(rows),
+			v -> SQLRow.isLive(v) ? SQLRow.getValues(v).toCellArray() : null);
+	}
+
+	/**
+	 * Returns a lazy enumerable of the live rows covered by this secondary
+	 * index scan, fetched from the row Index by primary key.
+	 *
+	 * @param entries Entries of the secondary index
+	 * @param rows Row Index of the table
+	 * @return Rows as ACell arrays
+	 */
+	ConvexEnumerable scanIndex(Index<ABlob, Index<ABlob, AVector<ACell>>> entries, Index<ABlob, AVector<ACell>> rows) {
+		return () -> mapNonNull(indexEntries(entries), e -> {
+			AVector<ACell> row = rows.get(e.getKey());
+			return SQLRow.isLive(row) ? SQLRow.getValues(row).toCellArray() : null;
+		});
+	}
+
+	/**
+	 * Returns a lazy enumerable of the rows covered by this secondary index
+	 * scan, read from the index alone. Only the primary key and the indexed
+	 * column are set in each row, other columns are null.
+	 *
+	 * @param entries Entries of the secondary index
+	 * @param width Number of columns in the table
+	 * @param column Position of the indexed column
+	 * @return Sparse rows as ACell arrays
+	 */
+	ConvexEnumerable scanIndexOnly(Index<ABlob, Index<ABlob, AVector<ACell>>> entries, int width, int column) {
+		return () -> mapNonNull(indexEntries(entries), e -> {
+			ACell[] row = new ACell[width];
+			row[0] = e.getValue().get(0);
+			row[column] = e.getValue().get(1);
+			return row;
+		});
+	}
+
+	/**
+	 * Iterates the values of Index entries covered by the segments
+	 */
+	private <V extends ACell> Iterator<V> covered(Index<ABlob, V> index) {
+		return expand(segments.iterator(), s -> switch (s.kind()) {
+			case POINT -> {
+				V v = index.get(s.start());
+				yield (v == null) ? Collections.emptyIterator() : List.of(v).iterator();
+			}
+			case RANGE -> mapNonNull(index.scan(s.start(), s.end(), false), MapEntry::getValue);
+			default -> mapNonNull(index.scanPrefix(s.start(), false), MapEntry::getValue);
+		});
+	}
+
+	/**
+	 * Iterates the entries of the covered index buckets: primary key → [pk value, column value]
+	 */
+	private Iterator<MapEntry<ABlob, AVector<ACell>>> indexEntries(Index<ABlob, Index<ABlob, AVector<ACell>>> entries) {
+		return expand(covered(entries), bucket -> bucket.scan(null, null, false));
+	}
+
+	/**
+	 * Lazily concatenates the iterators produced for each source element
+	 */
+	private static <T, R> Iterator<R> expand(Iterator<T> source, Function<T, Iterator<R>> fn) {
+		return new Iterator<R>() {
+			Iterator<R> current = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!current.hasNext()) {
+					if (!source.hasNext()) return false;
+					current = fn.apply(source.next());
+				}
+				return true;
+			}
+
+			@Override
+			public R next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				return current.next();
+			}
+		};
+	}
+
+	/**
+	 * Lazily maps source elements, skipping those mapped to null
+	 */
+	private static <T, R> Iterator<R> mapNonNull(Iterator<T> source, Function<T, R> fn) {
+		return new Iterator<R>() {
+			R next;
+
+			@Override
+			public boolean hasNext() {
+				while (next == null) {
+					if (!source.hasNext()) return false;
+					next = fn.apply(source.next());
+				}
+				return true;
+			}
+
+			@Override
+			public R next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				R result = next;
+				next = null;
+				return result;
+			}
+		};
+	}
+
+	// ========== Integer / timestamp keys ==========
+
+	private static boolean isLongKey(SqlTypeName type) {
+		return switch (type) {
+			// BIGINT columns hold CVMLong values (ConvexType.INTEGER), the only integer key type
+			case BIGINT, INTEGER, SMALLINT, TINYINT, TIMESTAMP, TIMESTAMP_WITH_LOCAL_TIME_ZONE -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Creates segments for sets of longs, as primary keys or as index value keys
+	 */
+	private static KeyScan fromLongRanges(RangeSet<Long> ranges, boolean index) {
+		List<Segment> segs = new ArrayList<>();
+		for (Range<Long> r : ranges.asRanges()) {
+			long lo = r.hasLowerBound() ? r.lowerEndpoint() : Long.MIN_VALUE;
+			long hi = r.hasUpperBound() ? r.upperEndpoint() : Long.MAX_VALUE;
+			if (r.hasLowerBound() && r.lowerBoundType() == BoundType.OPEN) {
+				if (lo == Long.MAX_VALUE) continue;
+				lo++;
+			}
+			if (r.hasUpperBound() && r.upperBoundType() == BoundType.OPEN) {
+				if (hi == Long.MIN_VALUE) continue;
+				hi--;
+			}
+			if (lo > hi) continue;
+			if (index) {
+				ABlob start = SQLIndex.encodeValue(CVMLong.create(lo));
+				if (lo == hi) {
+					segs.add(new Segment(POINT, start, null));
+				} else {
+					ABlob end = (hi == Long.MAX_VALUE) ? null : SQLIndex.encodeValue(CVMLong.create(hi + 1));
+					segs.add(new Segment(RANGE, start, end));
+				}
+			} else if (lo == hi) {
+				segs.add(new Segment(POINT, longKey(lo), null));
+			} else if (lo < 0 && hi >= 0) {
+				segs.add(longRange(lo, -1));
+				segs.add(longRange(0, hi));
+			} else {
+				segs.add(longRange(lo, hi));
+			}
+		}
+		return new KeyScan(segs);
+	}
+
+	/**
+	 * Segment for an inclusive range of longs of the same sign
+	 */
+	private static Segment longRange(long lo, long hi) {
+		// -1 is the largest encoded key, so nothing follows it
+		ABlob end = (hi == -1) ? null : longKey(hi + 1);
+		return new Segment(RANGE, longKey(lo), end);
+	}
+
+	private static ABlob longKey(long v) {
+		return SQLSchema.toKey(CVMLong.create(v));
+	}
+
+	/**
+	 * Gets the set of key values allowed by a condition, or null if unconstrained
+	 */
+	private static RangeSet<Long> longRanges(RexNode node, int col, DataContext ctx) {
+		if (!(node instanceof RexCall call)) return null;
+		List<RexNode> ops = call.getOperands();
+		SqlKind kind = call.getKind();
+		switch (kind) {
+			case AND: {
+				RangeSet<Long> result = null;
+				for (RexNode op : ops) {
+					RangeSet<Long> r = longRanges(op, col, ctx);
+					if (r == null) continue;
+					result = (result == null) ? r : intersect(result, r);
+				}
+				return result;
+			}
+			case OR: {
+				RangeSet<Long> result = TreeRangeSet.create();
+				for (RexNode op : ops) {
+					RangeSet<Long> r = longRanges(op, col, ctx);
+					if (r == null) return null;
+					result.addAll(r);
+				}
+				return result;
+			}
+			case EQUALS: case LESS_THAN: case LESS_THAN_OR_EQUAL: case GREATER_THAN: case GREATER_THAN_OR_EQUAL: {
+				int k = keyOperand(ops, col);
+				if (k < 0) return null;
+				BigDecimal v = numberValue(ops.get(1 - k), ctx);
+				if (v == null) return null;
+				// Flip the comparison if the key is on the right
+				if (k == 1) kind = kind.reverse();
+				return switch (kind) {
+					case EQUALS -> longRange(v, BoundType.CLOSED, v, BoundType.CLOSED);
+					case LESS_THAN -> longRange(null, null, v, BoundType.OPEN);
+					case LESS_THAN_OR_EQUAL -> longRange(null, null, v, BoundType.CLOSED);
+					case GREATER_THAN -> longRange(v, BoundType.OPEN, null, null);
+					default -> longRange(v, BoundType.CLOSED, null, null);
+				};
+			}
+			case BETWEEN: {
+				if (!isKeyRef(ops.get(0), col)) return null;
+				BigDecimal lo = numberValue(ops.get(1), ctx);
+				BigDecimal hi = numberValue(ops.get(2), ctx);
+				if (lo == null || hi == null) return null;
+				return longRange(lo, BoundType.CLOSED, hi, BoundType.CLOSED);
+			}
+			case IN: {
+				if (!isKeyRef(ops.get(0), col)) return null;
+				RangeSet<Long> result = TreeRangeSet.create();
+				for (int i = 1; i < ops.size(); i++) {
+					BigDecimal v = numberValue(ops.get(i), ctx);
+					if (v == null) return null;
+					result.addAll(longRange(v, BoundType.CLOSED, v, BoundType.CLOSED));
+				}
+				return result;
+			}
+			case SEARCH: {
+				if (!isKeyRef(ops.get(0), col) || !(ops.get(1) instanceof RexLiteral lit)) return null;
+				Sarg<?> sarg = lit.getValueAs(Sarg.class);
+				RangeSet<Long> result = TreeRangeSet.create();
+				for (Range<?> r : sarg.rangeSet.asRanges()) {
+					BigDecimal lo = null, hi = null;
+					if (r.hasLowerBound() && (lo = sargNumber(r.lowerEndpoint())) == null) return null;
+					if (r.hasUpperBound() && (hi = sargNumber(r.upperEndpoint())) == null) return null;
+					result.addAll(longRange(
+						lo, r.hasLowerBound() ? r.lowerBoundType() : null,
+						hi, r.hasUpperBound() ? r.upperBoundType() : null));
+				}
+				return result;
+			}
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Creates the set of longs within numeric bounds, each null if unbounded
+	 */
+	private static RangeSet<Long> longRange(BigDecimal lo, BoundType loType, BigDecimal hi, BoundType hiType) {
+		RangeSet<Long> result = TreeRangeSet.create();
+		BigDecimal min = BigDecimal.valueOf(Long.MIN_VALUE);
+		BigDecimal max = BigDecimal.valueOf(Long.MAX_VALUE);
+
+		// Smallest long within the lower bound
+		long l = Long.MIN_VALUE;
+		if (lo != null) {
+			BigDecimal b = (loType == BoundType.OPEN)
+				? lo.setScale(0, RoundingMode.FLOOR).add(BigDecimal.ONE)
+				: lo.setScale(0, RoundingMode.CEILING);
+			if (b.compareTo(max) > 0) return result;
+			if (b.compareTo(min) > 0) l = b.longValueExact();
+		}
+
+		// Largest long within the upper bound
+		long h = Long.MAX_VALUE;
+		if (hi != null) {
+			BigDecimal b = (hiType == BoundType.OPEN)
+				? hi.setScale(0, RoundingMode.CEILING).subtract(BigDecimal.ONE)
+				: hi.setScale(0, RoundingMode.FLOOR);
+			if (b.compareTo(min) < 0) return result;
+			if (b.compareTo(max) < 0) h = b.longValueExact();
+		}
+
+		if (l <= h) result.add(Range.closed(l, h));
+		return result;
+	}
+
+	private static RangeSet<Long> intersect(RangeSet<Long> a, RangeSet<Long> b) {
+		RangeSet<Long> result = TreeRangeSet.create();
+		for (Range<Long> r : b.asRanges()) {
+			result.addAll(a.subRangeSet(r));
+		}
+		return result;
+	}
+
+	/**
+	 * Resolves a literal or bound parameter to an exact number, or null if not numeric
+	 */
+	private static BigDecimal numberValue(RexNode node, DataContext ctx) {
+		if (node instanceof RexLiteral lit) {
+			if (lit.isNull()) return null;
+			return switch (lit.getTypeName()) {
+				case TIMESTAMP, TIMESTAMP_WITH_LOCAL_TIME_ZONE -> BigDecimal.valueOf(lit.getValueAs(Long.class));
+				case INTEGER, SMALLINT, TINYINT, BIGINT, DECIMAL, DOUBLE, FLOAT, REAL -> lit.getValueAs(BigDecimal.class);
+				default -> null;
+			};
+		}
+		if (node instanceof RexDynamicParam param && ctx != null) {
+			return javaNumber(ctx.get("?" + param.getIndex()));
+		}
+		return null;
+	}
+
+	private static BigDecimal sargNumber(Object v) {
+		if (v instanceof TimestampString ts) return BigDecimal.valueOf(ts.getMillisSinceEpoch());
+		return javaNumber(v);
+	}
+
+	private static BigDecimal javaNumber(Object v) {
+		if (v instanceof BigDecimal bd) return bd;
+		if (v instanceof Long || v instanceof Integer || v instanceof Short || v instanceof Byte) {
+			return BigDecimal.valueOf(((Number) v).longValue());
+		}
+		if (v instanceof Double || v instanceof Float) {
+			double d = ((Number) v).doubleValue();
+			return Double.isFinite(d) ? BigDecimal.valueOf(d) : null;
+		}
+		if (v instanceof Timestamp ts) return BigDecimal.valueOf(ts.getTime());
+		if (v instanceof java.util.Date d) return BigDecimal.valueOf(d.getTime());
+		return null;
+	}
+
+	// ========== String keys ==========
+
+	private static boolean isStringKey(SqlTypeName type) {
+		return type == SqlTypeName.VARCHAR || type == SqlTypeName.CHAR;
+	}
+
+	/**
+	 * Gets the exact key values allowed by a condition, or null if not a set of points
+	 */
+	private static Set<String> stringPoints(RexNode node, int col, DataContext ctx) {
+		if (!(node instanceof RexCall call)) return null;
+		List<RexNode> ops = call.getOperands();
+		switch (call.getKind()) {
+			case AND: {
+				Set<String> result = null;
+				for (RexNode op : ops) {
+					Set<String> p = stringPoints(op, col, ctx);
+					if (p == null) continue;
+					if (result == null) {
+						result = p;
+					} else {
+						result.retainAll(p);
+					}
+				}
+				return result;
+			}
+			case OR: {
+				Set<String> result = new TreeSet<>();
+				for (RexNode op : ops) {
+					Set<String> p = stringPoints(op, col, ctx);
+					if (p == null) return null;
+					result.addAll(p);
+				}
+				return result;
+			}
+			case EQUALS: {
+				int k = keyOperand(ops, col);
+				if (k < 0) return null;
+				String v = stringValue(ops.get(1 - k), ctx);
+				if (v == null) return null;
+				Set<String> result = new TreeSet<>();
+				result.add(v);
+				return result;
+			}
+			case IN: {
+				if (!isKeyRef(ops.get(0), col)) return null;
+				Set<String> result = new TreeSet<>();
+				for (int i = 1; i < ops.size(); i++) {
+					String v = stringValue(ops.get(i), ctx);
+					if (v == null) return null;
+					result.add(v);
+				}
+				return result;
+			}
+			case SEARCH: {
+				if (!isKeyRef(ops.get(0), col) || !(ops.get(1) instanceof RexLiteral lit)) return null;
+				Sarg<?> sarg = lit.getValueAs(Sarg.class);
+				if (!sarg.isPoints()) return null;
+				Set<String> result = new TreeSet<>();
+				for (Range<?> r : sarg.rangeSet.asRanges()) {
+					if (!(r.lowerEndpoint() instanceof NlsString s)) return null;
+					result.add(s.getValue());
+				}
+				return result;
+			}
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Gets the literal prefix of {@code key LIKE 'prefix%'}, possibly within a
+	 * conjunction, or null if there is none
+	 */
+	private static String stringPrefix(RexNode node, int col) {
+		if (!(node instanceof RexCall call)) return null;
+		List<RexNode> ops = call.getOperands();
+		if (call.getKind() == SqlKind.AND) {
+			for (RexNode op : ops) {
+				String p = stringPrefix(op, col);
+				if (p != null) return p;
+			}
+			return null;
+		}
+		// No ESCAPE clause, pattern must be a literal
+		if (call.getKind() != SqlKind.LIKE || ops.size() != 2) return null;
+		if (!isKeyRef(ops.get(0), col) || !(ops.get(1) instanceof RexLiteral lit)) return null;
+		String pattern = lit.getValueAs(String.class);
+		if (pattern == null || !pattern.endsWith("%")) return null;
+		String prefix = pattern.substring(0, pattern.length() - 1);
+		if (prefix.isEmpty() || prefix.indexOf('%') >= 0 || prefix.indexOf('_') >= 0) return null;
+		if (utf8(prefix).count() > MAX_PREFIX_BYTES) return null;
+		return prefix;
+	}
+
+	private static String stringValue(RexNode node, DataContext ctx) {
+		if (node instanceof RexLiteral lit) {
+			return switch (lit.getTypeName()) {
+				case CHAR, VARCHAR -> lit.getValueAs(String.class);
+				default -> null;
+			};
+		}
+		if (node instanceof RexDynamicParam param && ctx != null) {
+			return (ctx.get("?" + param.getIndex()) instanceof String s) ? s : null;
+		}
+		return null;
+	}
+
+	private static ABlob utf8(String s) {
+		return Blob.wrap(s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// ========== Operand helpers ==========
+
+	private static boolean isKeyRef(RexNode node, int col) {
+		return node instanceof RexInputRef ref && ref.getIndex() == col;
+	}
+
+	private static boolean isValue(RexNode node) {
+		return node instanceof RexLiteral || node instanceof RexDynamicParam;
+	}
+
+	private static boolean allValues(List<RexNode> ops, int from) {
+		for (int i = from; i < ops.size(); i++) {
+			if (!isValue(ops.get(i))) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the position of the key column in a binary comparison with a value, or -1
+	 */
+	private static int keyOperand(List<RexNode> ops, int col) {
+		if (ops.size() != 2) return -1;
+		if (isKeyRef(ops.get(0), col) && isValue(ops.get(1))) return 0;
+		if (isKeyRef(ops.get(1), col) && isValue(ops.get(0))) return 1;
+		return -1;
+	}
+}
@@ -17,6 +17,7 @@ import org.apache.calcite.rel.logical.LogicalSort;
 import convex.db.calcite.convention.ConvexConvention;
 import convex.db.calcite.rel.ConvexAggregate;
 import convex.db.calcite.rel.ConvexFilter;
+import convex.db.calcite.rel.ConvexHashJoin;
 import convex.db.calcite.rel.ConvexJoin;
 import convex.db.calcite.rel.ConvexMergeJoin;
 import convex.db.calcite.rel.ConvexProject;
@@ -50,6 +51,9 @@ public class ConvexRules {
 	/** Rule to convert LogicalJoin to ConvexMergeJoin (equi-joins only). */
 	public static final ConvexMergeJoinRule MERGE_JOIN = ConvexMergeJoinRule.INSTANCE;
 
+	/** Rule to convert LogicalJoin to ConvexHashJoin (equi-joins with hashable keys). */
+	public static final ConvexHashJoinRule HASH_JOIN = ConvexHashJoinRule.INSTANCE;
+
 	/** Rule to convert ConvexConvention to EnumerableConvention. */
 	public static final ConvexToEnumerableConverterRule TO_ENUMERABLE =
 		ConvexToEnumerableConverterRule.INSTANCE;
@@ -58,7 +62,7 @@ public class ConvexRules {
 	 * TABLE_SCAN is not needed here — TranslatableTable.toRel() creates
 	 * ConvexTableScan directly. */
 	public static List<RelOptRule> rules() {
-		return List.of(FILTER, PROJECT, SORT, AGGREGATE, JOIN, MERGE_JOIN, TO_ENUMERABLE);
+		return List.of(FILTER, PROJECT, SORT, AGGREGATE, JOIN, MERGE_JOIN, HASH_JOIN, TO_ENUMERABLE);
 	}
 
 	/** Alias for rules() - returns query rules. */
@@ -239,4 +243,40 @@ public class ConvexRules {
 				join.getCondition(), join.getVariablesSet(), join.getJoinType());
 		}
 	}
+
+	// ========== Hash Join Rule ==========
+
+	/**
+	 * Rule that converts LogicalJoin to ConvexHashJoin for equi-joins whose
+	 * key columns have matching types on both sides. The planner picks hash
+	 * join unless both sides are already in join key order.
+	 */
+	public static class ConvexHashJoinRule extends ConverterRule {
+		public static final ConvexHashJoinRule INSTANCE = new ConvexHashJoinRule();
+
+		private ConvexHashJoinRule() {
+			super(Config.INSTANCE
+				.withConversion(LogicalJoin.class, Convention.NONE,
+					ConvexConvention.INSTANCE, "ConvexHashJoinRule")
+				.withRuleFactory(ConvexHashJoinRule::new));
+		}
+
+		private ConvexHashJoinRule(Config config) {
+			super(config);
+		}
+
+		@Override
+		public RelNode convert(RelNode rel) {
+			LogicalJoin join = (LogicalJoin) rel;
+			if (!ConvexHashJoin.canHash(join)) return null;
+
+			RelTraitSet traitSet = join.getTraitSet().replace(ConvexConvention.INSTANCE);
+			RelNode left = convert(join.getLeft(),
+				join.getLeft().getTraitSet().replace(ConvexConvention.INSTANCE));
+			RelNode right = convert(join.getRight(),
+				join.getRight().getTraitSet().replace(ConvexConvention.INSTANCE));
+			return new ConvexHashJoin(join.getCluster(), traitSet, left, right,
+				join.getCondition(), join.getVariablesSet(), join.getJoinType());
+		}
+	}
 }
@@ -48,6 +48,7 @@ import org.apache.calcite.adapter.enumerable.EnumerableRules;
  * <p>Parameters are appended with semicolons:
  * <pre>
  * jdbc:convex:file:/data/store.etch;database=market
+ * jdbc:convex:mydb;parallel=true            — scan large tables in parallel partitions
  * </pre>
  *
  * <p>Usage:
@@ -132,6 +133,7 @@ public class ConvexDriver extends Driver {
 		if (parsed.database != null && conn instanceof CalciteConnection calciteConn) {
 			SQLDatabase db = cdb.database(parsed.database);
 			ConvexSchema schema = new ConvexSchema(db, parsed.database);
+			schema.setParallel(Boolean.parseBoolean(info.getProperty("parallel")));
 			SchemaPlus rootSchema = calciteConn.getRootSchema();
 			rootSchema.add(parsed.database, schema);
 			calciteConn.setSchema(parsed.database);
@@ -0,0 +1,312 @@
+package convex.db.lattice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import convex.core.data.ABlob;
+import convex.core.data.ACell;
+import convex.core.data.AString;
+import convex.core.data.AVector;
+import convex.core.data.Blob;
+import convex.core.data.Index;
+import convex.core.data.MapEntry;
+import convex.core.data.Vectors;
+import convex.core.data.prim.CVMBool;
+import convex.core.data.prim.CVMDouble;
+import convex.core.data.prim.CVMLong;
+import convex.core.data.util.IndexBuilder;
+
+/**
+ * Utility class for secondary indexes on SQL table columns.
+ *
+ * <p>An index definition is a vector: [column, utime, entries]
+ * <ul>
+ *   <li>column (CVMLong) - Position of the indexed column in the row</li>
+ *   <li>utime (CVMLong) - Create/drop timestamp for LWW conflict resolution</li>
+ *   <li>entries (Index) - Value key → (primary key → [pk value, column value]),
+ *       or null if the index has been dropped</li>
+ * </ul>
+ *
+ * <p>Entries are grouped by encoded column value, so that keys never exceed
+ * the Index key depth. Value keys preserve order for integers and timestamps,
+ * and string keys are UTF-8 prefixes, so a bucket may hold several distinct
+ * values sharing a long prefix. Readers must therefore re-check the column
+ * value. NULL values are not indexed.
+ *
+ * <p>Entries are a pure function of the live rows and the column, so replicas
+ * holding the same rows hold identical indexes regardless of merge order.
+ */
+public class SQLIndex {
+
+	/** Position of the indexed column in the definition vector */
+	static final int POS_COLUMN = 0;
+	/** Position of the create/drop timestamp */
+	static final int POS_UTIME = 1;
+	/** Position of the index entries */
+	static final int POS_ENTRIES = 2;
+
+	/** Maximum length of an encoded value key, within the Index key depth */
+	public static final int MAX_KEY_BYTES = Index.MAX_DEPTH / 2;
+
+	private static final byte TAG_LONG = 0x10;
+	private static final byte TAG_DOUBLE = 0x20;
+	private static final byte TAG_STRING = 0x30;
+	private static final byte TAG_BLOB = 0x40;
+	private static final byte TAG_BOOL = 0x50;
+	private static final byte TAG_OTHER = 0x7F;
+
+	private SQLIndex() {}
+
+	/**
+	 * Creates a live index definition.
+	 *
+	 * @param column Indexed column position
+	 * @param entries Index entries for the current rows
+	 * @param timestamp Creation timestamp
+	 * @return Index definition vector
+	 */
+	public static AVector<ACell> create(long column, Index<ABlob, Index<ABlob, AVector<ACell>>> entries, CVMLong timestamp) {
+		return Vectors.of(CVMLong.create(column), timestamp, entries);
+	}
+
+	/**
+	 * Creates a tombstone definition for a dropped index.
+	 *
+	 * @param column Indexed column position
+	 * @param timestamp Drop timestamp
+	 * @return Tombstone index definition
+	 */
+	public static AVector<ACell> createTombstone(long column, CVMLong timestamp) {
+		return Vectors.of(CVMLong.create(column), timestamp, null);
+	}
+
+	/**
+	 * Gets the indexed column position from a definition.
+	 */
+	public static int getColumn(AVector<ACell> def) {
+		return (int) ((CVMLong) def.get(POS_COLUMN)).longValue();
+	}
+
+	/**
+	 * Gets the create/drop timestamp from a definition.
+	 */
+	public static CVMLong getTimestamp(AVector<ACell> def) {
+		return (CVMLong) def.get(POS_UTIME);
+	}
+
+	/**
+	 * Gets the entries from a definition.
+	 *
+	 * @return Entries, or null if the index has been dropped
+	 */
+	@SuppressWarnings("unchecked")
+	public static Index<ABlob, Index<ABlob, AVector<ACell>>> getEntries(AVector<ACell> def) {
+		if (def == null) return null;
+		return (Index<ABlob, Index<ABlob, AVector<ACell>>>) def.get(POS_ENTRIES);
+	}
+
+	/**
+	 * Checks if a definition is a live (not dropped) index.
+	 */
+	public static boolean isLive(AVector<ACell> def) {
+		return def != null && def.get(POS_ENTRIES) != null;
+	}
+
+	// ========== Value keys ==========
+
+	/**
+	 * Encodes a column value as an index key. Keys sort by value within each
+	 * type for integers, doubles and booleans, and strings and blobs are
+	 * truncated to fit {@link #MAX_KEY_BYTES}.
+	 *
+	 * @param value Column value
+	 * @return Value key, or null for NULL
+	 */
+	public static ABlob encodeValue(ACell value) {
+		if (value == null) return null;
+		if (value instanceof CVMLong n) {
+			// Flip the sign bit so that negative values sort before positive
+			return tagged(TAG_LONG, n.longValue() ^ Long.MIN_VALUE);
+		}
+		if (value instanceof CVMDouble d) {
+			long bits = Double.doubleToLongBits(d.doubleValue());
+			return tagged(TAG_DOUBLE, (bits < 0) ? ~bits : (bits ^ Long.MIN_VALUE));
+		}
+		if (value instanceof AString s) {
+			return tagged(TAG_STRING, s.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		if (value instanceof ABlob b) {
+			return tagged(TAG_BLOB, b.getBytes());
+		}
+		if (value instanceof CVMBool b) {
+			return tagged(TAG_BOOL, new byte[] {(byte) (b.booleanValue() ? 1 : 0)});
+		}
+		return tagged(TAG_OTHER, value.getHash().getBytes());
+	}
+
+	/**
+	 * Encodes a string prefix, such that the keys of all strings starting
+	 * with the prefix start with the result.
+	 *
+	 * @param prefix String prefix
+	 * @return Key prefix, or null if the prefix is too long to seek
+	 */
+	public static ABlob encodeStringPrefix(String prefix) {
+		byte[] bs = prefix.getBytes(StandardCharsets.UTF_8);
+		if (bs.length >= MAX_KEY_BYTES - 1) return null;
+		return tagged(TAG_STRING, bs);
+	}
+
+	private static ABlob tagged(byte tag, long v) {
+		byte[] bs = new byte[9];
+		bs[0] = tag;
+		for (int i = 8; i >= 1; i--) {
+			bs[i] = (byte) (v & 0xFF);
+			v >>= 8;
+		}
+		return Blob.wrap(bs);
+	}
+
+	private static ABlob tagged(byte tag, byte[] data) {
+		int n = Math.min(data.length, MAX_KEY_BYTES - 1);
+		byte[] bs = new byte[n + 1];
+		bs[0] = tag;
+		System.arraycopy(data, 0, bs, 1, n);
+		return Blob.wrap(bs);
+	}
+
+	// ========== Entry maintenance ==========
+
+	/**
+	 * Adds a row to index entries.
+	 *
+	 * @param entries Current entries
+	 * @param pk Primary key of the row
+	 * @param values Row values
+	 * @param column Indexed column position
+	 * @return Updated entries
+	 */
+	public static Index<ABlob, Index<ABlob, AVector<ACell>>> add(
+			Index<ABlob, Index<ABlob, AVector<ACell>>> entries, ABlob pk, AVector<ACell> values, int column) {
+		ACell value = (column < values.count()) ? values.get(column) : null;
+		ABlob vk = encodeValue(value);
+		if (vk == null) return entries;
+		Index<ABlob, AVector<ACell>> bucket = entries.get(vk);
+		if (bucket == null) bucket = Index.none();
+		return entries.assoc(vk, bucket.assoc(pk, Vectors.of(values.get(0), value)));
+	}
+
+	/**
+	 * Removes a row from index entries. Empty buckets are removed, so that
+	 * entries stay identical to those built from the same rows.
+	 *
+	 * @param entries Current entries
+	 * @param pk Primary key of the row
+	 * @param values Previous row values
+	 * @param column Indexed column position
+	 * @return Updated entries
+	 */
+	public static Index<ABlob, Index<ABlob, AVector<ACell>>> remove(
+			Index<ABlob, Index<ABlob, AVector<ACell>>> entries, ABlob pk, AVector<ACell> values, int column) {
+		ACell value = (column < values.count()) ? values.get(column) : null;
+		ABlob vk = encodeValue(value);
+		if (vk == null) return entries;
+		Index<ABlob, AVector<ACell>> bucket = entries.get(vk);
+		if (bucket == null) return entries;
+		bucket = bucket.dissoc(pk);
+		return bucket.isEmpty() ? entries.dissoc(vk) : entries.assoc(vk, bucket);
+	}
+
+	/**
+	 * Builds index entries for all live rows of a table.
+	 *
+	 * @param rows Row Index of the table (may be null)
+	 * @param column Indexed column position
+	 * @return Index entries
+	 */
+	public static Index<ABlob, Index<ABlob, AVector<ACell>>> build(Index<ABlob, AVector<ACell>> rows, int column) {
+		if (rows == null) return Index.none();
+		HashMap<ABlob, IndexBuilder<ABlob, AVector<ACell>>> buckets = new HashMap<>();
+		rows.forEach((pk, row) -> {
+			if (!SQLRow.isLive(row)) return;
+			AVector<ACell> values = SQLRow.getValues(row);
+			ACell value = (column < values.count()) ? values.get(column) : null;
+			ABlob vk = encodeValue(value);
+			if (vk == null) return;
+			// Rows arrive in key order, so each bucket builds without sorting
+			buckets.computeIfAbsent(vk, k -> new IndexBuilder<>()).assoc(pk, Vectors.of(values.get(0), value));
+		});
+		IndexBuilder<ABlob, Index<ABlob, AVector<ACell>>> result = new IndexBuilder<>(buckets.size());
+		for (var e : buckets.entrySet()) {
+			result.assocEntry(MapEntry.create(e.getKey(), e.getValue().toIndex()));
+		}
+		return result.toIndex();
+	}
+
+	// ========== Merge ==========
+
+	/**
+	 * Merges the index definitions of two table states. Definitions merge by
+	 * name with LWW on their timestamps, and a drop wins a tie. Entries of a
+	 * side are reused when the merged rows are that side's rows, otherwise
+	 * they are rebuilt from the merged rows.
+	 *
+	 * @param a Index definitions of the first table state (may be null)
+	 * @param rowsA Rows of the first table state
+	 * @param b Index definitions of the second table state (may be null)
+	 * @param rowsB Rows of the second table state
+	 * @param mergedRows Merged rows
+	 * @return Merged index definitions, or null if neither side has any
+	 */
+	public static Index<AString, AVector<ACell>> merge(
+			Index<AString, AVector<ACell>> a, Index<ABlob, AVector<ACell>> rowsA,
+			Index<AString, AVector<ACell>> b, Index<ABlob, AVector<ACell>> rowsB,
+			Index<ABlob, AVector<ACell>> mergedRows) {
+		if (a == null && b == null) return null;
+		ArrayList<AString> names = new ArrayList<>();
+		if (a != null) a.forEach((name, def) -> names.add(name));
+		if (b != null) b.forEach((name, def) -> {
+			if (a == null || a.get(name) == null) names.add(name);
+		});
+
+		Index<AString, AVector<ACell>> result = Index.none();
+		for (AString name : names) {
+			AVector<ACell> defA = (a == null) ? null : a.get(name);
+			AVector<ACell> defB = (b == null) ? null : b.get(name);
+			AVector<ACell> winner = mergeDef(defA, defB);
+			if (isLive(winner)) {
+				int column = getColumn(winner);
+				Index<ABlob, Index<ABlob, AVector<ACell>>> entries;
+				if (mergedRows == rowsA && matches(defA, column)) {
+					entries = getEntries(defA);
+				} else if (mergedRows == rowsB && matches(defB, column)) {
+					entries = getEntries(defB);
+				} else {
+					entries = build(mergedRows, column);
+				}
+				if (entries != getEntries(winner)) {
+					winner = winner.assoc(POS_ENTRIES, entries);
+				}
+			}
+			result = result.assoc(name, winner);
+		}
+		return result;
+	}
+
+	private static AVector<ACell> mergeDef(AVector<ACell> a, AVector<ACell> b) {
+		if (a == null) return b;
+		if (b == null) return a;
+		long ta = getTimestamp(a).longValue();
+		long tb = getTimestamp(b).longValue();
+		if (ta > tb) return a;
+		if (tb > ta) return b;
+		// Equal timestamps: drop wins
+		if (!isLive(b)) return b;
+		return a;
+	}
+
+	private static boolean matches(AVector<ACell> def, int column) {
+		return isLive(def) && getColumn(def) == column;
+	}
+}
@@ -1,11 +1,17 @@
 package convex.db.lattice;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import convex.core.data.ABlob;
 import convex.core.data.ACell;
 import convex.core.data.AString;
 import convex.core.data.AVector;
 import convex.core.data.Blob;
+import convex.core.data.Hash;
 import convex.core.data.Index;
+import convex.core.data.MapEntry;
 import convex.core.data.Strings;
 import convex.core.data.Vectors;
 import convex.core.data.prim.CVMLong;
@@ -118,11 +124,14 @@ public class SQLSchema extends ALatticeComponent<Index<AString, AVector<ACell>>>
 	 * Converts an ACell to ABlob for use as primary key.
 	 * Supports: ABlob (direct), CVMLong (8-byte encoding), AString (UTF-8 bytes).
 	 *
+	 * <p>Rows are stored in the order of these encoded keys, so query operators
+	 * use the same encoding to seek into the row Index.
+	 *
 	 * @param key The key to convert
 	 * @return ABlob representation
 	 * @throws IllegalArgumentException if key type not supported
 	 */
-	private ABlob toKey(ACell key) {
+	public static ABlob toKey(ACell key) {
 		if (key instanceof ABlob blob) return blob;
 		if (key instanceof CVMLong n) {
 			// Encode as 8-byte big-endian
@@ -299,6 +308,70 @@ public class SQLSchema extends ALatticeComponent<Index<AString, AVector<ACell>>>
 		return table.getRowCount();
 	}
 
+	// ========== Index Operations ==========
+
+	/**
+	 * Creates a secondary index on a table column. Index names are unique
+	 * within the schema.
+	 *
+	 * @param indexName Index name
+	 * @param tableName Table name
+	 * @param columnName Column to index
+	 * @return true if created, false if an index with this name already exists
+	 * @throws IllegalArgumentException if the table or column does not exist
+	 */
+	public boolean createIndex(String indexName, String tableName, String columnName) {
+		AString name = Strings.create(indexName);
+		SQLTable table = getLiveTable(tableName);
+		if (table == null) throw new IllegalArgumentException("Table not found: " + tableName);
+		int column = findColumn(table, columnName);
+		if (column < 0) throw new IllegalArgumentException("Column not found: " + columnName);
+		if (findIndexTable(name) != null) return false;
+		return table.createIndex(name, column, now());
+	}
+
+	/**
+	 * Drops a secondary index by name.
+	 *
+	 * @param indexName Index name
+	 * @return true if dropped, false if no such index
+	 */
+	public boolean dropIndex(String indexName) {
+		AString name = Strings.create(indexName);
+		SQLTable table = findIndexTable(name);
+		if (table == null) return false;
+		return table.dropIndex(name, now());
+	}
+
+	/** Checks if a live secondary index exists with the given name. */
+	public boolean indexExists(String indexName) {
+		return findIndexTable(Strings.create(indexName)) != null;
+	}
+
+	/**
+	 * Finds the live table holding a live index with the given name.
+	 */
+	private SQLTable findIndexTable(AString indexName) {
+		for (String tableName : getTableNames()) {
+			SQLTable table = getLiveTable(tableName);
+			if (table == null) continue;
+			Index<AString, AVector<ACell>> indexes = table.getIndexes();
+			if (indexes != null && SQLIndex.isLive(indexes.get(indexName))) return table;
+		}
+		return null;
+	}
+
+	/**
+	 * Finds a column by name, ignoring case as SQL identifiers do.
+	 */
+	private static int findColumn(SQLTable table, String columnName) {
+		AVector<AVector<ACell>> schema = table.getSchema();
+		for (int i = 0; i < schema.count(); i++) {
+			if (schema.get(i).get(0).toString().equalsIgnoreCase(columnName)) return i;
+		}
+		return -1;
+	}
+
 	// ========== Row Operations ==========
 
 	/** Inserts a row into a table. First column is used as primary key. */
@@ -313,6 +386,42 @@ public class SQLSchema extends ALatticeComponent<Index<AString, AVector<ACell>>>
 		return table.insertRow(pk, row, now());
 	}
 
+	/**
+	 * Inserts or replaces rows in a single table write. First column of each
+	 * row is used as primary key; later rows win for repeated keys.
+	 *
+	 * @return Number of rows written, or 0 if the table does not exist
+	 */
+	public long insertAll(String tableName, List<AVector<ACell>> rows) {
+		return insertAll(Strings.create(tableName), rows);
+	}
+
+	public long insertAll(AString tableName, List<AVector<ACell>> rows) {
+		Map<ABlob, AVector<ACell>> writes = new LinkedHashMap<>();
+		for (AVector<ACell> row : rows) {
+			writes.put(toKey(row.get(0)), row);
+		}
+		return write(tableName, writes);
+	}
+
+	/**
+	 * Applies a batch of row writes in a single table write. Each entry maps
+	 * a primary key (see {@link #toKey(ACell)}) to new row values, or to null
+	 * to delete the row.
+	 *
+	 * @return Number of rows written, or 0 if the table does not exist
+	 * @see SQLTable#writeRows(Map, CVMLong)
+	 */
+	public long write(String tableName, Map<ABlob, AVector<ACell>> writes) {
+		return write(Strings.create(tableName), writes);
+	}
+
+	public long write(AString tableName, Map<ABlob, AVector<ACell>> writes) {
+		SQLTable table = getLiveTable(tableName);
+		if (table == null) return 0;
+		return table.writeRows(writes, now());
+	}
+
 	/** Inserts a row with auto-conversion from Java types. First value is primary key. */
 	public boolean insert(String tableName, Object... values) {
 		return insert(Strings.create(tableName), Vectors.of(values));
@@ -389,6 +498,35 @@ public class SQLSchema extends ALatticeComponent<Index<AString, AVector<ACell>>>
 		return names.toArray(new String[0]);
 	}
 
+	/**
+	 * Gets a hash of the table definitions: the live tables, their columns
+	 * and their live secondary indexes. It changes with any schema change,
+	 * from this or another replica, but not with row changes, so it can key
+	 * anything derived from the schema such as compiled query plans.
+	 *
+	 * @return Hash of table definitions
+	 */
+	public Hash getSchemaHash() {
+		Index<AString, AVector<ACell>> store = cursor.get();
+		Index<AString, ACell> defs = Index.none();
+		long n = (store == null) ? 0 : store.count();
+		for (long i = 0; i < n; i++) {
+			MapEntry<AString, AVector<ACell>> e = store.entryAt(i);
+			AVector<ACell> state = e.getValue();
+			if (!SQLTable.isLiveState(state)) continue;
+			Index<AString, ACell> indexColumns = Index.none();
+			Index<AString, AVector<ACell>> indexes = SQLTable.getIndexes(state);
+			long m = (indexes == null) ? 0 : indexes.count();
+			for (long j = 0; j < m; j++) {
+				MapEntry<AString, AVector<ACell>> ie = indexes.entryAt(j);
+				if (!SQLIndex.isLive(ie.getValue())) continue;
+				indexColumns = indexColumns.assoc(ie.getKey(), ie.getValue().get(SQLIndex.POS_COLUMN));
+			}
+			defs = defs.assoc(e.getKey(), Vectors.of(state.get(SQLTable.POS_SCHEMA), indexColumns));
+		}
+		return defs.getHash();
+	}
+
 	/** Gets the column count for a table. */
 	public int getColumnCount(String name) {
 		return getColumnCount(Strings.create(name));
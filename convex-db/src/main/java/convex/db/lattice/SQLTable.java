@@ -1,27 +1,36 @@
 package convex.db.lattice;
 
+import java.util.Iterator;
+import java.util.Map;
+
 import convex.core.data.ABlob;
 import convex.core.data.ACell;
 import convex.core.data.AString;
 import convex.core.data.AVector;
 import convex.core.data.Index;
+import convex.core.data.MapEntry;
 import convex.core.data.Vectors;
 import convex.core.data.prim.CVMLong;
+import convex.core.data.util.IndexBuilder;
 import convex.lattice.ALatticeComponent;
 import convex.lattice.cursor.ALatticeCursor;
 
 /**
  * A single SQL table within the lattice table store.
  *
- * <p>Wraps a lattice cursor pointing at the table's state vector: [schema, rows, utime, liveCount]
+ * <p>Wraps a lattice cursor pointing at the table's state vector: [schema, rows, utime, liveCount, indexes]
  * <ul>
  *   <li>schema (AVector) - Column definitions: [[name, type, precision, scale], ...]</li>
  *   <li>rows (Index) - Row data: primary-key (ABlob) → row entry</li>
  *   <li>utime (CVMLong) - Schema update timestamp for LWW</li>
  *   <li>liveCount (CVMLong) - Number of live (non-tombstone) rows</li>
+ *   <li>indexes (Index) - Secondary indexes: name (AString) → index definition
+ *       (see {@link SQLIndex}), omitted if the table has never had an index</li>
  * </ul>
  *
  * <p>Schema is immutable after creation (for now). Row data merges independently.
+ * Secondary indexes are maintained on every local write and rebuilt from the
+ * merged rows when a merge changes them.
  *
  * <p>Obtained from {@link SQLSchema#getTable(String)} as a cursor-backed component
  * in the hierarchy: ConvexDB → SQLDatabase → SQLSchema → SQLTable.
@@ -36,6 +45,11 @@ public class SQLTable extends ALatticeComponent<AVector<ACell>> {
 	static final int POS_UTIME = 2;
 	/** Position of live row count */
 	static final int POS_LIVE_COUNT = 3;
+	/** Position of secondary index definitions */
+	static final int POS_INDEXES = 4;
+
+	/** Batches of at least 1/BULK_WRITE_RATIO of the table's rows are written by rebuilding the row Index */
+	static final int BULK_WRITE_RATIO = 8;
 
 	SQLTable(ALatticeCursor<AVector<ACell>> cursor) {
 		super(cursor);
@@ -65,6 +79,17 @@ public class SQLTable extends ALatticeComponent<AVector<ACell>> {
 		return Vectors.of(null, null, timestamp, CVMLong.ZERO);
 	}
 
+	/**
+	 * Creates a live table state vector. The indexes element is only present
+	 * if the table has index definitions, so tables without indexes keep the
+	 * four element format.
+	 */
+	static AVector<ACell> createState(ACell schema, Index<ABlob, AVector<ACell>> rows, ACell timestamp,
+			long liveCount, Index<AString, AVector<ACell>> indexes) {
+		if (indexes == null) return Vectors.of(schema, rows, timestamp, CVMLong.create(liveCount));
+		return Vectors.of(schema, rows, timestamp, CVMLong.create(liveCount), indexes);
+	}
+
 	// ========== Static Helpers (for raw state access) ==========
 
 	/**
@@ -74,6 +99,76 @@ public class SQLTable extends ALatticeComponent<AVector<ACell>> {
 		return state != null && state.get(POS_SCHEMA) != null;
 	}
 
+	/**
+	 * Gets the index definitions from a raw table state, or null if none.
+	 */
+	@SuppressWarnings("unchecked")
+	static Index<AString, AVector<ACell>> getIndexes(AVector<ACell> state) {
+		if (state == null || state.count() <= POS_INDEXES) return null;
+		return (Index<AString, AVector<ACell>>) state.get(POS_INDEXES);
+	}
+
+	/**
+	 * Updates all live indexes for a row changing from old to new values.
+	 */
+	private static Index<AString, AVector<ACell>> updateIndexes(Index<AString, AVector<ACell>> indexes,
+			ABlob pk, AVector<ACell> oldValues, AVector<ACell> newValues) {
+		if (indexes == null) return null;
+		Index<AString, AVector<ACell>> result = indexes;
+		for (var e : indexes.entrySet()) {
+			AVector<ACell> def = e.getValue();
+			if (!SQLIndex.isLive(def)) continue;
+			int column = SQLIndex.getColumn(def);
+			Index<ABlob, Index<ABlob, AVector<ACell>>> entries = SQLIndex.getEntries(def);
+			if (oldValues != null) entries = SQLIndex.remove(entries, pk, oldValues, column);
+			if (newValues != null) entries = SQLIndex.add(entries, pk, newValues, column);
+			result = result.assoc(e.getKey(), def.assoc(SQLIndex.POS_ENTRIES, entries));
+		}
+		return result;
+	}
+
+	/**
+	 * Merges written rows into existing rows in a single ordered pass,
+	 * written rows replacing existing rows with the same key.
+	 */
+	private static Index<ABlob, AVector<ACell>> mergeRows(Index<ABlob, AVector<ACell>> rows,
+			Index<ABlob, AVector<ACell>> written) {
+		if (rows.isEmpty()) return written;
+		IndexBuilder<ABlob, AVector<ACell>> builder = new IndexBuilder<>((int) Math.min(Integer.MAX_VALUE, rows.count() + written.count()));
+		Iterator<MapEntry<ABlob, AVector<ACell>>> a = rows.scan(null, null, false);
+		Iterator<MapEntry<ABlob, AVector<ACell>>> b = written.scan(null, null, false);
+		MapEntry<ABlob, AVector<ACell>> ea = a.hasNext() ? a.next() : null;
+		MapEntry<ABlob, AVector<ACell>> eb = b.hasNext() ? b.next() : null;
+		while (ea != null || eb != null) {
+			int c = (ea == null) ? 1 : (eb == null) ? -1 : Index.compareKeys(ea.getKey(), eb.getKey());
+			if (c < 0) {
+				builder.assocEntry(ea);
+				ea = a.hasNext() ? a.next() : null;
+			} else {
+				builder.assocEntry(eb);
+				if (c == 0) ea = a.hasNext() ? a.next() : null;
+				eb = b.hasNext() ? b.next() : null;
+			}
+		}
+		return builder.toIndex();
+	}
+
+	/**
+	 * Rebuilds the entries of all live indexes from the given rows.
+	 */
+	private static Index<AString, AVector<ACell>> rebuildIndexes(Index<AString, AVector<ACell>> indexes,
+			Index<ABlob, AVector<ACell>> rows) {
+		if (indexes == null) return null;
+		Index<AString, AVector<ACell>> result = indexes;
+		for (var e : indexes.entrySet()) {
+			AVector<ACell> def = e.getValue();
+			if (!SQLIndex.isLive(def)) continue;
+			Index<ABlob, Index<ABlob, AVector<ACell>>> entries = SQLIndex.build(rows, SQLIndex.getColumn(def));
+			result = result.assoc(e.getKey(), def.assoc(SQLIndex.POS_ENTRIES, entries));
+		}
+		return result;
+	}
+
 	// ========== Cursor-backed Instance Methods ==========
 
 	/**
@@ -157,6 +252,33 @@ public class SQLTable extends ALatticeComponent<AVector<ACell>> {
 		return schema.count();
 	}
 
+	/**
+	 * Gets the secondary index definitions, including dropped indexes.
+	 *
+	 * @return Index definitions by name, or null if none
+	 */
+	public Index<AString, AVector<ACell>> getIndexes() {
+		return getIndexes(cursor.get());
+	}
+
+	/**
+	 * Gets the entries of a live secondary index on a column.
+	 *
+	 * @param column Column position
+	 * @return Index entries, or null if the column has no live index
+	 */
+	public Index<ABlob, Index<ABlob, AVector<ACell>>> getIndexEntries(int column) {
+		Index<AString, AVector<ACell>> indexes = getIndexes();
+		if (indexes == null) return null;
+		for (var e : indexes.entrySet()) {
+			AVector<ACell> def = e.getValue();
+			if (SQLIndex.isLive(def) && SQLIndex.getColumn(def) == column) {
+				return SQLIndex.getEntries(def);
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Gets the number of live (non-tombstone) rows. O(1).
 	 */
@@ -194,8 +316,10 @@ public class SQLTable extends ALatticeComponent<AVector<ACell>> {
 			boolean addsLive = (existing == null || !SQLRow.isLive(existing));
 			rows = rows.assoc(pk, SQLRow.create(values, timestamp));
 			long liveCount = getLiveCount(state) + (addsLive ? 1 : 0);
+			Index<AString, AVector<ACell>> indexes = updateIndexes(getIndexes(state), pk,
+				addsLive ? null : SQLRow.getValues(existing), values);
 			result[0] = true;
-			return Vectors.of(state.get(POS_SCHEMA), rows, timestamp, CVMLong.create(liveCount));
+			return createState(state.get(POS_SCHEMA), rows, timestamp, liveCount, indexes);
 		});
 		return result[0];
 	}
@@ -218,8 +342,123 @@ public class SQLTable extends ALatticeComponent<AVector<ACell>> {
 			if (row == null || !SQLRow.isLive(row)) return state;
 			rows = rows.assoc(key, SQLRow.createTombstone(timestamp));
 			long liveCount = getLiveCount(state) - 1;
+			Index<AString, AVector<ACell>> indexes = updateIndexes(getIndexes(state), key, SQLRow.getValues(row), null);
 			result[0] = true;
-			return Vectors.of(state.get(POS_SCHEMA), rows, timestamp, CVMLong.create(liveCount));
+			return createState(state.get(POS_SCHEMA), rows, timestamp, liveCount, indexes);
+		});
+		return result[0];
+	}
+
+	/**
+	 * Applies a batch of row writes in a single cursor update. Each entry
+	 * maps a primary key to new row values (including the PK as first
+	 * element), or to null to delete the row.
+	 *
+	 * <p>The live count is adjusted once for the batch. Large batches
+	 * relative to the table are applied by rebuilding the row Index in bulk
+	 * (and secondary indexes from the new rows), smaller ones by successive
+	 * assoc.
+	 *
+	 * @param writes Row writes by primary key
+	 * @param timestamp Write timestamp
+	 * @return Number of rows written: every put, plus each delete of a live row
+	 */
+	@SuppressWarnings("unchecked")
+	public long writeRows(Map<ABlob, AVector<ACell>> writes, CVMLong timestamp) {
+		if (writes.isEmpty()) return 0;
+		long[] result = new long[1];
+		cursor.updateAndGet(state -> {
+			result[0] = 0;
+			if (state == null || state.get(POS_SCHEMA) == null) return state;
+			Index<ABlob, AVector<ACell>> rows = (Index<ABlob, AVector<ACell>>) state.get(POS_ROWS);
+			if (rows == null) rows = TableLattice.INSTANCE.zero();
+			Index<AString, AVector<ACell>> indexes = getIndexes(state);
+			long liveCount = getLiveCount(state);
+			long written = 0;
+
+			boolean bulk = (long) writes.size() * BULK_WRITE_RATIO >= rows.count();
+			IndexBuilder<ABlob, AVector<ACell>> builder = bulk ? new IndexBuilder<>(writes.size()) : null;
+
+			for (Map.Entry<ABlob, AVector<ACell>> w : writes.entrySet()) {
+				ABlob pk = w.getKey();
+				AVector<ACell> values = w.getValue();
+				AVector<ACell> existing = rows.get(pk);
+				AVector<ACell> oldValues = SQLRow.isLive(existing) ? SQLRow.getValues(existing) : null;
+				AVector<ACell> row;
+				if (values != null) {
+					row = SQLRow.create(values, timestamp);
+					if (oldValues == null) liveCount++;
+				} else if (oldValues != null) {
+					row = SQLRow.createTombstone(timestamp);
+					liveCount--;
+				} else {
+					continue;
+				}
+				written++;
+				if (bulk) {
+					builder.assoc(pk, row);
+				} else {
+					rows = rows.assoc(pk, row);
+					indexes = updateIndexes(indexes, pk, oldValues, values);
+				}
+			}
+			if (written == 0) return state;
+
+			if (bulk) {
+				rows = mergeRows(rows, builder.toIndex());
+				indexes = rebuildIndexes(indexes, rows);
+			}
+			result[0] = written;
+			return createState(state.get(POS_SCHEMA), rows, timestamp, liveCount, indexes);
+		});
+		return result[0];
+	}
+
+	/**
+	 * Creates a secondary index on a column, built from the current rows.
+	 *
+	 * @param name Index name
+	 * @param column Column position
+	 * @param timestamp Creation timestamp
+	 * @return true if created, false if a live index with this name exists
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean createIndex(AString name, int column, CVMLong timestamp) {
+		boolean[] result = new boolean[1];
+		cursor.updateAndGet(state -> {
+			result[0] = false;
+			if (state == null || state.get(POS_SCHEMA) == null) return state;
+			Index<AString, AVector<ACell>> indexes = getIndexes(state);
+			if (indexes == null) indexes = Index.none();
+			if (SQLIndex.isLive(indexes.get(name))) return state;
+			Index<ABlob, AVector<ACell>> rows = (Index<ABlob, AVector<ACell>>) state.get(POS_ROWS);
+			AVector<ACell> def = SQLIndex.create(column, SQLIndex.build(rows, column), timestamp);
+			result[0] = true;
+			return createState(state.get(POS_SCHEMA), rows, state.get(POS_UTIME), getLiveCount(state), indexes.assoc(name, def));
+		});
+		return result[0];
+	}
+
+	/**
+	 * Drops a secondary index, leaving a tombstone definition for replication.
+	 *
+	 * @param name Index name
+	 * @param timestamp Drop timestamp
+	 * @return true if a live index was dropped
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean dropIndex(AString name, CVMLong timestamp) {
+		boolean[] result = new boolean[1];
+		cursor.updateAndGet(state -> {
+			result[0] = false;
+			Index<AString, AVector<ACell>> indexes = getIndexes(state);
+			if (indexes == null) return state;
+			AVector<ACell> def = indexes.get(name);
+			if (!SQLIndex.isLive(def)) return state;
+			indexes = indexes.assoc(name, SQLIndex.createTombstone(SQLIndex.getColumn(def), timestamp));
+			result[0] = true;
+			return createState(state.get(POS_SCHEMA), (Index<ABlob, AVector<ACell>>) state.get(POS_ROWS),
+				state.get(POS_UTIME), getLiveCount(state), indexes);
 		});
 		return result[0];
 	}
@@ -253,6 +492,7 @@ public class SQLTable extends ALatticeComponent<AVector<ACell>> {
 	 * Merges two table state vectors.
 	 * Schema uses LWW (latest timestamp wins).
 	 * Rows merge using TableLattice.
+	 * Secondary indexes merge by name (see {@link SQLIndex#merge}).
 	 */
 	@SuppressWarnings("unchecked")
 	public static AVector<ACell> merge(AVector<ACell> a, AVector<ACell> b) {
@@ -297,7 +537,10 @@ public class SQLTable extends ALatticeComponent<AVector<ACell>> {
 			liveCount = computeLiveCount(mergedRows);
 		}
 
+		Index<AString, AVector<ACell>> indexes = SQLIndex.merge(
+			getIndexes(a), rowsA, getIndexes(b), rowsB, mergedRows);
+
 		// Return merged table with schema winner's schema
-		return Vectors.of(schemaWinner.get(POS_SCHEMA), mergedRows, schemaWinner.get(POS_UTIME), CVMLong.create(liveCount));
+		return createState(schemaWinner.get(POS_SCHEMA), mergedRows, schemaWinner.get(POS_UTIME), liveCount, indexes);
 	}
 }
@@ -34,8 +34,9 @@ public class SQLTableLattice extends ALattice<AVector<ACell>> {
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T extends ACell> ALattice<T> path(ACell childKey) {
-		// Table vector: [0]=schema, [1]=rows, [2]=utime
-		// Only rows (position 1) has a sub-lattice
+		// Table vector: [0]=schema, [1]=rows, [2]=utime, [3]=liveCount, [4]=indexes
+		// Only rows (position 1) has a sub-lattice. Indexes derive from rows,
+		// so they merge with the whole table.
 		if (childKey instanceof CVMLong idx && idx.longValue() == SQLTable.POS_ROWS) {
 			return (ALattice<T>) TableLattice.INSTANCE;
 		}
@@ -12,6 +12,7 @@
  *   <li>{@link convex.db.lattice.TableLattice} - Lattice for individual table rows</li>
  *   <li>{@link convex.db.lattice.SQLTable} - Table entry structure (schema + rows)</li>
  *   <li>{@link convex.db.lattice.SQLRow} - Row entry structure (values + timestamp)</li>
+ *   <li>{@link convex.db.lattice.SQLIndex} - Secondary index structure (column value → primary keys)</li>
  * </ul>
  *
  * <p>Merge semantics:
@@ -0,0 +1,711 @@
+package convex.db.psql;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.calcite.avatica.util.ByteString;
+
+import convex.db.calcite.ConvexType;
+import convex.db.psql.msg.DataRow;
+
+/**
+ * COPY support for the PostgreSQL wire protocol: parsing of COPY statements,
+ * and decoding and encoding of COPY data in text, CSV and binary formats.
+ *
+ * <p>Only COPY FROM STDIN and COPY TO STDOUT are supported, since the
+ * server has no business reading or writing its own files.
+ */
+final class PgCopy {
+
+	private PgCopy() {}
+
+	/** COPY data formats */
+	enum Format { TEXT, CSV, BINARY }
+
+	/**
+	 * Format options of a COPY command.
+	 */
+	record Options(Format format, char delimiter, String nullString, boolean header, char quote, char escape) {
+		boolean binary() {
+			return format == Format.BINARY;
+		}
+	}
+
+	/**
+	 * A parsed COPY command. The source or target is either a table, with an
+	 * optional column list, or a query (COPY TO only). Identifiers are kept as
+	 * written, including any double quotes.
+	 */
+	record Command(String table, List<String> columns, String query, boolean in, Options options) {}
+
+	/** Signature at the start of binary COPY data */
+	static final byte[] BINARY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+
+	/** Epoch of binary timestamps (2000-01-01), in Unix milliseconds */
+	private static final long PG_EPOCH_MILLIS = 946_684_800_000L;
+
+	private static final Pattern COPY = Pattern.compile("(?is)^COPY\\s+(.+)\\s+(FROM\\s+STDIN|TO\\s+STDOUT)\\b(.*)$");
+	private static final Pattern TARGET = Pattern.compile("(?s)^((?:\"[^\"]*\"|[\\w$]+)(?:\\s*\\.\\s*(?:\"[^\"]*\"|[\\w$]+))?)\\s*(?:\\((.*)\\))?$");
+	private static final Pattern TOKEN = Pattern.compile("'(?:[^']|'')*'|\\(|\\)|,|[^\\s(),']+");
+
+	// ========== Statement parsing ==========
+
+	/**
+	 * Checks whether a statement is a COPY command.
+	 */
+	static boolean isCopy(String sql) {
+		return sql.regionMatches(true, 0, "COPY", 0, 4)
+			&& (sql.length() == 4 || Character.isWhitespace(sql.charAt(4)));
+	}
+
+	/**
+	 * Parses a COPY statement.
+	 *
+	 * @param sql COPY statement
+	 * @return Parsed command
+	 * @throws IllegalArgumentException if the statement is malformed or unsupported
+	 */
+	static Command parse(String sql) {
+		Matcher m = COPY.matcher(sql.trim());
+		if (!m.matches()) {
+			throw new IllegalArgumentException("Only COPY ... FROM STDIN and COPY ... TO STDOUT are supported");
+		}
+		String target = m.group(1).trim();
+		boolean in = m.group(2).regionMatches(true, 0, "FROM", 0, 4);
+		Options options = parseOptions(m.group(3));
+
+		if (target.startsWith("(")) {
+			if (in || !target.endsWith(")")) throw new IllegalArgumentException("Invalid COPY target: " + target);
+			return new Command(null, List.of(), target.substring(1, target.length() - 1).trim(), false, options);
+		}
+		Matcher t = TARGET.matcher(target);
+		if (!t.matches()) throw new IllegalArgumentException("Invalid COPY target: " + target);
+		List<String> columns = new ArrayList<>();
+		if (t.group(2) != null) {
+			for (String col : t.group(2).split(",")) {
+				if (col.isBlank()) throw new IllegalArgumentException("Invalid COPY column list: " + target);
+				columns.add(col.trim());
+			}
+		}
+		return new Command(t.group(1), columns, null, in, options);
+	}
+
+	/**
+	 * Parses COPY options, in either the parenthesised form
+	 * {@code WITH (FORMAT csv, HEADER)} or the legacy form
+	 * {@code WITH CSV HEADER DELIMITER ';'}.
+	 */
+	private static Options parseOptions(String text) {
+		List<String> tokens = new ArrayList<>();
+		Matcher m = TOKEN.matcher(text);
+		while (m.find()) tokens.add(m.group());
+		if (!tokens.isEmpty() && tokens.get(0).equalsIgnoreCase("WITH")) tokens.remove(0);
+
+		OptionValues values = new OptionValues();
+		int i = 0;
+		if (!tokens.isEmpty() && tokens.get(0).equals("(")) {
+			i = 1;
+			while (i < tokens.size() && !tokens.get(i).equals(")")) {
+				String name = tokens.get(i++);
+				String value = null;
+				if (i < tokens.size() && !tokens.get(i).equals(",") && !tokens.get(i).equals(")")) {
+					value = unquoteLiteral(tokens.get(i++));
+				}
+				values.set(name, value);
+				if (i < tokens.size() && tokens.get(i).equals(",")) i++;
+			}
+			if (i++ >= tokens.size()) throw new IllegalArgumentException("Unterminated COPY option list");
+		} else {
+			while (i < tokens.size()) {
+				String name = tokens.get(i++).toUpperCase();
+				switch (name) {
+					case "BINARY", "CSV" -> values.set("FORMAT", name);
+					case "HEADER" -> values.set(name, null);
+					case "DELIMITER", "NULL", "QUOTE", "ESCAPE" -> {
+						if (i < tokens.size() && tokens.get(i).equalsIgnoreCase("AS")) i++;
+						if (i >= tokens.size()) throw new IllegalArgumentException("Missing value for COPY option " + name);
+						values.set(name, unquoteLiteral(tokens.get(i++)));
+					}
+					default -> throw new IllegalArgumentException("Unsupported COPY option: " + name);
+				}
+			}
+		}
+		if (i < tokens.size()) throw new IllegalArgumentException("Unexpected COPY option: " + tokens.get(i));
+		return values.build();
+	}
+
+	/**
+	 * Option values as given, before defaults for the format are applied.
+	 */
+	private static final class OptionValues {
+		Format format = Format.TEXT;
+		String delimiter;
+		String nullString;
+		boolean header;
+		String quote;
+		String escape;
+
+		void set(String name, String value) {
+			switch (name.toUpperCase()) {
+				case "FORMAT" -> {
+					if (value == null) throw new IllegalArgumentException("Missing value for COPY option FORMAT");
+					try {
+						format = Format.valueOf(value.toUpperCase());
+					} catch (IllegalArgumentException e) {
+						throw new IllegalArgumentException("Unsupported COPY format: " + value);
+					}
+				}
+				case "DELIMITER" -> delimiter = value;
+				case "NULL" -> nullString = value;
+				case "HEADER" -> header = (value == null) || switch (value.toLowerCase()) {
+					case "true", "on", "1" -> true;
+					case "false", "off", "0" -> false;
+					default -> throw new IllegalArgumentException("Invalid COPY HEADER value: " + value);
+				};
+				case "QUOTE" -> quote = value;
+				case "ESCAPE" -> escape = value;
+				case "ENCODING" -> {
+					if (value == null || !value.replace("-", "").equalsIgnoreCase("UTF8")) {
+						throw new IllegalArgumentException("Only UTF8 encoding is supported for COPY");
+					}
+				}
+				default -> throw new IllegalArgumentException("Unsupported COPY option: " + name);
+			}
+		}
+
+		Options build() {
+			boolean csv = format == Format.CSV;
+			if (format == Format.BINARY && (delimiter != null || nullString != null || header)) {
+				throw new IllegalArgumentException("COPY options DELIMITER, NULL and HEADER cannot be used with BINARY");
+			}
+			if (!csv && (quote != null || escape != null)) {
+				throw new IllegalArgumentException("COPY options QUOTE and ESCAPE are only available with CSV");
+			}
+			char delim = singleChar("DELIMITER", delimiter, csv ? ',' : '\t');
+			char q = singleChar("QUOTE", quote, '"');
+			char esc = singleChar("ESCAPE", escape, q);
+			String nul = (nullString != null) ? nullString : (csv ? "" : "\\N");
+			if (delim == '\n' || delim == '\r' || (csv && delim == q)) {
+				throw new IllegalArgumentException("Invalid COPY delimiter");
+			}
+			return new Options(format, delim, nul, header, q, esc);
+		}
+
+		private static char singleChar(String name, String value, char dflt) {
+			if (value == null) return dflt;
+			if (value.length() != 1) throw new IllegalArgumentException("COPY " + name + " must be a single character");
+			return value.charAt(0);
+		}
+	}
+
+	private static String unquoteLiteral(String token) {
+		if (token.length() >= 2 && token.startsWith("'") && token.endsWith("'")) {
+			return token.substring(1, token.length() - 1).replace("''", "'");
+		}
+		return token;
+	}
+
+	/**
+	 * Converts an identifier to its name: double quotes are removed from a
+	 * quoted identifier. Unquoted identifiers are matched case-insensitively.
+	 */
+	static String identifierName(String ident) {
+		if (ident.length() >= 2 && ident.startsWith("\"") && ident.endsWith("\"")) {
+			return ident.substring(1, ident.length() - 1);
+		}
+		return ident;
+	}
+
+	// ========== COPY FROM ==========
+
+	/**
+	 * Incremental decoder of COPY FROM STDIN data. CopyData messages may
+	 * split rows at any byte, so incomplete input is buffered until the rest
+	 * arrives.
+	 *
+	 * <p>Each decoded row is passed to a sink as an array of fields: Strings
+	 * in text and CSV format, byte arrays in binary format, and null for NULL.
+	 */
+	static final class Decoder {
+		private final Options options;
+		private final Consumer<Object[]> sink;
+
+		private byte[] buf = new byte[8192];
+		private int len;
+		/** Position up to which buffered text has been scanned for line ends */
+		private int scan;
+		/** Whether the scan position is inside a CSV quoted field */
+		private boolean inQuotes;
+		private boolean headerDone;
+		private boolean binaryHeaderDone;
+		/** Set once the end-of-data marker has been read */
+		private boolean ended;
+
+		Decoder(Options options, Consumer<Object[]> sink) {
+			this.options = options;
+			this.sink = sink;
+			this.headerDone = !options.header();
+		}
+
+		/**
+		 * Accepts a chunk of COPY data, emitting all rows it completes.
+		 */
+		void accept(byte[] data) {
+			if (ended) return;
+			if (len + data.length > buf.length) {
+				buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + data.length));
+			}
+			System.arraycopy(data, 0, buf, len, data.length);
+			len += data.length;
+			if (options.binary()) {
+				decodeBinary();
+			} else {
+				decodeLines();
+			}
+		}
+
+		/**
+		 * Ends COPY data, emitting a final row without a line terminator.
+		 *
+		 * @throws IllegalArgumentException if the data ends part way through a row
+		 */
+		void finish() {
+			if (ended || len == 0) return;
+			if (options.binary()) {
+				throw new IllegalArgumentException("Unexpected end of binary COPY data");
+			}
+			if (inQuotes) throw new IllegalArgumentException("Unterminated CSV quoted field");
+			line(0, len);
+			len = 0;
+		}
+
+		private void decodeLines() {
+			boolean csv = options.format() == Format.CSV;
+			byte quote = (byte) options.quote();
+			byte escape = (byte) options.escape();
+			int start = 0;
+			int i = scan;
+			while (i < len && !ended) {
+				byte b = buf[i];
+				if (csv && inQuotes) {
+					if (b == escape && escape != quote) {
+						// Escape needs the next byte before the line can be scanned further
+						if (i + 1 >= len) break;
+						i += 2;
+						continue;
+					}
+					if (b == quote) inQuotes = false;
+				} else if (csv && b == quote) {
+					inQuotes = true;
+				} else if (b == '\n') {
+					line(start, i);
+					start = i + 1;
+				}
+				i++;
+			}
+			if (ended) {
+				len = 0;
+				scan = 0;
+				return;
+			}
+			System.arraycopy(buf, start, buf, 0, len - start);
+			len -= start;
+			scan = i - start;
+		}
+
+		private void line(int start, int end) {
+			if (end > start && buf[end - 1] == '\r') end--;
+			String line = new String(buf, start, end - start, StandardCharsets.UTF_8);
+			if (options.format() == Format.TEXT && line.equals("\\.")) {
+				ended = true;
+				return;
+			}
+			if (!headerDone) {
+				headerDone = true;
+				return;
+			}
+			sink.accept(options.format() == Format.CSV ? splitCsv(line) : splitText(line));
+		}
+
+		/**
+		 * Splits a line in text format, where special characters are
+		 * backslash-escaped and NULL is written as the null string.
+		 */
+		private String[] splitText(String line) {
+			List<String> fields = new ArrayList<>();
+			char delim = options.delimiter();
+			int start = 0;
+			for (int i = 0; i <= line.length(); i++) {
+				if (i == line.length() || line.charAt(i) == delim) {
+					String raw = line.substring(start, i);
+					fields.add(raw.equals(options.nullString()) ? null : unescapeText(raw));
+					start = i + 1;
+				} else if (line.charAt(i) == '\\') {
+					i++;
+				}
+			}
+			return fields.toArray(new String[0]);
+		}
+
+		/**
+		 * Splits a line in CSV format. An unquoted field matching the null
+		 * string is NULL, so a quoted empty field is an empty string.
+		 */
+		private String[] splitCsv(String line) {
+			List<String> fields = new ArrayList<>();
+			char delim = options.delimiter();
+			char quote = options.quote();
+			char escape = options.escape();
+			StringBuilder sb = new StringBuilder();
+			boolean quoted = false;
+			boolean inField = false;
+			for (int i = 0; i <= line.length(); i++) {
+				if (i == line.length() || (!inField && line.charAt(i) == delim)) {
+					String value = sb.toString();
+					fields.add(!quoted && value.equals(options.nullString()) ? null : value);
+					sb.setLength(0);
+					quoted = false;
+					continue;
+				}
+				char c = line.charAt(i);
+				if (inField) {
+					char next = (i + 1 < line.length()) ? line.charAt(i + 1) : 0;
+					if (c == escape && i + 1 < line.length() && (next == quote || next == escape)) {
+						sb.append(next);
+						i++;
+					} else if (c == quote) {
+						inField = false;
+					} else {
+						sb.append(c);
+					}
+				} else if (c == quote) {
+					inField = true;
+					quoted = true;
+				} else {
+					sb.append(c);
+				}
+			}
+			return fields.toArray(new String[0]);
+		}
+
+		private void decodeBinary() {
+			ByteBuffer in = ByteBuffer.wrap(buf, 0, len);
+			if (!binaryHeaderDone) {
+				if (len < BINARY_SIGNATURE.length + 8) return;
+				if (!Arrays.equals(buf, 0, BINARY_SIGNATURE.length, BINARY_SIGNATURE, 0, BINARY_SIGNATURE.length)) {
+					throw new IllegalArgumentException("Invalid binary COPY signature");
+				}
+				int extension = in.getInt(BINARY_SIGNATURE.length + 4);
+				int dataStart = BINARY_SIGNATURE.length + 8 + extension;
+				if (len < dataStart) return;
+				in.position(dataStart);
+				binaryHeaderDone = true;
+			}
+			int pos = in.position();
+			while (in.remaining() >= 2) {
+				short count = in.getShort();
+				if (count == -1) {
+					ended = true;
+					len = 0;
+					return;
+				}
+				Object[] fields = readTuple(in, count);
+				if (fields == null) break;
+				sink.accept(fields);
+				pos = in.position();
+			}
+			System.arraycopy(buf, pos, buf, 0, len - pos);
+			len -= pos;
+		}
+
+		/**
+		 * Reads the fields of a binary tuple, or returns null if the tuple is
+		 * incomplete.
+		 */
+		private static Object[] readTuple(ByteBuffer in, int count) {
+			Object[] fields = new Object[count];
+			for (int f = 0; f < count; f++) {
+				if (in.remaining() < 4) return null;
+				int length = in.getInt();
+				if (length < 0) continue;
+				if (in.remaining() < length) return null;
+				byte[] value = new byte[length];
+				in.get(value);
+				fields[f] = value;
+			}
+			return fields;
+		}
+	}
+
+	/**
+	 * Removes backslash escapes from a text format field.
+	 */
+	static String unescapeText(String raw) {
+		if (raw.indexOf('\\') < 0) return raw;
+		StringBuilder sb = new StringBuilder(raw.length());
+		for (int i = 0; i < raw.length(); i++) {
+			char c = raw.charAt(i);
+			if (c != '\\' || i + 1 == raw.length()) {
+				sb.append(c);
+				continue;
+			}
+			char e = raw.charAt(++i);
+			switch (e) {
+				case 'b' -> sb.append('\b');
+				case 'f' -> sb.append('\f');
+				case 'n' -> sb.append('\n');
+				case 'r' -> sb.append('\r');
+				case 't' -> sb.append('\t');
+				case 'v' -> sb.append('\u000b');
+				case 'x' -> {
+					int end = i + 1;
+					while (end < raw.length() && end < i + 3 && Character.digit(raw.charAt(end), 16) >= 0) end++;
+					if (end == i + 1) {
+						sb.append('x');
+					} else {
+						sb.append((char) Integer.parseInt(raw.substring(i + 1, end), 16));
+						i = end - 1;
+					}
+				}
+				default -> {
+					if (e >= '0' && e <= '7') {
+						int end = i;
+						while (end < raw.length() && end < i + 3 && raw.charAt(end) >= '0' && raw.charAt(end) <= '7') end++;
+						sb.append((char) Integer.parseInt(raw.substring(i, end), 8));
+						i = end - 1;
+					} else {
+						sb.append(e);
+					}
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Converts a decoded COPY field to a Java value accepted by
+	 * {@link ConvexType#toCell(Object)}: text fields are parsed, binary fields
+	 * decoded from network byte order.
+	 *
+	 * @param type Column type
+	 * @param field String or byte array field, or null
+	 * @return Java value, or null for NULL
+	 * @throws IllegalArgumentException if the field is not valid for the type
+	 */
+	static Object toValue(ConvexType type, Object field) {
+		if (field == null) return null;
+		if (field instanceof byte[] bytes) return decodeBinary(type, bytes);
+		String s = (String) field;
+		try {
+			return switch (type) {
+				case INTEGER -> Long.parseLong(s.trim());
+				case BIGINT -> new BigInteger(s.trim());
+				case DECIMAL, DOUBLE -> Double.parseDouble(s.trim());
+				case BOOLEAN -> parseBoolean(s);
+				case VARBINARY, BLOB -> parseBytea(s);
+				case TIMESTAMP -> parseTimestamp(s.trim());
+				default -> s;
+			};
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid input syntax for " + type + ": \"" + s + "\"");
+		}
+	}
+
+	private static Boolean parseBoolean(String s) {
+		return switch (s.trim().toLowerCase()) {
+			case "t", "true", "y", "yes", "on", "1" -> true;
+			case "f", "false", "n", "no", "off", "0" -> false;
+			default -> throw new IllegalArgumentException("Invalid input syntax for BOOLEAN: \"" + s + "\"");
+		};
+	}
+
+	private static byte[] parseBytea(String s) {
+		if (!s.startsWith("\\x")) return s.getBytes(StandardCharsets.UTF_8);
+		int n = (s.length() - 2) / 2;
+		if (s.length() % 2 != 0) throw new IllegalArgumentException("Invalid hexadecimal bytea: \"" + s + "\"");
+		byte[] bytes = new byte[n];
+		for (int i = 0; i < n; i++) {
+			int hi = Character.digit(s.charAt(2 + 2 * i), 16);
+			int lo = Character.digit(s.charAt(3 + 2 * i), 16);
+			if (hi < 0 || lo < 0) throw new IllegalArgumentException("Invalid hexadecimal bytea: \"" + s + "\"");
+			bytes[i] = (byte) ((hi << 4) | lo);
+		}
+		return bytes;
+	}
+
+	private static Object parseTimestamp(String s) {
+		if (!s.isEmpty() && (Character.isDigit(s.charAt(0)) && s.chars().allMatch(Character::isDigit))) {
+			return Long.parseLong(s);
+		}
+		try {
+			// UTC, as for binary timestamps, rather than the JVM's time zone
+			LocalDateTime t = LocalDateTime.parse(s.replace(' ', 'T'));
+			return Timestamp.from(t.toInstant(ZoneOffset.UTC));
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid input syntax for TIMESTAMP: \"" + s + "\"");
+		}
+	}
+
+	private static Object decodeBinary(ConvexType type, byte[] bytes) {
+		ByteBuffer buf = ByteBuffer.wrap(bytes);
+		return switch (type) {
+			case INTEGER, BIGINT -> {
+				long v = switch (bytes.length) {
+					case 8 -> buf.getLong();
+					case 4 -> buf.getInt();
+					case 2 -> buf.getShort();
+					default -> throw new IllegalArgumentException("Invalid binary integer length " + bytes.length);
+				};
+				yield (type == ConvexType.BIGINT) ? BigInteger.valueOf(v) : (Object) v;
+			}
+			case DECIMAL, DOUBLE -> switch (bytes.length) {
+				case 8 -> buf.getDouble();
+				case 4 -> (double) buf.getFloat();
+				default -> throw new IllegalArgumentException("Binary COPY of " + type + " requires float4 or float8 values");
+			};
+			case BOOLEAN -> {
+				if (bytes.length != 1) throw new IllegalArgumentException("Invalid binary boolean length " + bytes.length);
+				yield bytes[0] != 0;
+			}
+			case VARBINARY, BLOB -> bytes;
+			case TIMESTAMP -> {
+				if (bytes.length != 8) throw new IllegalArgumentException("Invalid binary timestamp length " + bytes.length);
+				yield new Timestamp(Math.floorDiv(buf.getLong(), 1000) + PG_EPOCH_MILLIS);
+			}
+			default -> new String(bytes, StandardCharsets.UTF_8);
+		};
+	}
+
+	// ========== COPY TO ==========
+
+	/**
+	 * Gets the header of binary COPY data: signature, flags and an empty
+	 * header extension.
+	 */
+	static byte[] binaryHeader() {
+		return ByteBuffer.allocate(BINARY_SIGNATURE.length + 8).put(BINARY_SIGNATURE).putInt(0).putInt(0).array();
+	}
+
+	/**
+	 * Gets the trailer of binary COPY data.
+	 */
+	static byte[] binaryTrailer() {
+		return new byte[] {(byte) 0xff, (byte) 0xff};
+	}
+
+	/**
+	 * Encodes a header line of column names, for text and CSV formats.
+	 */
+	static byte[] encodeHeader(Options options, String[] names) {
+		return encodeRow(options, names, null);
+	}
+
+	/**
+	 * Encodes a row of result values as one line or binary tuple of COPY data.
+	 *
+	 * @param options COPY options
+	 * @param values JDBC values, null for NULL
+	 * @param typeOids Column type OIDs, used in binary format
+	 * @return Encoded row
+	 * @throws IllegalArgumentException if a value has no binary encoding
+	 */
+	static byte[] encodeRow(Options options, Object[] values, int[] typeOids) {
+		if (options.binary()) return encodeBinaryRow(values, typeOids);
+
+		boolean csv = options.format() == Format.CSV;
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) sb.append(options.delimiter());
+			Object v = values[i];
+			if (v == null) {
+				sb.append(options.nullString());
+				continue;
+			}
+			if (v instanceof ByteString bs) v = bs.getBytes();
+			String text = DataRow.formatText(v);
+			if (csv) {
+				appendCsv(sb, text, options);
+			} else {
+				appendText(sb, text, options.delimiter());
+			}
+		}
+		sb.append('\n');
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void appendText(StringBuilder sb, String text, char delim) {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+				case '\\' -> sb.append("\\\\");
+				case '\n' -> sb.append("\\n");
+				case '\r' -> sb.append("\\r");
+				case '\t' -> sb.append("\\t");
+				default -> {
+					if (c == delim) sb.append('\\');
+					sb.append(c);
+				}
+			}
+		}
+	}
+
+	private static void appendCsv(StringBuilder sb, String text, Options options) {
+		char quote = options.quote();
+		boolean needsQuotes = text.equals(options.nullString()) || text.indexOf(options.delimiter()) >= 0
+			|| text.indexOf(quote) >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+		if (!needsQuotes) {
+			sb.append(text);
+			return;
+		}
+		sb.append(quote);
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == quote || c == options.escape()) sb.append(options.escape());
+			sb.append(c);
+		}
+		sb.append(quote);
+	}
+
+	private static byte[] encodeBinaryRow(Object[] values, int[] typeOids) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(values.length >> 8);
+		out.write(values.length);
+		for (int i = 0; i < values.length; i++) {
+			Object v = values[i];
+			if (v == null) {
+				out.writeBytes(new byte[] {-1, -1, -1, -1});
+				continue;
+			}
+			byte[] bytes = encodeBinary(typeOids[i], v);
+			out.writeBytes(ByteBuffer.allocate(4).putInt(bytes.length).array());
+			out.writeBytes(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] encodeBinary(int oid, Object value) {
+		if (value instanceof ByteString bs) value = bs.getBytes();
+		if (PgType.supportsBinary(oid)) return PgType.encodeBinary(oid, value);
+		return switch (oid) {
+			case PgType.TIMESTAMP -> {
+				long millis = (value instanceof java.util.Date d) ? d.getTime() : ((Number) value).longValue();
+				yield ByteBuffer.allocate(8).putLong((millis - PG_EPOCH_MILLIS) * 1000).array();
+			}
+			case PgType.TEXT, PgType.VARCHAR, PgType.CHAR, PgType.NAME, PgType.JSON, PgType.UNKNOWN ->
+				DataRow.formatText(value).getBytes(StandardCharsets.UTF_8);
+			default -> throw new IllegalArgumentException("Binary COPY is not supported for type " + oid);
+		};
+	}
+}
@@ -56,6 +56,15 @@ public abstract class PgMessage {
 	/** Password message */
 	public static final byte PASSWORD = 'p';
 
+	/** COPY data (both directions) */
+	public static final byte COPY_DATA = 'd';
+
+	/** COPY done (both directions) */
+	public static final byte COPY_DONE = 'c';
+
+	/** COPY failed */
+	public static final byte COPY_FAIL = 'f';
+
 	// ========== Backend (Server -> Client) Message Types ==========
 
 	/** Authentication request */
@@ -103,6 +112,15 @@ public abstract class PgMessage {
 	/** Parameter description */
 	public static final byte PARAMETER_DESCRIPTION = 't';
 
+	/** Portal suspended */
+	public static final byte PORTAL_SUSPENDED = 's';
+
+	/** COPY in response (server ready for COPY FROM STDIN data) */
+	public static final byte COPY_IN_RESPONSE = 'G';
+
+	/** COPY out response (server starting COPY TO STDOUT data) */
+	public static final byte COPY_OUT_RESPONSE = 'H';
+
 	// ========== Helper Methods ==========
 
 	/**
@@ -162,6 +162,16 @@ public class PgMessageDecoder extends ByteToMessageDecoder {
 				String password = readCString(in);
 				out.add(new PasswordMessage(password));
 			}
+			case PgMessage.COPY_DATA -> {
+				byte[] data = new byte[length - 4];
+				in.readBytes(data);
+				out.add(new CopyData(data));
+			}
+			case PgMessage.COPY_DONE -> out.add(CopyDone.INSTANCE);
+			case PgMessage.COPY_FAIL -> {
+				String message = readCString(in);
+				out.add(new CopyFail(message));
+			}
 			default -> {
 				// Unknown message type - skip it
 				in.skipBytes(length - 4);
@@ -196,4 +206,7 @@ public class PgMessageDecoder extends ByteToMessageDecoder {
 	public enum Terminate { INSTANCE }
 	public record Close(byte type, String name) {}
 	public record PasswordMessage(String password) {}
+	public record CopyData(byte[] data) {}
+	public enum CopyDone { INSTANCE }
+	public record CopyFail(String message) {}
 }
@@ -1,45 +1,108 @@
 package convex.db.psql;
 
 import convex.db.psql.msg.*;
+import convex.core.data.ACell;
+import convex.core.data.AVector;
+import convex.core.data.Hash;
+import convex.core.data.Vectors;
+import convex.core.util.Utils;
+import convex.db.calcite.ConvexColumnType;
+import convex.db.calcite.ConvexSchema;
+import convex.db.lattice.SQLSchema;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
+import org.apache.calcite.jdbc.CalciteConnection;
+import org.apache.calcite.schema.SchemaPlus;
+
 /**
  * Handles the PostgreSQL wire protocol and executes SQL queries.
+ *
+ * <p>Startup and authentication run on the Netty event loop. All later
+ * messages are queued and processed in order on the query executor, so a
+ * slow query only holds up its own connection. Result rows are flushed in
+ * batches of {@link #ROW_BATCH}, and row production waits while the channel
+ * is not writable, so a large result is never buffered whole in Netty memory.
+ *
+ * <p>Statements from Parse are planned once as JDBC PreparedStatements,
+ * cached per connection by their SQL text, and reused by every Bind and
+ * Execute. Numeric, boolean and bytea values may use binary format for
+ * both parameters and results.
+ *
+ * <p>COPY FROM STDIN decodes rows as CopyData arrives and applies them to
+ * the table as one bulk write when the copy completes. COPY TO STDOUT
+ * streams a lazy table scan or query result as CopyData messages, with the
+ * same flow control as query results.
  */
 public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 
 	private static final Logger log = LoggerFactory.getLogger(PgProtocolHandler.class);
 	private static final AtomicInteger processIdCounter = new AtomicInteger(1000);
 
+	/** Number of DataRows written between flushes */
+	static final int ROW_BATCH = 256;
+
+	/** Number of queued messages at which reading from the client pauses */
+	static final int MAX_QUEUED_MESSAGES = 1024;
+
+	/** Maximum number of planned statements cached per connection */
+	static final int STATEMENT_CACHE_SIZE = 256;
+
+	/** Interval at which a writer waiting for writability rechecks the channel */
+	private static final long WRITABLE_POLL_MILLIS = 100;
+
 	private final Supplier<Connection> connectionSupplier;
 	private final String requiredPassword;
+	private final Executor executor;
 
-	private Connection connection;
+	private volatile Connection connection;
 	private String user;
 	private String database;
 	private int processId;
 	private int secretKey;
-	private boolean authenticated = false;
+	private volatile boolean authenticated = false;
+
+	// Messages waiting to be processed on the executor, in arrival order
+	private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+	private boolean draining = false;
+
+	// COPY FROM STDIN in progress, if any
+	private CopyIn copyIn;
+
+	// Signalled when the channel becomes writable or inactive
+	private final ReentrantLock writableLock = new ReentrantLock();
+	private final Condition writable = writableLock.newCondition();
 
 	/**
 	 * Creates a handler that uses the given connection supplier.
 	 *
 	 * @param connectionSupplier Supplies JDBC connections for query execution
 	 * @param requiredPassword Password required for authentication, or null for trust auth
+	 * @param executor Executor on which queries are run, off the event loop
 	 */
-	public PgProtocolHandler(Supplier<Connection> connectionSupplier, String requiredPassword) {
+	public PgProtocolHandler(Supplier<Connection> connectionSupplier, String requiredPassword, Executor executor) {
 		this.connectionSupplier = connectionSupplier;
 		this.requiredPassword = requiredPassword;
+		this.executor = executor;
 		this.processId = processIdCounter.incrementAndGet();
 		this.secretKey = ThreadLocalRandom.current().nextInt();
 	}
@@ -52,6 +115,17 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 			handleStartup(ctx, startup);
 		} else if (msg instanceof PgMessageDecoder.PasswordMessage pwd) {
 			handlePassword(ctx, pwd);
+		} else {
+			submit(ctx, () -> handleMessage(ctx, msg));
+		}
+	}
+
+	/**
+	 * Handles a message after startup, on the executor.
+	 */
+	private void handleMessage(ChannelHandlerContext ctx, Object msg) {
+		if (copyIn != null && !(msg instanceof PgMessageDecoder.Terminate)) {
+			handleCopyMessage(ctx, msg);
 		} else if (msg instanceof PgMessageDecoder.Query query) {
 			handleQuery(ctx, query);
 		} else if (msg instanceof PgMessageDecoder.Terminate) {
@@ -75,6 +149,83 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 		}
 	}
 
+	// ========== Execution Queue ==========
+
+	/**
+	 * Queues a task for this connection. Tasks run one at a time in
+	 * submission order; reading pauses while too many are queued.
+	 */
+	private void submit(ChannelHandlerContext ctx, Runnable task) {
+		synchronized (queue) {
+			queue.add(task);
+			if (queue.size() >= MAX_QUEUED_MESSAGES) ctx.channel().config().setAutoRead(false);
+			if (draining) return;
+			draining = true;
+		}
+		try {
+			executor.execute(() -> drain(ctx));
+		} catch (RejectedExecutionException e) {
+			// Server is shutting down
+			synchronized (queue) {
+				queue.clear();
+				draining = false;
+			}
+			closeConnection();
+			ctx.close();
+		}
+	}
+
+	private void drain(ChannelHandlerContext ctx) {
+		while (true) {
+			Runnable task;
+			synchronized (queue) {
+				task = queue.poll();
+				if (task == null) {
+					draining = false;
+					if (!ctx.channel().config().isAutoRead()) ctx.channel().config().setAutoRead(true);
+					return;
+				}
+			}
+			try {
+				task.run();
+			} catch (Throwable t) {
+				log.error("Protocol error", t);
+				ctx.close();
+			}
+		}
+	}
+
+	/**
+	 * Waits until the channel is writable, so that rows are produced no
+	 * faster than the client reads them.
+	 *
+	 * @throws IllegalStateException if the channel closes while waiting
+	 */
+	private void awaitWritable(ChannelHandlerContext ctx) {
+		Channel ch = ctx.channel();
+		writableLock.lock();
+		try {
+			while (!ch.isWritable()) {
+				if (!ch.isActive()) throw new IllegalStateException("Client disconnected");
+				writable.await(WRITABLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for client", e);
+		} finally {
+			writableLock.unlock();
+		}
+	}
+
+	private void signalWritable() {
+		writableLock.lock();
+		try {
+			writable.signalAll();
+		} finally {
+			writableLock.unlock();
+		}
+	}
+
 	private void handleSSLRequest(ChannelHandlerContext ctx) {
 		// Respond with 'N' - we don't support SSL
 		ByteBuf buf = ctx.alloc().buffer(1);
@@ -166,8 +317,22 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 		// Note: This is a simple split - doesn't handle semicolons in strings
 		String[] statements = fullSql.split(";");
 
-		for (String sql : statements) {
-			sql = sql.trim();
+		if (executeStatements(ctx, statements, 0)) {
+			write(ctx, ReadyForQuery.IDLE_INSTANCE);
+			ctx.flush();
+		}
+	}
+
+	/**
+	 * Executes simple query statements from the given index, stopping at the
+	 * first error.
+	 *
+	 * @return false if a COPY FROM STDIN has started, which executes the
+	 *         remaining statements once it completes; true otherwise
+	 */
+	private boolean executeStatements(ChannelHandlerContext ctx, String[] statements, int from) {
+		for (int i = from; i < statements.length; i++) {
+			String sql = statements[i].trim();
 			if (sql.isEmpty()) {
 				continue;
 			}
@@ -180,7 +345,16 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 			}
 
 			try {
-				executeQuery(ctx, sql);
+				if (PgCopy.isCopy(sql)) {
+					PgCopy.Command copy = PgCopy.parse(sql);
+					if (copy.in()) {
+						startCopyIn(ctx, copy, statements, i + 1);
+						return false;
+					}
+					copyOut(ctx, copy);
+				} else {
+					executeQuery(ctx, sql);
+				}
 			} catch (SQLException e) {
 				log.warn("Query error: {}", e.getMessage(), e);
 				write(ctx, ErrorResponse.fromException(e));
@@ -197,9 +371,7 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 				break;
 			}
 		}
-
-		write(ctx, ReadyForQuery.IDLE_INSTANCE);
-		ctx.flush();
+		return true;
 	}
 
 	private void executeQuery(ChannelHandlerContext ctx, String sql) throws SQLException {
@@ -211,31 +383,56 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 			return;
 		}
 
-		try (Statement stmt = connection.createStatement()) {
-			boolean hasResultSet = stmt.execute(sql);
+		try (OpenCursor cursor = executeStatement(ctx, sql)) {
+			if (cursor != null) {
+				write(ctx, RowDescription.fromMetaData(cursor.rs.getMetaData()));
+				long rowCount = sendRows(ctx, cursor, 0);
+				write(ctx, CommandComplete.select(rowCount));
+			}
+		}
+	}
 
-			if (hasResultSet) {
-				try (ResultSet rs = stmt.getResultSet()) {
-					sendResultSet(ctx, rs);
-				}
-			} else {
-				int updateCount = stmt.getUpdateCount();
-				String upperSql = sql.toUpperCase().trim();
-
-				if (upperSql.startsWith("INSERT")) {
-					write(ctx, CommandComplete.insert(updateCount));
-				} else if (upperSql.startsWith("UPDATE")) {
-					write(ctx, CommandComplete.update(updateCount));
-				} else if (upperSql.startsWith("DELETE")) {
-					write(ctx, CommandComplete.delete(updateCount));
-				} else if (upperSql.startsWith("CREATE")) {
-					write(ctx, CommandComplete.createTable());
-				} else if (upperSql.startsWith("DROP")) {
-					write(ctx, CommandComplete.dropTable());
-				} else {
-					write(ctx, new CommandComplete("OK"));
-				}
+	/**
+	 * Executes a statement. Returns an open cursor if it produced a result
+	 * set, otherwise writes CommandComplete and returns null.
+	 */
+	private OpenCursor executeStatement(ChannelHandlerContext ctx, String sql) throws SQLException {
+		Statement stmt = connection.createStatement();
+		boolean open = false;
+		try {
+			if (stmt.execute(sql)) {
+				OpenCursor cursor = new OpenCursor(stmt, stmt.getResultSet(), true, null);
+				open = true;
+				return cursor;
 			}
+			writeCommandComplete(ctx, sql, stmt.getUpdateCount());
+			// Schema changes invalidate cached plans
+			if (sql.trim().toUpperCase().matches("(?s)(CREATE|DROP|ALTER)\\b.*")) clearStatementCache();
+			return null;
+		} finally {
+			if (!open) stmt.close();
+		}
+	}
+
+	private void writeCommandComplete(ChannelHandlerContext ctx, String sql, int updateCount) {
+		String upperSql = sql.toUpperCase().trim();
+
+		if (upperSql.startsWith("INSERT")) {
+			write(ctx, CommandComplete.insert(updateCount));
+		} else if (upperSql.startsWith("UPDATE")) {
+			write(ctx, CommandComplete.update(updateCount));
+		} else if (upperSql.startsWith("DELETE")) {
+			write(ctx, CommandComplete.delete(updateCount));
+		} else if (upperSql.matches("(?s)CREATE\\s+INDEX\\b.*")) {
+			write(ctx, CommandComplete.createIndex());
+		} else if (upperSql.matches("(?s)DROP\\s+INDEX\\b.*")) {
+			write(ctx, CommandComplete.dropIndex());
+		} else if (upperSql.startsWith("CREATE")) {
+			write(ctx, CommandComplete.createTable());
+		} else if (upperSql.startsWith("DROP")) {
+			write(ctx, CommandComplete.dropTable());
+		} else {
+			write(ctx, new CommandComplete("OK"));
 		}
 	}
 
@@ -333,30 +530,293 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 		return sql;
 	}
 
-	private void sendResultSet(ChannelHandlerContext ctx, ResultSet rs) throws SQLException {
-		ResultSetMetaData meta = rs.getMetaData();
-		int columnCount = meta.getColumnCount();
+	/**
+	 * Writes up to maxRows rows of a cursor, or all remaining rows if maxRows
+	 * is zero. Rows are flushed every {@link #ROW_BATCH} rows, waiting for the
+	 * channel to become writable before producing more.
+	 *
+	 * @return Number of rows written
+	 */
+	private long sendRows(ChannelHandlerContext ctx, OpenCursor cursor, int maxRows) throws SQLException {
+		long sent = 0;
+		while (maxRows <= 0 || sent < maxRows) {
+			if (!cursor.rs.next()) {
+				cursor.exhausted = true;
+				break;
+			}
+			write(ctx, DataRow.fromResultSet(cursor.rs, cursor.columnCount, cursor.typeOids, cursor.formats));
+			if (++sent % ROW_BATCH == 0) {
+				ctx.flush();
+				awaitWritable(ctx);
+			}
+		}
+		return sent;
+	}
+
+	/**
+	 * An open result set with its statement. Kept between Execute messages
+	 * while its portal is suspended.
+	 */
+	private static final class OpenCursor implements AutoCloseable {
+		final Statement stmt;
+		final ResultSet rs;
+		final int columnCount;
+		final int[] typeOids;
+		final short[] formats;
+		/** Whether closing the cursor closes the statement, i.e. it is not cached */
+		boolean ownsStatement;
+		boolean exhausted = false;
+
+		/**
+		 * @param resultFormats Result format codes requested in Bind, or null for text
+		 */
+		OpenCursor(Statement stmt, ResultSet rs, boolean ownsStatement, short[] resultFormats) throws SQLException {
+			this.stmt = stmt;
+			this.rs = rs;
+			this.ownsStatement = ownsStatement;
+			ResultSetMetaData meta = rs.getMetaData();
+			this.columnCount = meta.getColumnCount();
+			this.typeOids = RowDescription.typeOids(meta);
+			this.formats = RowDescription.resolveFormats(typeOids, resultFormats);
+		}
 
-		// Send row description
-		write(ctx, RowDescription.fromMetaData(meta));
+		@Override
+		public void close() {
+			try {
+				if (ownsStatement) {
+					stmt.close(); // also closes the result set
+				} else {
+					rs.close();
+				}
+			} catch (SQLException e) {
+				log.warn("Error closing statement", e);
+			}
+		}
+	}
+
+	// ========== COPY ==========
+
+	/**
+	 * State of a COPY FROM STDIN in progress. Decoded rows are held until
+	 * CopyDone, then written to the table in one batch, so a failed or
+	 * cancelled copy leaves the table unchanged.
+	 */
+	private static final class CopyIn {
+		final SQLSchema tables;
+		final String table;
+		final ConvexColumnType[] types;
+		/** Table column position of each copied field */
+		final int[] positions;
+		final PgCopy.Decoder decoder;
+		final List<AVector<ACell>> rows = new ArrayList<>();
+		/** Simple query statements to execute after the copy */
+		final String[] statements;
+		final int next;
+		/** Set when the copy has failed, after which data is discarded */
+		boolean failed;
+
+		CopyIn(SQLSchema tables, String table, int[] positions, PgCopy.Options options, String[] statements, int next) {
+			this.tables = tables;
+			this.table = table;
+			this.types = tables.getColumnTypes(table);
+			this.positions = positions;
+			this.decoder = new PgCopy.Decoder(options, this::addRow);
+			this.statements = statements;
+			this.next = next;
+		}
+
+		private void addRow(Object[] fields) {
+			if (fields.length != positions.length) {
+				throw new IllegalArgumentException("Row " + (rows.size() + 1) + " has " + fields.length
+					+ " columns, expected " + positions.length);
+			}
+			ACell[] cells = new ACell[types.length];
+			for (int i = 0; i < fields.length; i++) {
+				int col = positions[i];
+				cells[col] = types[col].toCell(PgCopy.toValue(types[col].getBaseType(), fields[i]));
+			}
+			if (cells[0] == null) {
+				throw new IllegalArgumentException("Row " + (rows.size() + 1) + " has a null primary key");
+			}
+			rows.add(Vectors.create(cells));
+		}
+	}
+
+	/**
+	 * Starts a COPY FROM STDIN: resolves the target table and columns and
+	 * asks the client for data.
+	 */
+	private void startCopyIn(ChannelHandlerContext ctx, PgCopy.Command copy, String[] statements, int next) throws SQLException {
+		SQLSchema tables = convexTables();
+		String table = resolveName(tables.getTableNames(), PgCopy.identifierName(copy.table()));
+		if (table == null) {
+			throw new SQLException("relation \"" + copy.table() + "\" does not exist", "42P01");
+		}
+		String[] columns = tables.getColumnNames(table);
+		int[] positions = new int[copy.columns().isEmpty() ? columns.length : copy.columns().size()];
+		for (int i = 0; i < positions.length; i++) {
+			if (copy.columns().isEmpty()) {
+				positions[i] = i;
+				continue;
+			}
+			String name = PgCopy.identifierName(copy.columns().get(i));
+			String column = resolveName(columns, name);
+			if (column == null) {
+				throw new SQLException("column \"" + name + "\" of relation \"" + table + "\" does not exist", "42703");
+			}
+			positions[i] = List.of(columns).indexOf(column);
+		}
+		copyIn = new CopyIn(tables, table, positions, copy.options(), statements, next);
+		write(ctx, new CopyInResponse(copy.options().binary(), positions.length));
+		ctx.flush();
+	}
 
-		// Send data rows
-		long rowCount = 0;
-		while (rs.next()) {
-			write(ctx, DataRow.fromResultSet(rs, columnCount));
-			rowCount++;
+	/**
+	 * Handles a message while a COPY FROM STDIN is in progress.
+	 */
+	private void handleCopyMessage(ChannelHandlerContext ctx, Object msg) {
+		CopyIn copy = copyIn;
+		if (msg instanceof PgMessageDecoder.CopyData data) {
+			if (copy.failed) return;
+			try {
+				copy.decoder.accept(data.data());
+			} catch (RuntimeException e) {
+				failCopy(ctx, copy, e);
+			}
+		} else if (msg instanceof PgMessageDecoder.CopyDone) {
+			copyIn = null;
+			boolean done = true;
+			if (!copy.failed) {
+				try {
+					copy.decoder.finish();
+					if (!copy.rows.isEmpty()) copy.tables.insertAll(copy.table, copy.rows);
+					write(ctx, CommandComplete.copy(copy.rows.size()));
+					done = executeStatements(ctx, copy.statements, copy.next);
+				} catch (RuntimeException e) {
+					log.warn("COPY error: {}", e.getMessage(), e);
+					write(ctx, ErrorResponse.fromException(e));
+				}
+			}
+			if (done) {
+				write(ctx, ReadyForQuery.IDLE_INSTANCE);
+				ctx.flush();
+			}
+		} else if (msg instanceof PgMessageDecoder.CopyFail fail) {
+			copyIn = null;
+			if (!copy.failed) {
+				write(ctx, ErrorResponse.builder()
+					.severity("ERROR")
+					.code("57014") // query_canceled
+					.message("COPY from stdin failed: " + fail.message())
+					.build());
+			}
+			write(ctx, ReadyForQuery.IDLE_INSTANCE);
+			ctx.flush();
+		} else if (msg instanceof PgMessageDecoder.Flush || msg instanceof PgMessageDecoder.Sync) {
+			// Ignored during COPY, as by PostgreSQL
+		} else {
+			copyIn = null;
+			write(ctx, ErrorResponse.builder()
+				.severity("ERROR")
+				.code("08P01") // protocol_violation
+				.message("Unexpected message type during COPY from stdin")
+				.build());
+			write(ctx, ReadyForQuery.IDLE_INSTANCE);
+			ctx.flush();
 		}
+	}
 
-		// Send command complete
-		write(ctx, CommandComplete.select(rowCount));
+	/**
+	 * Fails a COPY FROM STDIN part way through. The error is reported at
+	 * once; further data is discarded until the client ends the copy.
+	 */
+	private void failCopy(ChannelHandlerContext ctx, CopyIn copy, RuntimeException e) {
+		log.warn("COPY error: {}", e.getMessage());
+		copy.failed = true;
+		copy.rows.clear();
+		write(ctx, ErrorResponse.fromException(e));
+		ctx.flush();
+	}
+
+	/**
+	 * Executes a COPY TO STDOUT, streaming the rows of a table or query as
+	 * CopyData messages.
+	 */
+	private void copyOut(ChannelHandlerContext ctx, PgCopy.Command copy) throws SQLException {
+		String sql = (copy.query() != null) ? rewriteQuery(copy.query())
+			: "SELECT " + (copy.columns().isEmpty() ? "*" : String.join(", ", copy.columns())) + " FROM " + copy.table();
+		if (sql == null) {
+			throw new SQLException("COPY is not supported for this query", "0A000");
+		}
+		PgCopy.Options options = copy.options();
+		try (Statement stmt = connection.createStatement();
+			 ResultSet rs = stmt.executeQuery(sql)) {
+			ResultSetMetaData meta = rs.getMetaData();
+			int columnCount = meta.getColumnCount();
+			int[] typeOids = RowDescription.typeOids(meta);
+			write(ctx, new CopyOutResponse(options.binary(), columnCount));
+			if (options.binary()) {
+				write(ctx, new CopyData(PgCopy.binaryHeader()));
+			} else if (options.header()) {
+				String[] names = new String[columnCount];
+				for (int i = 0; i < columnCount; i++) names[i] = meta.getColumnLabel(i + 1);
+				write(ctx, new CopyData(PgCopy.encodeHeader(options, names)));
+			}
+
+			long count = 0;
+			Object[] values = new Object[columnCount];
+			while (rs.next()) {
+				for (int i = 0; i < columnCount; i++) values[i] = rs.getObject(i + 1);
+				write(ctx, new CopyData(PgCopy.encodeRow(options, values, typeOids)));
+				if (++count % ROW_BATCH == 0) {
+					ctx.flush();
+					awaitWritable(ctx);
+				}
+			}
+			if (options.binary()) write(ctx, new CopyData(PgCopy.binaryTrailer()));
+			write(ctx, CopyDone.INSTANCE);
+			write(ctx, CommandComplete.copy(count));
+		}
+	}
+
+	/**
+	 * Gets the lattice tables behind this connection, for writes that bypass
+	 * SQL planning.
+	 */
+	private SQLSchema convexTables() throws SQLException {
+		ConvexSchema convex = convexSchema();
+		if (convex == null) {
+			throw new SQLException("COPY FROM STDIN requires a Convex database", "0A000");
+		}
+		return convex.getTables();
+	}
+
+	private ConvexSchema convexSchema() throws SQLException {
+		CalciteConnection calcite = connection.unwrap(CalciteConnection.class);
+		SchemaPlus schema = calcite.getRootSchema().getSubSchema(calcite.getSchema());
+		return (schema == null) ? null : schema.unwrap(ConvexSchema.class);
+	}
+
+	/**
+	 * Finds a name, preferring an exact match, then a case-insensitive one.
+	 */
+	private static String resolveName(String[] names, String name) {
+		for (String n : names) {
+			if (n.equals(name)) return n;
+		}
+		for (String n : names) {
+			if (n.equalsIgnoreCase(name)) return n;
+		}
+		return null;
 	}
 
 	// ========== Extended Query Protocol ==========
 
 	/**
-	 * Prepared statement info - stores the query and parameter types.
+	 * Prepared statement info - stores the query and parameter types, and
+	 * for statements planned ahead, the JDBC SQL keying the cached plan.
 	 */
-	private record PreparedStmt(String query, int[] paramTypes) {}
+	private record PreparedStmt(String query, int[] paramTypes, String jdbcSql) {}
 
 	/**
 	 * Portal info - a bound prepared statement ready for execution.
@@ -367,6 +827,116 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 	private final Map<String, PreparedStmt> statements = new java.util.HashMap<>();
 	// Portals are bound statements ready to execute (Bind creates these)
 	private final Map<String, Portal> portals = new java.util.HashMap<>();
+	// Result sets of suspended portals, resumed by the next Execute
+	private final Map<String, OpenCursor> cursors = new java.util.HashMap<>();
+	// Planned JDBC statements by SQL text, least recently used first
+	private final Map<String, PreparedStatement> statementCache = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+			if (size() <= STATEMENT_CACHE_SIZE) return false;
+			release(eldest.getValue());
+			return true;
+		}
+	};
+
+	// Hash of the table definitions the cached plans were prepared against
+	private Hash cachedSchema;
+
+	/**
+	 * Gets the cached plan for JDBC SQL, preparing it if not cached. Plans
+	 * prepared before a schema change, by this or any other connection or
+	 * replica, are dropped.
+	 */
+	private PreparedStatement cachedStatement(String jdbcSql) throws SQLException {
+		ConvexSchema convex = convexSchema();
+		if (convex != null) {
+			Hash schema = convex.getTables().getSchemaHash();
+			if (!Utils.equals(schema, cachedSchema)) {
+				clearStatementCache();
+				cachedSchema = schema;
+			}
+		}
+		PreparedStatement pstmt = statementCache.get(jdbcSql);
+		if (pstmt == null || pstmt.isClosed()) {
+			pstmt = connection.prepareStatement(jdbcSql);
+			statementCache.put(jdbcSql, pstmt);
+		}
+		return pstmt;
+	}
+
+	private boolean inUse(Statement stmt) {
+		for (OpenCursor cursor : cursors.values()) {
+			if (cursor.stmt == stmt) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Closes a statement dropped from the cache, or hands it over to a
+	 * suspended cursor still reading from it.
+	 */
+	private void release(PreparedStatement pstmt) {
+		for (OpenCursor cursor : cursors.values()) {
+			if (cursor.stmt == pstmt) {
+				cursor.ownsStatement = true;
+				return;
+			}
+		}
+		try {
+			pstmt.close();
+		} catch (SQLException e) {
+			log.warn("Error closing statement", e);
+		}
+	}
+
+	private void clearStatementCache() {
+		for (PreparedStatement pstmt : statementCache.values()) release(pstmt);
+		statementCache.clear();
+	}
+
+	/**
+	 * Checks whether a rewritten query can be planned ahead as a JDBC
+	 * PreparedStatement. Catalog queries use parameter substitution instead,
+	 * and DDL and other commands are executed directly.
+	 */
+	private static boolean isPlannable(String sql) {
+		if (sql == null || isCatalogQuery(sql)) return false;
+		return sql.trim().toUpperCase().matches("(?s)(SELECT|WITH|VALUES|INSERT|UPDATE|DELETE)\\b.*");
+	}
+
+	private static boolean returnsRows(String sql) {
+		return sql.trim().toUpperCase().matches("(?s)(SELECT|WITH|VALUES)\\b.*");
+	}
+
+	private static boolean isCatalogQuery(String sql) {
+		String lowerSql = sql.toLowerCase();
+		return lowerSql.contains("pg_catalog") || lowerSql.contains("pg_database") ||
+			lowerSql.contains("pg_type") || lowerSql.contains("pg_class") ||
+			lowerSql.contains("pg_namespace") || lowerSql.contains("pg_attribute") ||
+			lowerSql.contains("pg_tables");
+	}
+
+	/**
+	 * Resolves parameter type OIDs: types declared in Parse, with unspecified
+	 * (zero) types taken from the planned statement where known.
+	 */
+	private static int[] resolveParamTypes(int[] declared, PreparedStatement pstmt) {
+		try {
+			ParameterMetaData meta = (pstmt == null) ? null : pstmt.getParameterMetaData();
+			int count = (meta == null) ? declared.length : Math.max(declared.length, meta.getParameterCount());
+			int[] types = new int[count];
+			for (int i = 0; i < count; i++) {
+				types[i] = (i < declared.length) ? declared[i] : 0;
+				if (types[i] == 0 && meta != null && i < meta.getParameterCount()) {
+					int oid = PgType.fromSqlType(meta.getParameterTypeName(i + 1));
+					if (oid != PgType.UNKNOWN) types[i] = oid;
+				}
+			}
+			return types;
+		} catch (SQLException e) {
+			return declared;
+		}
+	}
 
 	private void handleParse(ChannelHandlerContext ctx, PgMessageDecoder.Parse parse) {
 		if (!authenticated) {
@@ -382,8 +952,13 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 			// Close existing statement with same name (PostgreSQL behavior)
 			statements.remove(name);
 
+			// Plan the statement now, reusing the cached plan for the same SQL
+			String rewritten = rewriteQuery(query);
+			String jdbcSql = isPlannable(rewritten) ? rewritten.replaceAll("\\$\\d+", "?") : null;
+			PreparedStatement pstmt = (jdbcSql == null) ? null : cachedStatement(jdbcSql);
+
 			// Store the prepared statement
-			statements.put(name, new PreparedStmt(query, parse.paramTypes()));
+			statements.put(name, new PreparedStmt(query, resolveParamTypes(parse.paramTypes(), pstmt), jdbcSql));
 
 			write(ctx, ParseComplete.INSTANCE);
 		} catch (Exception e) {
@@ -416,6 +991,7 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 
 			// Close existing portal with same name (PostgreSQL behavior)
 			portals.remove(portalName);
+			closeCursor(portalName);
 
 			// Create the portal with bound parameters
 			portals.put(portalName, new Portal(stmt, bind.paramValues(), bind.paramFormats(), bind.resultFormats()));
@@ -450,21 +1026,7 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 
 				// Send parameter description
 				write(ctx, new ParameterDescription(stmt.paramTypes()));
-
-				String query = rewriteQuery(stmt.query());
-				if (query != null && query.toUpperCase().trim().startsWith("SELECT")) {
-					// Execute to get metadata (substitute $N with NULL for metadata query)
-					String metaQuery = query.replaceAll("\\$\\d+", "NULL");
-					try (Statement s = connection.createStatement();
-						 ResultSet rs = s.executeQuery(metaQuery)) {
-						write(ctx, RowDescription.fromMetaData(rs.getMetaData()));
-					} catch (SQLException e) {
-						// If metadata query fails, return NoData
-						write(ctx, NoData.INSTANCE);
-					}
-				} else {
-					write(ctx, NoData.INSTANCE);
-				}
+				describeRows(ctx, stmt, null);
 			} else {
 				// Describe portal
 				Portal portal = portals.get(describe.name());
@@ -476,19 +1038,7 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 						.build());
 					return;
 				}
-
-				String query = rewriteQuery(portal.stmt().query());
-				if (query != null && query.toUpperCase().trim().startsWith("SELECT")) {
-					String metaQuery = query.replaceAll("\\$\\d+", "NULL");
-					try (Statement s = connection.createStatement();
-						 ResultSet rs = s.executeQuery(metaQuery)) {
-						write(ctx, RowDescription.fromMetaData(rs.getMetaData()));
-					} catch (SQLException e) {
-						write(ctx, NoData.INSTANCE);
-					}
-				} else {
-					write(ctx, NoData.INSTANCE);
-				}
+				describeRows(ctx, portal.stmt(), portal.resultFormats());
 			}
 		} catch (Exception e) {
 			log.warn("Describe error: {}", e.getMessage(), e);
@@ -496,6 +1046,37 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 		}
 	}
 
+	/**
+	 * Sends the RowDescription of a statement's result, or NoData if it
+	 * returns no rows. Planned statements are described from their plan.
+	 */
+	private void describeRows(ChannelHandlerContext ctx, PreparedStmt stmt, short[] resultFormats) throws SQLException {
+		String query = rewriteQuery(stmt.query());
+		if (query == null || !returnsRows(query)) {
+			write(ctx, NoData.INSTANCE);
+			return;
+		}
+
+		if (stmt.jdbcSql() != null) {
+			ResultSetMetaData meta = cachedStatement(stmt.jdbcSql()).getMetaData();
+			if (meta != null) {
+				write(ctx, RowDescription.fromMetaData(meta, RowDescription.resolveFormats(RowDescription.typeOids(meta), resultFormats)));
+				return;
+			}
+		}
+
+		// Execute to get metadata (substitute $N with NULL for metadata query)
+		String metaQuery = query.replaceAll("\\$\\d+", "NULL");
+		try (Statement s = connection.createStatement();
+			 ResultSet rs = s.executeQuery(metaQuery)) {
+			ResultSetMetaData meta = rs.getMetaData();
+			write(ctx, RowDescription.fromMetaData(meta, RowDescription.resolveFormats(RowDescription.typeOids(meta), resultFormats)));
+		} catch (SQLException e) {
+			// If metadata query fails, return NoData
+			write(ctx, NoData.INSTANCE);
+		}
+	}
+
 	private void handleExecute(ChannelHandlerContext ctx, PgMessageDecoder.Execute execute) {
 		if (!authenticated) {
 			sendErrorAndClose(ctx, "28000", "not authenticated");
@@ -505,6 +1086,8 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 		String portalName = execute.portal();
 		log.debug("Execute: portal='{}', maxRows={}", portalName, execute.maxRows());
 
+		OpenCursor cursor = null;
+		boolean suspended = false;
 		try {
 			Portal portal = portals.get(portalName);
 			if (portal == null) {
@@ -516,13 +1099,29 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 				return;
 			}
 
-			String query = portal.stmt().query();
-			if (query == null || query.trim().isEmpty()) {
-				write(ctx, new EmptyQueryResponse());
-				return;
+			// Resume a suspended portal, or run the portal's statement
+			cursor = cursors.remove(portalName);
+			if (cursor == null) {
+				String query = portal.stmt().query();
+				if (query == null || query.trim().isEmpty()) {
+					write(ctx, new EmptyQueryResponse());
+					return;
+				}
+				cursor = (portal.stmt().jdbcSql() != null)
+					? executePlanned(ctx, portal)
+					: executeWithParameters(ctx, query, portal.paramValues(), portal.paramFormats(), portal.resultFormats());
+				if (cursor == null) return;
 			}
 
-			executeWithParameters(ctx, query, portal.paramValues(), portal.paramFormats());
+			// Row description is sent by Describe, not Execute
+			long rowCount = sendRows(ctx, cursor, execute.maxRows());
+			if (cursor.exhausted) {
+				write(ctx, CommandComplete.select(rowCount));
+			} else {
+				cursors.put(portalName, cursor);
+				suspended = true;
+				write(ctx, PortalSuspended.INSTANCE);
+			}
 		} catch (SQLException e) {
 			log.warn("Execute error: {}", e.getMessage(), e);
 			write(ctx, ErrorResponse.fromException(e));
@@ -533,81 +1132,120 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 		} catch (Exception e) {
 			log.error("Unexpected error during execute", e);
 			write(ctx, ErrorResponse.fromException(e));
+		} finally {
+			if (cursor != null && !suspended) cursor.close();
 		}
 	}
 
 	/**
-	 * Execute a query with bound parameters.
+	 * Execute a query with bound parameters. Returns an open cursor if it
+	 * produced a result set, otherwise writes CommandComplete and returns null.
 	 */
-	private void executeWithParameters(ChannelHandlerContext ctx, String sql, byte[][] paramValues, short[] paramFormats) throws SQLException {
+	private OpenCursor executeWithParameters(ChannelHandlerContext ctx, String sql, byte[][] paramValues, short[] paramFormats, short[] resultFormats) throws SQLException {
 		sql = rewriteQuery(sql);
 
 		if (sql == null) {
 			write(ctx, CommandComplete.select(0));
-			return;
+			return null;
 		}
 
 		// If no parameters, execute directly
 		if (paramValues == null || paramValues.length == 0) {
-			executeQuery(ctx, sql);
-			return;
+			return executeStatement(ctx, sql);
 		}
 
 		// For pg_catalog queries, substitute parameters directly
 		// (Calcite's virtual tables don't support prepared statements well)
-		String lowerSql = sql.toLowerCase();
-		if (lowerSql.contains("pg_catalog") || lowerSql.contains("pg_database") ||
-			lowerSql.contains("pg_type") || lowerSql.contains("pg_class") ||
-			lowerSql.contains("pg_namespace") || lowerSql.contains("pg_attribute") ||
-			lowerSql.contains("pg_tables")) {
+		if (isCatalogQuery(sql)) {
 			String substituted = substituteParameters(sql, paramValues, paramFormats);
-			executeQuery(ctx, substituted);
-			return;
+			return executeStatement(ctx, substituted);
 		}
 
 		// Convert $1, $2 to ? for JDBC
 		String jdbcSql = sql.replaceAll("\\$\\d+", "?");
 
-		try (PreparedStatement pstmt = connection.prepareStatement(jdbcSql)) {
-			// Bind parameters
-			for (int i = 0; i < paramValues.length; i++) {
-				byte[] value = paramValues[i];
-				if (value == null) {
-					pstmt.setNull(i + 1, java.sql.Types.NULL);
-				} else {
-					// Determine format: 0 = text, 1 = binary
-					short format = (paramFormats != null && paramFormats.length > 0)
-						? (paramFormats.length == 1 ? paramFormats[0] : paramFormats[i])
-						: 0;
-
-					if (format == 0) {
-						// Text format - convert bytes to string
-						String strValue = new String(value, java.nio.charset.StandardCharsets.UTF_8);
-						pstmt.setString(i + 1, strValue);
-					} else {
-						// Binary format - set as bytes
-						pstmt.setBytes(i + 1, value);
-					}
-				}
+		PreparedStatement pstmt = connection.prepareStatement(jdbcSql);
+		boolean open = false;
+		try {
+			bindParameters(pstmt, null, paramValues, paramFormats);
+
+			if (pstmt.execute()) {
+				OpenCursor cursor = new OpenCursor(pstmt, pstmt.getResultSet(), true, resultFormats);
+				open = true;
+				return cursor;
+			}
+			writeCommandComplete(ctx, sql, pstmt.getUpdateCount());
+			return null;
+		} finally {
+			if (!open) pstmt.close();
+		}
+	}
+
+	/**
+	 * Executes a portal of a planned statement with its cached plan. Returns
+	 * an open cursor if it produced a result set, otherwise writes
+	 * CommandComplete and returns null.
+	 */
+	private OpenCursor executePlanned(ChannelHandlerContext ctx, Portal portal) throws SQLException {
+		PreparedStmt stmt = portal.stmt();
+		PreparedStatement pstmt = cachedStatement(stmt.jdbcSql());
+		boolean owned = false;
+		if (inUse(pstmt)) {
+			// Another portal is still reading the cached statement's results
+			pstmt = connection.prepareStatement(stmt.jdbcSql());
+			owned = true;
+		}
+
+		boolean open = false;
+		try {
+			pstmt.clearParameters();
+			bindParameters(pstmt, stmt.paramTypes(), portal.paramValues(), portal.paramFormats());
+			if (pstmt.execute()) {
+				OpenCursor cursor = new OpenCursor(pstmt, pstmt.getResultSet(), owned, portal.resultFormats());
+				open = true;
+				return cursor;
+			}
+			writeCommandComplete(ctx, stmt.jdbcSql(), pstmt.getUpdateCount());
+			return null;
+		} finally {
+			if (owned && !open) pstmt.close();
+		}
+	}
+
+	/**
+	 * Binds parameter values to a JDBC statement. Text values are bound as
+	 * strings. Binary values are decoded by parameter type where supported,
+	 * otherwise bound as bytes.
+	 *
+	 * @param paramTypes Parameter type OIDs, or null if unknown
+	 */
+	private static void bindParameters(PreparedStatement pstmt, int[] paramTypes, byte[][] paramValues, short[] paramFormats) throws SQLException {
+		if (paramValues == null) return;
+		for (int i = 0; i < paramValues.length; i++) {
+			byte[] value = paramValues[i];
+			if (value == null) {
+				pstmt.setNull(i + 1, java.sql.Types.NULL);
+				continue;
 			}
 
-			boolean hasResultSet = pstmt.execute();
-			if (hasResultSet) {
-				try (ResultSet rs = pstmt.getResultSet()) {
-					sendResultSet(ctx, rs);
-				}
+			// Determine format: 0 = text, 1 = binary
+			short format = (paramFormats != null && paramFormats.length > 0)
+				? (paramFormats.length == 1 ? paramFormats[0] : paramFormats[i])
+				: 0;
+
+			if (format == 0) {
+				// Text format - convert bytes to string
+				pstmt.setString(i + 1, new String(value, java.nio.charset.StandardCharsets.UTF_8));
+				continue;
+			}
+
+			int oid = (paramTypes != null && i < paramTypes.length) ? paramTypes[i] : 0;
+			Object decoded = PgType.supportsBinary(oid) ? PgType.decodeBinary(oid, value) : null;
+			if (decoded == null || decoded instanceof byte[]) {
+				// Binary format without a known type - set as bytes
+				pstmt.setBytes(i + 1, value);
 			} else {
-				int updateCount = pstmt.getUpdateCount();
-				String upperSql = sql.toUpperCase().trim();
-				if (upperSql.startsWith("INSERT")) {
-					write(ctx, CommandComplete.insert(updateCount));
-				} else if (upperSql.startsWith("UPDATE")) {
-					write(ctx, CommandComplete.update(updateCount));
-				} else if (upperSql.startsWith("DELETE")) {
-					write(ctx, CommandComplete.delete(updateCount));
-				} else {
-					write(ctx, new CommandComplete("OK"));
-				}
+				pstmt.setObject(i + 1, decoded);
 			}
 		}
 	}
@@ -677,6 +1315,7 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 			statements.remove(close.name());
 		} else {
 			portals.remove(close.name());
+			closeCursor(close.name());
 		}
 
 		write(ctx, CloseComplete.INSTANCE);
@@ -693,12 +1332,29 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 	}
 
 	private void handleSync(ChannelHandlerContext ctx) {
+		// Sync ends an implicit transaction, which closes its portals
+		try {
+			if (connection != null && connection.getAutoCommit()) closeCursors();
+		} catch (SQLException e) {
+			log.warn("Error checking auto-commit", e);
+		}
 		write(ctx, ReadyForQuery.IDLE_INSTANCE);
 		ctx.flush();
 	}
 
+	private void closeCursor(String portalName) {
+		OpenCursor cursor = cursors.remove(portalName);
+		if (cursor != null) cursor.close();
+	}
+
+	private void closeCursors() {
+		for (OpenCursor cursor : cursors.values()) cursor.close();
+		cursors.clear();
+	}
+
 	private void handleTerminate(ChannelHandlerContext ctx) {
 		log.debug("Client terminated connection");
+		closeCursors();
 		closeConnection();
 		ctx.close();
 	}
@@ -710,6 +1366,8 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 	}
 
 	private void closeConnection() {
+		// Cached statements are closed with the connection
+		statementCache.clear();
 		if (connection != null) {
 			try {
 				connection.close();
@@ -720,15 +1378,25 @@ public class PgProtocolHandler extends ChannelInboundHandlerAdapter {
 		}
 	}
 
+	@Override
+	public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+		signalWritable();
+		ctx.fireChannelWritabilityChanged();
+	}
+
 	@Override
 	public void channelInactive(ChannelHandlerContext ctx) {
-		closeConnection();
+		// Wake any query waiting to write, then close after queued work
+		signalWritable();
+		submit(ctx, () -> {
+			closeCursors();
+			closeConnection();
+		});
 	}
 
 	@Override
 	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
 		log.error("Protocol error", cause);
-		closeConnection();
 		ctx.close();
 	}
 
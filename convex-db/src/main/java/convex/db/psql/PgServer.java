@@ -11,6 +11,8 @@ import org.slf4j.LoggerFactory;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
@@ -37,6 +39,10 @@ import java.util.function.Supplier;
  * // Connect with psql:
  * // psql -h localhost -p 5432 -d mydb
  * </pre>
+ *
+ * <p>Queries run on a bounded pool of virtual threads rather than on the
+ * Netty event loops, so a long-running query does not stall other
+ * connections sharing its event loop.
  */
 public class PgServer {
 
@@ -46,9 +52,11 @@ public class PgServer {
 	private final String database;
 	private final String password;
 	private final Supplier<Connection> connectionSupplier;
+	private final int queryThreads;
 
 	private EventLoopGroup bossGroup;
 	private EventLoopGroup workerGroup;
+	private ExecutorService queryExecutor;
 	private Channel serverChannel;
 	private final AtomicBoolean running = new AtomicBoolean(false);
 
@@ -56,6 +64,7 @@ public class PgServer {
 		this.port = builder.port;
 		this.database = builder.database;
 		this.password = builder.password;
+		this.queryThreads = builder.queryThreads;
 
 		if (builder.connectionSupplier != null) {
 			this.connectionSupplier = builder.connectionSupplier;
@@ -86,6 +95,7 @@ public class PgServer {
 			new io.netty.util.concurrent.DefaultThreadFactory("pg-worker", true);
 		bossGroup = new NioEventLoopGroup(1, bossFactory);
 		workerGroup = new NioEventLoopGroup(0, workerFactory);
+		queryExecutor = Executors.newFixedThreadPool(queryThreads, Thread.ofVirtual().name("pg-query-", 0).factory());
 
 		try {
 			ServerBootstrap b = new ServerBootstrap();
@@ -96,7 +106,7 @@ public class PgServer {
 					protected void initChannel(SocketChannel ch) {
 						ch.pipeline().addLast(
 							new PgMessageDecoder(),
-							new PgProtocolHandler(connectionSupplier, password)
+							new PgProtocolHandler(connectionSupplier, password, queryExecutor)
 						);
 					}
 				})
@@ -168,6 +178,10 @@ public class PgServer {
 			}
 			bossGroup = null;
 		}
+		if (queryExecutor != null) {
+			queryExecutor.shutdownNow();
+			queryExecutor = null;
+		}
 	}
 
 	/**
@@ -199,6 +213,7 @@ public class PgServer {
 		private String database = "convex";
 		private String password = null;
 		private Supplier<Connection> connectionSupplier = null;
+		private int queryThreads = 64;
 
 		/**
 		 * Sets the port to listen on. Default is 5432.
@@ -233,6 +248,16 @@ public class PgServer {
 			return this;
 		}
 
+		/**
+		 * Sets the maximum number of queries executing at once across all
+		 * connections. Default is 64.
+		 */
+		public Builder queryThreads(int queryThreads) {
+			if (queryThreads < 1) throw new IllegalArgumentException("queryThreads must be at least 1");
+			this.queryThreads = queryThreads;
+			return this;
+		}
+
 		/**
 		 * Builds the PgServer.
 		 */
@@ -1,5 +1,7 @@
 package convex.db.psql;
 
+import java.nio.ByteBuffer;
+
 /**
  * PostgreSQL type OIDs for the wire protocol.
  *
@@ -80,4 +82,55 @@ public final class PgType {
 			default -> -1; // Variable length
 		};
 	}
+
+	/**
+	 * Returns true if values of a type can be sent and received in binary format.
+	 */
+	public static boolean supportsBinary(int oid) {
+		return switch (oid) {
+			case BOOL, INT2, INT4, INT8, FLOAT4, FLOAT8, BYTEA -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Decodes a binary format parameter value.
+	 *
+	 * @param oid Parameter type OID, which must support binary format
+	 * @param value Binary value in network byte order
+	 * @return Java value for JDBC, or null if the type has no binary decoding
+	 */
+	public static Object decodeBinary(int oid, byte[] value) {
+		ByteBuffer buf = ByteBuffer.wrap(value);
+		return switch (oid) {
+			case BOOL -> value[0] != 0;
+			case INT2 -> (long) buf.getShort();
+			case INT4 -> (long) buf.getInt();
+			case INT8 -> buf.getLong();
+			case FLOAT4 -> (double) buf.getFloat();
+			case FLOAT8 -> buf.getDouble();
+			case BYTEA -> value;
+			default -> null;
+		};
+	}
+
+	/**
+	 * Encodes a result value in binary format.
+	 *
+	 * @param oid Column type OID, which must support binary format
+	 * @param value Non-null JDBC value
+	 * @return Binary value in network byte order
+	 */
+	public static byte[] encodeBinary(int oid, Object value) {
+		return switch (oid) {
+			case BOOL -> new byte[] {(byte) (Boolean.TRUE.equals(value) ? 1 : 0)};
+			case INT2 -> ByteBuffer.allocate(2).putShort(((Number) value).shortValue()).array();
+			case INT4 -> ByteBuffer.allocate(4).putInt(((Number) value).intValue()).array();
+			case INT8 -> ByteBuffer.allocate(8).putLong(((Number) value).longValue()).array();
+			case FLOAT4 -> ByteBuffer.allocate(4).putFloat(((Number) value).floatValue()).array();
+			case FLOAT8 -> ByteBuffer.allocate(8).putDouble(((Number) value).doubleValue()).array();
+			case BYTEA -> (byte[]) value;
+			default -> throw new IllegalArgumentException("No binary format for type " + oid);
+		};
+	}
 }
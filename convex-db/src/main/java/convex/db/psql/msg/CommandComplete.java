@@ -50,6 +50,10 @@ public class CommandComplete extends PgMessage {
 		return new CommandComplete("DELETE " + rowCount);
 	}
 
+	public static CommandComplete copy(long rowCount) {
+		return new CommandComplete("COPY " + rowCount);
+	}
+
 	public static CommandComplete createTable() {
 		return new CommandComplete("CREATE TABLE");
 	}
@@ -58,6 +62,14 @@ public class CommandComplete extends PgMessage {
 		return new CommandComplete("DROP TABLE");
 	}
 
+	public static CommandComplete createIndex() {
+		return new CommandComplete("CREATE INDEX");
+	}
+
+	public static CommandComplete dropIndex() {
+		return new CommandComplete("DROP INDEX");
+	}
+
 	public static CommandComplete begin() {
 		return new CommandComplete("BEGIN");
 	}
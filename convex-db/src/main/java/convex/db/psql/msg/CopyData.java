@@ -0,0 +1,28 @@
+package convex.db.psql.msg;
+
+import convex.db.psql.PgMessage;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * CopyData message - a chunk of COPY TO STDOUT data, one row per message.
+ */
+public class CopyData extends PgMessage {
+
+	private final byte[] data;
+
+	public CopyData(byte[] data) {
+		this.data = data;
+	}
+
+	@Override
+	public byte getType() {
+		return COPY_DATA;
+	}
+
+	@Override
+	public void write(ByteBuf buf) {
+		buf.writeByte(COPY_DATA);
+		buf.writeInt(4 + data.length);
+		buf.writeBytes(data);
+	}
+}
@@ -0,0 +1,25 @@
+package convex.db.psql.msg;
+
+import convex.db.psql.PgMessage;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * CopyDone message - ends COPY TO STDOUT data.
+ */
+public class CopyDone extends PgMessage {
+
+	public static final CopyDone INSTANCE = new CopyDone();
+
+	private CopyDone() {}
+
+	@Override
+	public byte getType() {
+		return COPY_DONE;
+	}
+
+	@Override
+	public void write(ByteBuf buf) {
+		buf.writeByte(COPY_DONE);
+		buf.writeInt(4);
+	}
+}
@@ -0,0 +1,36 @@
+package convex.db.psql.msg;
+
+import convex.db.psql.PgMessage;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * CopyInResponse message - the server is ready to receive COPY FROM STDIN data
+ * as CopyData messages.
+ */
+public class CopyInResponse extends PgMessage {
+
+	private final boolean binary;
+	private final int columnCount;
+
+	public CopyInResponse(boolean binary, int columnCount) {
+		this.binary = binary;
+		this.columnCount = columnCount;
+	}
+
+	@Override
+	public byte getType() {
+		return COPY_IN_RESPONSE;
+	}
+
+	@Override
+	public void write(ByteBuf buf) {
+		short format = (short) (binary ? 1 : 0);
+		buf.writeByte(COPY_IN_RESPONSE);
+		buf.writeInt(4 + 1 + 2 + 2 * columnCount);
+		buf.writeByte(format);
+		buf.writeShort(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			buf.writeShort(format);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package convex.db.psql.msg;
+
+import convex.db.psql.PgMessage;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * CopyOutResponse message - the server is about to send COPY TO STDOUT data
+ * as CopyData messages.
+ */
+public class CopyOutResponse extends PgMessage {
+
+	private final boolean binary;
+	private final int columnCount;
+
+	public CopyOutResponse(boolean binary, int columnCount) {
+		this.binary = binary;
+		this.columnCount = columnCount;
+	}
+
+	@Override
+	public byte getType() {
+		return COPY_OUT_RESPONSE;
+	}
+
+	@Override
+	public void write(ByteBuf buf) {
+		short format = (short) (binary ? 1 : 0);
+		buf.writeByte(COPY_OUT_RESPONSE);
+		buf.writeInt(4 + 1 + 2 + 2 * columnCount);
+		buf.writeByte(format);
+		buf.writeShort(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			buf.writeShort(format);
+		}
+	}
+}
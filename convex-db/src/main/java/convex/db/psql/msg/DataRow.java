@@ -1,6 +1,7 @@
 package convex.db.psql.msg;
 
 import convex.db.psql.PgMessage;
+import convex.db.psql.PgType;
 import io.netty.buffer.ByteBuf;
 
 import java.nio.charset.StandardCharsets;
@@ -22,12 +23,25 @@ public class DataRow extends PgMessage {
 	 * Creates a DataRow from a JDBC ResultSet (current row).
 	 */
 	public static DataRow fromResultSet(ResultSet rs, int columnCount) throws SQLException {
+		return fromResultSet(rs, columnCount, null, null);
+	}
+
+	/**
+	 * Creates a DataRow from a JDBC ResultSet (current row), encoding columns
+	 * with format code 1 in binary.
+	 *
+	 * @param typeOids Column type OIDs, or null if all columns are text
+	 * @param formats Format code per column, or null for all text
+	 */
+	public static DataRow fromResultSet(ResultSet rs, int columnCount, int[] typeOids, short[] formats) throws SQLException {
 		byte[][] values = new byte[columnCount][];
 		for (int i = 0; i < columnCount; i++) {
 			int col = i + 1;
 			Object obj = rs.getObject(col);
 			if (obj == null || rs.wasNull()) {
 				values[i] = null;
+			} else if (formats != null && formats[i] == 1) {
+				values[i] = PgType.encodeBinary(typeOids[i], obj);
 			} else {
 				values[i] = formatValue(obj);
 			}
@@ -42,22 +56,24 @@ public class DataRow extends PgMessage {
 		if (obj == null) {
 			return null;
 		}
+		return formatText(obj).getBytes(StandardCharsets.UTF_8);
+	}
 
-		String text;
+	/**
+	 * Formats a non-null value in PostgreSQL text format.
+	 */
+	public static String formatText(Object obj) {
 		if (obj instanceof Boolean b) {
-			text = b ? "t" : "f";
+			return b ? "t" : "f";
 		} else if (obj instanceof byte[] bytes) {
 			// Format as hex with \x prefix
 			StringBuilder sb = new StringBuilder("\\x");
 			for (byte b : bytes) {
 				sb.append(String.format("%02x", b & 0xff));
 			}
-			text = sb.toString();
-		} else {
-			text = obj.toString();
+			return sb.toString();
 		}
-
-		return text.getBytes(StandardCharsets.UTF_8);
+		return obj.toString();
 	}
 
 	@Override
@@ -0,0 +1,26 @@
+package convex.db.psql.msg;
+
+import convex.db.psql.PgMessage;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * PortalSuspended message - sent when Execute stops at its row limit
+ * before the portal's result set is exhausted.
+ */
+public class PortalSuspended extends PgMessage {
+
+	public static final PortalSuspended INSTANCE = new PortalSuspended();
+
+	private PortalSuspended() {}
+
+	@Override
+	public byte getType() {
+		return PORTAL_SUSPENDED;
+	}
+
+	@Override
+	public void write(ByteBuf buf) {
+		buf.writeByte(PORTAL_SUSPENDED);
+		buf.writeInt(4);
+	}
+}
@@ -23,6 +23,17 @@ public class RowDescription extends PgMessage {
 	 * Creates a RowDescription from JDBC ResultSetMetaData.
 	 */
 	public static RowDescription fromMetaData(ResultSetMetaData meta) throws SQLException {
+		return fromMetaData(meta, null);
+	}
+
+	/**
+	 * Creates a RowDescription from JDBC ResultSetMetaData with the given
+	 * column format codes.
+	 *
+	 * @param meta Result metadata
+	 * @param formats Format code per column (0 = text, 1 = binary), or null for all text
+	 */
+	public static RowDescription fromMetaData(ResultSetMetaData meta, short[] formats) throws SQLException {
 		int count = meta.getColumnCount();
 		Column[] columns = new Column[count];
 		for (int i = 0; i < count; i++) {
@@ -36,7 +47,8 @@ public class RowDescription extends PgMessage {
 			int typeLen = PgType.typeLength(typeOid);
 			int precision = meta.getPrecision(colIndex);
 
-			columns[i] = new Column(name, 0, 0, typeOid, (short) typeLen, precision, 0);
+			int format = (formats == null) ? 0 : formats[i];
+			columns[i] = new Column(name, 0, 0, typeOid, (short) typeLen, precision, format);
 		}
 		return new RowDescription(columns);
 	}
@@ -71,6 +83,36 @@ public class RowDescription extends PgMessage {
 		return columns[index];
 	}
 
+	/**
+	 * Gets the type OIDs of result columns.
+	 */
+	public static int[] typeOids(ResultSetMetaData meta) throws SQLException {
+		int[] oids = new int[meta.getColumnCount()];
+		for (int i = 0; i < oids.length; i++) {
+			oids[i] = PgType.fromSqlType(meta.getColumnTypeName(i + 1));
+		}
+		return oids;
+	}
+
+	/**
+	 * Resolves the format code of each result column from the format codes
+	 * requested in Bind. Binary is used only for types that support it.
+	 *
+	 * @param typeOids Column type OIDs
+	 * @param requested Requested format codes: none for all text, one for all
+	 *        columns, or one per column
+	 * @return Format code per column
+	 */
+	public static short[] resolveFormats(int[] typeOids, short[] requested) {
+		short[] formats = new short[typeOids.length];
+		if (requested == null || requested.length == 0) return formats;
+		for (int i = 0; i < formats.length; i++) {
+			short f = (requested.length == 1) ? requested[0] : (i < requested.length ? requested[i] : 0);
+			formats[i] = (f == 1 && PgType.supportsBinary(typeOids[i])) ? (short) 1 : (short) 0;
+		}
+		return formats;
+	}
+
 	/**
 	 * Describes a single column in a row.
 	 */
@@ -8,9 +8,15 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 
 import convex.core.crypto.AKeyPair;
+import convex.core.data.ABlob;
 import convex.core.data.ACell;
 import convex.core.data.AHashMap;
 
@@ -20,9 +26,12 @@ import convex.core.data.Index;
 import convex.core.data.Keyword;
 import convex.core.data.SignedData;
 import convex.core.data.Strings;
+import convex.core.data.Vectors;
 import convex.core.data.prim.CVMLong;
 import convex.db.ConvexDB;
+import convex.db.lattice.SQLIndex;
 import convex.db.lattice.SQLSchema;
+import convex.db.lattice.SQLTable;
 import convex.db.lattice.SQLDatabase;
 import convex.lattice.LatticeContext;
 import convex.lattice.cursor.ALatticeCursor;
@@ -205,6 +214,114 @@ public class SQLDatabaseTest {
 		assertNotNull(db1.tables().selectByKey("counter", CVMLong.create(2)));
 	}
 
+	@Test
+	public void testSecondaryIndex() {
+		AKeyPair kp = AKeyPair.generate();
+		SQLDatabase db = SQLDatabase.create("testdb", kp);
+		SQLSchema tables = db.tables();
+
+		tables.createTable("users", new String[]{"id", "email"});
+		tables.insert("users", 1, "a@x.com");
+		tables.insert("users", 2, "b@x.com");
+		assertTrue(tables.createIndex("users_email", "users", "email"));
+		assertFalse(tables.createIndex("users_email", "users", "email"));
+		assertThrows(IllegalArgumentException.class, () -> tables.createIndex("bad", "users", "nope"));
+		assertTrue(tables.indexExists("users_email"));
+
+		// Updates, deletes and NULLs maintain the index incrementally
+		tables.insert("users", 3, "c@x.com");
+		tables.insert("users", 2, "b2@x.com");
+		tables.insert("users", 4, null);
+		tables.deleteByKey("users", CVMLong.create(1));
+		SQLTable table = tables.getLiveTable("users");
+		var entries = table.getIndexEntries(1);
+		assertEquals(SQLIndex.build(table.getRows(), 1), entries);
+		assertEquals(2, entries.count());
+		assertNull(entries.get(SQLIndex.encodeValue(Strings.create("b@x.com"))));
+		assertNotNull(entries.get(SQLIndex.encodeValue(Strings.create("b2@x.com"))));
+
+		assertTrue(tables.dropIndex("users_email"));
+		assertFalse(tables.dropIndex("users_email"));
+		assertNull(table.getIndexEntries(1));
+	}
+
+	@Test
+	public void testSecondaryIndexMerge() {
+		AKeyPair kp = AKeyPair.generate();
+		SQLDatabase db = SQLDatabase.create("testdb", kp);
+		SQLSchema tables = db.tables();
+		tables.createTable("t", new String[]{"id", "v"});
+		for (int i = 0; i < 20; i++) tables.insert("t", i, i % 5);
+		tables.createIndex("t_v", "t", "v");
+
+		// Replicas diverge, one of them before the index existed
+		SQLSchema a = tables.fork();
+		SQLSchema b = tables.fork();
+		a.insert("t", 100, 7);
+		a.deleteByKey("t", CVMLong.create(3));
+		b.insert("t", 4, 9);
+		b.insert("t", 200, 1);
+		b.dropIndex("t_v");
+		b.createIndex("t_v2", "t", "v");
+
+		AVector<ACell> sa = a.getTable("t").getState();
+		AVector<ACell> sb = b.getTable("t").getState();
+		AVector<ACell> ab = SQLTable.merge(sa, sb);
+		AVector<ACell> ba = SQLTable.merge(sb, sa);
+		assertEquals(ab, ba);
+		assertEquals(ab, SQLTable.merge(ab, sa));
+
+		// Syncing both replicas gives an index matching the merged rows
+		a.sync();
+		b.sync();
+		SQLTable merged = tables.getLiveTable("t");
+		assertEquals(SQLIndex.build(merged.getRows(), 1), merged.getIndexEntries(1));
+		assertFalse(tables.indexExists("t_v"));
+		assertTrue(tables.indexExists("t_v2"));
+		assertEquals(21, merged.getRowCount());
+	}
+
+	@Test
+	public void testBatchWrite() {
+		AKeyPair kp = AKeyPair.generate();
+		SQLDatabase db = SQLDatabase.create("testdb", kp);
+		SQLSchema tables = db.tables();
+		tables.createTable("t", new String[]{"id", "v"});
+		tables.createIndex("t_v", "t", "v");
+		assertEquals(0, tables.write("missing", Map.of()));
+
+		// Batch into an empty table is applied in bulk
+		List<AVector<ACell>> rows = new ArrayList<>();
+		for (int i = 0; i < 100; i++) rows.add(Vectors.of(i, i % 7));
+		rows.add(Vectors.of(5, 99));
+		assertEquals(100, tables.insertAll("t", rows));
+		SQLTable table = tables.getLiveTable("t");
+		assertEquals(100, table.getRowCount());
+		assertEquals(Vectors.of(5, 99), tables.selectByKey("t", CVMLong.create(5)));
+		assertEquals(SQLIndex.build(table.getRows(), 1), table.getIndexEntries(1));
+
+		// Small batch of puts and deletes is applied incrementally; deletes of
+		// missing rows write nothing
+		Map<ABlob, AVector<ACell>> writes = new LinkedHashMap<>();
+		writes.put(SQLSchema.toKey(CVMLong.create(1)), null);
+		writes.put(SQLSchema.toKey(CVMLong.create(2)), Vectors.of(2, 50));
+		writes.put(SQLSchema.toKey(CVMLong.create(500)), Vectors.of(500, 3));
+		writes.put(SQLSchema.toKey(CVMLong.create(600)), null);
+		assertEquals(3, tables.write("t", writes));
+		assertEquals(100, table.getRowCount());
+		assertNull(tables.selectByKey("t", CVMLong.create(1)));
+		assertNull(table.getRows().get(SQLSchema.toKey(CVMLong.create(600))));
+		assertEquals(SQLIndex.build(table.getRows(), 1), table.getIndexEntries(1));
+
+		// Large batch of deletes, merged with the existing rows
+		writes.clear();
+		for (int i = 0; i < 60; i++) writes.put(SQLSchema.toKey(CVMLong.create(i)), null);
+		assertEquals(59, tables.write("t", writes));
+		assertEquals(41, table.getRowCount());
+		assertEquals(41, tables.selectAll("t").count());
+		assertEquals(SQLIndex.build(table.getRows(), 1), table.getIndexEntries(1));
+	}
+
 	@Test
 	public void testInvalidSignatureRejected() {
 		AKeyPair kp1 = AKeyPair.generate();
@@ -142,6 +142,33 @@ public class ConvexTableTest {
 		}
 	}
 
+	/**
+	 * Tests multi-row statements, which are applied as a single batched write.
+	 */
+	@Test
+	void testMultiRowDML() throws SQLException {
+		try (Statement stmt = conn.createStatement()) {
+			assertEquals(4, stmt.executeUpdate("INSERT INTO test_table VALUES (1, 'a', 10), (2, 'b', 20), (3, 'c', 30), (4, 'd', 40)"));
+			assertEquals(3, stmt.executeUpdate("UPDATE test_table SET amount = amount + 1 WHERE id > 1"));
+
+			// Every primary key changes in a single statement
+			assertEquals(4, stmt.executeUpdate("UPDATE test_table SET id = id + 10"));
+			assertEquals(2, stmt.executeUpdate("DELETE FROM test_table WHERE amount > 30"));
+			assertEquals(0, stmt.executeUpdate("DELETE FROM test_table WHERE id < 10"));
+
+			try (ResultSet rs = stmt.executeQuery("SELECT id, amount FROM test_table ORDER BY id")) {
+				assertTrue(rs.next());
+				assertEquals(11, rs.getInt(1));
+				assertEquals(10, rs.getInt(2));
+				assertTrue(rs.next());
+				assertEquals(12, rs.getInt(1));
+				assertEquals(21, rs.getInt(2));
+				assertFalse(rs.next());
+			}
+		}
+		assertEquals(2, db.tables().getRowCount("test_table"));
+	}
+
 	/**
 	 * Tests that updating PK to an existing value throws a uniqueness error.
 	 *
@@ -113,6 +113,53 @@ public class ConvexConventionTest {
 		assertThrows(NoSuchElementException.class, e::current);
 	}
 
+	@Test
+	void testTableEnumeratorSkipsTombstones() {
+		SQLDatabase db = SQLDatabase.create("enum_tomb", convex.core.crypto.AKeyPair.generate());
+		db.tables().createTable("t", new String[]{"id"},
+			new ConvexColumnType[]{ConvexColumnType.of(ConvexType.INTEGER)});
+		for (long i = 0; i < 100; i++) {
+			db.tables().insert("t", i);
+		}
+		for (long i = 0; i < 100; i += 3) {
+			db.tables().deleteByKey("t", CVMLong.create(i));
+		}
+
+		ConvexTableEnumerator e = new ConvexTableEnumerator(db.tables(), "t");
+		int count = 0;
+		while (e.moveNext()) {
+			long id = ((CVMLong) e.current()[0]).longValue();
+			assertNotEquals(0, id % 3);
+			count++;
+		}
+		assertEquals(66, count);
+	}
+
+	@Test
+	void testLazyEnumerable() {
+		// Source that counts rows pulled, to check operators stop early
+		int[] pulled = new int[1];
+		ConvexEnumerable source = () -> new Iterator<ACell[]>() {
+			long i = 0;
+			public boolean hasNext() { return true; }
+			public ACell[] next() { pulled[0]++; return new ACell[]{CVMLong.create(i++)}; }
+		};
+
+		ConvexEnumerable pipeline = source
+			.filter(row -> ((CVMLong) row[0]).longValue() % 2 == 0)
+			.map(row -> new ACell[]{row[0], row[0]})
+			.slice(2, 3);
+
+		List<ACell[]> rows = new ArrayList<>();
+		for (ACell[] row : pipeline) rows.add(row);
+		assertEquals(3, rows.size());
+		assertEquals(CVMLong.create(4), rows.get(0)[0]);
+		assertEquals(CVMLong.create(8), rows.get(2)[1]);
+		assertEquals(9, pulled[0]);
+
+		assertFalse(source.slice(0, 0).iterator().hasNext());
+	}
+
 	@Test
 	void testEnumerablePreservesCvmTypes() {
 		// Verify that ACell types are preserved through enumeration
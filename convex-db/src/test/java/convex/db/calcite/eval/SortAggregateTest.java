@@ -139,6 +139,35 @@ class SortAggregateTest {
 		}
 	}
 
+	@Test
+	void testTopNWithTies() throws Exception {
+		// Bounded heap must keep input (PK) order among equal sort keys
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery("SELECT name FROM items ORDER BY category LIMIT 3 OFFSET 1")) {
+			assertTrue(rs.next());
+			assertEquals("banana", rs.getString("name"));
+			assertTrue(rs.next());
+			assertEquals("carrot", rs.getString("name"));
+			assertTrue(rs.next());
+			assertEquals("eggs", rs.getString("name"));
+			assertFalse(rs.next());
+		}
+	}
+
+	@Test
+	void testLimitWithoutOrder() throws Exception {
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery("SELECT name FROM items LIMIT 2")) {
+			assertTrue(rs.next());
+			assertTrue(rs.next());
+			assertFalse(rs.next());
+		}
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery("SELECT name FROM items LIMIT 0")) {
+			assertFalse(rs.next());
+		}
+	}
+
 	// ========== Aggregate Tests ==========
 
 	@Test
@@ -0,0 +1,176 @@
+package convex.db.calcite.rel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import convex.db.ConvexDB;
+import convex.db.calcite.ConvexColumnType;
+import convex.db.calcite.ConvexType;
+import convex.db.lattice.SQLDatabase;
+
+/**
+ * Tests for ConvexHashJoin and the streaming hash aggregate.
+ *
+ * <p>Join results are checked for each join type with duplicate keys, NULL
+ * keys and residual conditions, with the build side on either input.
+ */
+class HashJoinTest {
+
+	private ConvexDB cdb;
+	private SQLDatabase db;
+	private Connection conn;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cdb = ConvexDB.create();
+		db = cdb.database("hashjoin_test");
+		cdb.register("hashjoin_test");
+
+		// Small table: 5 departments, one without employees
+		db.tables().createTable("dept", new String[]{"id", "name"},
+			new ConvexColumnType[]{ConvexColumnType.of(ConvexType.INTEGER), ConvexColumnType.varchar(20)});
+		for (long d = 1; d <= 5; d++) {
+			db.tables().insert("dept", d, "d" + d);
+		}
+
+		// Large table: 200 employees over departments 1-4, 0 (no dept) and NULL
+		db.tables().createTable("emp", new String[]{"id", "dept", "salary"},
+			new ConvexColumnType[]{ConvexColumnType.of(ConvexType.INTEGER), ConvexColumnType.of(ConvexType.INTEGER),
+				ConvexColumnType.of(ConvexType.INTEGER)});
+		for (long e = 0; e < 200; e++) {
+			Long dept = (e % 10 == 9) ? null : e % 5;
+			db.tables().insert("emp", e, dept, e * 10);
+		}
+
+		conn = DriverManager.getConnection("jdbc:convex:database=hashjoin_test");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (conn != null) conn.close();
+		if (cdb != null) cdb.unregister("hashjoin_test");
+	}
+
+	private List<String> rows(String sql) throws Exception {
+		List<String> result = new ArrayList<>();
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery(sql)) {
+			int n = rs.getMetaData().getColumnCount();
+			while (rs.next()) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 1; i <= n; i++) {
+					if (i > 1) sb.append(',');
+					sb.append(rs.getString(i));
+				}
+				result.add(sb.toString());
+			}
+		}
+		return result;
+	}
+
+	private String explain(String sql) throws Exception {
+		return String.join("\n", rows("EXPLAIN PLAN FOR " + sql));
+	}
+
+	/**
+	 * Expected department of an employee, or null
+	 */
+	private static Long dept(long e) {
+		return (e % 10 == 9) ? null : e % 5;
+	}
+
+	@Test
+	void testPlan() throws Exception {
+		assertTrue(explain("SELECT e.id, d.name FROM emp e JOIN dept d ON e.dept = d.id").contains("ConvexHashJoin"));
+		// Joins on the primary key of both sides arrive in key order, so merge join is preferred
+		assertTrue(explain("SELECT e.salary, d.name FROM emp e JOIN dept d ON e.id = d.id").contains("ConvexMergeJoin"));
+	}
+
+	@Test
+	void testInnerJoin() throws Exception {
+		List<String> expected = new ArrayList<>();
+		for (long e = 0; e < 200; e++) {
+			Long d = dept(e);
+			if (d != null && d >= 1) expected.add(e + ",d" + d);
+		}
+		// Build side on either input gives the same rows
+		assertEquals(expected, rows("SELECT e.id, d.name FROM emp e JOIN dept d ON e.dept = d.id ORDER BY e.id"));
+		assertEquals(expected, rows("SELECT e.id, d.name FROM dept d JOIN emp e ON d.id = e.dept ORDER BY e.id"));
+	}
+
+	@Test
+	void testOuterJoins() throws Exception {
+		// LEFT with the outer side probing: employees without a department keep NULLs
+		List<String> left = rows("SELECT e.id, d.name FROM emp e LEFT JOIN dept d ON e.dept = d.id ORDER BY e.id");
+		assertEquals(200, left.size());
+		assertEquals("0,null", left.get(0));
+		assertEquals("9,null", left.get(9));
+		assertEquals("11,d1", left.get(11));
+
+		// LEFT with the outer side as build: department 5 has no employees
+		List<String> byDept = rows("SELECT d.id, COUNT(e.id) FROM dept d LEFT JOIN emp e ON d.id = e.dept GROUP BY d.id ORDER BY d.id");
+		assertEquals(List.of("1,40", "2,40", "3,40", "4,20", "5,0"), byDept);
+
+		// RIGHT mirrors LEFT
+		assertEquals(byDept, rows("SELECT d.id, COUNT(e.id) FROM emp e RIGHT JOIN dept d ON d.id = e.dept GROUP BY d.id ORDER BY d.id"));
+
+		// FULL keeps unmatched rows from both sides, including NULL keys
+		List<String> full = rows("SELECT e.id, d.id FROM emp e FULL JOIN dept d ON e.dept = d.id");
+		assertEquals(200 + 1, full.size());
+		assertTrue(full.contains("null,5"));
+		assertTrue(full.contains("9,null"));
+		assertTrue(full.contains("5,null"));
+	}
+
+	@Test
+	void testResidualCondition() throws Exception {
+		List<String> expected = new ArrayList<>();
+		for (long e = 0; e < 200; e++) {
+			Long d = dept(e);
+			if (d != null && d >= 1 && e * 10 > d * 500) expected.add(Long.toString(e));
+		}
+		assertEquals(expected, rows("SELECT e.id FROM emp e JOIN dept d ON e.dept = d.id AND e.salary > d.id * 500 ORDER BY e.id"));
+
+		// Left rows whose matches all fail the residual are padded with NULLs
+		List<String> left = rows("SELECT d.id, e.id FROM dept d LEFT JOIN emp e ON d.id = e.dept AND e.salary > 1900 ORDER BY d.id, e.id");
+		assertEquals(List.of("1,191", "1,196", "2,192", "2,197", "3,193", "3,198", "4,194", "5,null"), left);
+	}
+
+	@Test
+	void testLimitStopsEarly() throws Exception {
+		assertEquals(3, rows("SELECT e.id FROM emp e JOIN dept d ON e.dept = d.id LIMIT 3").size());
+	}
+
+	@Test
+	void testStreamingAggregate() throws Exception {
+		List<String> expected = new ArrayList<>();
+		for (long d = 0; d < 5; d++) {
+			long count = 0, sum = 0, min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+			for (long e = 0; e < 200; e++) {
+				Long ed = dept(e);
+				if (ed == null || ed != d) continue;
+				count++;
+				sum += e * 10;
+				min = Math.min(min, e * 10);
+				max = Math.max(max, e * 10);
+			}
+			expected.add(d + "," + count + "," + sum + "," + min + "," + max);
+		}
+		expected.add("null,20,20800,90,1990");
+		assertEquals(expected, rows("SELECT dept, COUNT(*), SUM(salary), MIN(salary), MAX(salary) FROM emp GROUP BY dept ORDER BY dept NULLS LAST"));
+
+		assertEquals(List.of("5,180"), rows("SELECT COUNT(DISTINCT dept), COUNT(dept) FROM emp"));
+		assertEquals(List.of("0,null"), rows("SELECT COUNT(*), SUM(salary) FROM emp WHERE id < 0"));
+		assertEquals(List.of(), rows("SELECT dept, COUNT(*) FROM emp WHERE id < 0 GROUP BY dept"));
+	}
+}
@@ -0,0 +1,223 @@
+package convex.db.calcite.rel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.calcite.jdbc.JavaTypeFactoryImpl;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import convex.core.data.prim.CVMLong;
+import convex.db.ConvexDB;
+import convex.db.lattice.SQLDatabase;
+import convex.db.lattice.SQLIndex;
+import convex.db.lattice.SQLTable;
+
+/**
+ * Tests for CREATE INDEX / DROP INDEX and secondary index pushdown in ConvexFilter.
+ *
+ * <p>Each query is checked against the rows it should match, including
+ * rows updated or deleted after the index was created.
+ */
+class IndexScanTest {
+
+	private ConvexDB cdb;
+	private SQLDatabase db;
+	private Connection conn;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cdb = ConvexDB.create();
+		db = cdb.database("index_test");
+		cdb.register("index_test");
+		conn = DriverManager.getConnection("jdbc:convex:database=index_test");
+
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("CREATE TABLE accounts (id INTEGER, email VARCHAR(100), balance INTEGER, name VARCHAR(50))");
+		}
+		for (long i = 0; i < 100; i++) {
+			db.tables().insert("ACCOUNTS", i, "user" + i + "@example.com", ((i % 20) - 10) * 100, "name" + i);
+		}
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (conn != null) conn.close();
+		if (cdb != null) cdb.unregister("index_test");
+	}
+
+	private List<Long> ids(String sql) throws Exception {
+		List<Long> result = new ArrayList<>();
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery(sql)) {
+			while (rs.next()) result.add(rs.getLong(1));
+		}
+		return result;
+	}
+
+	private static List<Long> range(long from, long to, long step) {
+		List<Long> result = new ArrayList<>();
+		for (long i = from; i < to; i += step) result.add(i);
+		return result;
+	}
+
+	private void createIndexes() throws Exception {
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("CREATE INDEX accounts_email ON accounts (email)");
+			stmt.execute("CREATE INDEX IF NOT EXISTS accounts_balance ON accounts(balance);");
+		}
+	}
+
+	@Test
+	void testCreateAndDrop() throws Exception {
+		createIndexes();
+		SQLTable table = db.tables().getLiveTable("ACCOUNTS");
+		assertNotNull(table.getIndexEntries(1));
+		assertNotNull(table.getIndexEntries(2));
+		assertNull(table.getIndexEntries(3));
+
+		try (Statement stmt = conn.createStatement()) {
+			// Existing names and unknown columns are errors
+			assertThrows(SQLException.class, () -> stmt.execute("CREATE INDEX accounts_email ON accounts (name)"));
+			stmt.execute("CREATE INDEX IF NOT EXISTS accounts_email ON accounts (name)");
+			assertThrows(SQLException.class, () -> stmt.execute("CREATE INDEX bad ON accounts (nope)"));
+			assertThrows(SQLException.class, () -> stmt.execute("CREATE INDEX bad ON nope (email)"));
+
+			stmt.execute("DROP INDEX accounts_email");
+			assertNull(table.getIndexEntries(1));
+			assertThrows(SQLException.class, () -> stmt.execute("DROP INDEX accounts_email"));
+			stmt.execute("DROP INDEX IF EXISTS accounts_email");
+		}
+
+		// Queries still work without the index
+		assertEquals(List.of(42L), ids("SELECT id FROM accounts WHERE email = 'user42@example.com'"));
+	}
+
+	@Test
+	void testEquality() throws Exception {
+		createIndexes();
+		assertEquals(List.of(42L), ids("SELECT id FROM accounts WHERE email = 'user42@example.com'"));
+		assertEquals(List.of(), ids("SELECT id FROM accounts WHERE email = 'nobody@example.com'"));
+		assertEquals(List.of(3L, 7L), ids("SELECT id FROM accounts WHERE email IN ('user7@example.com', 'user3@example.com', 'x') ORDER BY id"));
+		assertEquals(range(5, 100, 20), ids("SELECT id FROM accounts WHERE balance = -500 ORDER BY id"));
+
+		try (PreparedStatement ps = conn.prepareStatement("SELECT id, name FROM accounts WHERE email = ?")) {
+			for (int i : new int[] {0, 99, 50}) {
+				ps.setString(1, "user" + i + "@example.com");
+				try (ResultSet rs = ps.executeQuery()) {
+					assertTrue(rs.next());
+					assertEquals(i, rs.getLong(1));
+					assertEquals("name" + i, rs.getString(2));
+					assertFalse(rs.next());
+				}
+			}
+		}
+	}
+
+	@Test
+	void testRangesAndPrefixes() throws Exception {
+		createIndexes();
+		// Index value keys are ordered across zero
+		List<Long> expected = new ArrayList<>();
+		for (long i = 0; i < 100; i++) {
+			long b = ((i % 20) - 10) * 100;
+			if (b >= -200 && b < 300) expected.add(i);
+		}
+		assertEquals(expected, ids("SELECT id FROM accounts WHERE balance >= -200 AND balance < 300 ORDER BY id"));
+		assertEquals(range(0, 100, 20), ids("SELECT id FROM accounts WHERE balance < -900 ORDER BY id"));
+
+		// Non-indexed conjuncts are applied to rows from the index
+		assertEquals(List.of(19L, 39L), ids("SELECT id FROM accounts WHERE balance = 900 AND id < 50 ORDER BY id"));
+
+		List<Long> prefixed = new ArrayList<>(List.of(1L));
+		prefixed.addAll(range(10, 20, 1));
+		assertEquals(prefixed, ids("SELECT id FROM accounts WHERE email LIKE 'user1%' ORDER BY id"));
+	}
+
+	@Test
+	void testMaintainedBySql() throws Exception {
+		createIndexes();
+		try (Statement stmt = conn.createStatement()) {
+			stmt.executeUpdate("UPDATE accounts SET email = 'moved@example.com' WHERE id = 42");
+			stmt.executeUpdate("DELETE FROM accounts WHERE id = 43");
+			stmt.executeUpdate("INSERT INTO accounts VALUES (100, 'user43@example.com', 0, 'new')");
+		}
+		assertEquals(List.of(), ids("SELECT id FROM accounts WHERE email = 'user42@example.com'"));
+		assertEquals(List.of(42L), ids("SELECT id FROM accounts WHERE email = 'moved@example.com'"));
+		assertEquals(List.of(100L), ids("SELECT id FROM accounts WHERE email = 'user43@example.com'"));
+
+		SQLTable table = db.tables().getLiveTable("ACCOUNTS");
+		assertEquals(SQLIndex.build(table.getRows(), 1), table.getIndexEntries(1));
+		assertEquals(SQLIndex.build(table.getRows(), 2), table.getIndexEntries(2));
+	}
+
+	@Test
+	void testIndexOnly() throws Exception {
+		createIndexes();
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery("SELECT email, id FROM accounts WHERE email LIKE 'user2%' ORDER BY email")) {
+			List<String> emails = new ArrayList<>();
+			while (rs.next()) {
+				emails.add(rs.getString(1));
+				assertEquals(rs.getString(1), "user" + rs.getLong(2) + "@example.com");
+			}
+			assertEquals(11, emails.size());
+			assertTrue(emails.contains("user2@example.com"));
+			assertEquals(emails.stream().sorted().toList(), emails);
+		}
+
+		// Columns outside the index are read from the table
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery("SELECT name FROM accounts WHERE email = 'user8@example.com'")) {
+			assertTrue(rs.next());
+			assertEquals("name8", rs.getString(1));
+		}
+	}
+
+	@Test
+	void testDeriveIndex() {
+		RexBuilder rb = new RexBuilder(new JavaTypeFactoryImpl());
+		RelDataType intType = rb.getTypeFactory().createSqlType(SqlTypeName.INTEGER);
+		RexNode id = rb.makeInputRef(intType, 0);
+		RexNode balance = rb.makeInputRef(intType, 2);
+		RexNode lo = rb.makeExactLiteral(BigDecimal.valueOf(-5));
+		RexNode hi = rb.makeExactLiteral(BigDecimal.valueOf(5));
+
+		// Index value keys are ordered, so a range crossing zero is one segment
+		RexNode range = rb.makeCall(SqlStdOperatorTable.AND,
+			rb.makeCall(SqlStdOperatorTable.GREATER_THAN_OR_EQUAL, balance, lo),
+			rb.makeCall(SqlStdOperatorTable.LESS_THAN, balance, hi));
+		assertEquals(1, KeyScan.deriveIndex(range, 2, SqlTypeName.INTEGER, null).segmentCount());
+		assertNull(KeyScan.deriveIndex(range, 0, SqlTypeName.INTEGER, null));
+		assertNull(KeyScan.deriveIndex(rb.makeCall(SqlStdOperatorTable.EQUALS, id, lo), 2, SqlTypeName.INTEGER, null));
+
+		// Equality on an index is estimated as a fraction of the table
+		RexNode eq = rb.makeCall(SqlStdOperatorTable.EQUALS, balance, lo);
+		assertEquals(10000 * KeyScan.INDEX_POINT_SELECTIVITY, KeyScan.estimateIndexRows(eq, 2, SqlTypeName.INTEGER, 10000));
+		assertEquals(1, KeyScan.estimateIndexRows(eq, 2, SqlTypeName.INTEGER, 10));
+	}
+
+	@Test
+	void testValueKeyOrder() {
+		long[] values = {Long.MIN_VALUE, -1000, -1, 0, 1, 255, 256, Long.MAX_VALUE};
+		for (int i = 1; i < values.length; i++) {
+			assertTrue(SQLIndex.encodeValue(CVMLong.create(values[i - 1]))
+				.compareTo(SQLIndex.encodeValue(CVMLong.create(values[i]))) < 0);
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package convex.db.calcite.rel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import org.apache.calcite.jdbc.JavaTypeFactoryImpl;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import convex.core.data.prim.CVMLong;
+import convex.db.ConvexDB;
+import convex.db.calcite.ConvexColumnType;
+import convex.db.calcite.ConvexType;
+import convex.db.lattice.SQLDatabase;
+
+/**
+ * Tests for primary key range, multi-point and prefix pushdown in ConvexFilter.
+ *
+ * <p>Each query is checked against the rows it should match, including
+ * ranges crossing zero (where encoded key order differs from numeric order)
+ * and deleted rows.
+ */
+class KeyScanTest {
+
+	private ConvexDB cdb;
+	private SQLDatabase db;
+	private Connection conn;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cdb = ConvexDB.create();
+		db = cdb.database("keyscan_test");
+		cdb.register("keyscan_test");
+
+		db.tables().createTable("nums", new String[]{"id", "v"},
+			new ConvexColumnType[]{ConvexColumnType.of(ConvexType.INTEGER), ConvexColumnType.of(ConvexType.INTEGER)});
+		for (long i = -100; i <= 100; i++) {
+			db.tables().insert("nums", i, i * 10);
+		}
+		// Deleted rows must not reappear through the key scan
+		for (long i = -100; i <= 100; i += 7) {
+			db.tables().deleteByKey("nums", CVMLong.create(i));
+		}
+
+		db.tables().createTable("words", new String[]{"k", "n"},
+			new ConvexColumnType[]{ConvexColumnType.varchar(50), ConvexColumnType.of(ConvexType.INTEGER)});
+		String[] words = {"apple", "apricot", "banana", "band", "bandana", "cherry", "ap"};
+		for (int i = 0; i < words.length; i++) {
+			db.tables().insert("words", words[i], (long) i);
+		}
+
+		db.tables().createTable("events", new String[]{"ts", "msg"},
+			new ConvexColumnType[]{ConvexColumnType.of(ConvexType.TIMESTAMP), ConvexColumnType.varchar(50)});
+		for (long t = 0; t < 50; t++) {
+			db.tables().insert("events", 1_700_000_000_000L + t * 1000, "e" + t);
+		}
+
+		conn = DriverManager.getConnection("jdbc:convex:database=keyscan_test");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (conn != null) conn.close();
+		if (cdb != null) cdb.unregister("keyscan_test");
+	}
+
+	private static boolean live(long i) {
+		return (i - -100) % 7 != 0;
+	}
+
+	private List<Long> expectIds(LongPredicate p) {
+		List<Long> result = new ArrayList<>();
+		for (long i = -100; i <= 100; i++) {
+			if (live(i) && p.test(i)) result.add(i);
+		}
+		return result;
+	}
+
+	private static List<Long> ids(ResultSet rs) throws Exception {
+		List<Long> result = new ArrayList<>();
+		while (rs.next()) result.add(rs.getLong(1));
+		return result;
+	}
+
+	private List<Long> query(String sql) throws Exception {
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery(sql)) {
+			return ids(rs);
+		}
+	}
+
+	@Test
+	void testRanges() throws Exception {
+		assertEquals(expectIds(i -> i > 10 && i < 40), query("SELECT id FROM nums WHERE id > 10 AND id < 40 ORDER BY id"));
+		assertEquals(expectIds(i -> i >= -30 && i <= 25), query("SELECT id FROM nums WHERE id BETWEEN -30 AND 25 ORDER BY id"));
+		assertEquals(expectIds(i -> i < -90), query("SELECT id FROM nums WHERE id < -90 ORDER BY id"));
+		assertEquals(expectIds(i -> i >= 95), query("SELECT id FROM nums WHERE 95 <= id ORDER BY id"));
+		assertEquals(expectIds(i -> i < -50 || i > 90), query("SELECT id FROM nums WHERE id < -50 OR id > 90 ORDER BY id"));
+		assertEquals(expectIds(i -> i > 5 && i < 6), query("SELECT id FROM nums WHERE id > 5 AND id < 6"));
+	}
+
+	@Test
+	void testRangeWithResidual() throws Exception {
+		// Non-key conjuncts are still applied to rows from the key scan
+		assertEquals(expectIds(i -> i >= 0 && i < 50 && i * 10 > 200),
+			query("SELECT id FROM nums WHERE id >= 0 AND id < 50 AND v > 200 ORDER BY id"));
+	}
+
+	@Test
+	void testPoints() throws Exception {
+		assertEquals(expectIds(i -> i == -3 || i == 1 || i == 2 || i == 50),
+			query("SELECT id FROM nums WHERE id IN (50, 2, -3, 1, 1000) ORDER BY id"));
+		assertEquals(expectIds(i -> i == -100 || i == 99),
+			query("SELECT id FROM nums WHERE id = -100 OR id = 99 ORDER BY id"));
+	}
+
+	@Test
+	void testParameters() throws Exception {
+		try (PreparedStatement ps = conn.prepareStatement("SELECT id FROM nums WHERE id >= ? AND id < ? ORDER BY id")) {
+			ps.setInt(1, -20);
+			ps.setInt(2, 20);
+			try (ResultSet rs = ps.executeQuery()) {
+				assertEquals(expectIds(i -> i >= -20 && i < 20), ids(rs));
+			}
+			ps.setInt(1, 60);
+			ps.setInt(2, 70);
+			try (ResultSet rs = ps.executeQuery()) {
+				assertEquals(expectIds(i -> i >= 60 && i < 70), ids(rs));
+			}
+		}
+	}
+
+	@Test
+	void testStringKeys() throws Exception {
+		try (Statement stmt = conn.createStatement()) {
+			List<String> found = new ArrayList<>();
+			try (ResultSet rs = stmt.executeQuery("SELECT k FROM words WHERE k LIKE 'ban%' ORDER BY k")) {
+				while (rs.next()) found.add(rs.getString(1));
+			}
+			assertEquals(List.of("banana", "band", "bandana"), found);
+
+			found.clear();
+			try (ResultSet rs = stmt.executeQuery("SELECT k FROM words WHERE k IN ('cherry', 'ap', 'nope') ORDER BY k")) {
+				while (rs.next()) found.add(rs.getString(1));
+			}
+			assertEquals(List.of("ap", "cherry"), found);
+
+			found.clear();
+			try (ResultSet rs = stmt.executeQuery("SELECT k FROM words WHERE k LIKE 'ap%' AND n > 0 ORDER BY k")) {
+				while (rs.next()) found.add(rs.getString(1));
+			}
+			assertEquals(List.of("ap", "apricot"), found);
+		}
+	}
+
+	@Test
+	void testDerive() {
+		RexBuilder rb = new RexBuilder(new JavaTypeFactoryImpl());
+		RelDataType intType = rb.getTypeFactory().createSqlType(SqlTypeName.INTEGER);
+		RexNode id = rb.makeInputRef(intType, 0);
+		RexNode v = rb.makeInputRef(intType, 1);
+		RexNode lo = rb.makeExactLiteral(BigDecimal.valueOf(-5));
+		RexNode hi = rb.makeExactLiteral(BigDecimal.valueOf(5));
+
+		// Range crossing zero is split at the sign boundary of the key encoding
+		RexNode range = rb.makeCall(SqlStdOperatorTable.AND,
+			rb.makeCall(SqlStdOperatorTable.GREATER_THAN_OR_EQUAL, id, lo),
+			rb.makeCall(SqlStdOperatorTable.LESS_THAN, id, hi));
+		assertEquals(2, KeyScan.derive(range, SqlTypeName.INTEGER, null).segmentCount());
+
+		// Contradictory bounds give an empty scan
+		RexNode empty = rb.makeCall(SqlStdOperatorTable.AND,
+			rb.makeCall(SqlStdOperatorTable.GREATER_THAN, id, hi),
+			rb.makeCall(SqlStdOperatorTable.LESS_THAN, id, lo));
+		assertEquals(0, KeyScan.derive(empty, SqlTypeName.INTEGER, null).segmentCount());
+
+		// Conditions not on the key, and string ranges, are not pushed down
+		assertNull(KeyScan.derive(rb.makeCall(SqlStdOperatorTable.GREATER_THAN, v, lo), SqlTypeName.INTEGER, null));
+		assertNull(KeyScan.derive(rb.makeCall(SqlStdOperatorTable.GREATER_THAN, id, rb.makeLiteral("a")), SqlTypeName.VARCHAR, null));
+
+		// Unbound parameters are unconstrained at plan time, but still estimated
+		RexNode param = rb.makeCall(SqlStdOperatorTable.LESS_THAN, id, rb.makeDynamicParam(intType, 0));
+		assertNull(KeyScan.derive(param, SqlTypeName.INTEGER, null));
+		assertEquals(1000 * KeyScan.RANGE_SELECTIVITY, KeyScan.estimateRows(param, SqlTypeName.INTEGER, 1000));
+		assertEquals(-1, KeyScan.estimateRows(rb.makeCall(SqlStdOperatorTable.GREATER_THAN, v, lo), SqlTypeName.INTEGER, 1000));
+	}
+
+	@Test
+	void testTimestampWindow() throws Exception {
+		try (PreparedStatement ps = conn.prepareStatement("SELECT msg FROM events WHERE ts >= ? AND ts < ?")) {
+			ps.setTimestamp(1, new Timestamp(1_700_000_010_000L));
+			ps.setTimestamp(2, new Timestamp(1_700_000_015_000L));
+			List<String> found = new ArrayList<>();
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) found.add(rs.getString(1));
+			}
+			assertEquals(List.of("e10", "e11", "e12", "e13", "e14"), found);
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package convex.db.calcite.rel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import convex.core.data.ABlob;
+import convex.core.data.ACell;
+import convex.core.data.AVector;
+import convex.core.data.Index;
+import convex.core.data.prim.CVMLong;
+import convex.db.ConvexDB;
+import convex.db.calcite.ConvexColumnType;
+import convex.db.calcite.ConvexType;
+import convex.db.calcite.convention.ConvexEnumerable;
+import convex.db.calcite.convention.ConvexParallel;
+import convex.db.lattice.SQLDatabase;
+import convex.db.lattice.SQLRow;
+
+/**
+ * Tests for partitioned parallel execution of scans, filters, projections
+ * and aggregates.
+ *
+ * <p>Each query is run on a serial and a parallel connection to the same
+ * database, and must give the same rows in the same order.
+ */
+class ParallelScanTest {
+
+	private static final int ROWS = 20_000;
+
+	private ConvexDB cdb;
+	private SQLDatabase db;
+	private Connection serial;
+	private Connection parallel;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cdb = ConvexDB.create();
+		db = cdb.database("parallel_test");
+		cdb.register("parallel_test");
+
+		db.tables().createTable("facts", new String[]{"id", "grp", "v", "label"},
+			new ConvexColumnType[]{ConvexColumnType.of(ConvexType.INTEGER), ConvexColumnType.of(ConvexType.INTEGER),
+				ConvexColumnType.of(ConvexType.DOUBLE), ConvexColumnType.varchar(20)});
+		for (long i = 0; i < ROWS; i++) {
+			db.tables().insert("facts", i, i % 7, i * 0.5, "l" + (i % 100));
+		}
+		// Deleted rows must not appear in any partition
+		for (long i = 0; i < ROWS; i += 13) {
+			db.tables().deleteByKey("facts", CVMLong.create(i));
+		}
+
+		serial = DriverManager.getConnection("jdbc:convex:database=parallel_test");
+		parallel = DriverManager.getConnection("jdbc:convex:database=parallel_test;parallel=true");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (serial != null) serial.close();
+		if (parallel != null) parallel.close();
+		if (cdb != null) cdb.unregister("parallel_test");
+	}
+
+	private static List<String> rows(Connection conn, String sql) throws Exception {
+		List<String> result = new ArrayList<>();
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery(sql)) {
+			int n = rs.getMetaData().getColumnCount();
+			while (rs.next()) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 1; i <= n; i++) {
+					if (i > 1) sb.append(',');
+					sb.append(rs.getString(i));
+				}
+				result.add(sb.toString());
+			}
+		}
+		return result;
+	}
+
+	private void assertSame(String sql) throws Exception {
+		List<String> expected = rows(serial, sql);
+		assertFalse(expected.isEmpty(), sql);
+		assertEquals(expected, rows(parallel, sql), sql);
+	}
+
+	@Test
+	void testPartition() {
+		Index<ABlob, AVector<ACell>> rows = db.tables().getLiveTable("facts").getRows();
+		List<ConvexEnumerable> parts = ConvexParallel.partition(rows);
+		assertTrue(parts.size() > 1);
+
+		// Partitions concatenate to the live rows in key order
+		List<Long> ids = new ArrayList<>();
+		for (ConvexEnumerable part : parts) {
+			for (ACell[] row : part) ids.add(((CVMLong) row[0]).longValue());
+		}
+		List<Long> expected = new ArrayList<>();
+		rows.forEach((k, v) -> {
+			if (SQLRow.isLive(v)) expected.add(((CVMLong) SQLRow.getValues(v).get(0)).longValue());
+		});
+		assertEquals(expected, ids);
+
+		// Partitions are single use
+		assertThrows(IllegalStateException.class, () -> parts.get(0).iterator());
+	}
+
+	@Test
+	void testScanFilterProject() throws Exception {
+		assertSame("SELECT id, label FROM facts");
+		assertSame("SELECT id, v * 2 FROM facts WHERE grp = 3 AND label LIKE 'l1%'");
+		assertEquals(ROWS - (ROWS + 12) / 13, rows(parallel, "SELECT id FROM facts").size());
+	}
+
+	@Test
+	void testAggregates() throws Exception {
+		assertSame("SELECT grp, COUNT(*), SUM(id), MIN(v), MAX(v), COUNT(DISTINCT label) FROM facts GROUP BY grp ORDER BY grp");
+		assertSame("SELECT COUNT(*), SUM(id), MIN(label), MAX(label) FROM facts WHERE v > 100");
+		assertSame("SELECT label, AVG(id) FROM facts GROUP BY label ORDER BY label");
+	}
+
+	@Test
+	void testLimit() throws Exception {
+		assertEquals(rows(serial, "SELECT id FROM facts ORDER BY id LIMIT 5"), rows(parallel, "SELECT id FROM facts ORDER BY id LIMIT 5"));
+	}
+}
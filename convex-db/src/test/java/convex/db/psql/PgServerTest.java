@@ -2,22 +2,37 @@ package convex.db.psql;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.calcite.runtime.Hook;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
 
 import convex.db.ConvexDB;
+import convex.core.data.AVector;
+import convex.core.data.prim.CVMLong;
 import convex.db.calcite.ConvexColumnType;
 
 import convex.db.calcite.ConvexType;
@@ -301,6 +316,267 @@ public class PgServerTest {
 		}
 	}
 
+	/**
+	 * Tests that a large result streams to a client that is not reading
+	 * without blocking queries on other connections.
+	 */
+	@Test
+	public void testLargeResultDoesNotBlockOtherConnections() throws Exception {
+		int rows = 20_000;
+		db.tables().createTable("big", new String[]{"id", "pad"},
+			new ConvexColumnType[]{ConvexColumnType.of(ConvexType.INTEGER), ConvexColumnType.varchar(100)});
+		String pad = "x".repeat(100);
+		for (long i = 0; i < rows; i++) db.tables().insert("big", i, pad);
+
+		try (Socket slow = new Socket("localhost", server.getPort());
+			 Socket fast = new Socket("localhost", server.getPort())) {
+			slow.setSoTimeout(30_000);
+			fast.setSoTimeout(10_000);
+			DataOutputStream slowOut = new DataOutputStream(slow.getOutputStream());
+			DataInputStream slowIn = new DataInputStream(slow.getInputStream());
+			sendStartupMessage(slowOut, dbName, "testuser");
+			skipToReadyForQuery(slowIn);
+
+			// Slow client issues a large query and does not read the result yet
+			sendQuery(slowOut, "SELECT * FROM big");
+
+			DataOutputStream fastOut = new DataOutputStream(fast.getOutputStream());
+			DataInputStream fastIn = new DataInputStream(fast.getInputStream());
+			sendStartupMessage(fastOut, dbName, "testuser");
+			skipToReadyForQuery(fastIn);
+			sendQuery(fastOut, "SELECT name FROM users WHERE id = 2");
+			assertEquals(List.of('T', 'D', 'C'), readMessageTypes(fastIn));
+
+			// All rows arrive once the slow client reads
+			List<Character> types = readMessageTypes(slowIn);
+			assertEquals(rows + 2, types.size());
+			assertEquals('T', types.get(0));
+			assertEquals('C', types.get(rows + 1));
+		}
+	}
+
+	/**
+	 * Tests that Execute with a row limit suspends the portal and resumes it
+	 * on the next Execute.
+	 */
+	@Test
+	public void testExecuteMaxRowsSuspendsPortal() throws IOException {
+		try (Socket socket = new Socket("localhost", server.getPort())) {
+			socket.setSoTimeout(10_000);
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			sendStartupMessage(out, dbName, "testuser");
+			skipToReadyForQuery(in);
+
+			sendMessage(out, 'P', cstrings("", "SELECT name FROM users ORDER BY id"), new byte[]{0, 0});
+			sendMessage(out, 'B', cstrings("", ""), new byte[]{0, 0, 0, 0, 0, 0});
+			for (int i = 0; i < 3; i++) {
+				sendMessage(out, 'E', cstrings(""), new byte[]{0, 0, 0, 1});
+			}
+			sendMessage(out, 'S');
+
+			assertEquals(List.of('1', '2', 'D', 's', 'D', 's', 'C'), readMessageTypes(in));
+		}
+	}
+
+	/**
+	 * Tests that a named prepared statement is planned once and reused across
+	 * executions, with binary parameters and results.
+	 */
+	@Test
+	public void testPreparedStatementPlanReuse() throws Exception {
+		String url = "jdbc:postgresql://localhost:" + server.getPort() + "/" + dbName + "?user=testuser&prepareThreshold=1";
+		AtomicInteger parses = new AtomicInteger();
+		try (Connection conn = DriverManager.getConnection(url)) {
+			try (Hook.Closeable hook = Hook.PARSE_TREE.add((Object x) -> parses.incrementAndGet());
+				 PreparedStatement insert = conn.prepareStatement("INSERT INTO users VALUES (?, ?, ?)");
+				 PreparedStatement select = conn.prepareStatement("SELECT id, name FROM users WHERE id = ?")) {
+				for (long id = 10; id < 30; id++) {
+					insert.setLong(1, id);
+					insert.setString(2, "user" + id);
+					insert.setString(3, "user" + id + "@example.com");
+					assertEquals(1, insert.executeUpdate());
+				}
+				for (long id = 10; id < 30; id++) {
+					select.setLong(1, id);
+					try (ResultSet rs = select.executeQuery()) {
+						assertTrue(rs.next());
+						assertEquals(id, rs.getLong(1));
+						assertEquals("user" + id, rs.getString(2));
+						assertFalse(rs.next());
+					}
+				}
+			}
+			// One plan per statement text, not per execution
+			assertEquals(2, parses.get());
+		}
+		assertEquals(22, db.tables().getRowCount("users"));
+	}
+
+	/**
+	 * Tests that cached plans are dropped after a schema change made outside
+	 * the connection, and kept across row changes.
+	 */
+	@Test
+	public void testPlanCacheSchemaChange() throws Exception {
+		String url = "jdbc:postgresql://localhost:" + server.getPort() + "/" + dbName + "?user=testuser&prepareThreshold=1";
+		AtomicInteger parses = new AtomicInteger();
+		try (Connection conn = DriverManager.getConnection(url);
+			 Hook.Closeable hook = Hook.PARSE_TREE.add((Object x) -> parses.incrementAndGet());
+			 PreparedStatement select = conn.prepareStatement("SELECT id, name FROM users WHERE id = ?")) {
+			select.setLong(1, 1);
+			try (ResultSet rs = select.executeQuery()) {
+				assertTrue(rs.next());
+				assertEquals("Alice", rs.getString(2));
+			}
+			db.tables().insert("users", 3L, "Carol", "carol@example.com");
+			try (ResultSet rs = select.executeQuery()) {
+				assertTrue(rs.next());
+			}
+			assertEquals(1, parses.get());
+
+			// Another writer replaces the table
+			db.tables().dropTable("users");
+			db.tables().createTable("users", new String[] {"id", "name", "email", "age"}, new ConvexColumnType[] {
+				ConvexColumnType.of(ConvexType.INTEGER), ConvexColumnType.varchar(50),
+				ConvexColumnType.varchar(100), ConvexColumnType.of(ConvexType.INTEGER)});
+			db.tables().insert("users", 1L, "Zed", "zed@example.com", 40L);
+			try (ResultSet rs = select.executeQuery()) {
+				assertTrue(rs.next());
+				assertEquals("Zed", rs.getString(2));
+			}
+			assertEquals(2, parses.get());
+		}
+	}
+
+	/**
+	 * Tests COPY FROM STDIN in text and CSV formats, with data split into
+	 * small CopyData chunks that cut across rows and fields.
+	 */
+	@Test
+	public void testCopyFromStdin() throws Exception {
+		String url = "jdbc:postgresql://localhost:" + server.getPort() + "/" + dbName + "?user=testuser";
+		try (Connection conn = DriverManager.getConnection(url)) {
+			CopyManager copy = new CopyManager(conn.unwrap(BaseConnection.class));
+
+			String text = "3\tCarol\tcarol@example.com\n4\t\\N\ttab\\there\n";
+			assertEquals(2, copy.copyIn("COPY users FROM STDIN", new StringReader(text), 5));
+
+			String csv = "email,id,name\n\"x,\"\"y\"\"\",5,\"multi\nline\"\n,6,\"\"\n";
+			assertEquals(2, copy.copyIn("COPY users (email, id, name) FROM STDIN WITH (FORMAT csv, HEADER)", new StringReader(csv), 3));
+		}
+
+		assertEquals(6, db.tables().getRowCount("users"));
+		AVector<?> carol = db.tables().selectByKey("users", CVMLong.create(3));
+		assertEquals("Carol", carol.get(1).toString());
+		AVector<?> four = db.tables().selectByKey("users", CVMLong.create(4));
+		assertNull(four.get(1));
+		assertEquals("tab\there", four.get(2).toString());
+		AVector<?> five = db.tables().selectByKey("users", CVMLong.create(5));
+		assertEquals("multi\nline", five.get(1).toString());
+		assertEquals("x,\"y\"", five.get(2).toString());
+		// Quoted empty CSV field is an empty string, unquoted is NULL
+		AVector<?> six = db.tables().selectByKey("users", CVMLong.create(6));
+		assertEquals("", six.get(1).toString());
+		assertNull(six.get(2));
+	}
+
+	/**
+	 * Tests that a COPY FROM STDIN with bad data fails without writing any
+	 * rows, and leaves the connection usable.
+	 */
+	@Test
+	public void testCopyFromStdinFailureWritesNothing() throws Exception {
+		String url = "jdbc:postgresql://localhost:" + server.getPort() + "/" + dbName + "?user=testuser";
+		try (Connection conn = DriverManager.getConnection(url)) {
+			CopyManager copy = new CopyManager(conn.unwrap(BaseConnection.class));
+			String data = "7\tGood\tgood@example.com\nseven\tBad\tbad@example.com\n";
+			assertThrows(SQLException.class, () -> copy.copyIn("COPY users FROM STDIN", new StringReader(data)));
+			assertEquals(2, db.tables().getRowCount("users"));
+
+			try (Statement stmt = conn.createStatement();
+				 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
+				assertTrue(rs.next());
+				assertEquals(2, rs.getLong(1));
+			}
+		}
+	}
+
+	/**
+	 * Tests COPY TO STDOUT from a table and a query in text and CSV formats.
+	 */
+	@Test
+	public void testCopyToStdout() throws Exception {
+		db.tables().insert("users", 3L, "Tab\tby", null);
+		String url = "jdbc:postgresql://localhost:" + server.getPort() + "/" + dbName + "?user=testuser";
+		try (Connection conn = DriverManager.getConnection(url)) {
+			CopyManager copy = new CopyManager(conn.unwrap(BaseConnection.class));
+
+			StringWriter text = new StringWriter();
+			assertEquals(3, copy.copyOut("COPY users TO STDOUT", text));
+			assertEquals("1\tAlice\talice@example.com\n2\tBob\tbob@example.com\n3\tTab\\tby\t\\N\n", text.toString());
+
+			StringWriter csv = new StringWriter();
+			assertEquals(2, copy.copyOut("COPY (SELECT id, name FROM users WHERE id < 3) TO STDOUT WITH CSV HEADER", csv));
+			// Header uses the column labels of the query, as in RowDescription
+			assertEquals("ID,NAME\n1,Alice\n2,Bob\n", csv.toString());
+		}
+	}
+
+	/**
+	 * Tests that text COPY timestamps are read as UTC, like binary timestamps,
+	 * whatever the JVM time zone.
+	 */
+	@Test
+	public void testCopyTimestamps() throws Exception {
+		String[] columns = {"id", "at"};
+		ConvexColumnType[] types = {ConvexColumnType.of(ConvexType.INTEGER), ConvexColumnType.of(ConvexType.TIMESTAMP)};
+		db.tables().createTable("events", columns, types);
+
+		TimeZone zone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+		String url = "jdbc:postgresql://localhost:" + server.getPort() + "/" + dbName + "?user=testuser";
+		try (Connection conn = DriverManager.getConnection(url)) {
+			CopyManager copy = new CopyManager(conn.unwrap(BaseConnection.class));
+			String text = "1\t2024-01-02 03:04:05.5\n2\t1000\n";
+			assertEquals(2, copy.copyIn("COPY events FROM STDIN", new StringReader(text)));
+		} finally {
+			TimeZone.setDefault(zone);
+		}
+		AVector<?> one = db.tables().selectByKey("events", CVMLong.create(1));
+		assertEquals(CVMLong.create(Instant.parse("2024-01-02T03:04:05.5Z").toEpochMilli()), one.get(1));
+		AVector<?> two = db.tables().selectByKey("events", CVMLong.create(2));
+		assertEquals(CVMLong.create(1000), two.get(1));
+	}
+
+	/**
+	 * Tests that binary COPY output loads back with binary COPY input.
+	 */
+	@Test
+	public void testCopyBinaryRoundTrip() throws Exception {
+		ConvexColumnType[] types = {
+			ConvexColumnType.of(ConvexType.INTEGER),
+			ConvexColumnType.of(ConvexType.DOUBLE),
+			ConvexColumnType.of(ConvexType.BOOLEAN),
+			ConvexColumnType.varchar(20)
+		};
+		String[] columns = {"id", "score", "active", "label"};
+		db.tables().createTable("src", columns, types);
+		db.tables().createTable("dst", columns, types);
+		for (long i = 0; i < 1000; i++) {
+			db.tables().insert("src", i, i * 0.25, i % 2 == 0, (i % 3 == 0) ? null : "label" + i);
+		}
+
+		String url = "jdbc:postgresql://localhost:" + server.getPort() + "/" + dbName + "?user=testuser";
+		try (Connection conn = DriverManager.getConnection(url)) {
+			CopyManager copy = new CopyManager(conn.unwrap(BaseConnection.class));
+			ByteArrayOutputStream data = new ByteArrayOutputStream();
+			assertEquals(1000, copy.copyOut("COPY src TO STDOUT (FORMAT binary)", data));
+			assertEquals(1000, copy.copyIn("COPY dst FROM STDIN (FORMAT binary)", new ByteArrayInputStream(data.toByteArray()), 100));
+		}
+		assertEquals(db.tables().selectAll("src"), db.tables().selectAll("dst"));
+	}
+
 	/**
 	 * Tests connectivity using the PostgreSQL JDBC driver.
 	 * Disabled: Requires extended query protocol support (Parse/Bind/Execute).
@@ -393,6 +669,38 @@ public class PgServerTest {
 		out.flush();
 	}
 
+	private void sendMessage(DataOutputStream out, char type, byte[]... parts) throws IOException {
+		int length = 4;
+		for (byte[] part : parts) length += part.length;
+		out.writeByte(type);
+		out.writeInt(length);
+		for (byte[] part : parts) out.write(part);
+		out.flush();
+	}
+
+	private byte[] cstrings(String... strings) {
+		java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+		for (String str : strings) {
+			bytes.writeBytes(str.getBytes(StandardCharsets.UTF_8));
+			bytes.write(0);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Reads messages up to ReadyForQuery, returning the types of the messages before it.
+	 */
+	private List<Character> readMessageTypes(DataInputStream in) throws IOException {
+		List<Character> types = new ArrayList<>();
+		while (true) {
+			byte type = in.readByte();
+			int length = in.readInt();
+			in.readFully(new byte[length - 4]);
+			if (type == 'Z') return types;
+			types.add((char) type);
+		}
+	}
+
 	private void skipToReadyForQuery(DataInputStream in) throws IOException {
 		while (true) {
 			byte type = in.readByte();
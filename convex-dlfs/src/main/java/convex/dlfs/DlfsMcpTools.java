@@ -12,6 +12,7 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Base64;
 import java.util.List;
 
+import convex.auth.TokenCache;
 import convex.auth.ucan.Capability;
 import convex.auth.ucan.UCAN;
 import convex.auth.ucan.UCANValidator;
@@ -68,6 +69,9 @@ public class DlfsMcpTools {
 
 	private final DLFSDriveManager driveManager;
 
+	/** Validated UCANs, so repeated calls with the same delegation skip chain verification */
+	private final TokenCache<UCAN> ucanCache = new TokenCache<>();
+
 	public DlfsMcpTools(DLFSDriveManager driveManager) {
 		this.driveManager = driveManager;
 	}
@@ -163,7 +167,7 @@ public class DlfsMcpTools {
 			if (jwtString == null) continue;
 
 			// Validate JWT signature, expiry, chain
-			UCAN ucan = UCANValidator.validateJWT(jwtString, now);
+			UCAN ucan = UCANValidator.validateJWT(jwtString, now, ucanCache);
 			if (ucan == null) continue;
 
 			// Audience must match the caller
@@ -1,5 +1,6 @@
 package convex.api;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -91,6 +92,12 @@ public abstract class AConvexConnected extends Convex {
 			}
 			return r;
 		});
+
+		// A caller cancelling the request (e.g. the losing side of a hedged query)
+		// no longer needs the result, so stop awaiting it
+		cr.whenComplete((r,e)->{
+			if (e instanceof CancellationException) awaiting.remove(resultID);
+		});
 		return cr;
 	}
 
@@ -0,0 +1,591 @@
+package convex.api;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import convex.core.ErrorCodes;
+import convex.core.Result;
+import convex.core.SourceCodes;
+import convex.core.crypto.AKeyPair;
+import convex.core.cvm.Address;
+import convex.core.cvm.transactions.ATransaction;
+import convex.core.data.ACell;
+import convex.core.data.Blob;
+import convex.core.data.Hash;
+import convex.core.data.SignedData;
+import convex.core.data.prim.CVMLong;
+import convex.core.message.Message;
+import convex.core.store.AStore;
+import convex.core.util.Utils;
+
+/**
+ * Convex client API implementation backed by connections to several peers.
+ *
+ * <p>Queries are routed to the healthy peer with the lowest observed latency,
+ * weighted by its recent error rate, and are retried once on another peer if
+ * the first attempt fails for communication reasons. Transactions are sent to
+ * the preferred peer (the first healthy peer in the order given), and on a
+ * communication failure the identical signed transaction is resubmitted to the
+ * next healthy peer. Since the resubmitted transaction has the same hash and
+ * sequence number, it can be executed at most once.</p>
+ *
+ * <p>A peer that fails repeatedly is skipped for a cool-down period and then
+ * redialled in the background, so losing one peer does not stall the client.</p>
+ *
+ * <p>Queries may optionally be hedged (see {@link #setHedgePercentile(double)}):
+ * if the chosen peer has not responded within the given percentile of its own
+ * observed latency, the same query is also sent to the next best peer and the
+ * first successful response is used, cancelling the other request.</p>
+ */
+public class ConvexPool extends Convex {
+
+	private static final Logger log = LoggerFactory.getLogger(ConvexPool.class.getName());
+
+	/**
+	 * Number of consecutive communication failures after which a peer is
+	 * considered unhealthy
+	 */
+	public static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+	/**
+	 * Time in milliseconds an unhealthy peer is skipped before reconnection is attempted
+	 */
+	public static final long RETRY_DELAY = 5000;
+
+	/**
+	 * Weight given to each new latency sample in the moving average
+	 */
+	private static final double LATENCY_ALPHA = 0.2;
+
+	/**
+	 * Minimum number of latency samples for a peer before its histogram is used
+	 * to compute a hedging delay
+	 */
+	public static final int MIN_HEDGE_SAMPLES = 20;
+
+	/**
+	 * Hedging delay in milliseconds used while a peer has too few latency samples
+	 */
+	public static final long DEFAULT_HEDGE_DELAY = 100;
+
+	/**
+	 * Connection state and statistics for a single peer in the pool
+	 */
+	public static class PeerEntry {
+		private final InetSocketAddress hostAddress;
+		volatile ConvexRemote client;
+
+		private volatile double latency = Double.NaN;
+		private volatile int consecutiveFailures = 0;
+		private volatile long lastFailure = 0;
+		private volatile boolean reconnecting = false;
+		private final AtomicLong requestCount = new AtomicLong();
+		private final AtomicLong errorCount = new AtomicLong();
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		PeerEntry(InetSocketAddress hostAddress) {
+			this.hostAddress = hostAddress;
+		}
+
+		/**
+		 * Gets the address of this peer
+		 * @return Socket address
+		 */
+		public InetSocketAddress getHostAddress() {
+			return hostAddress;
+		}
+
+		/**
+		 * Gets the moving average round trip latency to this peer
+		 * @return Latency in milliseconds, or NaN if not yet measured
+		 */
+		public double getLatency() {
+			return latency;
+		}
+
+		/**
+		 * Gets the histogram of successful request latencies to this peer
+		 * @return Latency histogram, in microseconds
+		 */
+		public LatencyHistogram getLatencyHistogram() {
+			return histogram;
+		}
+
+		/**
+		 * Gets the delay after which a request to this peer should be hedged
+		 * @param percentile Latency percentile, as a fraction between 0.0 and 1.0
+		 * @return Delay in microseconds
+		 */
+		long getHedgeDelay(double percentile) {
+			if (histogram.getCount() < MIN_HEDGE_SAMPLES) return DEFAULT_HEDGE_DELAY * 1000;
+			return histogram.getPercentile(percentile);
+		}
+
+		/**
+		 * Gets the total number of requests routed to this peer
+		 * @return Request count
+		 */
+		public long getRequestCount() {
+			return requestCount.get();
+		}
+
+		/**
+		 * Gets the number of requests to this peer that failed for communication reasons
+		 * @return Error count
+		 */
+		public long getErrorCount() {
+			return errorCount.get();
+		}
+
+		/**
+		 * Gets the fraction of requests to this peer that failed
+		 * @return Error rate between 0.0 and 1.0
+		 */
+		public double getErrorRate() {
+			long n = requestCount.get();
+			if (n == 0) return 0.0;
+			return (double) errorCount.get() / n;
+		}
+
+		/**
+		 * Checks if this peer is currently connected and not cooling down after failures
+		 * @return true if healthy
+		 */
+		public boolean isHealthy() {
+			ConvexRemote c = client;
+			if ((c == null) || !c.isConnected()) return false;
+			return consecutiveFailures < MAX_CONSECUTIVE_FAILURES;
+		}
+
+		/**
+		 * Routing score, lower is better. Unmeasured peers score as fast so they get sampled.
+		 */
+		double score() {
+			double l = Double.isNaN(latency) ? 0.0 : latency;
+			return l * (1.0 + 10.0 * getErrorRate());
+		}
+
+		void recordSuccess(long micros) {
+			histogram.record(micros);
+			double millis = micros / 1000.0;
+			double l = latency;
+			latency = Double.isNaN(l) ? millis : (l + LATENCY_ALPHA * (millis - l));
+			consecutiveFailures = 0;
+		}
+
+		void recordFailure() {
+			errorCount.incrementAndGet();
+			consecutiveFailures++;
+			lastFailure = Utils.getTimeMillis();
+		}
+
+		@Override
+		public String toString() {
+			return hostAddress + " latency=" + latency + "ms requests=" + getRequestCount() + " errors=" + getErrorCount();
+		}
+	}
+
+	private final List<PeerEntry> peers;
+
+	private volatile boolean closed = false;
+
+	/**
+	 * Latency percentile used to trigger hedged queries, or 0.0 if hedging is disabled
+	 */
+	private volatile double hedgePercentile = 0.0;
+
+	private final AtomicLong hedgeCount = new AtomicLong();
+
+	protected ConvexPool(Address address, AKeyPair keyPair, List<PeerEntry> peers) {
+		super(address, keyPair);
+		this.peers = peers;
+	}
+
+	/**
+	 * Connects to a set of peers. Peers that cannot be reached initially are
+	 * retained and redialled later.
+	 *
+	 * @param hostAddresses Peer addresses, in order of preference for transactions
+	 * @return New ConvexPool instance
+	 * @throws IOException If no peer could be connected
+	 */
+	public static ConvexPool connect(InetSocketAddress... hostAddresses) throws IOException {
+		return connect(null, null, hostAddresses);
+	}
+
+	/**
+	 * Connects to a set of peers using the given account and key pair for transactions.
+	 *
+	 * @param address Address of account to use for transactions
+	 * @param keyPair Key pair used to sign transactions
+	 * @param hostAddresses Peer addresses, in order of preference for transactions
+	 * @return New ConvexPool instance
+	 * @throws IOException If no peer could be connected
+	 */
+	public static ConvexPool connect(Address address, AKeyPair keyPair, InetSocketAddress... hostAddresses) throws IOException {
+		if (hostAddresses.length == 0) throw new IllegalArgumentException("At least one peer address required");
+		List<PeerEntry> entries = new ArrayList<>();
+		for (InetSocketAddress sa : hostAddresses) {
+			entries.add(new PeerEntry(sa));
+		}
+		ConvexPool pool = new ConvexPool(address, keyPair, Collections.unmodifiableList(entries));
+		IOException failure = null;
+		for (PeerEntry pe : entries) {
+			try {
+				pool.dial(pe);
+			} catch (IOException | TimeoutException e) {
+				failure = new IOException("Failed to connect to peer at " + pe.getHostAddress(), e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while connecting", e);
+			}
+		}
+		if (!pool.isConnected()) throw failure;
+		return pool;
+	}
+
+	private void dial(PeerEntry pe) throws IOException, TimeoutException, InterruptedException {
+		try {
+			ConvexRemote c = ConvexRemote.connect(pe.getHostAddress());
+			c.setTimeout(timeout);
+			ConvexRemote old = pe.client;
+			pe.client = c;
+			pe.consecutiveFailures = 0;
+			if (old != null) old.close();
+		} catch (IOException | TimeoutException e) {
+			pe.recordFailure();
+			throw e;
+		}
+	}
+
+	/**
+	 * Redials an unhealthy peer in the background once its cool-down has elapsed
+	 */
+	private void maybeRedial(PeerEntry pe) {
+		if (closed || pe.isHealthy() || pe.reconnecting) return;
+		if (Utils.getTimeMillis() - pe.lastFailure < RETRY_DELAY) return;
+		synchronized (pe) {
+			if (pe.reconnecting) return;
+			pe.reconnecting = true;
+		}
+		Thread.startVirtualThread(() -> {
+			try {
+				dial(pe);
+				log.debug("Reconnected to pooled peer {}", pe.getHostAddress());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (Exception e) {
+				log.debug("Failed to reconnect to pooled peer {}: {}", pe.getHostAddress(), e.getMessage());
+			} finally {
+				pe.reconnecting = false;
+			}
+		});
+	}
+
+	/**
+	 * Gets the peers in this pool with their current statistics
+	 * @return List of peer entries, in order of preference for transactions
+	 */
+	public List<PeerEntry> getPeers() {
+		return peers;
+	}
+
+	/**
+	 * Selects the healthy peer with the best routing score
+	 * @param exclude Peer to skip, or null
+	 * @return Best peer, or null if no healthy peer is available
+	 */
+	PeerEntry selectFastest(PeerEntry exclude) {
+		PeerEntry best = null;
+		for (PeerEntry pe : peers) {
+			if (pe == exclude) continue;
+			if (!pe.isHealthy()) {
+				maybeRedial(pe);
+				continue;
+			}
+			if ((best == null) || (pe.score() < best.score())) best = pe;
+		}
+		return best;
+	}
+
+	/**
+	 * Selects the first healthy peer in order of preference
+	 * @param exclude Peer to skip, or null
+	 * @return Preferred peer, or null if no healthy peer is available
+	 */
+	PeerEntry selectPreferred(PeerEntry exclude) {
+		for (PeerEntry pe : peers) {
+			if (pe == exclude) continue;
+			if (pe.isHealthy()) return pe;
+			maybeRedial(pe);
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if a Result indicates a failure of the peer or connection, rather
+	 * than of the request itself
+	 */
+	static boolean isPeerFailure(Result r) {
+		if (!r.isError()) return false;
+		if (SourceCodes.COMM.equals(r.getSource())) return true;
+		ACell code = r.getErrorCode();
+		return ErrorCodes.TIMEOUT.equals(code) || ErrorCodes.CONNECT.equals(code) || ErrorCodes.LOAD.equals(code);
+	}
+
+	/**
+	 * Sends a request to a peer, recording latency and failures
+	 */
+	CompletableFuture<Result> request(PeerEntry pe, Function<ConvexRemote, CompletableFuture<Result>> action) {
+		ConvexRemote c = pe.client;
+		if (c == null) return CompletableFuture.completedFuture(Result.CLOSED_CONNECTION);
+		pe.requestCount.incrementAndGet();
+		long start = System.nanoTime();
+		CompletableFuture<Result> sent = action.apply(c);
+		CompletableFuture<Result> result = sent.handle((r, e) -> {
+			if (e != null) r = Result.fromException(e).withSource(SourceCodes.COMM);
+			if (isPeerFailure(r)) {
+				pe.recordFailure();
+			} else {
+				pe.recordSuccess((System.nanoTime() - start) / 1000);
+			}
+			return r;
+		});
+		// Propagate cancellation so the underlying client stops awaiting the result
+		result.whenComplete((r, e) -> {
+			if (e instanceof CancellationException) sent.cancel(true);
+		});
+		return result;
+	}
+
+	/**
+	 * Sends a request to the fastest peer, and also to the next fastest peer if
+	 * no successful response arrives within the hedging delay. Completes with the
+	 * first successful response, cancelling the other request.
+	 */
+	private CompletableFuture<Result> hedge(Function<ConvexRemote, CompletableFuture<Result>> action) {
+		PeerEntry first = selectFastest(null);
+		if (first == null) return CompletableFuture.completedFuture(Result.CLOSED_CONNECTION);
+		PeerEntry second = selectFastest(first);
+		CompletableFuture<Result> primary = request(first, action);
+		if (second == null) return primary;
+
+		CompletableFuture<Result> result = new CompletableFuture<>();
+		CompletableFuture<Result> backup = new CompletableFuture<>();
+		AtomicBoolean hedged = new AtomicBoolean(false);
+		Runnable sendBackup = () -> {
+			if (result.isDone() || !hedged.compareAndSet(false, true)) return;
+			hedgeCount.incrementAndGet();
+			CompletableFuture<Result> alt = request(second, action);
+			alt.thenAccept(backup::complete);
+			backup.whenComplete((r, e) -> {
+				if (e instanceof CancellationException) alt.cancel(true);
+			});
+		};
+
+		primary.thenAccept(r -> {
+			if (!isPeerFailure(r)) {
+				result.complete(r);
+			} else {
+				// fail over immediately, and take whatever the backup returns
+				sendBackup.run();
+				backup.thenAccept(result::complete);
+			}
+		});
+		backup.thenAccept(r -> {
+			if (!isPeerFailure(r)) result.complete(r);
+		});
+		result.thenRun(() -> {
+			primary.cancel(true);
+			backup.cancel(true);
+		});
+
+		long delay = first.getHedgeDelay(hedgePercentile);
+		CompletableFuture.delayedExecutor(delay, TimeUnit.MICROSECONDS).execute(sendBackup);
+		return result;
+	}
+
+	/**
+	 * Sends a request to the fastest peer, retrying once on another peer after a peer failure
+	 */
+	private CompletableFuture<Result> route(Function<ConvexRemote, CompletableFuture<Result>> action) {
+		PeerEntry pe = selectFastest(null);
+		if (pe == null) return CompletableFuture.completedFuture(Result.CLOSED_CONNECTION);
+		return request(pe, action).thenCompose(r -> {
+			if (!isPeerFailure(r)) return CompletableFuture.completedFuture(r);
+			PeerEntry alt = selectFastest(pe);
+			if (alt == null) return CompletableFuture.completedFuture(r);
+			return request(alt, action);
+		});
+	}
+
+	@Override
+	public CompletableFuture<Result> query(ACell query, Address address) {
+		if (hedgePercentile > 0.0) return hedge(c -> c.query(query, address));
+		return route(c -> c.query(query, address));
+	}
+
+	/**
+	 * Enables or disables hedged queries. When enabled, a query that has not
+	 * completed within the given percentile of the chosen peer's latency is also
+	 * sent to the next best peer.
+	 *
+	 * @param percentile Latency percentile as a fraction (e.g. 0.95), or 0.0 to disable hedging
+	 */
+	public void setHedgePercentile(double percentile) {
+		if ((percentile < 0.0) || (percentile > 1.0)) throw new IllegalArgumentException("Percentile must be between 0.0 and 1.0");
+		this.hedgePercentile = percentile;
+	}
+
+	/**
+	 * Gets the latency percentile used for hedged queries
+	 * @return Percentile as a fraction, or 0.0 if hedging is disabled
+	 */
+	public double getHedgePercentile() {
+		return hedgePercentile;
+	}
+
+	/**
+	 * Gets the number of hedged (duplicate) query requests sent by this pool
+	 * @return Count of hedged requests
+	 */
+	public long getHedgeCount() {
+		return hedgeCount.get();
+	}
+
+	@Override
+	public CompletableFuture<Result> transact(SignedData<ATransaction> signed) {
+		return transactFrom(null, signed);
+	}
+
+	/**
+	 * Submits a signed transaction to the preferred peer, failing over to other
+	 * peers in order of preference. The same signed transaction is resubmitted,
+	 * so it can be executed at most once. The failed peer may already have
+	 * executed it, in which case the new peer looks it up by hash and returns
+	 * the original Result rather than a SEQUENCE error.
+	 */
+	private CompletableFuture<Result> transactFrom(PeerEntry failed, SignedData<ATransaction> signed) {
+		PeerEntry pe = selectPreferred(failed);
+		if (pe == null) {
+			return CompletableFuture.completedFuture(Result.CLOSED_CONNECTION);
+		}
+		return request(pe, c -> c.transact(signed)).thenCompose(r -> {
+			if ((failed == null) && isPeerFailure(r)) {
+				Hash h = signed.getHash();
+				log.debug("Resubmitting transaction {} after failure of peer {}", h, pe.getHostAddress());
+				return transactFrom(pe, signed);
+			}
+			return CompletableFuture.completedFuture(r);
+		});
+	}
+
+	@Override
+	public CompletableFuture<CVMLong> ping() {
+		PeerEntry pe = selectFastest(null);
+		if (pe == null) return CompletableFuture.completedFuture(null);
+		return pe.client.ping();
+	}
+
+	@Override
+	public CompletableFuture<Result> messageRaw(Blob message) {
+		return route(c -> c.messageRaw(message));
+	}
+
+	@Override
+	public CompletableFuture<Result> message(Message message) {
+		return route(c -> c.message(message));
+	}
+
+	@Override
+	public CompletableFuture<Result> requestStatus() {
+		return route(c -> c.requestStatus());
+	}
+
+	@Override
+	protected CompletableFuture<Result> sendChallenge(SignedData<ACell> data) {
+		PeerEntry pe = selectPreferred(null);
+		if (pe == null) return CompletableFuture.completedFuture(Result.CLOSED_CONNECTION);
+		return request(pe, c -> c.sendChallenge(data));
+	}
+
+	@Override
+	public <T extends ACell> CompletableFuture<T> acquire(Hash hash, AStore store) {
+		PeerEntry pe = selectFastest(null);
+		if (pe == null) return CompletableFuture.failedFuture(new IOException("No connected peers"));
+		return pe.client.acquire(hash, store);
+	}
+
+	@Override
+	public boolean isConnected() {
+		for (PeerEntry pe : peers) {
+			ConvexRemote c = pe.client;
+			if ((c != null) && c.isConnected()) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void setTimeout(long timeout) {
+		super.setTimeout(timeout);
+		for (PeerEntry pe : peers) {
+			ConvexRemote c = pe.client;
+			if (c != null) c.setTimeout(timeout);
+		}
+	}
+
+	/**
+	 * Gets the address of the preferred peer for transactions
+	 */
+	@Override
+	public InetSocketAddress getHostAddress() {
+		PeerEntry pe = selectPreferred(null);
+		return (pe == null) ? null : pe.getHostAddress();
+	}
+
+	/**
+	 * Redials all peers that are not currently connected
+	 */
+	@Override
+	public void reconnect() throws IOException, TimeoutException, InterruptedException {
+		closed = false;
+		for (PeerEntry pe : peers) {
+			ConvexRemote c = pe.client;
+			if ((c != null) && c.isConnected()) continue;
+			try {
+				dial(pe);
+			} catch (IOException | TimeoutException e) {
+				log.debug("Failed to reconnect to pooled peer {}: {}", pe.getHostAddress(), e.getMessage());
+			}
+		}
+		if (!isConnected()) throw new IOException("Unable to reconnect to any peer");
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		for (PeerEntry pe : peers) {
+			ConvexRemote c = pe.client;
+			if (c != null) c.close();
+		}
+		verifiedPeer = null;
+	}
+
+	@Override
+	public String toString() {
+		return "Convex pool of " + peers.size() + " peers";
+	}
+}
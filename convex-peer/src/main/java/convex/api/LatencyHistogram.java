@@ -0,0 +1,81 @@
+package convex.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latency samples with logarithmic buckets.
+ *
+ * <p>Each power of two is split into four sub-buckets, so percentiles are
+ * accurate to within 25% over the full range of long values while the
+ * histogram stays a fixed 256 counters. Units are chosen by the caller.</p>
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BITS = 2;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int BUCKET_COUNT = 64 * SUB_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong total = new AtomicLong();
+
+	/**
+	 * Records a latency sample
+	 * @param value Sample value, negative values are treated as zero
+	 */
+	public void record(long value) {
+		counts.incrementAndGet(bucketIndex(Math.max(0, value)));
+		total.incrementAndGet();
+	}
+
+	/**
+	 * Gets the number of samples recorded
+	 * @return Sample count
+	 */
+	public long getCount() {
+		return total.get();
+	}
+
+	/**
+	 * Gets an upper bound for the given percentile of recorded samples
+	 * @param p Percentile as a fraction between 0.0 and 1.0
+	 * @return Upper bound of the bucket containing the percentile, or -1 if no samples are recorded
+	 */
+	public long getPercentile(double p) {
+		long n = total.get();
+		if (n == 0) return -1;
+		long target = Math.max(1, (long) Math.ceil(p * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts.get(i);
+			if (seen >= target) return bucketUpperBound(i);
+		}
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * Clears all recorded samples
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		total.set(0);
+	}
+
+	static int bucketIndex(long v) {
+		if (v < SUB_COUNT) return (int) v;
+		int msb = 63 - Long.numberOfLeadingZeros(v);
+		int shift = msb - SUB_BITS;
+		int sub = (int) ((v >>> shift) & (SUB_COUNT - 1));
+		return (shift + 1) * SUB_COUNT + sub;
+	}
+
+	static long bucketUpperBound(int i) {
+		if (i < SUB_COUNT) return i;
+		int shift = i / SUB_COUNT - 1;
+		int sub = i % SUB_COUNT;
+		if (shift >= 60) return Long.MAX_VALUE;
+		return ((SUB_COUNT + sub + 1L) << shift) - 1;
+	}
+}
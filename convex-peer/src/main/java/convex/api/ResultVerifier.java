@@ -0,0 +1,117 @@
+package convex.api;
+
+import java.util.Collection;
+import java.util.Set;
+
+import convex.core.ErrorCodes;
+import convex.core.Result;
+import convex.core.SourceCodes;
+import convex.core.cpos.CPoSConstants;
+import convex.core.cpos.Order;
+import convex.core.cpos.ResultProof;
+import convex.core.cvm.Keywords;
+import convex.core.data.ABlob;
+import convex.core.data.ACell;
+import convex.core.data.AMap;
+import convex.core.data.AVector;
+import convex.core.data.AccountKey;
+import convex.core.data.Blob;
+import convex.core.data.Hash;
+import convex.core.data.Keyword;
+import convex.core.data.SignedData;
+import convex.core.data.prim.CVMLong;
+import convex.core.exceptions.ResultException;
+import convex.core.lang.RT;
+
+/**
+ * Light client verifier for transaction Results.
+ *
+ * Checks a Result returned by a peer against its inclusion proof (see
+ * {@link ResultProof}). The proof is rooted in a result commitment signed by a
+ * trusted peer, which includes that peer's signed Order. A Result is accepted
+ * only if its block is below the finality point of the Order, and the Order has
+ * the transaction at the claimed position, so a client can trust a Result
+ * without holding any State or running a peer itself.
+ *
+ * Peers return {@code :loc} and {@code :tx} with each transaction Result, but
+ * no proof. Clients that verify request the proof separately, e.g. from the
+ * REST transaction lookup with {@code proof=true}.
+ */
+public class ResultVerifier {
+
+	private final Set<AccountKey> trustedPeers;
+
+	private ResultVerifier(Set<AccountKey> trustedPeers) {
+		this.trustedPeers = trustedPeers;
+	}
+
+	/**
+	 * Creates a verifier accepting commitments and Orders signed by any of the given peers
+	 * @param trustedPeers Keys of trusted peers
+	 * @return New ResultVerifier instance
+	 */
+	public static ResultVerifier create(Collection<AccountKey> trustedPeers) {
+		return new ResultVerifier(Set.copyOf(trustedPeers));
+	}
+
+	/**
+	 * Verifies an inclusion proof for a transaction
+	 * @param proof Proof encoding, rooted in a signed result commitment
+	 * @param txID Hash of the signed transaction
+	 * @param blockIndex Block number of the transaction
+	 * @param txIndex Index of the transaction within its Block
+	 * @return Proven Result
+	 * @throws ResultException With :TRUST error if the proof cannot be verified
+	 */
+	public Result verify(Blob proof, Hash txID, long blockIndex, long txIndex) throws ResultException {
+		ACell root = ResultProof.decode(proof);
+		if (!(root instanceof SignedData<?> commitment)) throw trustFailure("No signed result commitment");
+		checkSigned(commitment, "Result commitment");
+
+		SignedData<Order> order = ResultProof.getOrder(root);
+		if (order == null) throw trustFailure("No Order in result proof");
+		checkSigned(order, "Order");
+		long finality = order.getValue().getConsensusPoint(CPoSConstants.CONSENSUS_LEVEL_FINALITY);
+		if (blockIndex >= finality) throw trustFailure("Block not final in signed Order");
+
+		Hash orderedID = ResultProof.getTransactionID(root, blockIndex, txIndex);
+		if ((orderedID == null) || !orderedID.equals(txID)) throw trustFailure("Transaction not at claimed position in Order");
+
+		Result proven = ResultProof.getResult(root, blockIndex, txIndex);
+		if (proven == null) throw trustFailure("Invalid result proof");
+		return proven;
+	}
+
+	/**
+	 * Checks that a transaction Result returned by a peer is proven by a
+	 * separately requested proof, for the location and transaction ID in its info
+	 * @param claimed Result returned by a peer
+	 * @param proof Proof encoding for the Result
+	 * @return true if the Result is proven, false otherwise
+	 */
+	public boolean verifyResult(Result claimed, ABlob proof) {
+		if ((claimed == null) || (claimed.getInfo() == null)) return false;
+		AMap<Keyword, ACell> info = claimed.getInfo();
+		AVector<CVMLong> loc = RT.ensureVector(info.get(Keywords.LOC));
+		Hash txID = RT.ensureHash(info.get(Keywords.TX));
+		if ((proof == null) || (loc == null) || (loc.count() != 2) || (txID == null)) return false;
+		CVMLong blockIndex = RT.ensureLong(loc.get(0));
+		CVMLong txIndex = RT.ensureLong(loc.get(1));
+		if ((blockIndex == null) || (txIndex == null)) return false;
+		try {
+			return ResultProof.matches(verify(proof.toFlatBlob(), txID, blockIndex.longValue(), txIndex.longValue()), claimed);
+		} catch (ResultException e) {
+			return false;
+		}
+	}
+
+	private void checkSigned(SignedData<?> signed, String what) throws ResultException {
+		AccountKey signer = signed.getAccountKey();
+		if ((signer == null) || !trustedPeers.contains(signer)) throw trustFailure(what + " not signed by a trusted peer");
+		if (!signed.checkSignature()) throw trustFailure("Bad signature on " + what);
+	}
+
+	private static ResultException trustFailure(String message) {
+		return new ResultException(Result.error(ErrorCodes.TRUST, message).withSource(SourceCodes.CLIENT));
+	}
+}
@@ -0,0 +1,279 @@
+package convex.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import convex.core.ErrorCodes;
+import convex.core.Result;
+import convex.core.SourceCodes;
+import convex.core.crypto.AKeyPair;
+import convex.core.cvm.Address;
+import convex.core.cvm.transactions.ATransaction;
+import convex.core.cvm.transactions.Invoke;
+import convex.core.data.ACell;
+import convex.core.data.SignedData;
+import convex.core.exceptions.ResultException;
+
+/**
+ * High-throughput transaction submission for many accounts over one or more
+ * peer connections.
+ *
+ * <p>Unlike {@link Convex#transact(ATransaction)}, which serialises preparation
+ * and signing behind a single lock, a pipeline keeps independent state per
+ * account:</p>
+ * <ul>
+ * <li>Sequence numbers are assigned locally per account, looked up from the
+ * network only when unknown (first use, or after a SEQUENCE or communication
+ * error on the last transaction submitted for the account)</li>
+ * <li>Signing runs on an executor, so transactions for different accounts (and
+ * successive transactions for the same account) are signed in parallel</li>
+ * <li>Signed transactions for each account are submitted in sequence order,
+ * always over the same connection, so the peer sees them in order</li>
+ * <li>Submission does not wait for earlier results: many transactions are in
+ * flight per connection, and results are correlated asynchronously by the
+ * underlying client</li>
+ * </ul>
+ *
+ * <p>Outgoing messages are coalesced by the connection's outbound queue, which
+ * writes all pending messages before a single flush.</p>
+ */
+public class TransactionPipeline implements AutoCloseable {
+
+	/**
+	 * Per-account submission state. Guarded by its own monitor.
+	 */
+	private static final class AccountSlot {
+		final AKeyPair keyPair;
+		final Convex connection;
+
+		/**
+		 * Last sequence number assigned, or null if it must be looked up.
+		 */
+		Long sequence;
+
+		/**
+		 * Incremented whenever the sequence number is reset, so that results and
+		 * lookups from before the reset are ignored.
+		 */
+		long generation;
+
+		/**
+		 * Number of transactions submitted in this generation without a Result yet
+		 */
+		long inFlight;
+
+		/**
+		 * True if the last transaction submitted lost the sequence number, and the
+		 * reset is waiting for earlier transactions to complete
+		 */
+		boolean resetPending;
+
+		/**
+		 * Future completing when the last transaction for this account has been
+		 * handed to the connection. New submissions chain on this to preserve order.
+		 */
+		CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+		AccountSlot(AKeyPair keyPair, Convex connection, Long sequence) {
+			this.keyPair = keyPair;
+			this.connection = connection;
+			this.sequence = sequence;
+		}
+	}
+
+	private final Convex[] connections;
+
+	private final Executor signingExecutor;
+
+	private final ConcurrentHashMap<Address, AccountSlot> accounts = new ConcurrentHashMap<>();
+
+	private TransactionPipeline(Convex[] connections, Executor signingExecutor) {
+		this.connections = connections;
+		this.signingExecutor = signingExecutor;
+	}
+
+	/**
+	 * Creates a pipeline submitting over the given connections. Transactions are
+	 * signed on the common fork-join pool.
+	 *
+	 * @param connections One or more connected Convex clients
+	 * @return New TransactionPipeline
+	 */
+	public static TransactionPipeline create(Convex... connections) {
+		return create(ForkJoinPool.commonPool(), connections);
+	}
+
+	/**
+	 * Creates a pipeline submitting over the given connections.
+	 *
+	 * @param signingExecutor Executor used to sign transactions
+	 * @param connections One or more connected Convex clients
+	 * @return New TransactionPipeline
+	 */
+	public static TransactionPipeline create(Executor signingExecutor, Convex... connections) {
+		if (connections.length == 0) throw new IllegalArgumentException("At least one connection required");
+		return new TransactionPipeline(connections.clone(), signingExecutor);
+	}
+
+	/**
+	 * Adds an account to this pipeline. The sequence number will be looked up
+	 * when the first transaction is submitted.
+	 *
+	 * @param address Account address
+	 * @param keyPair Key pair used to sign transactions for the account
+	 */
+	public void addAccount(Address address, AKeyPair keyPair) {
+		addAccount(address, keyPair, null);
+	}
+
+	/**
+	 * Adds an account to this pipeline with a known current sequence number.
+	 *
+	 * @param address Account address
+	 * @param keyPair Key pair used to sign transactions for the account
+	 * @param sequence Sequence number of the last transaction executed for the account, or null if unknown
+	 */
+	public void addAccount(Address address, AKeyPair keyPair, Long sequence) {
+		if (address == null) throw new IllegalArgumentException("null address");
+		if (keyPair == null) throw new IllegalArgumentException("null key pair");
+		// Route each account to a fixed connection so its transactions stay ordered
+		Convex conn = connections[Math.floorMod(address.hashCode(), connections.length)];
+		accounts.put(address, new AccountSlot(keyPair, conn, sequence));
+	}
+
+	/**
+	 * Removes an account from this pipeline. Transactions already submitted are unaffected.
+	 *
+	 * @param address Account address
+	 */
+	public void removeAccount(Address address) {
+		accounts.remove(address);
+	}
+
+	/**
+	 * Gets the number of accounts managed by this pipeline
+	 * @return Account count
+	 */
+	public int getAccountCount() {
+		return accounts.size();
+	}
+
+	/**
+	 * Submits code for execution as an Invoke transaction by the given account.
+	 *
+	 * @param origin Origin account, which must have been added to this pipeline
+	 * @param code Code to execute
+	 * @return Future for the transaction Result
+	 */
+	public CompletableFuture<Result> transact(Address origin, ACell code) {
+		return transact(Invoke.create(origin, ATransaction.UNKNOWN_SEQUENCE, code));
+	}
+
+	/**
+	 * Submits a transaction. The sequence number of the transaction is replaced
+	 * with the next sequence number for its origin account.
+	 *
+	 * @param transaction Transaction to submit. Origin must have been added to this pipeline
+	 * @return Future for the transaction Result
+	 */
+	public CompletableFuture<Result> transact(ATransaction transaction) {
+		Address origin = transaction.getOrigin();
+		AccountSlot slot = (origin == null) ? null : accounts.get(origin);
+		if (slot == null) {
+			return CompletableFuture.completedFuture(Result.error(ErrorCodes.NOBODY, "Account not registered with pipeline").withSource(SourceCodes.CLIENT));
+		}
+
+		Long lookedUp = null;
+		long lookupGen = -1;
+		while (true) {
+			synchronized (slot) {
+				if ((slot.sequence == null) && (lookedUp != null) && (lookupGen == slot.generation)) {
+					slot.sequence = lookedUp;
+				}
+				if (slot.sequence != null) return submit(slot, transaction);
+				lookupGen = slot.generation;
+			}
+			// Network round trip, made without holding the slot so other submitters are not blocked
+			try {
+				lookedUp = slot.connection.lookupSequence(origin);
+			} catch (ResultException e) {
+				return CompletableFuture.completedFuture(e.getResult());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return CompletableFuture.completedFuture(Result.fromException(e));
+			}
+		}
+	}
+
+	/**
+	 * Assigns the next sequence number and submits a transaction. Must be
+	 * called holding the slot monitor, with a known sequence number.
+	 */
+	private CompletableFuture<Result> submit(AccountSlot slot, ATransaction transaction) {
+		long seq = slot.sequence + 1;
+		long gen = slot.generation;
+		slot.sequence = seq;
+		slot.inFlight++;
+		slot.resetPending = false; // this transaction's own Result now decides
+
+		ATransaction trans = transaction.withSequence(seq);
+		AKeyPair kp = slot.keyPair;
+		CompletableFuture<SignedData<ATransaction>> signed = CompletableFuture.supplyAsync(() -> kp.signData(trans), signingExecutor);
+
+		// Send strictly after the previous transaction for this account has been sent
+		CompletableFuture<CompletableFuture<Result>> sent = slot.tail.thenCombine(signed, (v, st) -> slot.connection.transact(st));
+		slot.tail = sent.handle((f, e) -> null); // don't let one failure block the chain
+		CompletableFuture<Result> result = sent.thenCompose(f -> f);
+
+		return result.handle((r, e) -> {
+			if (e != null) r = Result.fromException(e).withSource(SourceCodes.CLIENT);
+			completed(slot, seq, gen, (e != null) || isSequenceLost(r));
+			return r;
+		});
+	}
+
+	/**
+	 * Checks if an error Result means the local sequence number may be wrong.
+	 * Other errors, e.g. ASSERT or FUNDS, still consume the sequence number.
+	 */
+	private static boolean isSequenceLost(Result r) {
+		ACell code = r.getErrorCode();
+		if (code == null) return false;
+		return ErrorCodes.SEQUENCE.equals(code)
+			|| ErrorCodes.TIMEOUT.equals(code)
+			|| ErrorCodes.IO.equals(code)
+			|| ErrorCodes.CONNECT.equals(code)
+			|| ErrorCodes.CLOSED.equals(code);
+	}
+
+	/**
+	 * Records completion of a transaction. If the sequence number may have been
+	 * lost by the last transaction submitted, it is cleared, to be looked up
+	 * again once no transactions for the account are in flight. Results from
+	 * before an earlier reset are ignored.
+	 */
+	private void completed(AccountSlot slot, long seq, long gen, boolean sequenceLost) {
+		synchronized (slot) {
+			if (slot.generation != gen) return;
+			slot.inFlight--;
+			if (sequenceLost && (slot.sequence != null) && (slot.sequence == seq)) slot.resetPending = true;
+			if (slot.resetPending && (slot.inFlight == 0)) {
+				slot.sequence = null;
+				slot.resetPending = false;
+				slot.generation++;
+			}
+		}
+	}
+
+	/**
+	 * Closes all connections used by this pipeline
+	 */
+	@Override
+	public void close() {
+		for (Convex c : connections) {
+			c.close();
+		}
+	}
+}
@@ -102,25 +102,25 @@ class NettyInboundHandler extends ByteToMessageDecoder {
 		if (backpressured) return;
 
 		try {
-	   		in.markReaderIndex(); // mark reader position, may revert to this if no complete message
-
-	   		int mlen=0;
 			int newBytes=in.readableBytes();
 			if (newBytes==0) return;
 
+			// Peek the VLQ message length without moving the reader index, so an
+			// incomplete frame costs nothing to re-examine when more bytes arrive
+			int base=in.readerIndex();
+			int mlen=0;
+			int headLen=0;
 			for (int i=0; ; i++) {
 				if (i>=newBytes) {
 					// insufficient bytes for message length, need to wait for more
-					in.resetReaderIndex();
 					return;
 				}
 
-				byte b=in.readByte();
+				byte b=in.getByte(base+i);
 
-				if ((i==0)&&(b==0x80)) {
+				if ((i==0)&&(b==(byte)0x80)) {
 					byte[] bytes=new byte[newBytes];
-					bytes[0]=b;
-					in.readBytes(bytes, 1, newBytes-1);
+					in.readBytes(bytes);
 					Blob tmp=Blob.wrap(bytes);
 					throw new BadFormatException("Zero leading bits in message length, content: "+tmp);
 				}
@@ -130,19 +130,22 @@ class NettyInboundHandler extends ByteToMessageDecoder {
 				if (mlen>CPoSConstants.MAX_MESSAGE_LENGTH) throw new BadFormatException("Message too long: "+mlen);
 				if ((b&0x80)==0) {
 					// we have a complete message length
+					headLen=i+1;
 					break;
 				}
 			}
 
-			if (in.readableBytes()<mlen) {
+			if (newBytes-headLen<mlen) {
 				// insufficient bytes for message, need to wait for more
-				in.resetReaderIndex();
 				return;
 			}
 
+			// We now have a complete message! Copy it out of the cumulation buffer
+			// in a single bulk read. A copy is required here: the Blob becomes the
+			// message data, and decoded cells keep views into it long after this
+			// buffer has been recycled by Netty.
 			byte[] messageData=new byte[mlen];
-
-			// We now have a complete message!
+			in.skipBytes(headLen);
 			in.readBytes(messageData);
 			receivedCount++;
 
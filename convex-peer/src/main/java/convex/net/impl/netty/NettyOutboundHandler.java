@@ -23,10 +23,10 @@ class NettyOutboundHandler extends ChannelOutboundHandlerAdapter {
         	throw new Error("Trying to write an empty message length "+mlen);
         }
 
-        // Buffer for header
-        byte[] headBytes=new byte[headLen];
-        Format.writeVLQCount(headBytes, 0, mlen);
-        ByteBuf headBuf = Unpooled.wrappedBuffer(headBytes,0,headLen);
+        // Buffer for header, taken from the channel allocator (pooled by default)
+        // and released by the transport once written
+        ByteBuf headBuf = ctx.alloc().buffer(headLen, headLen);
+        writeVLQCount(headBuf, mlen);
 
 		// Buffer for message data
 		ByteBuf encodedBuf = Unpooled.wrappedBuffer(data.getInternalArray(), data.getInternalOffset(), mlen);
@@ -0,0 +1,553 @@
+package convex.node.resp;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import convex.core.data.ACell;
+import convex.core.data.ASet;
+import convex.core.data.AString;
+import convex.core.data.AVector;
+import convex.core.data.Blob;
+import convex.core.data.Index;
+import convex.core.data.MapEntry;
+import convex.core.data.Strings;
+import convex.core.data.prim.CVMDouble;
+import convex.lattice.kv.KVCounter;
+import convex.lattice.kv.LatticeKV;
+
+/**
+ * Maps RESP data commands onto {@link LatticeKV} operations.
+ *
+ * <p>Keys are decoded as UTF-8 strings. String values are stored as
+ * {@link AString} holding the exact bytes sent, so binary values survive a
+ * round trip. Counters created by INCR are a separate lattice type (a
+ * PN-counter that merges across replicas), so INCR on a key set with SET
+ * fails with WRONGTYPE, unlike Redis. GET on a counter returns its value.</p>
+ *
+ * <p>Commands are executed against whatever LatticeKV they are given; the
+ * connection handler passes the snapshot of an atomic batch. Execution has
+ * no side effects outside that LatticeKV, so a batch can safely be re-run.</p>
+ */
+public class RESPCommands {
+
+	/**
+	 * Executes a data command.
+	 *
+	 * @param kv Store to execute against
+	 * @param args Command name and arguments
+	 * @return Reply to send
+	 */
+	public static RESPReply execute(LatticeKV kv, byte[][] args) {
+		String name = str(args[0]).toUpperCase(Locale.ROOT);
+		try {
+			return dispatch(kv, name, args);
+		} catch (ArgumentException e) {
+			return RESPReply.error(e.getMessage());
+		} catch (IllegalStateException e) {
+			// LatticeKV type errors carry the Redis WRONGTYPE code already
+			String msg = e.getMessage();
+			return RESPReply.error((msg != null && msg.startsWith("WRONGTYPE")) ? msg : "ERR " + msg);
+		} catch (RuntimeException e) {
+			return RESPReply.error("ERR " + e.getMessage());
+		}
+	}
+
+	private static RESPReply dispatch(LatticeKV kv, String name, byte[][] args) {
+		switch (name) {
+			// ===== Server =====
+			case "PING":
+				arity(name, args, 1, 2);
+				return (args.length == 1) ? RESPReply.PONG : RESPReply.bulk(args[1]);
+			case "ECHO":
+				arity(name, args, 2, 2);
+				return RESPReply.bulk(args[1]);
+			case "DBSIZE":
+				return RESPReply.integer(kv.keys().count());
+			case "FLUSHDB":
+			case "FLUSHALL":
+				for (AString k : kv.keys()) kv.del(k.toString());
+				return RESPReply.OK;
+			case "COMMAND":
+			case "CONFIG":
+				// Client libraries probe these; no command table or config is exposed
+				return RESPReply.array(List.of());
+			case "CLIENT":
+				return RESPReply.OK;
+			case "INFO":
+				return RESPReply.bulk("# Server\r\nredis_version:7.0.0\r\nserver_name:convex\r\n");
+
+			// ===== Keys and strings =====
+			case "GET":
+				arity(name, args, 2, 2);
+				return getValue(kv, str(args[1]));
+			case "SET":
+				return set(kv, args);
+			case "SETNX": {
+				arity(name, args, 3, 3);
+				String key = str(args[1]);
+				if (kv.exists(key)) return RESPReply.integer(0);
+				kv.set(key, value(args[2]));
+				return RESPReply.integer(1);
+			}
+			case "SETEX":
+			case "PSETEX": {
+				arity(name, args, 4, 4);
+				long ttl = positive(args[2]);
+				kv.set(str(args[1]), value(args[3]), name.equals("SETEX") ? ttl * 1000 : ttl);
+				return RESPReply.OK;
+			}
+			case "MGET": {
+				arity(name, args, 2, -1);
+				List<RESPReply> values = new ArrayList<>();
+				for (int i = 1; i < args.length; i++) values.add(getValue(kv, str(args[i])));
+				return RESPReply.array(values);
+			}
+			case "MSET":
+				if (args.length < 3 || args.length % 2 == 0) throw wrongArgs(name);
+				for (int i = 1; i < args.length; i += 2) kv.set(str(args[i]), value(args[i + 1]));
+				return RESPReply.OK;
+			case "DEL":
+			case "UNLINK": {
+				arity(name, args, 2, -1);
+				long n = 0;
+				for (int i = 1; i < args.length; i++) if (kv.del(str(args[i]))) n++;
+				return RESPReply.integer(n);
+			}
+			case "EXISTS": {
+				arity(name, args, 2, -1);
+				long n = 0;
+				for (int i = 1; i < args.length; i++) if (kv.exists(str(args[i]))) n++;
+				return RESPReply.integer(n);
+			}
+			case "TYPE":
+				arity(name, args, 2, 2);
+				return RESPReply.simple(typeName(kv.type(str(args[1]))));
+			case "KEYS": {
+				arity(name, args, 2, 2);
+				Pattern p = globPattern(str(args[1]));
+				List<RESPReply> keys = new ArrayList<>();
+				for (AString k : kv.keys()) {
+					String s = k.toString();
+					if (p.matcher(s).matches()) keys.add(RESPReply.bulk(k));
+				}
+				return RESPReply.array(keys);
+			}
+			case "SCAN":
+				return scan(kv, args);
+			case "EXPIRE":
+				arity(name, args, 3, 3);
+				return RESPReply.integer(kv.expire(str(args[1]), integer(args[2]) * 1000));
+			case "PEXPIRE":
+				arity(name, args, 3, 3);
+				return RESPReply.integer(kv.expire(str(args[1]), integer(args[2])));
+			case "TTL": {
+				arity(name, args, 2, 2);
+				long ttl = kv.ttl(str(args[1]));
+				return RESPReply.integer((ttl < 0) ? ttl : (ttl + 500) / 1000);
+			}
+			case "PTTL":
+				arity(name, args, 2, 2);
+				return RESPReply.integer(kv.ttl(str(args[1])));
+
+			// ===== Counters =====
+			case "INCR":
+				arity(name, args, 2, 2);
+				return RESPReply.integer(kv.incr(str(args[1])));
+			case "DECR":
+				arity(name, args, 2, 2);
+				return RESPReply.integer(kv.decr(str(args[1])));
+			case "INCRBY":
+				arity(name, args, 3, 3);
+				return RESPReply.integer(kv.incrby(str(args[1]), integer(args[2])));
+			case "DECRBY":
+				arity(name, args, 3, 3);
+				return RESPReply.integer(kv.decrby(str(args[1]), integer(args[2])));
+
+			// ===== Hashes =====
+			case "HSET":
+			case "HMSET": {
+				if (args.length < 4 || args.length % 2 != 0) throw wrongArgs(name);
+				String key = str(args[1]);
+				long added = 0;
+				for (int i = 2; i < args.length; i += 2) {
+					String field = str(args[i]);
+					if (!kv.hexists(key, field)) added++;
+					kv.hset(key, field, value(args[i + 1]));
+				}
+				return name.equals("HSET") ? RESPReply.integer(added) : RESPReply.OK;
+			}
+			case "HGET":
+				arity(name, args, 3, 3);
+				return RESPReply.bulk(kv.hget(str(args[1]), str(args[2])));
+			case "HMGET": {
+				arity(name, args, 3, -1);
+				String key = str(args[1]);
+				List<RESPReply> values = new ArrayList<>();
+				for (int i = 2; i < args.length; i++) values.add(RESPReply.bulk(kv.hget(key, str(args[i]))));
+				return RESPReply.array(values);
+			}
+			case "HDEL": {
+				arity(name, args, 3, -1);
+				String key = str(args[1]);
+				long n = 0;
+				for (int i = 2; i < args.length; i++) if (kv.hdel(key, str(args[i]))) n++;
+				return RESPReply.integer(n);
+			}
+			case "HEXISTS":
+				arity(name, args, 3, 3);
+				return RESPReply.integer(kv.hexists(str(args[1]), str(args[2])) ? 1 : 0);
+			case "HLEN":
+				arity(name, args, 2, 2);
+				return RESPReply.integer(kv.hlen(str(args[1])));
+			case "HGETALL": {
+				arity(name, args, 2, 2);
+				Index<AString, ACell> fields = kv.hgetall(str(args[1]));
+				// Reply in field order: Index.entrySet() has no defined order
+				List<RESPReply> kvs = new ArrayList<>();
+				long n = fields.count();
+				for (long i = 0; i < n; i++) {
+					MapEntry<AString, ACell> e = fields.entryAt(i);
+					kvs.add(RESPReply.bulk(e.getKey()));
+					kvs.add(RESPReply.bulk(e.getValue()));
+				}
+				return RESPReply.map(kvs);
+			}
+
+			// ===== Sets =====
+			case "SADD":
+				arity(name, args, 3, -1);
+				return RESPReply.integer(kv.sadd(str(args[1]), values(args, 2)));
+			case "SREM":
+				arity(name, args, 3, -1);
+				return RESPReply.integer(kv.srem(str(args[1]), values(args, 2)));
+			case "SISMEMBER":
+				arity(name, args, 3, 3);
+				return RESPReply.integer(kv.sismember(str(args[1]), value(args[2])) ? 1 : 0);
+			case "SMEMBERS": {
+				arity(name, args, 2, 2);
+				ASet<ACell> members = kv.smembers(str(args[1]));
+				List<RESPReply> replies = new ArrayList<>();
+				for (ACell m : members) replies.add(RESPReply.bulk(m));
+				return RESPReply.array(replies);
+			}
+			case "SCARD":
+				arity(name, args, 2, 2);
+				return RESPReply.integer(kv.scard(str(args[1])));
+
+			// ===== Sorted sets =====
+			case "ZADD": {
+				if (args.length < 4 || args.length % 2 != 0) throw wrongArgs(name);
+				String key = str(args[1]);
+				long added = 0;
+				for (int i = 2; i < args.length; i += 2) {
+					added += kv.zadd(key, score(args[i]), value(args[i + 1]));
+				}
+				return RESPReply.integer(added);
+			}
+			case "ZREM":
+				arity(name, args, 3, -1);
+				return RESPReply.integer(kv.zrem(str(args[1]), values(args, 2)));
+			case "ZSCORE": {
+				arity(name, args, 3, 3);
+				CVMDouble score = kv.zscore(str(args[1]), value(args[2]));
+				return (score == null) ? RESPReply.NULL : RESPReply.dbl(score.doubleValue());
+			}
+			case "ZCARD":
+				arity(name, args, 2, 2);
+				return RESPReply.integer(kv.zcard(str(args[1])));
+			case "ZRANGE": {
+				arity(name, args, 4, 5);
+				boolean withScores = false;
+				if (args.length == 5) {
+					if (!str(args[4]).equalsIgnoreCase("WITHSCORES")) throw syntax();
+					withScores = true;
+				}
+				String key = str(args[1]);
+				AVector<ACell> members = kv.zrange(key, integer(args[2]), integer(args[3]));
+				List<RESPReply> replies = new ArrayList<>();
+				for (ACell m : members) {
+					replies.add(RESPReply.bulk(m));
+					if (withScores) replies.add(RESPReply.dbl(kv.zscore(key, m).doubleValue()));
+				}
+				return RESPReply.array(replies);
+			}
+
+			// ===== Lists =====
+			case "LPUSH":
+				arity(name, args, 3, -1);
+				return RESPReply.integer(kv.lpush(str(args[1]), values(args, 2)));
+			case "RPUSH":
+				arity(name, args, 3, -1);
+				return RESPReply.integer(kv.rpush(str(args[1]), values(args, 2)));
+			case "LPOP":
+				arity(name, args, 2, 2);
+				return RESPReply.bulk(kv.lpop(str(args[1])));
+			case "RPOP":
+				arity(name, args, 2, 2);
+				return RESPReply.bulk(kv.rpop(str(args[1])));
+			case "LLEN":
+				arity(name, args, 2, 2);
+				return RESPReply.integer(kv.llen(str(args[1])));
+			case "LRANGE": {
+				arity(name, args, 4, 4);
+				AVector<ACell> items = kv.lrange(str(args[1]), integer(args[2]), integer(args[3]));
+				List<RESPReply> replies = new ArrayList<>();
+				for (ACell item : items) replies.add(RESPReply.bulk(item));
+				return RESPReply.array(replies);
+			}
+
+			default:
+				return RESPReply.error("ERR unknown command '" + name.toLowerCase(Locale.ROOT) + "'");
+		}
+	}
+
+	private static RESPReply getValue(LatticeKV kv, String key) {
+		ACell v = kv.get(key);
+		if (v == null) return RESPReply.NULL;
+		String type = kv.type(key);
+		if ("counter".equals(type)) return RESPReply.bulk(Long.toString(KVCounter.getValue(v)));
+		if (!"value".equals(type)) {
+			throw new IllegalStateException("WRONGTYPE Operation against a key holding the wrong kind of value");
+		}
+		return RESPReply.bulk(v);
+	}
+
+	/**
+	 * SET key value [NX|XX] [GET] [EX seconds|PX milliseconds]
+	 */
+	private static RESPReply set(LatticeKV kv, byte[][] args) {
+		if (args.length < 3) throw wrongArgs("SET");
+		String key = str(args[1]);
+		boolean nx = false, xx = false, get = false;
+		long ttl = -1;
+		for (int i = 3; i < args.length; i++) {
+			switch (str(args[i]).toUpperCase(Locale.ROOT)) {
+				case "NX" -> nx = true;
+				case "XX" -> xx = true;
+				case "GET" -> get = true;
+				case "EX", "PX" -> {
+					if (ttl >= 0 || i + 1 >= args.length) throw syntax();
+					ttl = positive(args[++i]);
+					if (str(args[i - 1]).equalsIgnoreCase("EX")) ttl *= 1000;
+				}
+				default -> throw syntax();
+			}
+		}
+		if (nx && xx) throw syntax();
+
+		RESPReply old = get ? getValue(kv, key) : null;
+		boolean exists = kv.exists(key);
+		if ((nx && exists) || (xx && !exists)) return get ? old : RESPReply.NULL;
+		if (ttl >= 0) {
+			kv.set(key, value(args[2]), ttl);
+		} else {
+			kv.set(key, value(args[2]));
+		}
+		return get ? old : RESPReply.OK;
+	}
+
+	/**
+	 * Maximum number of key bytes encoded in a SCAN cursor. The store Index
+	 * distinguishes keys by this many leading bytes, so the prefix identifies
+	 * the key exactly.
+	 */
+	static final int MAX_CURSOR_KEY_BYTES = Index.MAX_DEPTH / 2;
+
+	/**
+	 * Maximum length of a SCAN cursor in decimal digits, enough for any cursor
+	 * made by {@link #scanCursor(AString)}
+	 */
+	static final int MAX_CURSOR_DIGITS = 100;
+
+	/**
+	 * SCAN cursor [MATCH pattern] [COUNT count] [TYPE type]
+	 *
+	 * <p>The cursor encodes the next key to visit itself (see
+	 * {@link #scanCursor(AString)}), so a scan resumes at the right place
+	 * however the store changes between calls, and keys present for the
+	 * whole scan are always returned. Each call reads a single snapshot of
+	 * the store.</p>
+	 *
+	 * <p>Cursors are decimal integers, but unbounded: clients that parse them
+	 * as 64-bit integers only work with keys of up to 7 bytes.</p>
+	 */
+	private static RESPReply scan(LatticeKV kv, byte[][] args) {
+		arity("SCAN", args, 2, -1);
+		AString from = scanKey(str(args[1]));
+		Pattern match = null;
+		long count = 10;
+		String type = null;
+		for (int i = 2; i < args.length; i += 2) {
+			if (i + 1 >= args.length) throw syntax();
+			switch (str(args[i]).toUpperCase(Locale.ROOT)) {
+				case "MATCH" -> match = globPattern(str(args[i + 1]));
+				case "COUNT" -> {
+					count = integer(args[i + 1]);
+					if (count < 1) throw syntax();
+				}
+				case "TYPE" -> type = str(args[i + 1]).toLowerCase(Locale.ROOT);
+				default -> throw syntax();
+			}
+		}
+		Pattern pattern = match;
+		String wanted = type;
+		long limit = count;
+
+		// A batch that writes nothing just reads one snapshot of the store
+		return kv.atomic(snapshot -> {
+			LatticeKV.ScanPage page = snapshot.scan(from, limit);
+			List<RESPReply> keys = new ArrayList<>();
+			for (AString k : page.keys()) {
+				if (pattern != null && !pattern.matcher(k.toString()).matches()) continue;
+				if (wanted != null && !wanted.equals(typeName(snapshot.type(k.toString())))) continue;
+				keys.add(RESPReply.bulk(k));
+			}
+			return RESPReply.array(List.of(RESPReply.bulk(scanCursor(page.next())), RESPReply.array(keys)));
+		});
+	}
+
+	/**
+	 * Encodes the next key of a SCAN as a cursor: the UTF-8 bytes of the key,
+	 * up to MAX_CURSOR_KEY_BYTES, after a 0x01 marker byte, read as an
+	 * unsigned decimal integer. "0" ends the scan.
+	 */
+	static String scanCursor(AString next) {
+		if (next == null) return "0";
+		byte[] key = next.toBlob().getBytes();
+		int n = Math.min(key.length, MAX_CURSOR_KEY_BYTES);
+		byte[] b = new byte[n + 1];
+		b[0] = 1;
+		System.arraycopy(key, 0, b, 1, n);
+		return new BigInteger(1, b).toString();
+	}
+
+	/**
+	 * Decodes a SCAN cursor into the key to resume from, or null for "0".
+	 */
+	static AString scanKey(String cursor) {
+		if (cursor.length() > MAX_CURSOR_DIGITS) throw new ArgumentException("ERR invalid cursor");
+		BigInteger n;
+		try {
+			n = new BigInteger(cursor);
+		} catch (NumberFormatException e) {
+			throw new ArgumentException("ERR invalid cursor");
+		}
+		if (n.signum() == 0) return null;
+		byte[] b = n.toByteArray();
+		int marker = (b[0] == 0) ? 1 : 0;
+		if ((n.signum() < 0) || (b[marker] != 1)) throw new ArgumentException("ERR invalid cursor");
+		return Strings.create(Blob.wrap(b, marker + 1, b.length - marker - 1));
+	}
+
+	private static String typeName(String type) {
+		if (type == null) return "none";
+		return switch (type) {
+			case "value", "counter" -> "string";
+			default -> type;
+		};
+	}
+
+	/**
+	 * Converts a Redis glob pattern into a regular expression.
+	 */
+	static Pattern globPattern(String glob) {
+		StringBuilder sb = new StringBuilder();
+		boolean inClass = false;
+		for (int i = 0; i < glob.length(); i++) {
+			char c = glob.charAt(i);
+			if (inClass) {
+				if (c == ']') inClass = false;
+				if (c == '\\' && i + 1 < glob.length()) {
+					sb.append('\\').append(glob.charAt(++i));
+				} else {
+					sb.append(c);
+				}
+				continue;
+			}
+			switch (c) {
+				case '*' -> sb.append(".*");
+				case '?' -> sb.append('.');
+				case '[' -> {
+					inClass = true;
+					sb.append('[');
+				}
+				case '\\' -> {
+					if (i + 1 < glob.length()) sb.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+				}
+				default -> sb.append(Pattern.quote(String.valueOf(c)));
+			}
+		}
+		if (inClass) sb.append(']');
+		return Pattern.compile(sb.toString(), Pattern.DOTALL);
+	}
+
+	// ===== Argument helpers =====
+
+	/**
+	 * Invalid command arguments, reported to the client as an error reply.
+	 */
+	static class ArgumentException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		ArgumentException(String message) {
+			super(message, null, false, false);
+		}
+	}
+
+	static String str(byte[] b) {
+		return new String(b, StandardCharsets.UTF_8);
+	}
+
+	private static ACell value(byte[] b) {
+		return Strings.create(Blob.wrap(b));
+	}
+
+	private static ACell[] values(byte[][] args, int from) {
+		ACell[] vs = new ACell[args.length - from];
+		for (int i = from; i < args.length; i++) vs[i - from] = value(args[i]);
+		return vs;
+	}
+
+	private static long integer(byte[] b) {
+		try {
+			return Long.parseLong(str(b));
+		} catch (NumberFormatException e) {
+			throw new ArgumentException("ERR value is not an integer or out of range");
+		}
+	}
+
+	private static long positive(byte[] b) {
+		long n = integer(b);
+		if (n <= 0) throw new ArgumentException("ERR invalid expire time");
+		return n;
+	}
+
+	private static double score(byte[] b) {
+		String s = str(b);
+		try {
+			return switch (s.toLowerCase(Locale.ROOT)) {
+				case "inf", "+inf" -> Double.POSITIVE_INFINITY;
+				case "-inf" -> Double.NEGATIVE_INFINITY;
+				default -> Double.parseDouble(s);
+			};
+		} catch (NumberFormatException e) {
+			throw new ArgumentException("ERR value is not a valid float");
+		}
+	}
+
+	private static void arity(String name, byte[][] args, int min, int max) {
+		if (args.length < min || (max >= 0 && args.length > max)) throw wrongArgs(name);
+	}
+
+	static ArgumentException wrongArgs(String name) {
+		return new ArgumentException("ERR wrong number of arguments for '" + name.toLowerCase(Locale.ROOT) + "' command");
+	}
+
+	private static ArgumentException syntax() {
+		return new ArgumentException("ERR syntax error");
+	}
+}
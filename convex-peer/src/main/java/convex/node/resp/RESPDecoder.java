@@ -0,0 +1,156 @@
+package convex.node.resp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.util.ByteProcessor;
+
+/**
+ * Decodes RESP client commands into argument arrays ({@code byte[][]}).
+ *
+ * <p>Accepts both the array-of-bulk-strings form sent by client libraries
+ * and the inline form typed into telnet or redis-cli. Decoding is
+ * incremental: a partly received command keeps its parsed arguments, so a
+ * large value arriving over many reads is not rescanned each time.</p>
+ *
+ * <p>Malformed input raises {@link CorruptedFrameException}, after which
+ * the connection should be closed, as the stream cannot be resynchronised.</p>
+ */
+public class RESPDecoder extends ByteToMessageDecoder {
+
+	/** Maximum length of a bulk string argument */
+	public static final int MAX_BULK_LENGTH = 64 * 1024 * 1024;
+
+	/** Maximum number of arguments in one command */
+	public static final int MAX_ARGS = 1024 * 1024;
+
+	/** Maximum length of a header or inline command line */
+	public static final int MAX_LINE_LENGTH = 64 * 1024;
+
+	/** Initial argument array size, grown as arguments arrive */
+	private static final int INITIAL_ARGS = 16;
+
+	// Arguments of a partly decoded command, or null between commands
+	private byte[][] args;
+	private int argCount;
+	private int argIndex;
+	private int bulkLength = -1;
+
+	@Override
+	protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+		while (true) {
+			if (args == null) {
+				if (!in.isReadable()) return;
+				if (in.getByte(in.readerIndex()) != '*') {
+					String line = readLine(in);
+					if (line == null) return;
+					byte[][] inline = splitInline(line);
+					if (inline.length > 0) out.add(inline);
+					continue;
+				}
+				String header = readLine(in);
+				if (header == null) return;
+				int n = parseLength(header, MAX_ARGS);
+				if (n <= 0) continue;
+				// Header alone does not allocate for the claimed argument count
+				args = new byte[Math.min(n, INITIAL_ARGS)][];
+				argCount = n;
+				argIndex = 0;
+			}
+
+			while (argIndex < argCount) {
+				if (bulkLength < 0) {
+					String header = readLine(in);
+					if (header == null) return;
+					if (header.isEmpty() || header.charAt(0) != '$') {
+						throw new CorruptedFrameException("expected '$', got '" + header + "'");
+					}
+					bulkLength = parseLength(header, MAX_BULK_LENGTH);
+					if (bulkLength < 0) throw new CorruptedFrameException("invalid bulk length");
+				}
+				if (in.readableBytes() < bulkLength + 2) return;
+				byte[] arg = new byte[bulkLength];
+				in.readBytes(arg);
+				if (in.readByte() != '\r' || in.readByte() != '\n') {
+					throw new CorruptedFrameException("expected CRLF after bulk string");
+				}
+				if (argIndex == args.length) args = Arrays.copyOf(args, (int) Math.min(argCount, 2L * args.length));
+				args[argIndex++] = arg;
+				bulkLength = -1;
+			}
+
+			out.add(args);
+			args = null;
+		}
+	}
+
+	/**
+	 * Reads a CRLF (or LF) terminated line, or returns null if no complete
+	 * line is available yet.
+	 */
+	private static String readLine(ByteBuf in) {
+		int lf = in.forEachByte(ByteProcessor.FIND_LF);
+		if (lf < 0) {
+			if (in.readableBytes() > MAX_LINE_LENGTH) throw new CorruptedFrameException("line too long");
+			return null;
+		}
+		int start = in.readerIndex();
+		int end = (lf > start && in.getByte(lf - 1) == '\r') ? lf - 1 : lf;
+		if (end - start > MAX_LINE_LENGTH) throw new CorruptedFrameException("line too long");
+		String line = in.toString(start, end - start, StandardCharsets.UTF_8);
+		in.readerIndex(lf + 1);
+		return line;
+	}
+
+	private static int parseLength(String header, int max) {
+		try {
+			long n = Long.parseLong(header.substring(1));
+			if (n > max) throw new CorruptedFrameException("length too large");
+			return (int) n;
+		} catch (NumberFormatException e) {
+			throw new CorruptedFrameException("invalid length");
+		}
+	}
+
+	/**
+	 * Splits an inline command on whitespace, honouring double and single
+	 * quoted arguments.
+	 */
+	static byte[][] splitInline(String line) {
+		List<byte[]> parts = new ArrayList<>();
+		StringBuilder sb = new StringBuilder();
+		boolean inArg = false;
+		char quote = 0;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				} else {
+					sb.append(c);
+				}
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+				inArg = true;
+			} else if (Character.isWhitespace(c)) {
+				if (inArg) {
+					parts.add(sb.toString().getBytes(StandardCharsets.UTF_8));
+					sb.setLength(0);
+					inArg = false;
+				}
+			} else {
+				sb.append(c);
+				inArg = true;
+			}
+		}
+		if (quote != 0) throw new CorruptedFrameException("unbalanced quotes in request");
+		if (inArg) parts.add(sb.toString().getBytes(StandardCharsets.UTF_8));
+		return parts.toArray(new byte[0][]);
+	}
+}
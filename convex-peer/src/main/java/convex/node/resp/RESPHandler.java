@@ -0,0 +1,236 @@
+package convex.node.resp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import convex.lattice.kv.LatticeKV;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.DecoderException;
+
+/**
+ * Executes RESP commands for a single client connection.
+ *
+ * <p>Commands decoded from one socket read are collected and executed
+ * together as one atomic {@link LatticeKV#atomic batch}, so a pipelined
+ * burst costs a single cursor update however many writes it holds. Replies
+ * are written once the batch has been applied, and flushed together.
+ * MULTI queues commands until EXEC, which runs them as one step of a batch,
+ * so a transaction is never interleaved with other clients' writes.</p>
+ *
+ * <p>QUIT ends the batch: commands after it in the same read are not
+ * executed.</p>
+ *
+ * <p>When the client reads replies more slowly than it sends commands, reads
+ * from the socket are paused until the outbound buffer drains.</p>
+ */
+public class RESPHandler extends ChannelInboundHandlerAdapter {
+
+	private static final Logger log = LoggerFactory.getLogger(RESPHandler.class.getName());
+
+	/** Maximum number of commands executed in one batch */
+	public static final int MAX_BATCH = 1024;
+
+	/** Maximum number of commands queued by MULTI */
+	public static final int MAX_QUEUED = 100_000;
+
+	private final LatticeKV kv;
+
+	/** Protocol version, switched by HELLO */
+	private int protocol = 2;
+
+	/** Commands queued since MULTI, or null if not in a transaction */
+	private List<byte[][]> multi;
+
+	/** Set when a command queued in the current transaction was invalid */
+	private boolean multiFailed;
+
+	/** Steps of the current batch, in order */
+	private final List<Step> pending = new ArrayList<>();
+
+	/** Set after QUIT, when no further commands are executed */
+	private boolean quit;
+
+	/**
+	 * One reply's worth of work in a batch: a data command, a transaction,
+	 * or a reply that has already been decided.
+	 */
+	private record Step(byte[][] command, List<byte[][]> transaction, RESPReply reply, int protocol, boolean close) {}
+
+	public RESPHandler(LatticeKV kv) {
+		this.kv = kv;
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) {
+		if (quit) return; // the rest of the batch is dropped
+		byte[][] args = (byte[][]) msg;
+		String name = RESPCommands.str(args[0]).toUpperCase(Locale.ROOT);
+
+		if (multi != null) {
+			switch (name) {
+				case "EXEC" -> exec();
+				case "DISCARD" -> {
+					multi = null;
+					reply(RESPReply.OK);
+				}
+				case "MULTI" -> reply(RESPReply.error("ERR MULTI calls can not be nested"));
+				case "WATCH", "HELLO", "QUIT", "SELECT" -> {
+					multiFailed = true;
+					reply(RESPReply.error("ERR " + name + " inside MULTI is not allowed"));
+				}
+				default -> {
+					if (multi.size() >= MAX_QUEUED) {
+						multiFailed = true;
+						reply(RESPReply.error("ERR too many commands in transaction"));
+					} else {
+						multi.add(args);
+						reply(RESPReply.QUEUED);
+					}
+				}
+			}
+		} else {
+			switch (name) {
+				case "MULTI" -> {
+					multi = new ArrayList<>();
+					multiFailed = false;
+					reply(RESPReply.OK);
+				}
+				case "EXEC" -> reply(RESPReply.error("ERR EXEC without MULTI"));
+				case "DISCARD" -> reply(RESPReply.error("ERR DISCARD without MULTI"));
+				case "WATCH", "UNWATCH" -> reply(RESPReply.error("ERR " + name + " is not supported"));
+				case "HELLO" -> hello(args);
+				case "SELECT" -> {
+					boolean zero = args.length == 2 && RESPCommands.str(args[1]).equals("0");
+					reply(zero ? RESPReply.OK : RESPReply.error("ERR DB index is out of range"));
+				}
+				case "QUIT" -> {
+					pending.add(new Step(null, null, RESPReply.OK, protocol, true));
+					quit = true;
+					flush(ctx);
+					return;
+				}
+				default -> pending.add(new Step(args, null, null, protocol, false));
+			}
+		}
+
+		if (pending.size() >= MAX_BATCH) flush(ctx);
+	}
+
+	@Override
+	public void channelReadComplete(ChannelHandlerContext ctx) {
+		flush(ctx);
+	}
+
+	@Override
+	public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+		// Resume reading once the client has caught up with replies
+		if (ctx.channel().isWritable()) ctx.channel().config().setAutoRead(true);
+		ctx.fireChannelWritabilityChanged();
+	}
+
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+		if (cause instanceof DecoderException) {
+			// The command stream cannot be resynchronised after a protocol error
+			ByteBuf out = ctx.alloc().buffer();
+			RESPReply.error("ERR Protocol error: " + cause.getMessage()).write(out, protocol);
+			ctx.writeAndFlush(out).addListener(ChannelFutureListener.CLOSE);
+		} else {
+			log.debug("Closed RESP connection due to: " + cause.getMessage(), cause);
+			ctx.close();
+		}
+	}
+
+	private void reply(RESPReply reply) {
+		pending.add(new Step(null, null, reply, protocol, false));
+	}
+
+	private void exec() {
+		List<byte[][]> commands = multi;
+		multi = null;
+		if (multiFailed) {
+			reply(RESPReply.error("EXECABORT Transaction discarded because of previous errors."));
+		} else {
+			pending.add(new Step(null, commands, null, protocol, false));
+		}
+	}
+
+	/**
+	 * HELLO [protover [AUTH username password] [SETNAME clientname]]
+	 */
+	private void hello(byte[][] args) {
+		if (args.length > 1) {
+			String version = RESPCommands.str(args[1]);
+			if (!version.equals("2") && !version.equals("3")) {
+				reply(RESPReply.error("NOPROTO unsupported protocol version"));
+				return;
+			}
+			protocol = Integer.parseInt(version);
+		}
+		reply(RESPReply.map(List.of(
+			RESPReply.bulk("server"), RESPReply.bulk("convex"),
+			RESPReply.bulk("version"), RESPReply.bulk("7.0.0"),
+			RESPReply.bulk("proto"), RESPReply.integer(protocol),
+			RESPReply.bulk("mode"), RESPReply.bulk("standalone"),
+			RESPReply.bulk("role"), RESPReply.bulk("master"),
+			RESPReply.bulk("modules"), RESPReply.array(List.of()))));
+	}
+
+	/**
+	 * Executes the pending batch and writes its replies.
+	 */
+	private void flush(ChannelHandlerContext ctx) {
+		if (pending.isEmpty()) return;
+		List<Step> steps = new ArrayList<>(pending);
+		pending.clear();
+
+		RESPReply[] replies = execute(steps);
+
+		ByteBuf out = ctx.alloc().buffer();
+		boolean close = false;
+		for (int i = 0; i < steps.size(); i++) {
+			replies[i].write(out, steps.get(i).protocol);
+			if (steps.get(i).close) {
+				close = true;
+				break;
+			}
+		}
+		if (close) {
+			ctx.writeAndFlush(out).addListener(ChannelFutureListener.CLOSE);
+			ctx.channel().config().setAutoRead(false);
+			return;
+		}
+		ctx.writeAndFlush(out);
+		if (!ctx.channel().isWritable()) ctx.channel().config().setAutoRead(false);
+	}
+
+	private RESPReply[] execute(List<Step> steps) {
+		boolean hasCommands = false;
+		for (Step s : steps) hasCommands |= (s.reply == null);
+		if (!hasCommands) return steps.stream().map(Step::reply).toArray(RESPReply[]::new);
+
+		return kv.atomic(batch -> {
+			RESPReply[] replies = new RESPReply[steps.size()];
+			for (int i = 0; i < replies.length; i++) {
+				Step s = steps.get(i);
+				if (s.reply != null) {
+					replies[i] = s.reply;
+				} else if (s.command != null) {
+					replies[i] = RESPCommands.execute(batch, s.command);
+				} else {
+					List<RESPReply> results = new ArrayList<>(s.transaction.size());
+					for (byte[][] c : s.transaction) results.add(RESPCommands.execute(batch, c));
+					replies[i] = RESPReply.array(results);
+				}
+			}
+			return replies;
+		});
+	}
+}
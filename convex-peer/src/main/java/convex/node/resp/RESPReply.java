@@ -0,0 +1,194 @@
+package convex.node.resp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import convex.core.data.ACell;
+import convex.core.data.AString;
+import convex.core.lang.RT;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A reply to a RESP command, encoded for either protocol version.
+ *
+ * <p>Replies are built while commands execute and only encoded once the
+ * batch holding them has been applied, since a batch may be run more than
+ * once. Types that RESP3 adds (null, double, map) fall back to their RESP2
+ * equivalents when the connection has not switched protocol with HELLO.</p>
+ */
+public abstract class RESPReply {
+
+	private static final byte[] CRLF = {'\r', '\n'};
+
+	public static final RESPReply OK = simple("OK");
+	public static final RESPReply PONG = simple("PONG");
+	public static final RESPReply QUEUED = simple("QUEUED");
+
+	/** Null reply: a null bulk string in RESP2 */
+	public static final RESPReply NULL = new RESPReply() {
+		@Override
+		public void write(ByteBuf out, int protocol) {
+			if (protocol >= 3) {
+				writeLine(out, '_', "");
+			} else {
+				writeLine(out, '$', "-1");
+			}
+		}
+	};
+
+	/** Null array reply, e.g. for an aborted transaction: plain null in RESP3 */
+	public static final RESPReply NULL_ARRAY = new RESPReply() {
+		@Override
+		public void write(ByteBuf out, int protocol) {
+			if (protocol >= 3) {
+				writeLine(out, '_', "");
+			} else {
+				writeLine(out, '*', "-1");
+			}
+		}
+	};
+
+	/**
+	 * Encodes this reply.
+	 * @param out Buffer to write to
+	 * @param protocol Protocol version of the connection, 2 or 3
+	 */
+	public abstract void write(ByteBuf out, int protocol);
+
+	/**
+	 * Checks whether this reply is an error.
+	 * @return true if an error reply
+	 */
+	public boolean isError() {
+		return false;
+	}
+
+	public static RESPReply simple(String s) {
+		return new RESPReply() {
+			@Override
+			public void write(ByteBuf out, int protocol) {
+				writeLine(out, '+', s);
+			}
+		};
+	}
+
+	/**
+	 * Creates an error reply. The message should start with an error code
+	 * such as {@code ERR} or {@code WRONGTYPE}.
+	 * @param message Error message
+	 * @return Error reply
+	 */
+	public static RESPReply error(String message) {
+		String line = message.replace('\r', ' ').replace('\n', ' ');
+		return new RESPReply() {
+			@Override
+			public void write(ByteBuf out, int protocol) {
+				writeLine(out, '-', line);
+			}
+
+			@Override
+			public boolean isError() {
+				return true;
+			}
+		};
+	}
+
+	public static RESPReply integer(long value) {
+		return new RESPReply() {
+			@Override
+			public void write(ByteBuf out, int protocol) {
+				writeLine(out, ':', Long.toString(value));
+			}
+		};
+	}
+
+	public static RESPReply bulk(byte[] value) {
+		if (value == null) return NULL;
+		return new RESPReply() {
+			@Override
+			public void write(ByteBuf out, int protocol) {
+				writeLine(out, '$', Integer.toString(value.length));
+				out.writeBytes(value);
+				out.writeBytes(CRLF);
+			}
+		};
+	}
+
+	public static RESPReply bulk(String value) {
+		if (value == null) return NULL;
+		return bulk(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Creates a bulk string reply for a stored value. Strings are sent as
+	 * their UTF-8 bytes, other values in their printed form.
+	 * @param value Stored value, may be null
+	 * @return Bulk string reply, or null reply
+	 */
+	public static RESPReply bulk(ACell value) {
+		if (value == null) return NULL;
+		if (value instanceof AString s) return bulk(s.toBlob().getBytes());
+		return bulk(RT.toString(value));
+	}
+
+	/**
+	 * Creates a double reply, sent as a bulk string in RESP2.
+	 * @param value Double value
+	 * @return Double reply
+	 */
+	public static RESPReply dbl(double value) {
+		String s = formatDouble(value);
+		return new RESPReply() {
+			@Override
+			public void write(ByteBuf out, int protocol) {
+				if (protocol >= 3) {
+					writeLine(out, ',', s);
+				} else {
+					bulk(s).write(out, protocol);
+				}
+			}
+		};
+	}
+
+	public static RESPReply array(List<RESPReply> elements) {
+		return new RESPReply() {
+			@Override
+			public void write(ByteBuf out, int protocol) {
+				writeLine(out, '*', Integer.toString(elements.size()));
+				for (RESPReply e : elements) e.write(out, protocol);
+			}
+		};
+	}
+
+	/**
+	 * Creates a map reply, sent as a flat array of alternating keys and
+	 * values in RESP2.
+	 * @param keysAndValues Alternating keys and values
+	 * @return Map reply
+	 */
+	public static RESPReply map(List<RESPReply> keysAndValues) {
+		return new RESPReply() {
+			@Override
+			public void write(ByteBuf out, int protocol) {
+				if (protocol >= 3) {
+					writeLine(out, '%', Integer.toString(keysAndValues.size() / 2));
+				} else {
+					writeLine(out, '*', Integer.toString(keysAndValues.size()));
+				}
+				for (RESPReply e : keysAndValues) e.write(out, protocol);
+			}
+		};
+	}
+
+	static String formatDouble(double d) {
+		if (Double.isInfinite(d)) return (d > 0) ? "inf" : "-inf";
+		if (d == Math.rint(d) && Math.abs(d) < 1e15) return Long.toString((long) d);
+		return Double.toString(d);
+	}
+
+	private static void writeLine(ByteBuf out, char type, String s) {
+		out.writeByte(type);
+		out.writeCharSequence(s, StandardCharsets.UTF_8);
+		out.writeBytes(CRLF);
+	}
+}
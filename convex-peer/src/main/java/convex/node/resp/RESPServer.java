@@ -0,0 +1,162 @@
+package convex.node.resp;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import convex.core.crypto.AKeyPair;
+import convex.lattice.kv.KVDatabase;
+import convex.lattice.kv.LatticeKV;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+/**
+ * A Redis protocol (RESP2/RESP3) front end for a {@link LatticeKV} store,
+ * so that existing Redis clients and load tools can use a replicated
+ * lattice KV database.
+ *
+ * <p>Each connection has a {@link RESPDecoder} and a {@link RESPHandler}.
+ * Pipelined commands and MULTI/EXEC transactions are applied as single
+ * atomic cursor updates. The server has no authentication, so it binds to
+ * the loopback address unless another address is given.</p>
+ *
+ * <p>Usage:
+ * <pre>
+ * KVDatabase db = KVDatabase.connect(signedCursor, "cache");
+ * RESPServer resp = RESPServer.create(db.kv(), 6379);
+ * resp.launch();
+ * </pre>
+ */
+public class RESPServer implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(RESPServer.class.getName());
+
+	/** Standard Redis port */
+	public static final int DEFAULT_PORT = 6379;
+
+	private final LatticeKV kv;
+	private final InetSocketAddress bindAddress;
+
+	private EventLoopGroup bossGroup;
+	private EventLoopGroup workerGroup;
+	private Channel channel;
+
+	/**
+	 * Tracks open client channels, so they can be closed with the server
+	 */
+	private final ChannelGroup clientChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+
+	/**
+	 * Creates a RESP server. Call {@link #launch()} to start listening.
+	 *
+	 * @param kv Store to serve
+	 * @param bindAddress Address to listen on. Port 0 selects a free port.
+	 */
+	public RESPServer(LatticeKV kv, InetSocketAddress bindAddress) {
+		this.kv = kv;
+		this.bindAddress = bindAddress;
+	}
+
+	/**
+	 * Creates a RESP server listening on the loopback address.
+	 *
+	 * @param kv Store to serve
+	 * @param port Port to listen on, or null to select a free port
+	 * @return New RESP server, not yet launched
+	 */
+	public static RESPServer create(LatticeKV kv, Integer port) {
+		return new RESPServer(kv, new InetSocketAddress(InetAddress.getLoopbackAddress(), (port == null) ? 0 : port));
+	}
+
+	/**
+	 * Starts listening for connections.
+	 *
+	 * @throws InterruptedException If interrupted while binding
+	 */
+	public synchronized void launch() throws InterruptedException {
+		if (channel != null) throw new IllegalStateException("Already launched");
+		bossGroup = new MultiThreadIoEventLoopGroup(1, NioIoHandler.newFactory());
+		workerGroup = new MultiThreadIoEventLoopGroup(NioIoHandler.newFactory());
+		ServerBootstrap b = new ServerBootstrap();
+		b.group(bossGroup, workerGroup)
+			.channel(NioServerSocketChannel.class)
+			.childHandler(new ChannelInitializer<SocketChannel>() {
+				@Override
+				public void initChannel(SocketChannel ch) {
+					clientChannels.add(ch);
+					ch.pipeline().addLast(new RESPDecoder(), new RESPHandler(kv));
+				}
+			})
+			.option(ChannelOption.SO_BACKLOG, 511)
+			.childOption(ChannelOption.TCP_NODELAY, true)
+			.childOption(ChannelOption.SO_KEEPALIVE, true);
+		try {
+			channel = b.bind(bindAddress).sync().channel();
+		} catch (Exception e) {
+			close();
+			throw e;
+		}
+		log.debug("RESP server started on port: " + getPort());
+	}
+
+	/**
+	 * Gets the port this server is listening on.
+	 * @return Port, or null if not launched
+	 */
+	public Integer getPort() {
+		Channel ch = channel;
+		if (ch == null) return null;
+		return ((InetSocketAddress) ch.localAddress()).getPort();
+	}
+
+	/**
+	 * Gets the store served by this server.
+	 * @return LatticeKV instance
+	 */
+	public LatticeKV getKV() {
+		return kv;
+	}
+
+	@Override
+	public synchronized void close() {
+		clientChannels.close();
+		if (channel != null) {
+			channel.close().syncUninterruptibly();
+			channel = null;
+		}
+		if (bossGroup != null) bossGroup.shutdownGracefully();
+		if (workerGroup != null) workerGroup.shutdownGracefully();
+		bossGroup = null;
+		workerGroup = null;
+	}
+
+	/**
+	 * Runs a standalone RESP server over a new in-memory database, e.g. for
+	 * benchmarking with redis-benchmark.
+	 *
+	 * @param args Optional port, default 6379
+	 * @throws Exception If the server fails to start
+	 */
+	public static void main(String... args) throws Exception {
+		int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		KVDatabase db = KVDatabase.create("resp", AKeyPair.generate());
+		try (RESPServer server = create(db.kv(), port)) {
+			server.launch();
+			System.out.println("RESP server listening on port " + server.getPort());
+			server.channel.closeFuture().sync();
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package convex.peer;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -27,6 +29,11 @@ public class CVMExecutor extends AThreadedComponent {
 	 */
 	private Consumer<Peer> updateHook=null;
 	
+	/**
+	 * Listeners observing peer updates, in addition to the hook
+	 */
+	private final List<Consumer<Peer>> updateListeners=new CopyOnWriteArrayList<>();
+	
 	/**
 	 * Queue for latest incoming Beliefs
 	 */
@@ -83,9 +90,11 @@ public class CVMExecutor extends AThreadedComponent {
 
 	private void maybeCallHook(Peer p) {
 		Consumer<Peer> hook=updateHook;
-		if (hook==null) return;
+		if (hook!=null) hook.accept(p);
 		
-		hook.accept(p);
+		for (Consumer<Peer> listener: updateListeners) {
+			listener.accept(p);
+		}
 	}
 
 	@Override
@@ -108,6 +117,23 @@ public class CVMExecutor extends AThreadedComponent {
 	public void setUpdateHook(Consumer<Peer> hook) {
 		updateHook=hook;
 	}
+	
+	/**
+	 * Adds a listener called with the Peer after each state update. Listeners
+	 * run on the CVM executor thread, so must return quickly.
+	 * @param listener Listener to add
+	 */
+	public void addUpdateListener(Consumer<Peer> listener) {
+		updateListeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener added with {@link #addUpdateListener(Consumer)}
+	 * @param listener Listener to remove
+	 */
+	public void removeUpdateListener(Consumer<Peer> listener) {
+		updateListeners.remove(listener);
+	}
 
 
 
@@ -192,6 +192,13 @@ public class TransactionHandler extends AThreadedComponent {
 				SignedData<ATransaction> sd = (SignedData<ATransaction>) v.get(2);
 				Result error=peer.checkTransactionFast(sd);
 				if (error!=null) {
+					if (ErrorCodes.SEQUENCE.equals(error.getErrorCode())) {
+						// Possibly a resubmit of a transaction that has already been executed,
+						// e.g. by a client failing over from another peer. If so, it gets the
+						// original Result rather than an error.
+						Result prior=getPriorResult(peer,sd.getHash());
+						if (prior!=null) error=prior;
+					}
 					m.returnResult(error.withSource(SourceCodes.PEER));
 					continue;
 				}
@@ -289,17 +296,16 @@ public class TransactionHandler extends AThreadedComponent {
 				// only report our own transactions!
 				if (block.getAccountKey().equals(peer.getPeerKey())) {
 					BlockResult br = peer.getBlockResult(i);
-					reportTransactions(block.getValue(), br,i);
+					reportTransactions(peer, block.getValue(), br,i);
 				}
 			}
 			reportedConsensusPoint=newConsensusPoint;
 		}
 	}
 	
-	private void reportTransactions(Block block, BlockResult br, long blockNum) {
+	private void reportTransactions(Peer peer, Block block, BlockResult br, long blockNum) {
 		// TODO: consider culling old interests after some time period
 		int nTrans = block.length();
-		HashMap<Keyword,ACell> extInfo=new HashMap<>(5);
 		for (long j = 0; j < nTrans; j++) {
 			SignedData<ATransaction> t = block.getTransactions().get(j);
 			Hash h = t.getHash();
@@ -311,10 +317,20 @@ public class TransactionHandler extends AThreadedComponent {
 				
 				try {
 					res=br.getResults().get(j);
-					extInfo.put(Keywords.LOC,Vectors.createLongs(blockNum,j));
-					extInfo.put(Keywords.TX,t.getHash());
-					
-					res=res.withExtraInfo(extInfo);
+					AVector<CVMLong> loc=Vectors.createLongs(blockNum,j);
+					if (ErrorCodes.SEQUENCE.equals(res.getErrorCode())) {
+						// A duplicate of a transaction executed in an earlier block, so the
+						// client is told the outcome of the original execution
+						AVector<CVMLong> orig=peer.getTransactionLocation(h);
+						if ((orig!=null)&&!orig.equals(loc)) {
+							Result prior=peer.getTransactionResult(orig);
+							if (prior!=null) {
+								res=prior;
+								loc=orig;
+							}
+						}
+					}
+					res=withLocation(res,loc,h);
 				} catch (Exception e) {
 					res=Result.error(ErrorCodes.FATAL, "Failed to produce result").withSource(SourceCodes.PEER);
 				}
@@ -329,6 +345,36 @@ public class TransactionHandler extends AThreadedComponent {
 		}
 	}
 	
+	/**
+	 * Adds the location and ID of a transaction to its Result. Proofs are not
+	 * included, clients that verify Results request them separately.
+	 */
+	private static Result withLocation(Result res, AVector<CVMLong> loc, Hash txID) {
+		HashMap<Keyword,ACell> extInfo=new HashMap<>(5);
+		extInfo.put(Keywords.LOC,loc);
+		extInfo.put(Keywords.TX,txID);
+		return res.withExtraInfo(extInfo);
+	}
+
+	/**
+	 * Gets the Result of a transaction that has already been executed in consensus
+	 * @param peer Peer to look up the transaction in
+	 * @param txID Hash of the signed transaction
+	 * @return Original Result with location info, or null if the transaction has not been executed
+	 */
+	private static Result getPriorResult(Peer peer, Hash txID) {
+		try {
+			AVector<CVMLong> loc=peer.getTransactionLocation(txID);
+			if (loc==null) return null;
+			Result r=peer.getTransactionResult(loc);
+			if (r==null) return null;
+			return withLocation(r,loc,txID);
+		} catch (Exception e) {
+			log.debug("Unable to look up prior result for transaction {}",txID,e);
+			return null;
+		}
+	}
+
 	/**
 	 * Sets a request observer, which will be called whenever the Peer
 	 * processes a valid client transaction request
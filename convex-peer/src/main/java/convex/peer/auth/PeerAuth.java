@@ -1,5 +1,8 @@
 package convex.peer.auth;
 
+import java.util.function.BiPredicate;
+
+import convex.auth.TokenCache;
 import convex.auth.did.DID;
 import convex.auth.jwt.JWT;
 import convex.core.crypto.AKeyPair;
@@ -23,12 +26,19 @@ import convex.core.lang.RT;
  *       Verified against the peer's known public key. Identity is the {@code sub}
  *       claim ({@code did:web:...}).</li>
  * </ol>
+ *
+ * Verified tokens are cached by token hash until they expire, so a client
+ * presenting the same token on every request pays for signature verification
+ * only once. A revocation check, if set, is applied to every verification,
+ * cached or not.
  */
 public class PeerAuth {
 
 	private final AKeyPair peerKeyPair;
 	private final AccountKey peerKey;
 	private final AString expectedAudience;
+	private final TokenCache<AString> tokenCache = new TokenCache<>();
+	private volatile BiPredicate<AString, AString> revocationCheck;
 
 	/**
 	 * Creates a PeerAuth instance for the given peer.
@@ -68,18 +78,53 @@ public class PeerAuth {
 	public AString verifyBearerToken(AString jwt) {
 		if (jwt == null) return null;
 
-		JWT parsed = JWT.parse(jwt);
-		if (parsed == null) return null;
+		long now = System.currentTimeMillis() / 1000;
+		AString identity = tokenCache.get(jwt, now);
+		if (identity == null) {
+			JWT parsed = JWT.parse(jwt);
+			if (parsed == null) return null;
+
+			// Try self-issued: kid header contains multikey public key
+			identity = verifySelfIssued(parsed);
 
-		// Try self-issued: kid header contains multikey public key
-		AString identity = verifySelfIssued(parsed);
-		if (identity != null) return identity;
+			// Try peer-signed: verify against peer's known key
+			if (identity == null) identity = verifyPeerSigned(parsed);
+			if (identity == null) return null;
 
-		// Try peer-signed: verify against peer's known key
-		identity = verifyPeerSigned(parsed);
-		if (identity != null) return identity;
+			tokenCache.put(jwt, identity, getExpiry(parsed), now);
+		}
 
-		return null;
+		BiPredicate<AString, AString> check = revocationCheck;
+		if (check != null && check.test(jwt, identity)) return null;
+		return identity;
+	}
+
+	/**
+	 * Sets a revocation check, applied to every bearer token after its
+	 * signature and claims are verified. Tokens for which the check returns
+	 * true are rejected.
+	 *
+	 * @param check Predicate on encoded token and identity, or null for none
+	 */
+	public void setRevocationCheck(BiPredicate<AString, AString> check) {
+		this.revocationCheck = check;
+	}
+
+	/**
+	 * Drops all cached tokens for an identity, so they are verified again on
+	 * next use.
+	 *
+	 * @param identity Authenticated identity (DID string)
+	 */
+	public void invalidateIdentity(AString identity) {
+		tokenCache.invalidateIf(identity::equals);
+	}
+
+	/**
+	 * Gets the cache of verified bearer tokens.
+	 */
+	public TokenCache<AString> getTokenCache() {
+		return tokenCache;
 	}
 
 	/**
@@ -132,6 +177,12 @@ public class PeerAuth {
 
 	// ==================== Internal ====================
 
+	private static Long getExpiry(JWT parsed) {
+		ACell exp = parsed.getClaims().get(JWT.EXP);
+		if (exp == null) return null;
+		return Long.parseLong(exp.toString());
+	}
+
 	private AString verifySelfIssued(JWT parsed) {
 		try {
 			String kid = parsed.getKeyID();
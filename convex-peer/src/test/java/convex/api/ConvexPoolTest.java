@@ -0,0 +1,122 @@
+package convex.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import org.junit.jupiter.api.Test;
+
+import convex.core.ErrorCodes;
+import convex.core.Result;
+import convex.core.SourceCodes;
+import convex.core.crypto.AKeyPair;
+import convex.core.cvm.Keywords;
+import convex.core.cvm.transactions.ATransaction;
+import convex.core.data.ACell;
+import convex.core.data.SignedData;
+import convex.core.data.prim.CVMLong;
+import convex.core.lang.Reader;
+import convex.peer.TestNetwork;
+
+/**
+ * Tests for a pooled multi-peer Convex client
+ */
+public class ConvexPoolTest {
+
+	@Test
+	public void testPoolWithDeadPeer() throws Exception {
+		TestNetwork network = TestNetwork.getInstance();
+		AKeyPair kp = AKeyPair.generate();
+		Convex client = network.getClient(kp);
+		client.close();
+
+		// First preference is unreachable, so transactions must fail over
+		InetSocketAddress dead = new InetSocketAddress("localhost", 1);
+		InetSocketAddress live = network.SERVER.getHostAddress();
+		try (ConvexPool pool = ConvexPool.connect(client.getAddress(), kp, dead, live)) {
+			assertTrue(pool.isConnected());
+			assertEquals(live, pool.getHostAddress());
+
+			Result r = pool.querySync(CVMLong.ONE);
+			assertFalse(r.isError(), "Error: " + r);
+			assertEquals(CVMLong.ONE, r.getValue());
+
+			r = pool.transactSync("(+ 2 3)");
+			assertFalse(r.isError(), "Error: " + r);
+			assertEquals(CVMLong.create(5), r.getValue());
+
+			assertNotNull(pool.ping().join());
+
+			ConvexPool.PeerEntry deadEntry = pool.getPeers().get(0);
+			ConvexPool.PeerEntry liveEntry = pool.getPeers().get(1);
+			assertFalse(deadEntry.isHealthy());
+			assertTrue(liveEntry.isHealthy());
+			assertTrue(liveEntry.getRequestCount() >= 2);
+			assertEquals(0, liveEntry.getErrorCount());
+			assertFalse(Double.isNaN(liveEntry.getLatency()));
+		}
+	}
+
+	@Test
+	public void testFailoverAfterExecution() throws Exception {
+		TestNetwork network = TestNetwork.getInstance();
+		AKeyPair kp = AKeyPair.generate();
+		Convex client = network.getClient(kp);
+
+		// A peer executes the transaction, but the client never sees the response
+		ACell code = Reader.read("(+ 3 4)");
+		SignedData<ATransaction> signed = client.prepareTransaction(code);
+		Result first = client.transactSync(signed);
+		assertFalse(first.isError(), "Error: " + first);
+		client.close();
+
+		// Failing over resubmits the same transaction, which must not be reported as a SEQUENCE error
+		InetSocketAddress dead = new InetSocketAddress("localhost", 1);
+		InetSocketAddress live = network.SERVER.getHostAddress();
+		try (ConvexPool pool = ConvexPool.connect(client.getAddress(), kp, dead, live)) {
+			Result r = pool.transactSync(signed);
+			assertFalse(r.isError(), "Error: " + r);
+			assertEquals(CVMLong.create(7), r.getValue());
+			assertEquals(first.getInfo().get(Keywords.LOC), r.getInfo().get(Keywords.LOC));
+			assertEquals(signed.getHash(), r.getInfo().get(Keywords.TX));
+		}
+	}
+
+	@Test
+	public void testHedgedQueries() throws Exception {
+		TestNetwork network = TestNetwork.getInstance();
+		InetSocketAddress live = network.SERVER.getHostAddress();
+		try (ConvexPool pool = ConvexPool.connect(live, live)) {
+			pool.setHedgePercentile(0.9);
+			for (int i = 0; i < 30; i++) {
+				Result r = pool.querySync(CVMLong.create(i));
+				assertFalse(r.isError(), "Error: " + r);
+				assertEquals(CVMLong.create(i), r.getValue());
+			}
+			long samples = 0;
+			for (ConvexPool.PeerEntry pe : pool.getPeers()) {
+				samples += pe.getLatencyHistogram().getCount();
+			}
+			assertTrue(samples >= 30);
+			assertTrue(pool.getHedgeCount() <= samples);
+		}
+	}
+
+	@Test
+	public void testPeerFailureClassification() {
+		assertTrue(ConvexPool.isPeerFailure(Result.CLOSED_CONNECTION));
+		assertTrue(ConvexPool.isPeerFailure(Result.error(ErrorCodes.TIMEOUT, "slow")));
+		assertFalse(ConvexPool.isPeerFailure(Result.error(ErrorCodes.CAST, "bad").withSource(SourceCodes.CODE)));
+		assertFalse(ConvexPool.isPeerFailure(Result.value(CVMLong.ONE)));
+	}
+
+	@Test
+	public void testNoPeers() {
+		assertThrows(IOException.class, () -> ConvexPool.connect(new InetSocketAddress("localhost", 1)));
+	}
+}
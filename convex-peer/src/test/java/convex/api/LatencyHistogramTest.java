@@ -0,0 +1,40 @@
+package convex.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testBuckets() {
+		long[] samples = {0, 1, 3, 4, 7, 8, 9, 100, 1000, 123456789, Long.MAX_VALUE};
+		for (long v : samples) {
+			int i = LatencyHistogram.bucketIndex(v);
+			long ub = LatencyHistogram.bucketUpperBound(i);
+			assertTrue(ub >= v, "Upper bound " + ub + " below " + v);
+			if ((i > 0) && (v < (1L << 60))) assertTrue(LatencyHistogram.bucketUpperBound(i - 1) < v);
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram h = new LatencyHistogram();
+		assertEquals(-1, h.getPercentile(0.5));
+
+		for (int i = 1; i <= 100; i++) {
+			h.record(i);
+		}
+		assertEquals(100, h.getCount());
+
+		long p50 = h.getPercentile(0.5);
+		assertTrue((p50 >= 50) && (p50 <= 63), "p50=" + p50);
+		long p99 = h.getPercentile(0.99);
+		assertTrue((p99 >= 99) && (p99 <= 127), "p99=" + p99);
+		assertTrue(h.getPercentile(1.0) >= 100);
+
+		h.reset();
+		assertEquals(0, h.getCount());
+	}
+}
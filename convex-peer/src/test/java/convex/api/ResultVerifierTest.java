@@ -0,0 +1,75 @@
+package convex.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import convex.core.ErrorCodes;
+import convex.core.Result;
+import convex.core.crypto.AKeyPair;
+import convex.core.cvm.Keywords;
+import convex.core.cvm.Peer;
+import convex.core.cvm.transactions.ATransaction;
+import convex.core.data.ACell;
+import convex.core.data.AVector;
+import convex.core.data.Blob;
+import convex.core.data.Hash;
+import convex.core.data.SignedData;
+import convex.core.data.prim.CVMLong;
+import convex.core.exceptions.ResultException;
+import convex.core.lang.RT;
+import convex.core.lang.Reader;
+import convex.peer.TestNetwork;
+
+/**
+ * Tests for light client verification of transaction Results
+ */
+public class ResultVerifierTest {
+
+	@Test
+	public void testVerifyTransactionResult() throws Exception {
+		TestNetwork network = TestNetwork.getInstance();
+		Convex client = network.getClient();
+		SignedData<ATransaction> signed = client.prepareTransaction((ACell) Reader.read("(* 6 7)"));
+		Result r = client.transactSync(signed);
+		assertFalse(r.isError(), "Error: " + r);
+		client.close();
+
+		// The peer returns the location with the Result, but no proof
+		Peer peer = network.SERVER.getPeer();
+		ResultVerifier verifier = ResultVerifier.create(List.of(peer.getPeerKey()));
+		assertNull(r.getInfo().get(Keywords.PROOF));
+		AVector<CVMLong> loc = RT.ensureVector(r.getInfo().get(Keywords.LOC));
+		assertNotNull(loc);
+		long block = loc.get(0).longValue();
+		long tx = loc.get(1).longValue();
+
+		// The proof is requested separately
+		Blob proof = peer.getResultProof(block, tx);
+		assertTrue(verifier.verifyResult(r, proof));
+		Result proven = verifier.verify(proof, signed.getHash(), block, tx);
+		assertEquals(CVMLong.create(42), proven.getValue());
+		assertFalse(verifier.verifyResult(Result.value(CVMLong.ONE).withExtraInfo(r.getInfo()), proof));
+
+		// The signed commitment is reused until the consensus point moves
+		assertSame(peer.signResultCommitment(), peer.signResultCommitment());
+
+		// Transaction must be at the claimed position in the Order
+		ResultException e = assertThrows(ResultException.class, () -> verifier.verify(proof, Hash.EMPTY_HASH, block, tx));
+		assertEquals(ErrorCodes.TRUST, e.getResult().getErrorCode());
+
+		// Commitment from an untrusted signer is rejected
+		ResultVerifier other = ResultVerifier.create(List.of(AKeyPair.generate().getAccountKey()));
+		e = assertThrows(ResultException.class, () -> other.verify(proof, signed.getHash(), block, tx));
+		assertEquals(ErrorCodes.TRUST, e.getResult().getErrorCode());
+		assertFalse(other.verifyResult(r, proof));
+	}
+}
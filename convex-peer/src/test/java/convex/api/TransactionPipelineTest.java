@@ -0,0 +1,118 @@
+package convex.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import convex.core.ErrorCodes;
+import convex.core.Result;
+import convex.core.crypto.AKeyPair;
+import convex.core.cvm.Address;
+import convex.core.data.prim.CVMLong;
+import convex.core.lang.Reader;
+import convex.peer.TestNetwork;
+
+/**
+ * Tests for multi-account pipelined transaction submission
+ */
+public class TransactionPipelineTest {
+
+	@Test
+	public void testMultiAccountSubmission() throws Exception {
+		TestNetwork network = TestNetwork.getInstance();
+		int ACCOUNTS = 3;
+		int TXS = 20;
+
+		ConvexRemote c1 = Convex.connect(network.SERVER.getHostAddress());
+		ConvexRemote c2 = Convex.connect(network.SERVER.getHostAddress());
+		try (TransactionPipeline pipeline = TransactionPipeline.create(c1, c2)) {
+			List<Address> addrs = new ArrayList<>();
+			for (int i = 0; i < ACCOUNTS; i++) {
+				AKeyPair kp = AKeyPair.generate();
+				Convex client = network.getClient(kp);
+				addrs.add(client.getAddress());
+				pipeline.addAccount(client.getAddress(), kp);
+				client.close();
+			}
+			assertEquals(ACCOUNTS, pipeline.getAccountCount());
+
+			List<CompletableFuture<Result>> results = new ArrayList<>();
+			for (int j = 0; j < TXS; j++) {
+				for (Address a : addrs) {
+					results.add(pipeline.transact(a, Reader.read("*sequence*")));
+				}
+			}
+
+			// Each account sees its own sequence numbers in submission order
+			for (int j = 0; j < TXS; j++) {
+				for (int i = 0; i < ACCOUNTS; i++) {
+					Result r = results.get(j * ACCOUNTS + i).get(10000, TimeUnit.MILLISECONDS);
+					assertFalse(r.isError(), "Error: " + r);
+					assertEquals(CVMLong.create(j), r.getValue()); // *sequence* is prior to this transaction
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testErrorsKeepSequence() throws Exception {
+		TestNetwork network = TestNetwork.getInstance();
+		ConvexRemote c = Convex.connect(network.SERVER.getHostAddress());
+		try (TransactionPipeline pipeline = TransactionPipeline.create(c)) {
+			AKeyPair kp = AKeyPair.generate();
+			Convex client = network.getClient(kp);
+			Address a = client.getAddress();
+			client.close();
+			pipeline.addAccount(a, kp);
+
+			// CVM errors still consume a sequence number, so nothing cascades
+			List<CompletableFuture<Result>> results = new ArrayList<>();
+			for (int j = 0; j < 10; j++) {
+				results.add(pipeline.transact(a, Reader.read((j % 2 == 0) ? "(assert false)" : "*sequence*")));
+			}
+			for (int j = 0; j < 10; j++) {
+				Result r = results.get(j).get(10000, TimeUnit.MILLISECONDS);
+				if (j % 2 == 0) {
+					assertEquals(ErrorCodes.ASSERT, r.getErrorCode());
+				} else {
+					assertEquals(CVMLong.create(j), r.getValue());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSequenceRecovery() throws Exception {
+		TestNetwork network = TestNetwork.getInstance();
+		ConvexRemote c = Convex.connect(network.SERVER.getHostAddress());
+		try (TransactionPipeline pipeline = TransactionPipeline.create(c)) {
+			AKeyPair kp = AKeyPair.generate();
+			Convex client = network.getClient(kp);
+			Address a = client.getAddress();
+			client.close();
+
+			// A wrong known sequence fails once, then is looked up again
+			pipeline.addAccount(a, kp, 100L);
+			Result r = pipeline.transact(a, Reader.read("*sequence*")).get(10000, TimeUnit.MILLISECONDS);
+			assertEquals(ErrorCodes.SEQUENCE, r.getErrorCode());
+			r = pipeline.transact(a, Reader.read("*sequence*")).get(10000, TimeUnit.MILLISECONDS);
+			assertEquals(CVMLong.ZERO, r.getValue());
+		}
+	}
+
+	@Test
+	public void testUnregisteredAccount() throws Exception {
+		TestNetwork network = TestNetwork.getInstance();
+		ConvexRemote c = Convex.connect(network.SERVER.getHostAddress());
+		try (TransactionPipeline pipeline = TransactionPipeline.create(c)) {
+			Result r = pipeline.transact(network.HERO, Reader.read("1")).join();
+			assertEquals(ErrorCodes.NOBODY, r.getErrorCode());
+		}
+	}
+}
@@ -24,12 +24,16 @@ import convex.core.cvm.Keywords;
 import convex.core.data.AVector;
 import convex.core.data.Blob;
 import convex.core.data.Blobs;
+import convex.core.data.Format;
 import convex.core.data.Vectors;
 import convex.core.exceptions.BadFormatException;
 import convex.core.lang.RT;
 import convex.core.message.Message;
 import convex.core.message.MessageTag;
 import convex.core.store.NullStore;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 
 @Execution(ExecutionMode.CONCURRENT)
 @TestInstance(Lifecycle.PER_CLASS)
@@ -108,4 +112,37 @@ public class NettyServerTest {
 
 		}
 	}
+	
+	@Test public void testCodecFragmentedFrames() throws BadFormatException {
+		ArrayBlockingQueue<Message> queue=new ArrayBlockingQueue<>(10);
+		NettyInboundHandler inbound=new NettyInboundHandler(m->{
+			queue.add(m);
+			return null;
+		},null);
+		
+		// Encode a message through the outbound handler
+		Blob blob=Blobs.createRandom(1000).toFlatBlob();
+		Message mq=Message.createQuery(10, blob, Address.create(17));
+		EmbeddedChannel out=new EmbeddedChannel(new NettyOutboundHandler());
+		out.writeOutbound(mq);
+		ByteBuf frame=Unpooled.buffer();
+		ByteBuf part;
+		while ((part=out.readOutbound())!=null) {
+			frame.writeBytes(part);
+			part.release();
+		}
+		assertEquals(Format.getVLQCountLength(mq.getMessageData().count())+mq.getMessageData().count(),frame.readableBytes());
+		
+		// Deliver one byte at a time, so both header and body arrive incomplete
+		EmbeddedChannel in=new EmbeddedChannel(inbound);
+		while (frame.isReadable()) {
+			in.writeInbound(frame.readRetainedSlice(1));
+		}
+		frame.release();
+		
+		assertEquals(1,inbound.getReceivedCount());
+		Message m=queue.poll();
+		assertEquals(mq.getMessageData(),m.getMessageData());
+		assertEquals(mq.getPayload(),m.getPayload(NullStore.INSTANCE));
+	}
 }
@@ -0,0 +1,263 @@
+package convex.node.resp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import convex.core.data.ACell;
+import convex.core.data.AString;
+import convex.core.data.AVector;
+import convex.core.data.Index;
+import convex.core.data.Strings;
+import convex.lattice.kv.LatticeKV;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Tests for the RESP front end to LatticeKV.
+ */
+public class RESPServerTest {
+
+	private static String command(String... args) {
+		StringBuilder sb = new StringBuilder();
+		sb.append('*').append(args.length).append("\r\n");
+		for (String a : args) {
+			sb.append('$').append(a.getBytes(StandardCharsets.UTF_8).length).append("\r\n").append(a).append("\r\n");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Sends raw input in one read, and returns all replies as a string.
+	 */
+	private static String send(EmbeddedChannel ch, String input) {
+		ch.writeInbound(Unpooled.copiedBuffer(input, StandardCharsets.UTF_8));
+		StringBuilder sb = new StringBuilder();
+		ByteBuf out;
+		while ((out = ch.readOutbound()) != null) {
+			sb.append(out.toString(StandardCharsets.UTF_8));
+			out.release();
+		}
+		return sb.toString();
+	}
+
+	private static EmbeddedChannel channel(LatticeKV kv) {
+		return new EmbeddedChannel(new RESPDecoder(), new RESPHandler(kv));
+	}
+
+	@Test
+	public void testStrings() {
+		LatticeKV kv = LatticeKV.create();
+		EmbeddedChannel ch = channel(kv);
+		assertEquals("+PONG\r\n", send(ch, command("PING")));
+		assertEquals("+OK\r\n", send(ch, command("SET", "foo", "bar")));
+		assertEquals("$3\r\nbar\r\n", send(ch, command("GET", "foo")));
+		assertEquals("$-1\r\n", send(ch, command("GET", "missing")));
+		assertEquals(Strings.create("bar"), kv.get("foo"));
+
+		assertEquals("$-1\r\n", send(ch, command("SET", "foo", "baz", "NX")));
+		assertEquals("+OK\r\n", send(ch, command("SET", "foo", "baz", "XX", "EX", "100")));
+		assertEquals(":100\r\n", send(ch, command("TTL", "foo")));
+		assertEquals(":1\r\n", send(ch, command("DEL", "foo", "missing")));
+		assertEquals(":0\r\n", send(ch, command("EXISTS", "foo")));
+
+		// Counters, readable with GET
+		assertEquals(":1\r\n", send(ch, command("INCR", "n")));
+		assertEquals(":11\r\n", send(ch, command("INCRBY", "n", "10")));
+		assertEquals("$2\r\n11\r\n", send(ch, command("GET", "n")));
+		assertEquals("+string\r\n", send(ch, command("TYPE", "n")));
+		assertTrue(send(ch, command("INCR", "notanumber", "x")).startsWith("-ERR wrong number"));
+		assertTrue(send(ch, command("NOSUCH")).startsWith("-ERR unknown command"));
+
+		// Inline commands
+		assertEquals("+OK\r\n", send(ch, "SET greeting \"hello world\"\r\n"));
+		assertEquals("$11\r\nhello world\r\n", send(ch, "GET greeting\r\n"));
+	}
+
+	@Test
+	public void testDataStructures() {
+		LatticeKV kv = LatticeKV.create();
+		EmbeddedChannel ch = channel(kv);
+		assertEquals(":2\r\n", send(ch, command("HSET", "h", "a", "1", "b", "2")));
+		assertEquals("$1\r\n2\r\n", send(ch, command("HGET", "h", "b")));
+		assertEquals("*4\r\n$1\r\na\r\n$1\r\n1\r\n$1\r\nb\r\n$1\r\n2\r\n", send(ch, command("HGETALL", "h")));
+		assertTrue(send(ch, command("GET", "h")).startsWith("-WRONGTYPE"));
+
+		assertEquals(":3\r\n", send(ch, command("RPUSH", "l", "x", "y", "z")));
+		assertEquals("*2\r\n$1\r\nx\r\n$1\r\ny\r\n", send(ch, command("LRANGE", "l", "0", "1")));
+		assertEquals("$1\r\nz\r\n", send(ch, command("RPOP", "l")));
+
+		assertEquals(":2\r\n", send(ch, command("SADD", "s", "m1", "m2", "m1")));
+		assertEquals(":1\r\n", send(ch, command("SISMEMBER", "s", "m2")));
+
+		assertEquals(":2\r\n", send(ch, command("ZADD", "z", "2", "b", "1.5", "a")));
+		assertEquals("*4\r\n$1\r\na\r\n$3\r\n1.5\r\n$1\r\nb\r\n$1\r\n2\r\n", send(ch, command("ZRANGE", "z", "0", "-1", "WITHSCORES")));
+
+		// RESP3 replies after HELLO 3
+		assertTrue(send(ch, command("HELLO", "3")).startsWith("%6\r\n"));
+		assertEquals("%2\r\n$1\r\na\r\n$1\r\n1\r\n$1\r\nb\r\n$1\r\n2\r\n", send(ch, command("HGETALL", "h")));
+		assertEquals(",1.5\r\n", send(ch, command("ZSCORE", "z", "a")));
+		assertEquals("_\r\n", send(ch, command("GET", "missing")));
+	}
+
+	@Test
+	public void testPipelineIsOneUpdate() {
+		LatticeKV kv = LatticeKV.create();
+		EmbeddedChannel ch = channel(kv);
+		Index<AString, AVector<ACell>> before = kv.cursor().get();
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) sb.append(command("SET", "k" + i, "v" + i));
+		sb.append(command("GET", "k42"));
+		String replies = send(ch, sb.toString());
+		assertEquals("+OK\r\n".repeat(100) + "$3\r\nv42\r\n", replies);
+		assertEquals(100, kv.keys().count());
+
+		// A read-only pipeline leaves the store untouched
+		Index<AString, AVector<ACell>> after = kv.cursor().get();
+		assertFalse(before == after);
+		send(ch, command("GET", "k1") + command("EXISTS", "k2"));
+		assertTrue(after == kv.cursor().get());
+	}
+
+	@Test
+	public void testScan() {
+		LatticeKV kv = LatticeKV.create();
+		for (int i = 0; i < 25; i++) kv.set("key" + i, Strings.create("v"));
+		kv.incr("counter");
+		EmbeddedChannel ch = channel(kv);
+
+		// Pages through all keys with integer cursors, ending at 0
+		String cursor = "0";
+		int found = 0;
+		do {
+			String reply = send(ch, command("SCAN", cursor, "COUNT", "10"));
+			String[] lines = reply.split("\r\n");
+			assertEquals("*2", lines[0]);
+			cursor = lines[2];
+			new BigInteger(cursor);
+			found += Integer.parseInt(lines[3].substring(1));
+		} while (!cursor.equals("0"));
+		assertEquals(26, found);
+
+		assertEquals("*2\r\n$1\r\n0\r\n*1\r\n$5\r\nkey17\r\n", send(ch, command("SCAN", "0", "MATCH", "*17", "COUNT", "100", "TYPE", "string")));
+		assertEquals("*2\r\n$1\r\n0\r\n*1\r\n$7\r\ncounter\r\n", send(ch, command("SCAN", "0", "MATCH", "c*", "COUNT", "100")));
+		assertTrue(send(ch, command("SCAN", "0", "COUNT")).startsWith("-ERR syntax"));
+
+		// Deleting keys behind the cursor mid-scan skips nothing ahead of it
+		Set<String> seen = new HashSet<>();
+		cursor = "0";
+		boolean deleted = false;
+		do {
+			String[] lines = send(ch, command("SCAN", cursor, "COUNT", "5")).split("\r\n");
+			cursor = lines[2];
+			for (int i = 5; i < lines.length; i += 2) seen.add(lines[i]);
+			if (!deleted) {
+				for (String k : seen) kv.del(k);
+				deleted = true;
+			}
+		} while (!cursor.equals("0"));
+		assertEquals(26, seen.size());
+		assertEquals("0", RESPCommands.scanCursor(null));
+		assertEquals(Strings.create("key7"), RESPCommands.scanKey(RESPCommands.scanCursor(Strings.create("key7"))));
+		assertTrue(send(ch, command("SCAN", "12")).startsWith("-ERR invalid cursor"));
+		assertTrue(send(ch, command("SCAN", "x")).startsWith("-ERR invalid cursor"));
+		assertTrue(send(ch, command("SCAN", "1".repeat(RESPCommands.MAX_CURSOR_DIGITS + 1))).startsWith("-ERR invalid cursor"));
+
+		// Cursors for long keys stay within the length cap
+		String tail = "p".repeat(500);
+		for (int i = 0; i < 12; i++) kv.set(i + tail, Strings.create("v"));
+		Set<String> longKeys = new HashSet<>();
+		cursor = "0";
+		do {
+			String[] lines = send(ch, command("SCAN", cursor, "COUNT", "5")).split("\r\n");
+			cursor = lines[2];
+			assertTrue(cursor.length() <= RESPCommands.MAX_CURSOR_DIGITS);
+			for (int i = 5; i < lines.length; i += 2) longKeys.add(lines[i]);
+		} while (!cursor.equals("0"));
+		for (int i = 0; i < 12; i++) assertTrue(longKeys.contains(i + tail));
+
+	}
+
+	@Test
+	public void testMultiExec() {
+		LatticeKV kv = LatticeKV.create();
+		EmbeddedChannel ch = channel(kv);
+		assertEquals("+OK\r\n", send(ch, command("MULTI")));
+		assertEquals("+QUEUED\r\n", send(ch, command("SET", "a", "1")));
+		assertEquals("+QUEUED\r\n", send(ch, command("INCR", "c")));
+		// Nothing is applied until EXEC
+		assertFalse(kv.exists("a"));
+		assertEquals("*2\r\n+OK\r\n:1\r\n", send(ch, command("EXEC")));
+		assertTrue(kv.exists("a"));
+
+		assertEquals("+OK\r\n+QUEUED\r\n+OK\r\n", send(ch, command("MULTI") + command("SET", "b", "1") + command("DISCARD")));
+		assertFalse(kv.exists("b"));
+		assertTrue(send(ch, command("EXEC")).startsWith("-ERR EXEC without MULTI"));
+	}
+
+	@Test
+	public void testQuitEndsBatch() {
+		LatticeKV kv = LatticeKV.create();
+		EmbeddedChannel ch = channel(kv);
+		assertEquals("+OK\r\n+OK\r\n", send(ch, command("SET", "a", "1") + command("QUIT") + command("SET", "b", "1")));
+		assertTrue(kv.exists("a"));
+		assertFalse(kv.exists("b"));
+	}
+
+	@Test
+	public void testLargeArgumentCount() {
+		LatticeKV kv = LatticeKV.create();
+		EmbeddedChannel ch = channel(kv);
+		// A large claimed count is decoded as arguments arrive
+		StringBuilder sb = new StringBuilder("*101\r\n$4\r\nSADD\r\n$1\r\ns\r\n");
+		assertEquals("", send(ch, sb.toString()));
+		sb.setLength(0);
+		for (int i = 0; i < 99; i++) sb.append("$").append(Integer.toString(i).length()).append("\r\n").append(i).append("\r\n");
+		assertEquals(":99\r\n", send(ch, sb.toString()));
+		assertEquals(":99\r\n", send(ch, command("SCARD", "s")));
+	}
+
+	@Test
+	public void testProtocolError() {
+		EmbeddedChannel ch = channel(LatticeKV.create());
+		assertTrue(send(ch, "*1\r\n+PING\r\n").startsWith("-ERR Protocol error"));
+		assertFalse(ch.isOpen());
+	}
+
+	@Test
+	public void testServer() throws Exception {
+		LatticeKV kv = LatticeKV.create();
+		try (RESPServer server = RESPServer.create(kv, null)) {
+			server.launch();
+			try (Socket s = new Socket("localhost", server.getPort())) {
+				OutputStream os = s.getOutputStream();
+				BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+				os.write((command("SET", "x", "1") + command("INCR", "y") + command("GET", "x")).getBytes(StandardCharsets.UTF_8));
+				os.flush();
+				assertEquals("+OK", in.readLine());
+				assertEquals(":1", in.readLine());
+				assertEquals("$1", in.readLine());
+				assertEquals("1", in.readLine());
+
+				os.write(command("QUIT").getBytes(StandardCharsets.UTF_8));
+				os.flush();
+				assertEquals("+OK", in.readLine());
+				assertEquals(null, in.readLine());
+			}
+		}
+		assertEquals(Strings.create("1"), kv.get("x"));
+	}
+}
@@ -257,6 +257,44 @@ public class PeerAuthTest {
 		assertEquals(PEER_KP.getAccountKey(), audAuth.getPeerKey());
 	}
 
+	// ===== Token Cache =====
+
+	@Test
+	public void testVerifiedTokenCache() {
+		PeerAuth auth = new PeerAuth(PEER_KP);
+		AKeyPair clientKP = AKeyPair.generate();
+		AString jwt = createSelfIssuedJWT(clientKP, 300);
+		AString expectedDID = DID.forKey(clientKP.getAccountKey());
+
+		assertEquals(expectedDID, auth.verifyBearerToken(jwt));
+		assertEquals(1, auth.getTokenCache().size());
+		assertEquals(expectedDID, auth.verifyBearerToken(jwt));
+		assertEquals(1, auth.getTokenCache().size());
+
+		// Failed verifications are not cached
+		assertNull(auth.verifyBearerToken(createSelfIssuedJWT(clientKP, -60)));
+		assertEquals(1, auth.getTokenCache().size());
+
+		auth.invalidateIdentity(expectedDID);
+		assertEquals(0, auth.getTokenCache().size());
+	}
+
+	@Test
+	public void testRevocationCheck() {
+		PeerAuth auth = new PeerAuth(PEER_KP);
+		AKeyPair clientKP = AKeyPair.generate();
+		AString jwt = createSelfIssuedJWT(clientKP, 300);
+		assertNotNull(auth.verifyBearerToken(jwt));
+
+		// Revocation applies to cached tokens
+		AString revokedDID = DID.forKey(clientKP.getAccountKey());
+		auth.setRevocationCheck((token, identity) -> identity.equals(revokedDID));
+		assertNull(auth.verifyBearerToken(jwt));
+
+		auth.setRevocationCheck(null);
+		assertNotNull(auth.verifyBearerToken(jwt));
+	}
+
 	// ===== Helpers =====
 
 	private static AString createSelfIssuedJWT(AKeyPair kp, long lifetimeSeconds) {
@@ -33,6 +33,7 @@ import convex.restapi.api.ConfirmAPI;
 import convex.restapi.api.DIDAPI;
 import convex.restapi.api.DLAPI;
 import convex.restapi.api.DepAPI;
+import convex.restapi.api.StreamAPI;
 import convex.restapi.api.X402;
 import convex.restapi.auth.AuthMiddleware;
 import convex.restapi.auth.ConfirmationService;
@@ -102,6 +103,7 @@ public class RESTServer implements Closeable {
 	}
 	
 	protected ChainAPI chainAPI;
+	protected StreamAPI streamAPI;
 	protected DepAPI depAPI;
 	protected DLAPI dlAPI;
 	protected WebApp webApp;
@@ -159,6 +161,9 @@ public class RESTServer implements Closeable {
 		chainAPI = new ChainAPI(this);
 		chainAPI.addRoutes(routes);
 
+		streamAPI = new StreamAPI(this);
+		streamAPI.addRoutes(routes);
+
 		depAPI = new DepAPI(this);
 		depAPI.addRoutes(routes);
 		
@@ -376,6 +381,8 @@ public class RESTServer implements Closeable {
 	}
 
 	public synchronized void close() {
+		// End open event streams first, so that stopping does not wait for them
+		if (streamAPI!=null) streamAPI.close();
 		if (javalin!=null) javalin.stop();
 		javalin=null;
 		
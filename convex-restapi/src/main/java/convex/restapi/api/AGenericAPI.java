@@ -156,14 +156,15 @@ public abstract class AGenericAPI {
 	 * Set content to a CVM Value according to requested content type. Updates status according to result error status
 	 * @param ctx Javalin context
 	 * @param content Return content
+	 * @return true if the content was sent, false if an error response was sent instead
 	 */
 	private static final long MAX_CONTENT_SIZE = 1_000_000; // 1MB limit
 
-	public void setContent(Context ctx, ACell content) {
+	public boolean setContent(Context ctx, ACell content) {
 		long size = Cells.storageSize(content);
 		if (size > MAX_CONTENT_SIZE) {
 			setResult(ctx, Result.error(ErrorCodes.LIMIT, "Response too large: " + size + " bytes").withSource(SourceCodes.PEER));
-			return;
+			return false;
 		}
 
 		String type = calcResponseContentType(ctx);
@@ -183,7 +184,7 @@ public abstract class AGenericAPI {
 			AString rs=RT.print(content);
 			if (rs==null) {
 				setResult(ctx,Result.error(ErrorCodes.LIMIT, Strings.PRINT_EXCEEDED).withSource(SourceCodes.PEER));
-				return;
+				return false;
 			}
 			ctx.result(rs.toString());
 		} else if (type.equals(ContentTypes.CVX_RAW)) {
@@ -199,14 +200,16 @@ public abstract class AGenericAPI {
 			AString rs=RT.print(content);
 			if (rs==null) {
 				setResult(ctx,Result.error(ErrorCodes.LIMIT, Strings.PRINT_EXCEEDED).withSource(SourceCodes.PEER));
-				return;
+				return false;
 			}
 			ctx.result(rs.toString());
 		} else {
 			ctx.contentType(ContentTypes.TEXT);
 			ctx.status(415); // unsupported media type for "Accept" header
 			ctx.result("Unsupported content type: "+type);
+			return false;
 		}
+		return true;
 	}
 	
 	public int statusForResult(Result r) {
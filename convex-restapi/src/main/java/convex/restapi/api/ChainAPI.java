@@ -60,6 +60,7 @@ import convex.core.message.MessageType;
 import convex.core.util.JSON;
 import convex.peer.Config;
 import convex.restapi.RESTServer;
+import convex.restapi.handler.ContentCaching;
 import convex.restapi.handler.ConcurrentLimit;
 import convex.restapi.model.CreateAccountRequest;
 import convex.restapi.model.CreateAccountResponse;
@@ -154,6 +155,14 @@ public class ChainAPI extends ABaseAPI {
 			throw new BadRequestResponse("Invalid hash: " + hashParam);
 		}
 
+		// Data addressed by hash never changes, so a client holding it need not fetch it again.
+		// Each encoding is a different representation, so it gets its own ETag.
+		String etag = ContentCaching.etag(h, calcResponseContentType(ctx));
+		ctx.header("Vary", "Accept");
+		if (ContentCaching.checkNotModified(ctx, etag, ContentCaching.IMMUTABLE)) return;
+
+		// Errors must not be cached, so only mark the response immutable once it is encoded
+		ctx.header("Cache-Control", ContentCaching.NO_STORE);
 		ACell d;
 		try {
 			d = convex.acquire(h).get(1000, TimeUnit.MILLISECONDS);
@@ -162,7 +171,9 @@ public class ChainAPI extends ABaseAPI {
 		} catch (Exception e) {
 			throw new BadRequestResponse("Error: " + e.getMessage());
 		}
-		setContent(ctx,d);
+		if (setContent(ctx,d)) {
+			ContentCaching.setCacheHeaders(ctx, etag, ContentCaching.IMMUTABLE);
+		}
 	}
 	
 	@OpenApi(path = ROUTE + "data/encode", 
@@ -284,7 +295,13 @@ public class ChainAPI extends ABaseAPI {
 							description = "Transaction hash as a hex string. Leading '0x' is optional.", 
 							required = true, 
 							type = String.class, 
-							example = "0x1234567812345678123456781234567812345678123456781234567812345678") },
+							example = "0x1234567812345678123456781234567812345678123456781234567812345678"),
+					@OpenApiParam(
+							name = "proof", 
+							description = "Set to true to include an inclusion proof of the result, for light client verification", 
+							required = false, 
+							type = Boolean.class, 
+							example = "true") },
 			responses = {
 				@OpenApiResponse(
 						status = "200", 
@@ -327,6 +344,12 @@ public class ChainAPI extends ABaseAPI {
 			Keywords.RESULT, txResult
 		);
 		
+		if ("true".equals(ctx.queryParam("proof"))) {
+			// Proof of the result against this peer's signed result commitment and Order
+			Blob proof=peer.getResultProof(pos.get(0).longValue(), pos.get(1).longValue());
+			result=result.assoc(Keywords.PROOF, proof);
+		}
+		
 		setContent(ctx,result);
 	}
 
@@ -422,7 +445,7 @@ public class ChainAPI extends ABaseAPI {
 	 * @param signedBlock The signed block data
 	 * @return HashMap containing block information
 	 */
-	private HashMap<String, Object> getBlockData(SignedData<Block> signedBlock) {
+	static HashMap<String, Object> getBlockData(SignedData<Block> signedBlock) {
 		Block block = signedBlock.getValue();
 		
 		HashMap<String, Object> blockData = new HashMap<>();
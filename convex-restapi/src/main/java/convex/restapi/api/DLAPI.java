@@ -1,12 +1,15 @@
 package convex.restapi.api;
 
 import java.io.IOException;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.util.Iterator;
 
+import convex.core.data.ABlob;
 import convex.core.data.ACell;
 import convex.core.data.AString;
 import convex.core.data.AVector;
+import convex.core.data.Blobs;
 import convex.core.data.Index;
 import convex.core.lang.RT;
 import convex.lattice.fs.DLFS;
@@ -15,6 +18,7 @@ import convex.lattice.fs.DLFSProvider;
 import convex.lattice.fs.DLFileSystem;
 import convex.lattice.fs.DLPath;
 import convex.restapi.RESTServer;
+import convex.restapi.handler.ContentCaching;
 import io.javalin.config.RoutesConfig;
 import io.javalin.http.Context;
 import io.javalin.http.InternalServerErrorResponse;
@@ -75,12 +79,31 @@ public class DLAPI extends ABaseAPI {
 					ctx.result(sb.toString());
 				}
 			} else {
-				ctx.header("Content-type", "image");
-				ctx.result(Files.newInputStream(p));
+				sendFile(ctx, fs.getNode(p), pathParam);
 			}
 			
 		} catch (IOException e) {
 			throw new InternalServerErrorResponse("Can't read file");
 		}
 	}
+
+	/**
+	 * Sends the data of a file node. The ETag is the hash of the file data,
+	 * so a client can revalidate without the data being read, and byte
+	 * ranges are served by slicing the data blob.
+	 */
+	private void sendFile(Context ctx, AVector<ACell> node, String pathParam) {
+		if (node == null) {
+			throw new NotFoundResponse("Can't find file: "+pathParam);
+		}
+		// The path may be rewritten with new data, so clients must revalidate
+		String etag = ContentCaching.etag(node.getRef(DLFSNode.POS_DATA).getHash());
+		if (ContentCaching.checkNotModified(ctx, etag, ContentCaching.REVALIDATE)) return;
+
+		ABlob data = DLFSNode.getData(node);
+		if (data == null) data = Blobs.empty();
+		String contentType = URLConnection.guessContentTypeFromName(pathParam);
+		ContentCaching.setCacheHeaders(ctx, etag, ContentCaching.REVALIDATE);
+		ContentCaching.sendBlob(ctx, data, etag, (contentType == null) ? "application/octet-stream" : contentType);
+	}
 }
@@ -0,0 +1,364 @@
+package convex.restapi.api;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import convex.core.Result;
+import convex.core.cpos.Block;
+import convex.core.cpos.BlockResult;
+import convex.core.cvm.Address;
+import convex.core.cvm.Log;
+import convex.core.cvm.Peer;
+import convex.core.cvm.transactions.ATransaction;
+import convex.core.data.ACell;
+import convex.core.data.AVector;
+import convex.core.data.SignedData;
+import convex.core.lang.RT;
+import convex.core.util.JSON;
+import convex.restapi.RESTServer;
+import io.javalin.config.RoutesConfig;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.Context;
+import io.javalin.openapi.HttpMethod;
+import io.javalin.openapi.OpenApi;
+import io.javalin.openapi.OpenApiContent;
+import io.javalin.openapi.OpenApiParam;
+import io.javalin.openapi.OpenApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Server-sent event stream of executed blocks, transaction results and log
+ * events, so that clients need not poll {@code blocks} and {@code tx}.
+ *
+ * <p>Each subscriber holds only a cursor into the peer's block history. The
+ * CVM executor signals new state, and each subscriber then reads the new
+ * blocks from the latest immutable Peer value on its own virtual thread. A
+ * slow client therefore holds up only its own stream, and no events are
+ * queued for it beyond the servlet output buffer.
+ *
+ * <p>Event IDs record the stream position: {@code n} after the block event
+ * for block n, and {@code n:i} after the events for transaction i of block
+ * n. A client reconnecting with {@code Last-Event-ID} resumes just after
+ * that position.
+ */
+public class StreamAPI extends ABaseAPI {
+
+	private static final Logger log = LoggerFactory.getLogger(StreamAPI.class);
+
+	private static final String ROUTE = "/api/v1/";
+
+	/** Maximum number of concurrent stream subscribers */
+	public static final int MAX_SUBSCRIBERS = 1000;
+
+	/** Maximum number of blocks sent to a subscriber before checking for closure */
+	static final int MAX_BATCH_BLOCKS = 100;
+
+	/** Interval between keep-alive comments on an idle stream */
+	static final long KEEPALIVE_MS = 15000;
+
+	private final AtomicInteger subscribers = new AtomicInteger();
+
+	// Signalled by the CVM executor when the peer state advances
+	private final ReentrantLock updateLock = new ReentrantLock();
+	private final Condition updated = updateLock.newCondition();
+	private volatile Peer latest;
+	private volatile boolean closed = false;
+
+	private final Consumer<Peer> updateListener = this::onUpdate;
+
+	public StreamAPI(RESTServer restServer) {
+		super(restServer);
+		this.latest = server.getPeer();
+		server.getCVMExecutor().addUpdateListener(updateListener);
+	}
+
+	@Override
+	public void addRoutes(RoutesConfig routes) {
+		routes.get(ROUTE + "stream", this::stream);
+	}
+
+	/**
+	 * Stops listening for peer updates and ends all open streams.
+	 */
+	public void close() {
+		closed = true;
+		server.getCVMExecutor().removeUpdateListener(updateListener);
+		signal();
+	}
+
+	private void onUpdate(Peer peer) {
+		latest = peer;
+		signal();
+	}
+
+	private void signal() {
+		updateLock.lock();
+		try {
+			updated.signalAll();
+		} finally {
+			updateLock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until the peer state advances past a position, or a timeout.
+	 * @return true if the state has advanced
+	 */
+	private boolean awaitUpdate(long position, long timeoutMillis) throws InterruptedException {
+		long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		updateLock.lock();
+		try {
+			while (!closed && executedLimit(latest) <= position) {
+				if (remaining <= 0) return false;
+				remaining = updated.awaitNanos(remaining);
+			}
+			return true;
+		} finally {
+			updateLock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the number of blocks that are both final and executed, and so
+	 * have results available.
+	 */
+	private static long executedLimit(Peer peer) {
+		return Math.min(peer.getStatePosition(), peer.getFinalityPoint());
+	}
+
+	@OpenApi(path = ROUTE + "stream",
+			methods = HttpMethod.GET,
+			tags = { "Blocks"},
+			summary = "Stream executed blocks, transaction results and log events as server-sent events",
+			operationId = "stream",
+			queryParams = {
+					@OpenApiParam(
+							name = "events",
+							description = "Comma separated event types to send: block, result, log. Default is block,result",
+							required = false,
+							type = String.class,
+							example = "block,result"),
+					@OpenApiParam(
+							name = "address",
+							description = "Comma separated addresses. Results are sent only for transactions from these addresses, and log events only from these addresses",
+							required = false,
+							type = String.class,
+							example = "#12"),
+					@OpenApiParam(
+							name = "from",
+							description = "Block number to start from. Default is the next block. Ignored if Last-Event-ID is given",
+							required = false,
+							type = Long.class,
+							example = "0") },
+			responses = {
+				@OpenApiResponse(
+						status = "200",
+						description = "Event stream",
+						content = {
+							@OpenApiContent(
+									type = "text/event-stream") }),
+				@OpenApiResponse(
+						status = "400",
+						description = "Bad request, invalid filter or position"),
+				@OpenApiResponse(
+						status = "429",
+						description = "Too many open streams")
+			})
+	public void stream(Context ctx) {
+		Filter filter = Filter.parse(ctx.queryParam("events"), ctx.queryParam("address"));
+		Position pos = Position.parse(ctx.header("Last-Event-ID"), ctx.queryParam("from"), executedLimit(latest));
+
+		if (subscribers.incrementAndGet() > MAX_SUBSCRIBERS) {
+			subscribers.decrementAndGet();
+			ctx.status(429);
+			return;
+		}
+		try {
+			HttpServletResponse res = ctx.res();
+			res.setContentType("text/event-stream");
+			res.setCharacterEncoding("UTF-8");
+			res.setHeader("Cache-Control", "no-cache");
+			res.setHeader("X-Accel-Buffering", "no");
+			PrintWriter writer = res.getWriter();
+			res.flushBuffer();
+
+			// Blocks until the client disconnects or the server closes
+			while (!closed) {
+				Peer peer = latest;
+				long limit = executedLimit(peer);
+				if (pos.block < limit) {
+					sendBlocks(writer, peer, pos, filter, Math.min(limit, pos.block + MAX_BATCH_BLOCKS));
+				} else if (!awaitUpdate(pos.block, KEEPALIVE_MS)) {
+					writer.write(": keepalive\n\n");
+					writer.flush();
+				}
+				if (writer.checkError()) break;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			log.debug("Event stream setup failed", e);
+		} finally {
+			subscribers.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Sends events for blocks from the current position up to an end block,
+	 * flushing after each block.
+	 */
+	private void sendBlocks(PrintWriter writer, Peer peer, Position pos, Filter filter, long end) {
+		AVector<SignedData<Block>> blocks = peer.getPeerOrder().getBlocks();
+		// Results before the history position are no longer held
+		if (pos.block < peer.getHistoryPosition()) pos.skipTo(peer.getHistoryPosition());
+
+		while (pos.block < end) {
+			long i = pos.block;
+			SignedData<Block> signedBlock = blocks.get(i);
+			if (!pos.blockSent) {
+				if (filter.blocks) {
+					HashMap<String, Object> blockData = ChainAPI.getBlockData(signedBlock);
+					blockData.put("index", i);
+					sendEvent(writer, "block", Long.toString(i), blockData);
+				}
+				pos.blockSent = true;
+			}
+
+			BlockResult br = peer.getBlockResult(i);
+			AVector<SignedData<ATransaction>> txs = signedBlock.getValue().getTransactions();
+			long n = txs.count();
+			for (long t = pos.tx; t < n; t++) {
+				sendTransaction(writer, i, t, txs.get(t), (br == null) ? null : br.getResult(t), filter);
+			}
+			pos.skipTo(i + 1);
+			writer.flush();
+			if (writer.checkError()) return;
+		}
+	}
+
+	private void sendTransaction(PrintWriter writer, long block, long tx, SignedData<ATransaction> signedTx, Result r, Filter filter) {
+		if (r == null) return;
+		String id = block + ":" + tx;
+		Address origin = signedTx.getValue().getOrigin();
+		if (filter.results && filter.matches(origin)) {
+			HashMap<String, Object> data = new HashMap<>();
+			data.put("block", block);
+			data.put("tx", tx);
+			data.put("hash", signedTx.getHash().toString());
+			data.put("address", origin.longValue());
+			data.put("result", r.toJSON());
+			sendEvent(writer, "result", id, data);
+		}
+		AVector<AVector<ACell>> entries = r.getLog();
+		if (!filter.logs || entries == null) return;
+		for (AVector<ACell> entry : entries) {
+			Address source = RT.ensureAddress(entry.get(Log.P_ADDRESS));
+			if (!filter.matches(source)) continue;
+			HashMap<String, Object> data = new HashMap<>();
+			data.put("block", block);
+			data.put("tx", tx);
+			data.put("address", (source == null) ? null : source.longValue());
+			data.put("values", JSON.json(entry.get(Log.P_VALUES)));
+			sendEvent(writer, "log", id, data);
+		}
+	}
+
+	private static void sendEvent(PrintWriter writer, String type, String id, Object data) {
+		writer.write("id: " + id + "\n");
+		writer.write("event: " + type + "\n");
+		writer.write("data: " + JSON.toString(data) + "\n\n");
+	}
+
+	/**
+	 * Server-side event filter of a subscriber.
+	 */
+	static final class Filter {
+		boolean blocks;
+		boolean results;
+		boolean logs;
+		/** Addresses to include, or null for all */
+		Set<Address> addresses;
+
+		boolean matches(Address a) {
+			return (addresses == null) || ((a != null) && addresses.contains(a));
+		}
+
+		static Filter parse(String events, String addressList) {
+			Filter f = new Filter();
+			for (String e : ((events == null) ? "block,result" : events).split(",")) {
+				switch (e.trim()) {
+					case "block" -> f.blocks = true;
+					case "result" -> f.results = true;
+					case "log" -> f.logs = true;
+					default -> throw new BadRequestResponse("Unknown event type: " + e);
+				}
+			}
+			if (addressList != null) {
+				f.addresses = new HashSet<>();
+				for (String s : addressList.split(",")) {
+					Address a = Address.parse(s.trim());
+					if (a == null) throw new BadRequestResponse("Invalid address: " + s);
+					f.addresses.add(a);
+				}
+			}
+			return f;
+		}
+	}
+
+	/**
+	 * Position of a subscriber in the stream: the next block, whether its
+	 * block event has been sent, and the next transaction within it.
+	 */
+	static final class Position {
+		long block;
+		boolean blockSent;
+		long tx;
+
+		Position(long block, boolean blockSent, long tx) {
+			this.block = block;
+			this.blockSent = blockSent;
+			this.tx = tx;
+		}
+
+		void skipTo(long nextBlock) {
+			block = nextBlock;
+			blockSent = false;
+			tx = 0;
+		}
+
+		/**
+		 * Gets the starting position from a Last-Event-ID header, a block
+		 * number, or else the next block to be executed.
+		 */
+		static Position parse(String lastEventId, String from, long next) {
+			try {
+				if (lastEventId != null && !lastEventId.isBlank()) {
+					String[] parts = lastEventId.trim().split(":");
+					long block = Long.parseLong(parts[0]);
+					long tx = (parts.length > 1) ? Long.parseLong(parts[1]) + 1 : 0;
+					if (block < 0 || tx < 0) throw new NumberFormatException();
+					return new Position(block, true, tx);
+				}
+				if (from != null) {
+					long block = Long.parseLong(from);
+					if (block < 0) throw new BadRequestResponse("Block number must be non-negative");
+					return new Position(block, false, 0);
+				}
+			} catch (NumberFormatException e) {
+				throw new BadRequestResponse("Invalid stream position");
+			}
+			return new Position(next, false, 0);
+		}
+	}
+}
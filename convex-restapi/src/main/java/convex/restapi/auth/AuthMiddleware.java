@@ -12,7 +12,8 @@ import io.javalin.http.Handler;
  *
  * On successful verification, sets the authenticated identity as a context
  * attribute ({@link #ATTR_IDENTITY}). Downstream handlers retrieve it via
- * {@link #getIdentity(Context)}.
+ * {@link #getIdentity(Context)}. Verified tokens are cached by {@link PeerAuth},
+ * so repeat requests with the same token skip signature verification.
  *
  * Two usage modes:
  * <ul>
@@ -0,0 +1,179 @@
+package convex.restapi.handler;
+
+import convex.core.data.ABlob;
+import convex.core.data.Hash;
+import io.javalin.http.Context;
+
+/**
+ * HTTP caching support for content addressed by hash.
+ *
+ * <p>Content identified by a hash never changes, so its hash serves as a
+ * strong ETag. A conditional request whose {@code If-None-Match} matches can
+ * be answered with 304 before the content is looked up at all.
+ *
+ * <p>Blobs are served with byte range support: a {@code Range} request is
+ * answered by slicing the blob, which for a BlobTree shares the underlying
+ * chunks rather than reading the whole blob.
+ */
+public class ContentCaching {
+
+	/** Cache-Control value for content that can never change */
+	public static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+	/** Cache-Control value for content that may change, but can be revalidated by ETag */
+	public static final String REVALIDATE = "no-cache";
+
+	/** Cache-Control value for responses that must not be cached, such as errors */
+	public static final String NO_STORE = "no-store";
+
+	/**
+	 * Gets the strong ETag for content with the given hash.
+	 * @param hash Hash of content
+	 * @return Quoted ETag value
+	 */
+	public static String etag(Hash hash) {
+		return "\"" + hash.toHexString() + "\"";
+	}
+
+	/**
+	 * Gets the strong ETag for one representation of content with the given
+	 * hash. Use this when the same hash may be sent in different encodings
+	 * depending on the Accept header, so each encoding gets its own tag.
+	 * @param hash Hash of content
+	 * @param contentType Content type of the representation
+	 * @return Quoted ETag value
+	 */
+	public static String etag(Hash hash, String contentType) {
+		return "\"" + hash.toHexString() + ":" + contentType.replace("\"", "") + "\"";
+	}
+
+	/**
+	 * Answers with 304 Not Modified if the request's If-None-Match header
+	 * matches the ETag. Call this before fetching the content.
+	 *
+	 * @param ctx Javalin context
+	 * @param etag Quoted ETag of the content
+	 * @param cacheControl Cache-Control header value
+	 * @return true if the request has been answered, and the content need not be sent
+	 */
+	public static boolean checkNotModified(Context ctx, String etag, String cacheControl) {
+		if (!matches(ctx.header("If-None-Match"), etag)) return false;
+		setCacheHeaders(ctx, etag, cacheControl);
+		ctx.status(304);
+		return true;
+	}
+
+	/**
+	 * Sets caching headers for a successful response.
+	 *
+	 * @param ctx Javalin context
+	 * @param etag Quoted ETag of the content
+	 * @param cacheControl Cache-Control header value
+	 */
+	public static void setCacheHeaders(Context ctx, String etag, String cacheControl) {
+		ctx.header("ETag", etag);
+		ctx.header("Cache-Control", cacheControl);
+	}
+
+	/**
+	 * Checks whether an If-None-Match header matches an ETag, using weak
+	 * comparison as required for If-None-Match.
+	 */
+	public static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) return false;
+		for (String tag : ifNoneMatch.split(",")) {
+			tag = tag.trim();
+			if (tag.equals("*")) return true;
+			if (tag.startsWith("W/")) tag = tag.substring(2);
+			if (tag.equals(etag)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Sends a blob as the response, honouring a single byte range in the
+	 * request's Range header. Multiple ranges are not supported, so such
+	 * requests receive the whole blob, as HTTP allows.
+	 *
+	 * @param ctx Javalin context
+	 * @param data Blob to send
+	 * @param etag Quoted ETag of the blob, used to check If-Range
+	 * @param contentType Content type of the blob
+	 */
+	public static void sendBlob(Context ctx, ABlob data, String etag, String contentType) {
+		long length = data.count();
+		ctx.header("Accept-Ranges", "bytes");
+		ctx.contentType(contentType);
+
+		long[] range = null;
+		String ifRange = ctx.header("If-Range");
+		if (ifRange == null || ifRange.trim().equals(etag)) {
+			range = parseRange(ctx.header("Range"), length);
+		}
+		if (range == null) {
+			ctx.header("Content-Length", Long.toString(length));
+			ctx.result(data.getInputStream());
+			return;
+		}
+		if (range.length == 0) {
+			ctx.status(416);
+			ctx.header("Content-Range", "bytes */" + length);
+			return;
+		}
+
+		long start = range[0];
+		long end = range[1];
+		// Compressing a partial response would change the byte ranges
+		ctx.disableCompression();
+		ctx.status(206);
+		ctx.header("Content-Range", "bytes " + start + "-" + end + "/" + length);
+		ctx.header("Content-Length", Long.toString(end - start + 1));
+		ctx.result(data.slice(start, end + 1).getInputStream());
+	}
+
+	/**
+	 * Parses a Range header for a single byte range.
+	 *
+	 * @param header Range header value, may be null
+	 * @param length Length of the content
+	 * @return Inclusive start and end positions, an empty array if the range
+	 *         cannot be satisfied, or null if the whole content should be sent
+	 */
+	public static long[] parseRange(String header, long length) {
+		if (header == null) return null;
+		header = header.trim();
+		if (!header.startsWith("bytes=")) return null;
+		String spec = header.substring(6).trim();
+		if (spec.contains(",")) return null;
+		int dash = spec.indexOf('-');
+		if (dash < 0) return null;
+		String first = spec.substring(0, dash).trim();
+		String last = spec.substring(dash + 1).trim();
+		try {
+			long start;
+			long end;
+			if (first.isEmpty()) {
+				// Suffix range: the last n bytes
+				if (last.isEmpty()) return null;
+				long n = Long.parseLong(last);
+				if (n <= 0) return new long[0];
+				start = Math.max(0, length - n);
+				end = length - 1;
+			} else {
+				start = Long.parseLong(first);
+				if (last.isEmpty()) {
+					end = length - 1;
+				} else {
+					end = Long.parseLong(last);
+					// Invalid range, which is ignored
+					if (end < start) return null;
+					end = Math.min(end, length - 1);
+				}
+			}
+			if (start < 0 || start >= length) return new long[0];
+			return new long[] {start, end};
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package convex.restapi.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import convex.restapi.handler.ContentCaching;
+
+/**
+ * Tests for ETag matching and Range header parsing.
+ */
+public class ContentCachingTest {
+
+	@Test
+	public void testMatches() {
+		String etag = "\"abcd\"";
+		assertTrue(ContentCaching.matches("\"abcd\"", etag));
+		assertTrue(ContentCaching.matches("\"1234\", W/\"abcd\"", etag));
+		assertTrue(ContentCaching.matches("*", etag));
+		assertFalse(ContentCaching.matches("\"1234\"", etag));
+		assertFalse(ContentCaching.matches(null, etag));
+	}
+
+	@Test
+	public void testParseRange() {
+		assertArrayEquals(new long[] {0, 99}, ContentCaching.parseRange("bytes=0-99", 1000));
+		assertArrayEquals(new long[] {500, 999}, ContentCaching.parseRange("bytes=500-", 1000));
+		assertArrayEquals(new long[] {900, 999}, ContentCaching.parseRange("bytes=-100", 1000));
+		assertArrayEquals(new long[] {0, 999}, ContentCaching.parseRange("bytes=-5000", 1000));
+		// End beyond the content is clamped
+		assertArrayEquals(new long[] {990, 999}, ContentCaching.parseRange("bytes=990-2000", 1000));
+
+		// Unsatisfiable ranges
+		assertArrayEquals(new long[0], ContentCaching.parseRange("bytes=1000-", 1000));
+		assertArrayEquals(new long[0], ContentCaching.parseRange("bytes=0-", 0));
+
+		// Ignored: the whole content is sent
+		assertNull(ContentCaching.parseRange(null, 1000));
+		assertNull(ContentCaching.parseRange("bytes=0-1,5-6", 1000));
+		assertNull(ContentCaching.parseRange("bytes=10-5", 1000));
+		assertNull(ContentCaching.parseRange("items=0-5", 1000));
+		assertNull(ContentCaching.parseRange("bytes=x-5", 1000));
+	}
+}
@@ -8,10 +8,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 
 import org.junit.jupiter.api.Test;
 
+import convex.api.ContentTypes;
 import convex.core.crypto.AKeyPair;
 import convex.core.crypto.ASignature;
 import convex.core.cvm.Address;
@@ -21,6 +23,7 @@ import convex.core.data.ACell;
 import convex.core.data.AMap;
 import convex.core.data.AString;
 import convex.core.data.Blob;
+import convex.core.data.Hash;
 import convex.core.data.Maps;
 import convex.core.data.Strings;
 import convex.core.data.prim.AInteger;
@@ -31,11 +34,38 @@ import convex.core.lang.RT;
 import convex.core.lang.Reader;
 import convex.core.util.JSON;
 import convex.java.ConvexHTTP;
+import convex.restapi.handler.ContentCaching;
 
 public class RESTAPITest extends ARESTTest {
 	
-	@Test public void testDataAPI() {
-		
+	@Test public void testDataAPI() throws IOException, InterruptedException {
+		Hash h = server.getServer().getPeer().getConsensusState().getHash();
+		String url = API_PATH + "/data/" + h.toHexString();
+		HttpResponse<String> res = get(url);
+		assertEquals(200, res.statusCode());
+		String etag = res.headers().firstValue("ETag").orElse(null);
+		assertEquals(ContentCaching.etag(h, ContentTypes.JSON), etag);
+		assertTrue(res.headers().firstValue("Cache-Control").orElse("").contains("immutable"));
+
+		// Revalidation is answered without content
+		HttpRequest req = HttpRequest.newBuilder().uri(URI.create(url)).header("If-None-Match", etag).GET().build();
+		HttpResponse<String> cached = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
+		assertEquals(304, cached.statusCode());
+		assertEquals("", cached.body());
+		assertEquals(etag, cached.headers().firstValue("ETag").orElse(null));
+
+		// A different encoding is a different representation, so the tag does not match
+		req = HttpRequest.newBuilder().uri(URI.create(url)).header("If-None-Match", etag).header("Accept", ContentTypes.CVX_RAW).GET().build();
+		HttpResponse<byte[]> raw = httpClient.send(req, HttpResponse.BodyHandlers.ofByteArray());
+		assertEquals(200, raw.statusCode());
+		assertEquals(ContentCaching.etag(h, ContentTypes.CVX_RAW), raw.headers().firstValue("ETag").orElse(null));
+
+		// Missing data is an error, which must not be cached
+		Hash missing = Hash.fromHex("1234567812345678123456781234567812345678123456781234567812345678");
+		HttpResponse<String> err = get(API_PATH + "/data/" + missing.toHexString());
+		assertEquals(400, err.statusCode());
+		assertNull(err.headers().firstValue("ETag").orElse(null));
+		assertEquals(ContentCaching.NO_STORE, err.headers().firstValue("Cache-Control").orElse(null));
 	}
 	
 //  Not obvious how to make this work given self signed certificates?
@@ -161,11 +191,19 @@ public class RESTAPITest extends ARESTTest {
 			assertNotNull(info, "Response should contain info field");
 			ACell txCell = info.getIn("tx");
 			assertNotNull(txCell, "Info should contain tx field with transaction hash");
+			assertNull(info.getIn("proof"), "Info should not contain a proof unless requested");
 			String txHash = txCell.toString();
 
 			// Test GET tx endpoint with the extracted hash
 			HttpResponse<String> txResponse = get(API_PATH + "/tx?hash=" + txHash);
 			assertEquals(200, txResponse.statusCode());
+			AMap<AString, ACell> txMap = JSON.parse(txResponse.body());
+			assertNull(txMap.getIn("proof"), "Transaction lookup should not contain a proof unless requested");
+
+			txResponse = get(API_PATH + "/tx?proof=true&hash=" + txHash);
+			assertEquals(200, txResponse.statusCode());
+			txMap = JSON.parse(txResponse.body());
+			assertNotNull(txMap.getIn("proof"), "Transaction lookup should contain the requested proof");
 		}
 	}
 
@@ -0,0 +1,104 @@
+package convex.restapi.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import convex.core.Result;
+import convex.core.cvm.Address;
+import convex.java.ConvexHTTP;
+
+/**
+ * Tests for the server-sent event stream of blocks and results.
+ */
+public class StreamAPITest extends ARESTTest {
+
+	private static HttpResponse<Stream<String>> open(String query, String lastEventId) throws Exception {
+		HttpRequest.Builder b = HttpRequest.newBuilder()
+				.uri(URI.create(API_PATH + "/stream" + query))
+				.header("Accept", "text/event-stream")
+				.GET();
+		if (lastEventId != null) b.header("Last-Event-ID", lastEventId);
+		return httpClient.send(b.build(), HttpResponse.BodyHandlers.ofLines());
+	}
+
+	/**
+	 * Reads stream lines on a separate thread, so that tests can wait for
+	 * events with a timeout.
+	 */
+	private static BlockingQueue<String> lines(HttpResponse<Stream<String>> resp) {
+		BlockingQueue<String> queue = new ArrayBlockingQueue<>(10000);
+		Thread.ofVirtual().start(() -> {
+			Iterator<String> it = resp.body().iterator();
+			while (it.hasNext()) queue.offer(it.next());
+		});
+		return queue;
+	}
+
+	/**
+	 * Waits for an event of the given type whose data contains a string.
+	 * @return Event ID, or null on timeout
+	 */
+	private static String await(BlockingQueue<String> lines, String type, String contains) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		String id = null;
+		String event = null;
+		while (System.currentTimeMillis() < deadline) {
+			String line = lines.poll(100, TimeUnit.MILLISECONDS);
+			if (line == null) continue;
+			if (line.startsWith("id: ")) id = line.substring(4);
+			if (line.startsWith("event: ")) event = line.substring(7);
+			if (line.startsWith("data: ") && type.equals(event) && line.contains(contains)) return id;
+		}
+		return null;
+	}
+
+	@Test
+	public void testStreamResults() throws Exception {
+		ConvexHTTP convex = newClient();
+		Address addr = convex.getAddress();
+		HttpResponse<Stream<String>> resp = open("?events=block,result,log&address=" + addr.longValue(), null);
+		assertEquals(200, resp.statusCode());
+		assertTrue(resp.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+		BlockingQueue<String> lines = lines(resp);
+
+		Result r = convex.transactSync("(do (log :stream-test) 12345678)");
+		assertFalse(r.isError(), r.toString());
+
+		String resultId = await(lines, "result", "12345678");
+		assertNotNull(resultId);
+		assertTrue(resultId.contains(":"));
+		long block = Long.parseLong(resultId.substring(0, resultId.indexOf(':')));
+		assertNotNull(await(lines, "log", "stream-test"));
+		resp.body().close();
+
+		// Resuming from the block event replays its results
+		HttpResponse<Stream<String>> resumed = open("?address=" + addr.longValue(), Long.toString(block));
+		assertEquals(resultId, await(lines(resumed), "result", "12345678"));
+		resumed.body().close();
+
+		// Starting from a block number replays the block itself
+		HttpResponse<Stream<String>> replay = open("?events=block&from=" + block, null);
+		assertEquals(Long.toString(block), await(lines(replay), "block", "\"index\""));
+		replay.body().close();
+	}
+
+	@Test
+	public void testBadRequests() throws Exception {
+		assertEquals(400, get(API_PATH + "/stream?events=foo").statusCode());
+		assertEquals(400, get(API_PATH + "/stream?address=notanaddress").statusCode());
+		assertEquals(400, get(API_PATH + "/stream?from=-1").statusCode());
+	}
+}